@@ -0,0 +1,228 @@
+package com.policethief.benchmark;
+
+import com.policethief.dto.PlayerPosition;
+import com.policethief.service.DeadReckoning;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 추측 항법 브로드캐스트 시뮬레이션
+ * 플레이어 256명이 시나리오대로 움직이며 1초마다 GPS 위치(정규분포 오차 noise m)를 보내고, 서버는 200ms 틱마다 보낼 위치를 고릅니다.
+ * <ul>
+ *     <li>기존: 새 위치가 들어온 플레이어는 모두 보내고, 받는 쪽은 마지막 위치에 그대로 그림</li>
+ *     <li>추측 항법: {@link DeadReckoning} 이 고른 플레이어만 보내고, 받는 쪽은 속도/방향으로 밀어 그림</li>
+ * </ul>
+ * 측정값은 틱 한 번(전원 이동 + 위치 반영 + 전송 판단)의 시간이며, 끝나면 보낸 위치 수와 감소율,
+ * 틱마다 받는 쪽이 그린 위치와 실제 위치의 거리(평균/p95/최대)를 두 방식 모두 출력합니다.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="com.policethief.benchmark.DeadReckoningBenchmark"
+ * </pre>
+ * 시나리오: straight (2~6m/s 직진, 60초마다 방향 전환), turns (5~15초마다 최대 ±90° 회전),
+ * mixed (10~40초 구간마다 정지/걷기/달리기 중 하나로 바뀜)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms512m", "-Xmx512m"})
+public class DeadReckoningBenchmark {
+
+    private static final int PLAYERS = 256;
+    private static final long TICK_MILLIS = 200;
+    private static final long FIX_MILLIS = 1000;
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final double ORIGIN_LAT = 37.5;
+    private static final double ORIGIN_LON = 127.0;
+    /** 오차 분포용 0.1m 단위 버킷 (마지막 버킷은 100m 이상) */
+    private static final int ERROR_BUCKETS = 1001;
+
+    @Param({"straight", "turns", "mixed"})
+    public String scenario;
+
+    /** GPS 오차 표준편차 (m) */
+    @Param({"0", "3"})
+    public double noise;
+
+    @Param({"5"})
+    public double deviationMeters;
+
+    /** 새 GPS 위치 반영 비율 (알파-베타 필터) */
+    @Param({"0.5"})
+    public double gain;
+
+    private SplittableRandom random;
+    private Player[] players;
+    private long now;
+
+    private long baselineSent;
+    private long reckonedSent;
+    private final ErrorStats baselineError = new ErrorStats();
+    private final ErrorStats reckonedError = new ErrorStats();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(11);
+        DeadReckoning deadReckoning = new DeadReckoning(deviationMeters, 5000, gain);
+        players = new Player[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            Player player = new Player(deadReckoning.newTrack((long) i));
+            player.north = random.nextDouble(-500, 500);
+            player.east = random.nextDouble(-500, 500);
+            player.heading = random.nextDouble(2 * Math.PI);
+            // 위치를 보내는 시점을 플레이어마다 흩어 둡니다.
+            player.nextFixAt = random.nextLong(FIX_MILLIS);
+            nextSegment(player);
+            players[i] = player;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n[%s, noise=%.0fm, deviation=%.0fm, gain=%.2f] 시뮬레이션 %.0f분 x %d명%n",
+                scenario, noise, deviationMeters, gain, now / 60_000.0, PLAYERS);
+        System.out.printf("  보낸 위치: 기존 %d건, 추측 항법 %d건 (%.1f%% 감소)%n", baselineSent, reckonedSent,
+                baselineSent == 0 ? 0 : 100.0 * (baselineSent - reckonedSent) / baselineSent);
+        System.out.printf("  위치 오차: 기존 %s / 추측 항법 %s%n", baselineError, reckonedError);
+    }
+
+    /**
+     * 200ms 틱 한 번
+     */
+    @Benchmark
+    public long tick() {
+        now += TICK_MILLIS;
+        double seconds = TICK_MILLIS / 1000.0;
+        long sent = 0;
+        for (Player player : players) {
+            player.move(seconds);
+            if (now >= player.segmentEndsAt) {
+                nextSegment(player);
+            }
+            double lat = ORIGIN_LAT + player.north / METERS_PER_DEGREE;
+            double lon = ORIGIN_LON + player.east / metersPerDegreeLon();
+
+            if (now >= player.nextFixAt) {
+                player.nextFixAt += FIX_MILLIS;
+                double fixLat = lat + random.nextGaussian() * noise / METERS_PER_DEGREE;
+                double fixLon = lon + random.nextGaussian() * noise / metersPerDegreeLon();
+                player.track.observe(fixLat, fixLon, noise > 0 ? noise : null, now);
+                // 기존 방식은 새 위치를 다음 틱에 그대로 보냅니다.
+                player.baselineLat = fixLat;
+                player.baselineLon = fixLon;
+                baselineSent++;
+            }
+            PlayerPosition position = player.track.poll(now);
+            if (position != null) {
+                player.received = position;
+                player.receivedAt = now;
+                reckonedSent++;
+                sent++;
+            }
+
+            if (player.received != null) {
+                baselineError.add(DeadReckoning.distanceMeters(lat, lon, player.baselineLat, player.baselineLon));
+                double[] drawn = DeadReckoning.extrapolate(player.received, player.receivedAt, now);
+                reckonedError.add(DeadReckoning.distanceMeters(lat, lon, drawn[0], drawn[1]));
+            }
+        }
+        return sent;
+    }
+
+    private void nextSegment(Player player) {
+        switch (scenario) {
+            case "straight" -> {
+                if (player.speed == 0) {
+                    player.speed = random.nextDouble(2, 6);
+                }
+                player.heading = random.nextDouble(2 * Math.PI);
+                player.segmentEndsAt = now + 60_000;
+            }
+            case "turns" -> {
+                if (player.speed == 0) {
+                    player.speed = random.nextDouble(1.5, 6);
+                }
+                player.heading += random.nextDouble(-Math.PI / 2, Math.PI / 2);
+                player.segmentEndsAt = now + random.nextLong(5_000, 15_000);
+            }
+            default -> {
+                int mode = random.nextInt(3);
+                player.speed = mode == 0 ? 0 : mode == 1 ? 1.4 : 5.0;
+                player.heading = random.nextDouble(2 * Math.PI);
+                player.segmentEndsAt = now + random.nextLong(10_000, 40_000);
+            }
+        }
+    }
+
+    private static double metersPerDegreeLon() {
+        return METERS_PER_DEGREE * Math.cos(Math.toRadians(ORIGIN_LAT));
+    }
+
+    private static final class Player {
+        private final DeadReckoning.Track track;
+        private double north;
+        private double east;
+        private double speed;
+        private double heading;
+        private long segmentEndsAt;
+        private long nextFixAt;
+        private double baselineLat;
+        private double baselineLon;
+        private PlayerPosition received;
+        private long receivedAt;
+
+        private Player(DeadReckoning.Track track) {
+            this.track = track;
+        }
+
+        private void move(double seconds) {
+            north += speed * Math.cos(heading) * seconds;
+            east += speed * Math.sin(heading) * seconds;
+        }
+    }
+
+    private static final class ErrorStats {
+        private final long[] buckets = new long[ERROR_BUCKETS];
+        private long count;
+        private double sum;
+        private double max;
+
+        private void add(double meters) {
+            count++;
+            sum += meters;
+            max = Math.max(max, meters);
+            buckets[(int) Math.min(ERROR_BUCKETS - 1, meters * 10)]++;
+        }
+
+        private double percentile(double p) {
+            long target = (long) Math.ceil(count * p);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= target) {
+                    return i / 10.0;
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("평균 %.2fm, p95 %.1fm, 최대 %.1fm", count == 0 ? 0 : sum / count, percentile(0.95), max);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.policethief.benchmark;
+
+import com.policethief.cluster.RoomEventBus;
+import com.policethief.dto.GameEventMessage;
+import com.policethief.dto.GameEventType;
+import com.policethief.dto.JoinPayload;
+import com.policethief.dto.PlayerRole;
+import com.policethief.dto.TagPayload;
+import com.policethief.service.GameJournalService;
+import com.policethief.service.GameRoomService;
+import com.policethief.service.GameRoomSessionService;
+import com.policethief.service.GeofenceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 소켓 핸들러가 이벤트 하나를 저널에 남기는 데 드는 시간
+ * fsync 정책별로 JOIN/TAG 이벤트 기록 비용을 측정합니다. 이벤트 객체는 미리 만들어 두고 저널 쪽 비용만 봅니다.
+ * -prof gc 로 돌리면 gc.alloc.rate.norm 으로 이벤트당 할당량을 확인할 수 있습니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms512m", "-Xmx512m"})
+public class EventJournalBenchmark {
+
+    @Param({"none", "interval", "always"})
+    public String fsyncPolicy;
+
+    private Path directory;
+    private GameJournalService journal;
+    private GameEventMessage join;
+    private GameEventMessage tag;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Paths.get("target", "jmh", "journal-" + fsyncPolicy);
+        deleteDirectory(directory);
+        RoomEventBus bus = (RoomEventBus) Proxy.newProxyInstance(RoomEventBus.class.getClassLoader(),
+                new Class<?>[]{RoomEventBus.class}, (proxy, method, args) -> "getLocalNodeId".equals(method.getName()) ? "bench" : null);
+        // 스냅샷을 1초마다 남기고 보존 기간을 두지 않아 지난 세그먼트가 계속 지워지도록 합니다.
+        GameRoomService roomService = new GameRoomService(bus, new GeofenceService(bus, true, 10000, 20, 500),
+                1.0, 5.0, 30.0, 20);
+        journal = new GameJournalService(bus, roomService, new GameRoomSessionService(256),
+                true, directory.toString(), 64, GameJournalService.FsyncPolicy.valueOf(fsyncPolicy.toUpperCase()), 100, 1, 0);
+        journal.open();
+        journal.recover();
+        journal.checkpoint();
+
+        join = GameEventMessage.of(GameEventType.JOIN, 42L, 1001L, new JoinPayload("도둑1", 3, PlayerRole.THIEF, 2));
+        tag = GameEventMessage.of(GameEventType.TAG, 42L, 1002L, new TagPayload(1001L, "qr-7f3a", true, 4.2, 10.0));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.out.printf("%n[%s] 기록 %d건, 남은 세그먼트 %d개%n",
+                fsyncPolicy, journal.getAppendedCount(), journal.getSegmentCount());
+        journal.close();
+        deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public void appendJoin() {
+        journal.append(join);
+    }
+
+    @Benchmark
+    public void appendTag() {
+        journal.append(tag);
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.policethief.benchmark;
+
+import com.policethief.RunningManGameApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 실행 방식(platform / virtual)별 로그인 처리량과 STOMP 수신 지연을 같은 부하에서 비교합니다.
+ * <ul>
+ *     <li>login: 동시 사용자 400명이 로그인 API를 호출하고, 카카오 API는 kakaoDelayMillis 뒤에 응답합니다.
+ *     (기본 Tomcat 풀은 200 스레드이므로 platform 모드의 상한은 200 / 지연시간 입니다.)</li>
+ *     <li>inboundRoundTrip: 100개 세션이 각 10Hz로 위치를 보내는 동안, 별도 세션의 START 요청이
+ *     방 토픽으로 되돌아올 때까지의 시간</li>
+ * </ul>
+ * virtual 모드는 JDK 21 이상에서 실행해야 합니다.
+ * <pre>
+ * JAVA_HOME=/path/to/jdk21 mvn -Pjmh test-compile exec:exec -Djmh.args="ExecutionModeBenchmark"
+ * </pre>
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class ExecutionModeBenchmark {
+
+    private static final int LOAD_SESSIONS = 100;
+    private static final long LOAD_INTERVAL_MILLIS = 100;
+    private static final long PROBE_ROOM_ID = 1_000_000L;
+
+    static ConfigurableApplicationContext startApplication(String mode, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--game.execution.mode=" + mode,
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.com.policethief=WARN"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(RunningManGameApplication.class).run(args.toArray(String[]::new));
+    }
+
+    static int portOf(ConfigurableApplicationContext context) {
+        return Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+    }
+
+    @State(Scope.Benchmark)
+    public static class LoginState {
+
+        @Param({"platform", "virtual"})
+        public String mode;
+
+        @Param({"200"})
+        public long kakaoDelayMillis;
+
+        private KakaoStubServer kakao;
+        private ConfigurableApplicationContext application;
+        private HttpClient client;
+        private URI loginUri;
+        private final AtomicLong tokenSequence = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            kakao = new KakaoStubServer(kakaoDelayMillis);
+            application = startApplication(mode, "--kakao.api.base-url=" + kakao.getBaseUrl());
+            client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            loginUri = URI.create("http://127.0.0.1:" + portOf(application) + "/api/auth/kakao/login");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            application.close();
+            kakao.close();
+        }
+
+        HttpRequest nextRequest() {
+            // 토큰마다 새로 조회하도록 매번 다른 토큰을 보냅니다.
+            String body = "{\"accessToken\":\"bench-" + tokenSequence.incrementAndGet() + "\"}";
+            return HttpRequest.newBuilder(loginUri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class InboundState {
+
+        @Param({"platform", "virtual"})
+        public String mode;
+
+        private ConfigurableApplicationContext application;
+        private final List<StompSession> loadSessions = new ArrayList<>();
+        private ScheduledExecutorService loadDriver;
+        private StompSession probe;
+        private volatile CompletableFuture<Object> pending;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            application = startApplication(mode);
+            String url = "ws://127.0.0.1:" + portOf(application) + "/api/ws/websocket";
+            WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+            stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+
+            for (int i = 0; i < LOAD_SESSIONS; i++) {
+                StompSession session = stompClient.connectAsync(url, new WebSocketHttpHeaders(), new StompHeaders(),
+                        new StompSessionHandlerAdapter() { }).get(5, TimeUnit.SECONDS);
+                session.send("/app/game/" + (i / 2 + 1) + "/join", Map.of("playerId", i, "nickname", "p" + i));
+                loadSessions.add(session);
+            }
+
+            probe = stompClient.connectAsync(url, new WebSocketHttpHeaders(), new StompHeaders(),
+                    new StompSessionHandlerAdapter() { }).get(5, TimeUnit.SECONDS);
+            probe.subscribe("/topic/game/" + PROBE_ROOM_ID, new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return Map.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    CompletableFuture<Object> future = pending;
+                    if (future != null) {
+                        future.complete(payload);
+                    }
+                }
+            });
+
+            // 구독이 등록되기 전에 보낸 요청은 되돌아오지 않으므로 한 번 왕복에 성공할 때까지 기다립니다.
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    roundTrip(1, TimeUnit.SECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    if (attempt == 10) {
+                        throw e;
+                    }
+                }
+            }
+
+            loadDriver = Executors.newScheduledThreadPool(4);
+            for (int i = 0; i < LOAD_SESSIONS; i++) {
+                StompSession session = loadSessions.get(i);
+                long roomId = i / 2 + 1;
+                int playerId = i;
+                loadDriver.scheduleAtFixedRate(() -> session.send("/app/game/" + roomId + "/location", Map.of(
+                                "playerId", playerId,
+                                "latitude", 37.5 + Math.random() * 1e-3,
+                                "longitude", 127.0 + Math.random() * 1e-3,
+                                "accuracy", 5.0)),
+                        i % LOAD_INTERVAL_MILLIS, LOAD_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        Object roundTrip(long timeout, TimeUnit unit) throws Exception {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            pending = future;
+            probe.send("/app/game/" + PROBE_ROOM_ID + "/start", Map.of("hostId", 1));
+            return future.get(timeout, unit);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            loadDriver.shutdownNow();
+            loadSessions.forEach(StompSession::disconnect);
+            probe.disconnect();
+            application.close();
+        }
+    }
+
+    @Benchmark
+    @Threads(400)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int login(LoginState state) throws Exception {
+        return state.client.send(state.nextRequest(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object inboundRoundTrip(InboundState state) throws Exception {
+        return state.roundTrip(5, TimeUnit.SECONDS);
+    }
+}
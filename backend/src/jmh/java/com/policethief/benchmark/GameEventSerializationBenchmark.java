@@ -0,0 +1,118 @@
+package com.policethief.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.policethief.dto.GameEventMessage;
+import com.policethief.dto.GameEventType;
+import com.policethief.dto.JoinPayload;
+import com.policethief.dto.PlayerPosition;
+import com.policethief.dto.PlayerRole;
+import com.policethief.dto.PositionsPayload;
+import com.policethief.dto.TagPayload;
+import com.policethief.service.CompactFrameCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 게임 이벤트 한 건을 만들고 보낼 바이트로 바꾸는 비용
+ * JOIN/TAG/POSITIONS 이벤트의 GameEventMessage 생성과, 브로커가 쓰는 것과 같은 설정의 MappingJackson2MessageConverter
+ * 직렬화를 따로 측정합니다. POSITIONS 는 생성+직렬화를 합친 비용과 같은 프레임의 COMPACT 인코딩 비용도 함께 봅니다.
+ * -prof gc 로 돌리면 gc.alloc.rate.norm 으로 이벤트당 할당량을 확인할 수 있습니다.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="com.policethief.benchmark.GameEventSerializationBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms512m", "-Xmx512m"})
+public class GameEventSerializationBenchmark {
+
+    private static final Long ROOM_ID = 1024L;
+
+    /** POSITIONS 프레임에 담기는 플레이어 수 */
+    @Param({"8"})
+    public int players;
+
+    private MappingJackson2MessageConverter converter;
+    private List<PlayerPosition> positions;
+    private GameEventMessage join;
+    private GameEventMessage tag;
+    private GameEventMessage positionsEvent;
+
+    @Setup
+    public void setUp() {
+        // 브로커 설정(AbstractMessageBrokerConfiguration)이 만드는 것과 같은 ObjectMapper
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        positions = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            positions.add(new PlayerPosition(1000L + i, 37.5665 + i * 1e-4, 126.978 - i * 1e-4, 5.0,
+                    i % 2 == 0 ? 3.2 : 0.0, i % 2 == 0 ? 135.0 : null));
+        }
+        join = createJoin();
+        tag = createTag();
+        positionsEvent = createPositions();
+    }
+
+    @Benchmark
+    public GameEventMessage createJoin() {
+        return GameEventMessage.of(GameEventType.JOIN, ROOM_ID, 1000L, new JoinPayload("player1000", 8, PlayerRole.THIEF, 7));
+    }
+
+    @Benchmark
+    public GameEventMessage createTag() {
+        return GameEventMessage.of(GameEventType.TAG, ROOM_ID, 1001L, new TagPayload(1000L, "QR-1000", true, 3.4, 15.0));
+    }
+
+    @Benchmark
+    public GameEventMessage createPositions() {
+        return GameEventMessage.of(GameEventType.POSITIONS, ROOM_ID, null,
+                new PositionsPayload(new ArrayList<>(positions), List.of()));
+    }
+
+    @Benchmark
+    public Message<?> serializeJoin() {
+        return converter.toMessage(join, null);
+    }
+
+    @Benchmark
+    public Message<?> serializeTag() {
+        return converter.toMessage(tag, null);
+    }
+
+    @Benchmark
+    public Message<?> serializePositions() {
+        return converter.toMessage(positionsEvent, null);
+    }
+
+    @Benchmark
+    public Message<?> createAndSerializePositions() {
+        return converter.toMessage(createPositions(), null);
+    }
+
+    @Benchmark
+    public byte[] serializePositionsCompact() {
+        PositionsPayload payload = (PositionsPayload) positionsEvent.getPayload();
+        return CompactFrameCodec.encodePositions(positionsEvent.getTimestamp(), payload.getPositions(),
+                payload.getHidden(), playerId -> (int) (playerId - 1000));
+    }
+}
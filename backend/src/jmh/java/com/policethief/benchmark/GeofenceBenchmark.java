@@ -0,0 +1,104 @@
+package com.policethief.benchmark;
+
+import com.policethief.domain.GeoPoint;
+import com.policethief.service.PlayArea;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 놀이 구역 안팎 판정 비용을 측정합니다.
+ * 반지름이 들쭉날쭉한 오목 다각형(반경 약 500m)에 외곽 사각형 안의 무작위 점을 넣어,
+ * 격자로 미리 계산한 {@link PlayArea#contains} 와 모든 변을 훑는 짝홀 판정을 비교합니다.
+ * 준비 단계에서 두 방식의 결과가 모든 점에서 같은지 확인합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeofenceBenchmark {
+
+    private static final double CENTER_LAT = 37.5665;
+    private static final double CENTER_LON = 126.9780;
+    private static final double RADIUS_DEGREES = 0.0045;
+    private static final int QUERIES = 4096;
+
+    @Param({"16", "1024", "16384"})
+    public int vertices;
+
+    private PlayArea area;
+    private double[] vertexLatitudes;
+    private double[] vertexLongitudes;
+    private double[] queryLatitudes;
+    private double[] queryLongitudes;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<GeoPoint> polygon = new ArrayList<>(vertices);
+        vertexLatitudes = new double[vertices];
+        vertexLongitudes = new double[vertices];
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            double radius = RADIUS_DEGREES * random.nextDouble(0.6, 1.0);
+            vertexLatitudes[i] = CENTER_LAT + radius * Math.sin(angle);
+            vertexLongitudes[i] = CENTER_LON + radius * Math.cos(angle);
+            polygon.add(new GeoPoint(vertexLatitudes[i], vertexLongitudes[i]));
+        }
+        area = new PlayArea(polygon);
+
+        queryLatitudes = new double[QUERIES];
+        queryLongitudes = new double[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryLatitudes[i] = CENTER_LAT + random.nextDouble(-RADIUS_DEGREES, RADIUS_DEGREES);
+            queryLongitudes[i] = CENTER_LON + random.nextDouble(-RADIUS_DEGREES, RADIUS_DEGREES);
+            if (area.contains(queryLatitudes[i], queryLongitudes[i]) != bruteForce(queryLatitudes[i], queryLongitudes[i])) {
+                throw new IllegalStateException("격자 판정이 전체 변 판정과 다릅니다: "
+                        + queryLatitudes[i] + ", " + queryLongitudes[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean gridContains() {
+        int i = cursor++ & (QUERIES - 1);
+        return area.contains(queryLatitudes[i], queryLongitudes[i]);
+    }
+
+    @Benchmark
+    public boolean bruteForceContains() {
+        int i = cursor++ & (QUERIES - 1);
+        return bruteForce(queryLatitudes[i], queryLongitudes[i]);
+    }
+
+    private boolean bruteForce(double latitude, double longitude) {
+        boolean inside = false;
+        for (int i = 0, j = vertices - 1; i < vertices; j = i++) {
+            double yi = vertexLatitudes[i];
+            double yj = vertexLatitudes[j];
+            if ((yi > latitude) != (yj > latitude)) {
+                double x = vertexLongitudes[i] + (latitude - yi) * (vertexLongitudes[j] - vertexLongitudes[i]) / (yj - yi);
+                if (longitude < x) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+}
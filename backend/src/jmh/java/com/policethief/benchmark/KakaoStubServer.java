@@ -0,0 +1,62 @@
+package com.policethief.benchmark;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 벤치마크용 카카오 API 대역
+ * 실제 카카오 서버처럼 일정 시간 뒤에 응답하는 사용자 정보/토큰 API를 로컬 포트에 띄웁니다.
+ * 지연은 논블로킹으로 걸기 때문에 대역 서버 자체는 병목이 되지 않습니다.
+ */
+public class KakaoStubServer implements AutoCloseable {
+
+    private static final String USER_INFO = "{\"id\":1,\"kakao_account\":{\"profile\":{\"nickname\":\"bench\"},"
+            + "\"email\":\"bench@example.com\"}}";
+    private static final String TOKEN = "{\"access_token\":\"bench-token\",\"token_type\":\"bearer\"}";
+
+    private final DisposableServer server;
+    private final AtomicLong requests = new AtomicLong();
+    private volatile long delayMillis;
+
+    public KakaoStubServer(long delayMillis) {
+        this.delayMillis = delayMillis;
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .get("/v2/user/me", (request, response) -> respond(request, response, USER_INFO))
+                        .post("/oauth/token", (request, response) -> respond(request, response, TOKEN)))
+                .bindNow();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    private Mono<Void> respond(HttpServerRequest request, HttpServerResponse response, String body) {
+        requests.incrementAndGet();
+        return request.receive().then()
+                .then(Mono.delay(Duration.ofMillis(delayMillis)))
+                .then(response.header(HttpHeaderNames.CONTENT_TYPE, "application/json").sendString(Mono.just(body)).then());
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
@@ -0,0 +1,141 @@
+package com.policethief.benchmark;
+
+import com.policethief.service.LocationTrailWriter;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 위치 이력 기록 처리량 (H2 메모리 DB)
+ * 위치 갱신마다 INSERT 한 건을 자동 커밋하는 방식과, 큐에 넣고 배치로 기록하는 방식을 비교합니다.
+ * 지연 기록은 BLOCK 정책으로 돌려 큐가 차면 호출 스레드가 기다리게 하므로, 측정값은 큐 크기가 아니라
+ * 기록 스레드가 실제로 버티는 처리량입니다. 끝나면 버린 건수와 테이블 행 수를 출력합니다.
+ * 호출 스레드(게임 명령 처리)가 한 건에 쓰는 시간은 *Latency 벤치마크로 따로 봅니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LocationTrailBenchmark {
+
+    private static final String INSERT_SQL = "INSERT INTO location_trail "
+            + "(room_id, player_id, latitude, longitude, accuracy, recorded_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Param({"500"})
+    public int batchSize;
+
+    /** mem: 메모리 DB (커밋 비용이 거의 없음), file: 파일 DB (커밋마다 파일에 기록) */
+    @Param({"mem", "file"})
+    public String storage;
+
+    private HikariDataSource dataSource;
+    private LocationTrailWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("file".equals(storage)
+                ? "jdbc:h2:file:./target/jmh/trail-db;DB_CLOSE_DELAY=-1"
+                : "jdbc:h2:mem:trail;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(8);
+        dataSource = new HikariDataSource(config);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS location_trail");
+            for (String sql : readSchema().split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+        writer = new LocationTrailWriter(dataSource, true, 65536, batchSize, 1000,
+                LocationTrailWriter.OverflowPolicy.BLOCK, 1000, 30000);
+        writer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        writer.stop();
+        long rows;
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM location_trail")) {
+            resultSet.next();
+            rows = resultSet.getLong(1);
+        }
+        System.out.printf("%n지연 기록: 기록 %d건 / 배치 %d회 / 버림 %d건 / 실패 %d건, 테이블 %d행%n",
+                writer.getWrittenCount(), writer.getBatchCount(), writer.getDroppedCount(), writer.getFailedCount(), rows);
+        dataSource.close();
+    }
+
+    /**
+     * 비교용: 위치 갱신마다 INSERT 한 건 (자동 커밋)
+     */
+    @Benchmark
+    public int rowPerInsert() throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            statement.setLong(1, random.nextLong(100_000));
+            statement.setLong(2, random.nextLong(1_000_000));
+            statement.setDouble(3, 37.5 + random.nextDouble(0.1));
+            statement.setDouble(4, 127.0 + random.nextDouble(0.1));
+            statement.setDouble(5, 5.0);
+            statement.setLong(6, System.currentTimeMillis());
+            return statement.executeUpdate();
+        }
+    }
+
+    @Benchmark
+    public boolean writeBehind() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return writer.record(random.nextLong(100_000), random.nextLong(1_000_000),
+                37.5 + random.nextDouble(0.1), 127.0 + random.nextDouble(0.1), 5.0, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int rowPerInsertLatency() throws SQLException {
+        return rowPerInsert();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean writeBehindLatency() {
+        return writeBehind();
+    }
+
+    private static String readSchema() throws IOException {
+        try (InputStream in = LocationTrailBenchmark.class.getResourceAsStream("/schema-h2.sql")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).replaceAll("(?m)^--.*$", "");
+        }
+    }
+}
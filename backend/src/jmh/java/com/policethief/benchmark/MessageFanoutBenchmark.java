@@ -0,0 +1,161 @@
+package com.policethief.benchmark;
+
+import com.policethief.cluster.LocalEventDelivery;
+import com.policethief.cluster.RoomFrame;
+import com.policethief.dto.GameEventMessage;
+import com.policethief.dto.GameEventType;
+import com.policethief.dto.PlayerPosition;
+import com.policethief.dto.PositionsPayload;
+import com.policethief.service.LocationRateService;
+import com.policethief.service.MessagingMetrics;
+import com.policethief.service.SlowConsumerGuard;
+import com.policethief.service.WireFormatNegotiator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.user.DefaultUserDestinationResolver;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.simp.user.UserDestinationMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 방 이벤트 한 건을 구독자 N명에게 내보내는 비용
+ * 앱과 같은 구성(SimpMessagingTemplate → brokerChannel → 사용자 목적지 변환 → SimpleBroker → clientOutboundChannel)을
+ * 실행기 없는 채널로 묶어, 호출 스레드에서 마지막 세션 전송 직전까지를 한 번에 측정합니다. 소켓 쓰기는 포함하지 않습니다.
+ * <ul>
+ *     <li>topicPublish: {@link LocalEventDelivery#publish} - 방 토픽으로 한 번 보내고 브로커가 구독자마다 복사</li>
+ *     <li>sessionDeliver: {@link LocalEventDelivery#deliver} - 역할별로 걸러진 위치 프레임처럼 세션마다 /user 목적지로 보냄</li>
+ * </ul>
+ * 끝나면 호출 한 번에 clientOutboundChannel 에 도착한 메시지 수를 출력해 구독자 수와 맞는지 확인합니다.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="com.policethief.benchmark.MessageFanoutBenchmark -p subscribers=8,64"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms512m", "-Xmx512m"})
+public class MessageFanoutBenchmark {
+
+    private static final Long ROOM_ID = 1024L;
+    private static final int PLAYERS_IN_FRAME = 8;
+
+    @Param({"8", "64", "512"})
+    public int subscribers;
+
+    private SimpleBrokerMessageHandler broker;
+    private UserDestinationMessageHandler userDestinations;
+    private LocalEventDelivery delivery;
+    private GameEventMessage event;
+    private List<String> sessionIds;
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder calls = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        clientOutbound.subscribe(message -> delivered.increment());
+
+        broker = new SimpleBrokerMessageHandler(clientInbound, clientOutbound, brokerChannel, List.of("/topic", "/queue"));
+        // 구독자 세션을 사용자 이름 대신 세션 ID로 찾는 목적지(/user/{sessionId}/...)만 쓰므로 등록부는 비워 둡니다.
+        SimpUserRegistry emptyRegistry = (SimpUserRegistry) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{SimpUserRegistry.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getUsers", "findSubscriptions" -> Collections.emptySet();
+                    case "getUserCount" -> 0;
+                    default -> null;
+                });
+        userDestinations = new UserDestinationMessageHandler(clientInbound, brokerChannel,
+                new DefaultUserDestinationResolver(emptyRegistry));
+        broker.start();
+        userDestinations.start();
+
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(Jackson2ObjectMapperBuilder.json().build());
+        SimpMessagingTemplate template = new SimpMessagingTemplate(brokerChannel);
+        template.setMessageConverter(converter);
+        delivery = new LocalEventDelivery(template, new WireFormatNegotiator(),
+                new SlowConsumerGuard(true, 4, 10_000),
+                new LocationRateService(true, 100, 5, 2.0, 50, 200, 5000, 0.5, 5, 7, 3000),
+                new MessagingMetrics(true, new SimpleMeterRegistry()));
+
+        sessionIds = new ArrayList<>(subscribers);
+        for (int i = 0; i < subscribers; i++) {
+            String sessionId = "session-" + i;
+            sessionIds.add(sessionId);
+            // SimpleBroker 는 CONNECT 를 받은 세션에만 보냅니다.
+            clientInbound.send(control(SimpMessageType.CONNECT, sessionId, null));
+            clientInbound.send(control(SimpMessageType.SUBSCRIBE, sessionId, "/topic/game/" + ROOM_ID));
+            clientInbound.send(control(SimpMessageType.SUBSCRIBE, sessionId,
+                    "/user" + LocalEventDelivery.USER_DESTINATION_PREFIX + ROOM_ID));
+        }
+        delivered.reset();
+
+        List<PlayerPosition> positions = new ArrayList<>(PLAYERS_IN_FRAME);
+        for (int i = 0; i < PLAYERS_IN_FRAME; i++) {
+            positions.add(new PlayerPosition(1000L + i, 37.5665 + i * 1e-4, 126.978, 5.0, 3.2, 90.0));
+        }
+        event = GameEventMessage.of(GameEventType.POSITIONS, ROOM_ID, null, new PositionsPayload(positions, List.of()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n[subscribers=%d] 호출당 전달 메시지 %.1f건%n", subscribers,
+                calls.sum() == 0 ? 0 : (double) delivered.sum() / calls.sum());
+        userDestinations.stop();
+        broker.stop();
+    }
+
+    @Benchmark
+    public void topicPublish() {
+        delivery.publish(ROOM_ID, event);
+        calls.increment();
+    }
+
+    @Benchmark
+    public void sessionDeliver() {
+        // 틱마다 새 프레임이 만들어지므로 JSON 직렬화도 호출마다 한 번 일어납니다.
+        delivery.deliver(ROOM_ID, sessionIds, RoomFrame.positions(event, playerId -> (int) (playerId - 1000)));
+        calls.increment();
+    }
+
+    @SuppressWarnings("null")
+    private static Message<byte[]> control(SimpMessageType type, String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        if (destination != null) {
+            accessor.setSubscriptionId("sub-" + destination.hashCode());
+            accessor.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
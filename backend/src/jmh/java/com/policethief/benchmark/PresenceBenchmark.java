@@ -0,0 +1,115 @@
+package com.policethief.benchmark;
+
+import com.policethief.cluster.RoomEventBus;
+import com.policethief.cluster.SessionRef;
+import com.policethief.service.HashedTimingWheel;
+import com.policethief.service.PresenceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 접속 상태 추적 비용
+ * 30만 명이 60초 만료로 추적될 때, 1초 tick 한 번에 드는 휠 처리 비용을
+ * 매 tick 플레이어 맵 전체를 훑는 방식과 비교하고, 위치 갱신마다 호출되는 touch 비용을 측정합니다.
+ * 두 방식 모두 모든 플레이어가 계속 활동 중인 정상 상태(만료되는 플레이어 없음)를 가정합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class PresenceBenchmark {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final long TIMEOUT_MILLIS = 60_000;
+    private static final int PLAYERS_PER_ROOM = 8;
+
+    @Param({"300000"})
+    public int players;
+
+    private HashedTimingWheel<Activity> wheel;
+    private long wheelClock;
+    private ConcurrentHashMap<Long, Activity> scanned;
+    private long scanClock;
+
+    private PresenceService presenceService;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(7);
+        // 플레이어마다 [0, 60초) 사이에 마지막으로 활동한 것으로 두고 만료 시각에 건다.
+        wheel = new HashedTimingWheel<>(TICK_MILLIS, 512, 0);
+        wheelClock = TIMEOUT_MILLIS;
+        scanned = new ConcurrentHashMap<>();
+        for (long i = 0; i < players; i++) {
+            long lastSeen = random.nextLong(TIMEOUT_MILLIS);
+            wheel.schedule(new Activity(lastSeen + TIMEOUT_MILLIS), lastSeen + TIMEOUT_MILLIS);
+            scanned.put(i, new Activity(lastSeen + TIMEOUT_MILLIS));
+        }
+        scanClock = TIMEOUT_MILLIS;
+
+        RoomEventBus bus = (RoomEventBus) Proxy.newProxyInstance(RoomEventBus.class.getClassLoader(),
+                new Class<?>[]{RoomEventBus.class}, (proxy, method, args) -> "getLocalNodeId".equals(method.getName()) ? "bench" : null);
+        presenceService = new PresenceService(bus, 60, 15, TICK_MILLIS, 512);
+        for (long playerId = 0; playerId < players; playerId++) {
+            presenceService.track(playerId / PLAYERS_PER_ROOM, playerId, new SessionRef("bench", "s" + playerId));
+        }
+    }
+
+    /**
+     * 휠 tick 한 번: 현재 버킷에 걸린 플레이어만 보고, 그사이 활동한 플레이어는 새 만료 시각으로 옮긴다.
+     */
+    @Benchmark
+    public int wheelTick() {
+        long now = wheelClock += TICK_MILLIS;
+        return wheel.advance(now, activity -> activity.expiresAt = now + TIMEOUT_MILLIS).size();
+    }
+
+    /**
+     * 비교용: tick마다 플레이어 맵 전체를 훑어 만료 시각을 검사한다.
+     */
+    @Benchmark
+    public int fullScanTick() {
+        long now = scanClock += TICK_MILLIS;
+        int expired = 0;
+        for (Activity activity : scanned.values()) {
+            if (activity.expiresAt <= now) {
+                activity.expiresAt = now + TIMEOUT_MILLIS;
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void touch() {
+        long playerId = random.nextInt(players);
+        presenceService.touch(playerId / PLAYERS_PER_ROOM, playerId);
+    }
+
+    private static final class Activity {
+        private volatile long expiresAt;
+
+        private Activity(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.policethief.benchmark;
+
+import com.policethief.dto.PlayerRole;
+import com.policethief.service.GameRoomSessionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 입장/퇴장 경합 비용
+ * 8개 스레드가 각자 플레이어 하나로 방에 들어갔다 바로 나오기를 반복합니다. 방 수와 스트라이프 수를 바꿔
+ * 모두가 같은 방(같은 모니터)에 몰릴 때부터 서로 다른 스트라이프로 흩어질 때까지 한 쌍의 시간을 비교합니다.
+ * 방마다 8명이 미리 들어가 있어, 입장/퇴장마다 실제 게임처럼 멤버 배열을 훑고 방장이 유지됩니다.
+ * 많은 방에서의 섞인 입장/퇴장 처리량과 정합성 검사는 {@link RoomStateBenchmark} 에서 봅니다.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="com.policethief.benchmark.RoomJoinContentionBenchmark -p rooms=1,1024"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(RoomJoinContentionBenchmark.THREADS)
+@Fork(value = 1, jvmArgs = {"-Xms512m", "-Xmx512m"})
+public class RoomJoinContentionBenchmark {
+
+    static final int THREADS = 8;
+    private static final int RESIDENTS = 8;
+    private static final String NICKNAME = "player";
+
+    /** 스레드들이 골라 들어가는 방 수 (1이면 모두 같은 방) */
+    @Param({"1", "16", "1024"})
+    public int rooms;
+
+    /** 방 상태 잠금 스트라이프 수 */
+    @Param({"1", "256"})
+    public int stripes;
+
+    private GameRoomSessionService engine;
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new GameRoomSessionService(stripes);
+        for (long roomId = 1; roomId <= rooms; roomId++) {
+            for (int i = 0; i < RESIDENTS; i++) {
+                engine.joinRoom(roomId, roomId * 100 + i, NICKNAME, null);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void verify() {
+        for (long roomId = 1; roomId <= rooms; roomId++) {
+            if (engine.getRoomSize(roomId) != RESIDENTS || engine.getHostId(roomId) != roomId * 100) {
+                throw new IllegalStateException("방 상태가 바뀌었습니다 - room=" + roomId
+                        + ", size=" + engine.getRoomSize(roomId) + ", host=" + engine.getHostId(roomId));
+            }
+        }
+    }
+
+    @Benchmark
+    public int joinThenLeave(Player player) {
+        long roomId = 1 + player.random.nextInt(rooms);
+        int size = engine.joinRoom(roomId, player.playerId, NICKNAME, PlayerRole.POLICE);
+        return size + engine.leaveRoom(roomId, player.playerId);
+    }
+
+    /**
+     * 스레드마다 다른 플레이어 ID
+     */
+    @State(Scope.Thread)
+    public static class Player {
+        private long playerId;
+        private SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(RoomJoinContentionBenchmark benchmark) {
+            int threadId = benchmark.threadIds.incrementAndGet();
+            playerId = 1_000_000_000L + threadId;
+            random = new SplittableRandom(threadId);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.policethief.benchmark;
+
+import com.policethief.cluster.RoomCommand;
+import com.policethief.cluster.RoomEventBus;
+import com.policethief.cluster.SessionRef;
+import com.policethief.dto.JoinRoomRequest;
+import com.policethief.dto.LocationUpdateRequest;
+import com.policethief.service.GameCommandService;
+import com.policethief.service.GameJournalService;
+import com.policethief.service.GameRoomService;
+import com.policethief.service.GameRoomSessionService;
+import com.policethief.service.GameTimerService;
+import com.policethief.service.GeofenceService;
+import com.policethief.service.LocationBroadcastService;
+import com.policethief.service.LocationRateService;
+import com.policethief.service.LocationTrailWriter;
+import com.policethief.service.PlayerSessionRegistry;
+import com.policethief.service.PresenceService;
+import com.policethief.service.ProximityEngine;
+import com.policethief.service.RoomLaneExecutor;
+import com.policethief.service.TagCodeService;
+import com.policethief.service.TagIdempotencyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 방 명령 실행 방식 비교
+ * <ul>
+ *     <li>direct (기존): STOMP 수신 채널처럼 코어 수 x 2 스레드 풀에 넘기고, 아무 스레드나 집어 가서 바로 처리</li>
+ *     <li>lanes: 방 ID로 정해진 레인에 넘겨 레인 스레드가 순서대로 처리</li>
+ * </ul>
+ * 8개 스레드가 각각 세션 하나처럼 방 1024개(방마다 8명) 중 자기 플레이어 자리로 위치 갱신 명령을 쉬지 않고 보냅니다.
+ * 두 방식 모두 대기열(8192)이 차면 보내는 쪽이 기다리므로 측정값은 처리해 낸 양입니다.
+ * 플레이어마다 보낸 순서대로 번호를 붙여, 먼저 보낸 명령보다 늦게 처리된 명령 수(순서 역전)와 레인별 대기열 상태를 함께 출력합니다.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="com.policethief.benchmark.RoomLaneBenchmark -p lanes=0,4"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(RoomLaneBenchmark.SENDERS)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class RoomLaneBenchmark {
+
+    static final int SENDERS = 8;
+    private static final int ROOMS = 1024;
+    private static final int PLAYERS_PER_ROOM = 8;
+    private static final int QUEUE_CAPACITY = 8192;
+
+    @Param({"direct", "lanes"})
+    public String mode;
+
+    /** 레인 수 (0이면 CPU 코어 수) */
+    @Param({"0"})
+    public int lanes;
+
+    private GameCommandService commandService;
+    private RoomLaneExecutor laneExecutor;
+    private ThreadPoolExecutor inboundPool;
+    private final AtomicInteger senderIds = new AtomicInteger();
+    private final AtomicLongArray applied = new AtomicLongArray(ROOMS * PLAYERS_PER_ROOM);
+    private final LongAdder reordered = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 명령마다 남기는 INFO 로그(입장 등)가 측정에 섞이지 않도록 합니다.
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.policethief"))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+        RoomEventBus bus = (RoomEventBus) Proxy.newProxyInstance(RoomEventBus.class.getClassLoader(),
+                new Class<?>[]{RoomEventBus.class}, (proxy, method, args) -> "getLocalNodeId".equals(method.getName()) ? "bench" : null);
+        GeofenceService geofenceService = new GeofenceService(bus, true, 10000, 20, 500);
+        GameRoomService roomService = new GameRoomService(bus, geofenceService, 1.0, 5.0, 30.0, 20);
+        GameRoomSessionService roomSessionService = new GameRoomSessionService(256);
+        ProximityEngine proximityEngine = new ProximityEngine(10, 50, ProximityEngine.TagPolicy.REJECT, 20, 10);
+        PlayerSessionRegistry sessionRegistry = new PlayerSessionRegistry();
+        // 명령 서비스 자체는 호출 스레드에서 실행하고, 비교할 실행 방식은 바깥에서 정합니다.
+        commandService = new GameCommandService(bus, roomService, roomSessionService,
+                new LocationBroadcastService(bus, roomSessionService, proximityEngine, sessionRegistry, true, 5, 5000, 0.5),
+                proximityEngine, sessionRegistry, new PresenceService(bus, 60, 15, 1000, 512),
+                new LocationTrailWriter(null, false, 1024, 500, 1000, LocationTrailWriter.OverflowPolicy.DROP_NEWEST, 5, 0),
+                new GameJournalService(bus, roomService, roomSessionService, false, "target/jmh/lanes", 64,
+                        GameJournalService.FsyncPolicy.NONE, 100, 60, 0),
+                new RoomLaneExecutor(RoomLaneExecutor.Mode.DIRECT, 0, 1, 0),
+                new LocationRateService(true, 100, 5, 2.0, 50, 200, 5000, 0.5, 5, 7, 3000),
+                geofenceService,
+                new TagCodeService(false, "", 30, 2, 8),
+                new TagIdempotencyService(60, 256),
+                new GameTimerService(600, 60, new long[]{60, 30, 10}, 50));
+        for (long roomId = 0; roomId < ROOMS; roomId++) {
+            for (long i = 0; i < PLAYERS_PER_ROOM; i++) {
+                JoinRoomRequest join = new JoinRoomRequest();
+                join.setPlayerId(roomId * PLAYERS_PER_ROOM + i);
+                join.setNickname("p" + i);
+                commandService.handle(new RoomCommand(RoomCommand.Type.JOIN, roomId, new SessionRef("bench", "s" + i), join));
+            }
+        }
+
+        if ("lanes".equals(mode)) {
+            laneExecutor = new RoomLaneExecutor(RoomLaneExecutor.Mode.LANES, lanes, QUEUE_CAPACITY, 5000);
+            laneExecutor.start();
+        } else {
+            int threads = Runtime.getRuntime().availableProcessors() * 2;
+            inboundPool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(QUEUE_CAPACITY), (task, pool) -> {
+                try {
+                    pool.getQueue().put(task);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException(e);
+                }
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (laneExecutor != null) {
+            laneExecutor.stop();
+        } else {
+            inboundPool.shutdown();
+            inboundPool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        System.out.printf("%n[%s] 순서 역전 %d건%n", mode, reordered.sum());
+        if (laneExecutor != null) {
+            laneExecutor.getLaneStats().forEach(stats -> System.out.printf(
+                    "  lane %d: completed=%d maxDepth=%d blocked=%d avgWait=%.1fus maxWait=%dus%n",
+                    stats.lane(), stats.completed(), stats.maxDepth(), stats.blocked(),
+                    stats.avgWaitMicros(), stats.maxWaitMicros()));
+        }
+    }
+
+    /**
+     * 보내는 쪽 하나 (세션 하나). 모든 방에서 같은 자리의 플레이어로 보냅니다.
+     */
+    @State(Scope.Thread)
+    public static class Sender {
+        private final SplittableRandom random = new SplittableRandom();
+        private final long[] sequences = new long[ROOMS];
+        private int slot;
+
+        @Setup(Level.Trial)
+        public void setUp(RoomLaneBenchmark benchmark) {
+            slot = benchmark.senderIds.getAndIncrement() % PLAYERS_PER_ROOM;
+        }
+    }
+
+    @Benchmark
+    public void locationUpdate(Sender sender) {
+        int room = sender.random.nextInt(ROOMS);
+        long roomId = room;
+        int player = room * PLAYERS_PER_ROOM + sender.slot;
+        LocationUpdateRequest request = new LocationUpdateRequest();
+        request.setPlayerId((long) player);
+        request.setLatitude(37.5 + sender.random.nextDouble() * 1e-3);
+        request.setLongitude(127.0 + sender.random.nextDouble() * 1e-3);
+        request.setAccuracy(5.0);
+        RoomCommand command = new RoomCommand(RoomCommand.Type.LOCATION, roomId, null, request);
+        long sequence = ++sender.sequences[room];
+        Runnable task = () -> {
+            if (applied.getAndAccumulate(player, sequence, Math::max) > sequence) {
+                reordered.increment();
+            }
+            commandService.handle(command);
+        };
+        if (laneExecutor != null) {
+            laneExecutor.execute(roomId, task);
+        } else {
+            inboundPool.execute(task);
+        }
+    }
+}
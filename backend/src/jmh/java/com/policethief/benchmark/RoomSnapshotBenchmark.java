@@ -0,0 +1,155 @@
+package com.policethief.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.policethief.cluster.RoomEventBus;
+import com.policethief.controller.GameRoomController;
+import com.policethief.domain.GameRoom;
+import com.policethief.domain.GeoPoint;
+import com.policethief.dto.PlayerRole;
+import com.policethief.service.GameRoomSessionService;
+import com.policethief.service.RoomDirectoryService;
+import com.policethief.service.RoomSnapshotService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로비 폴링 한 번의 방 목록(20개)/방 하나(놀이 구역 꼭짓점 64개) 응답 비용을 측정합니다.
+ * 요청마다 응답 객체를 만들어 Jackson 으로 직렬화하던 방식과, 스냅샷을 이어 붙이는 방식, ETag 가 같아 304 로 끝나는 경우를 비교합니다.
+ * 요청당 할당량은 {@code -prof gc} 의 gc.alloc.rate.norm 으로 봅니다.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="RoomSnapshotBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomSnapshotBenchmark {
+
+    private static final int ROOMS = 20;
+    private static final int PLAY_AREA_VERTICES = 64;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private GameRoomSessionService roomSessionService;
+    private RoomDirectoryService roomDirectory;
+    private RoomSnapshotService snapshots;
+    private List<GameRoom> rooms;
+    private String listEtag;
+    private String detailEtag;
+
+    @Setup
+    public void setUp() {
+        RoomEventBus bus = (RoomEventBus) Proxy.newProxyInstance(RoomEventBus.class.getClassLoader(),
+                new Class<?>[]{RoomEventBus.class}, (proxy, method, args) -> null);
+        roomSessionService = new GameRoomSessionService(256);
+        roomDirectory = new RoomDirectoryService(bus);
+        snapshots = new RoomSnapshotService(bus, roomDirectory, objectMapper);
+        rooms = new ArrayList<>(ROOMS);
+        for (long roomId = 1; roomId <= ROOMS; roomId++) {
+            List<GeoPoint> playArea = new ArrayList<>(PLAY_AREA_VERTICES);
+            for (int v = 0; v < PLAY_AREA_VERTICES; v++) {
+                double angle = 2 * Math.PI * v / PLAY_AREA_VERTICES;
+                playArea.add(new GeoPoint(37.5 + 0.004 * Math.sin(angle), 127.0 + 0.005 * Math.cos(angle)));
+            }
+            GameRoom room = new GameRoom(roomId, "방 " + roomId, "서울 중구", 37.5 + roomId * 0.001, 127.0,
+                    System.currentTimeMillis(), playArea);
+            for (long p = 0; p < 6; p++) {
+                roomSessionService.joinRoom(roomId, roomId * 100 + p, "플레이어" + p, p % 3 == 0 ? PlayerRole.POLICE : PlayerRole.THIEF);
+            }
+            roomDirectory.onMembershipChanged(roomId, roomSessionService.getMembership(roomId));
+            snapshots.onRoomCreated(room);
+            rooms.add(room);
+        }
+        listEtag = snapshots.listEtag(snapshotList(), null);
+        detailEtag = snapshots.get(rooms.get(0)).getEtag();
+    }
+
+    @Benchmark
+    public byte[] listJackson() throws Exception {
+        List<GameRoomController.GameRoomResponse> responses = new ArrayList<>(rooms.size());
+        for (GameRoom room : rooms) {
+            GameRoomController.GameRoomResponse response = new GameRoomController.GameRoomResponse();
+            response.setId(room.getId());
+            response.setName(room.getName());
+            response.setLocation(room.getLocation());
+            response.setLatitude(room.getLatitude());
+            response.setLongitude(room.getLongitude());
+            response.setPlayerCount(roomDirectory.getPlayerCount(room.getId()));
+            responses.add(response);
+        }
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] listSnapshot() {
+        List<RoomSnapshotService.RoomSnapshot> list = snapshotList();
+        return snapshots.listBody(list, null, snapshots.listEtag(list, null));
+    }
+
+    /**
+     * 위치 검색 목록은 거리가 요청마다 달라 이어 붙이기를 매번 합니다.
+     */
+    @Benchmark
+    public byte[] nearbySnapshot() {
+        List<RoomSnapshotService.RoomSnapshot> list = snapshotList();
+        double[] distances = new double[list.size()];
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = 0.1 * i + 0.0123;
+        }
+        return snapshots.listBody(list, distances, snapshots.listEtag(list, distances));
+    }
+
+    @Benchmark
+    public boolean listNotModified() {
+        return listEtag.equals(snapshots.listEtag(snapshotList(), null));
+    }
+
+    @Benchmark
+    public byte[] detailJackson() throws Exception {
+        GameRoom room = rooms.get(0);
+        GameRoomController.GameRoomResponse response = new GameRoomController.GameRoomResponse();
+        response.setId(room.getId());
+        response.setName(room.getName());
+        response.setLocation(room.getLocation());
+        response.setLatitude(room.getLatitude());
+        response.setLongitude(room.getLongitude());
+        response.setPlayerCount(roomDirectory.getPlayerCount(room.getId()));
+        response.setPlayArea(room.getPlayArea().stream()
+                .map(vertex -> new GameRoomController.PlayAreaPoint(vertex.getLatitude(), vertex.getLongitude()))
+                .toList());
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] detailSnapshot() {
+        return snapshots.get(rooms.get(0)).getDetailBody();
+    }
+
+    @Benchmark
+    public boolean detailNotModified() {
+        return detailEtag.equals(snapshots.get(rooms.get(0)).getEtag());
+    }
+
+    private List<RoomSnapshotService.RoomSnapshot> snapshotList() {
+        List<RoomSnapshotService.RoomSnapshot> list = new ArrayList<>(rooms.size());
+        for (GameRoom room : rooms) {
+            list.add(snapshots.get(room));
+        }
+        return list;
+    }
+}
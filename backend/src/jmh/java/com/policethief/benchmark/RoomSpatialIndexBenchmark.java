@@ -0,0 +1,78 @@
+package com.policethief.benchmark;
+
+import com.policethief.service.RoomSpatialIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 방 10만 개가 서울 일대에 흩어져 있을 때의 반경 검색/갱신 비용을 측정합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomSpatialIndexBenchmark {
+
+    private static final double MIN_LAT = 37.40;
+    private static final double MAX_LAT = 37.70;
+    private static final double MIN_LON = 126.80;
+    private static final double MAX_LON = 127.20;
+
+    @Param({"100000"})
+    public int roomCount;
+
+    @Param({"1.0", "5.0"})
+    public double radiusKm;
+
+    private RoomSpatialIndex index;
+    private double[] queryLatitudes;
+    private double[] queryLongitudes;
+    private int cursor;
+    private long nextRoomId;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        index = new RoomSpatialIndex(1.0);
+        for (long roomId = 1; roomId <= roomCount; roomId++) {
+            index.put(roomId, random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON));
+        }
+        nextRoomId = roomCount + 1;
+
+        queryLatitudes = new double[1024];
+        queryLongitudes = new double[1024];
+        for (int i = 0; i < queryLatitudes.length; i++) {
+            queryLatitudes[i] = random.nextDouble(MIN_LAT, MAX_LAT);
+            queryLongitudes[i] = random.nextDouble(MIN_LON, MAX_LON);
+        }
+    }
+
+    @Benchmark
+    public List<RoomSpatialIndex.Neighbor> findNearestTop20() {
+        int i = cursor++ & (queryLatitudes.length - 1);
+        return index.findNearest(queryLatitudes[i], queryLongitudes[i], radiusKm, 20);
+    }
+
+    @Benchmark
+    public void createAndCloseRoom() {
+        int i = cursor++ & (queryLatitudes.length - 1);
+        long roomId = nextRoomId++;
+        index.put(roomId, queryLatitudes[i], queryLongitudes[i]);
+        index.remove(roomId);
+    }
+}
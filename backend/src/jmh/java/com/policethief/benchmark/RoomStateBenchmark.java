@@ -0,0 +1,163 @@
+package com.policethief.benchmark;
+
+import com.policethief.dto.PlayerRole;
+import com.policethief.service.GameRoomSessionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 방 상태 엔진 스트레스/메모리 측정
+ * 방 10만 개에 여러 스레드가 입장/퇴장을 섞어 보내고, 반복(iteration)이 끝날 때마다
+ * 스레드별로 기억한 소속과 엔진 상태가 정확히 일치하는지(잃어버린 입장, 남은 빈 방이 없는지) 검사합니다.
+ * 시작 전에 방당 8명이 찬 상태의 방당 메모리를 함께 출력합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class RoomStateBenchmark {
+
+    private static final int PLAYERS_PER_THREAD = 4096;
+    private static final String NICKNAME = "player";
+
+    @Param({"100000"})
+    public int roomCount;
+
+    private GameRoomSessionService engine;
+    private final Queue<Churner> churners = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        printFootprint();
+        engine = new GameRoomSessionService(256);
+    }
+
+    /**
+     * 모든 스레드가 멈춘 뒤 엔진 상태가 스레드들이 기억하는 소속과 같은지 확인합니다.
+     */
+    @TearDown(Level.Iteration)
+    public void verify() {
+        long expectedMembers = 0;
+        Set<Long> expectedRooms = new HashSet<>();
+        for (Churner churner : churners) {
+            for (int i = 0; i < PLAYERS_PER_THREAD; i++) {
+                long roomId = churner.roomOf[i];
+                if (roomId == 0) {
+                    continue;
+                }
+                expectedMembers++;
+                expectedRooms.add(roomId);
+                if (engine.getPlayerIndex(roomId, churner.playerIds[i]) < 0) {
+                    throw new IllegalStateException("입장한 플레이어가 사라졌습니다 - room=" + roomId
+                            + ", player=" + churner.playerIds[i]);
+                }
+            }
+        }
+        long actualMembers = 0;
+        for (Long roomId : engine.getRoomIds()) {
+            int size = engine.getRoomSize(roomId);
+            if (size == 0) {
+                throw new IllegalStateException("빈 방이 남아 있습니다 - room=" + roomId);
+            }
+            if (engine.getHostId(roomId) == null) {
+                throw new IllegalStateException("방장이 없는 방 - room=" + roomId);
+            }
+            actualMembers += size;
+        }
+        if (actualMembers != expectedMembers || engine.getRoomCount() != expectedRooms.size()) {
+            throw new IllegalStateException("멤버 수 불일치 - expected=" + expectedMembers + "/" + expectedRooms.size()
+                    + " rooms, actual=" + actualMembers + "/" + engine.getRoomCount() + " rooms");
+        }
+    }
+
+    @Benchmark
+    public int churn(Churner churner) {
+        int player = churner.random.nextInt(PLAYERS_PER_THREAD);
+        long playerId = churner.playerIds[player];
+        long current = churner.roomOf[player];
+        if (current != 0) {
+            churner.roomOf[player] = 0;
+            return engine.leaveRoom(current, playerId);
+        }
+        long roomId = 1 + churner.random.nextInt(roomCount);
+        churner.roomOf[player] = roomId;
+        return engine.joinRoom(roomId, playerId, NICKNAME, null);
+    }
+
+    @Benchmark
+    public PlayerRole lookupRole(Churner churner) {
+        int player = churner.random.nextInt(PLAYERS_PER_THREAD);
+        return engine.getRole(churner.roomOf[player], churner.playerIds[player]);
+    }
+
+    /**
+     * 스레드마다 겹치지 않는 플레이어 ID 구간과 각 플레이어의 현재 방(0이면 없음)
+     */
+    @State(Scope.Thread)
+    public static class Churner {
+        private final long[] playerIds = new long[PLAYERS_PER_THREAD];
+        private final long[] roomOf = new long[PLAYERS_PER_THREAD];
+        private SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(RoomStateBenchmark benchmark) {
+            int threadId = benchmark.threadIds.incrementAndGet();
+            random = new SplittableRandom(threadId);
+            for (int i = 0; i < PLAYERS_PER_THREAD; i++) {
+                playerIds[i] = threadId * 1_000_000L + i;
+            }
+            benchmark.churners.add(this);
+        }
+    }
+
+    /**
+     * 방당 8명이 찬 방 10만 개를 만들어 방당 유지 메모리를 출력합니다. (닉네임 문자열은 공유하므로 제외)
+     */
+    private void printFootprint() {
+        long before = usedHeapAfterGc();
+        GameRoomSessionService filled = new GameRoomSessionService(256);
+        for (long roomId = 1; roomId <= roomCount; roomId++) {
+            for (long player = 0; player < 8; player++) {
+                filled.joinRoom(roomId, roomId * 16 + player, NICKNAME, null);
+            }
+        }
+        long after = usedHeapAfterGc();
+        System.out.printf("%n방 상태 메모리: 방 %d개 x 8명 = %.1f MB, 방당 %d 바이트 (플레이어당 %d 바이트)%n",
+                roomCount, (after - before) / 1e6, (after - before) / roomCount, (after - before) / roomCount / 8);
+        if (filled.getRoomCount() != roomCount) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
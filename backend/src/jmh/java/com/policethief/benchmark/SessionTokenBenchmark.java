@@ -0,0 +1,68 @@
+package com.policethief.benchmark;
+
+import com.policethief.service.SessionTokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * STOMP CONNECT 한 번에 드는 세션 토큰 검증 비용을 측정합니다.
+ * 키 교체 직후(이전 키로 서명된 토큰)와 서명이 변조된 토큰도 함께 봅니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionTokenBenchmark {
+
+    private SessionTokenService service;
+    private String currentKeyToken;
+    private String previousKeyToken;
+    private String tamperedToken;
+
+    @Setup
+    public void setUp() {
+        service = new SessionTokenService(3600, "", 0);
+        previousKeyToken = service.issue(1234567890L).token();
+        service.rotateKey();
+        currentKeyToken = service.issue(1234567890L).token();
+        char last = currentKeyToken.charAt(currentKeyToken.length() - 2);
+        tamperedToken = currentKeyToken.substring(0, currentKeyToken.length() - 2)
+                + (last == 'A' ? 'B' : 'A') + currentKeyToken.charAt(currentKeyToken.length() - 1);
+        if (service.verify(currentKeyToken) == null || service.verify(previousKeyToken) == null
+                || service.verify(tamperedToken) != null) {
+            throw new IllegalStateException("세션 토큰 검증 결과가 예상과 다릅니다.");
+        }
+    }
+
+    @Benchmark
+    public Long verifyCurrentKey() {
+        return service.verify(currentKeyToken);
+    }
+
+    @Benchmark
+    public Long verifyPreviousKey() {
+        return service.verify(previousKeyToken);
+    }
+
+    @Benchmark
+    public Long verifyTampered() {
+        return service.verify(tamperedToken);
+    }
+
+    @Benchmark
+    public SessionTokenService.IssuedToken issue() {
+        return service.issue(1234567890L);
+    }
+}
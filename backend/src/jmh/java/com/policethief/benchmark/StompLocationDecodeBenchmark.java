@@ -0,0 +1,81 @@
+package com.policethief.benchmark;
+
+import com.policethief.dto.LocationUpdateRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompDecoder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 세션이 보낸 위치 메시지 한 건을 명령으로 바꾸기까지의 수신 쪽 비용
+ * 브라우저 STOMP 클라이언트가 보내는 것과 같은 SEND 프레임을 StompDecoder 로 읽고(STOMP 세션 핸들러가 하는 일),
+ * 브로커 설정과 같은 MappingJackson2MessageConverter 로 LocationUpdateRequest 를 만드는 것(@MessageMapping 인자 변환)을
+ * 나눠서, 또 합쳐서 측정합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms512m", "-Xmx512m"})
+public class StompLocationDecodeBenchmark {
+
+    private static final String BODY =
+            "{\"playerId\":1234567,\"latitude\":37.566535,\"longitude\":126.977969,\"accuracy\":4.8}";
+
+    private final StompDecoder decoder = new StompDecoder();
+    private MappingJackson2MessageConverter converter;
+    private byte[] frame;
+    private Message<byte[]> decoded;
+
+    @Setup
+    public void setUp() {
+        converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(Jackson2ObjectMapperBuilder.json().build());
+        byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+        String headers = "SEND\n"
+                + "destination:/app/game/1024/location\n"
+                + "content-type:application/json\n"
+                + "content-length:" + body.length + "\n\n";
+        byte[] head = headers.getBytes(StandardCharsets.UTF_8);
+        frame = new byte[head.length + body.length + 1];
+        System.arraycopy(head, 0, frame, 0, head.length);
+        System.arraycopy(body, 0, frame, head.length, body.length);
+        decoded = decodeFrame();
+        LocationUpdateRequest request = convert();
+        if (request == null || request.getPlayerId() != 1234567L || request.getAccuracy() == null) {
+            throw new IllegalStateException("위치 프레임을 읽지 못했습니다.");
+        }
+    }
+
+    @Benchmark
+    public Message<byte[]> decodeFrame() {
+        List<Message<byte[]>> messages = decoder.decode(ByteBuffer.wrap(frame));
+        return messages.get(0);
+    }
+
+    @Benchmark
+    public LocationUpdateRequest convert() {
+        return (LocationUpdateRequest) converter.fromMessage(decoded, LocationUpdateRequest.class);
+    }
+
+    @Benchmark
+    public LocationUpdateRequest decodeAndConvert() {
+        return (LocationUpdateRequest) converter.fromMessage(decodeFrame(), LocationUpdateRequest.class);
+    }
+}
@@ -0,0 +1,108 @@
+package com.policethief.benchmark;
+
+import com.policethief.dto.GameEventMessage;
+import com.policethief.dto.GameEventType;
+import com.policethief.dto.TagPayload;
+import com.policethief.service.TagCodeService;
+import com.policethief.service.TagIdempotencyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 태그가 몰릴 때의 QR 코드 검증과 중복 확인 처리량을 측정합니다.
+ * 방 64개에서 도둑 1024명의 코드를 미리 발급해 두고, 한 번에 BURST 건씩 검증합니다.
+ * 위조 코드는 서명 비교까지 가야 거부되므로 정상 코드와 비용이 같아야 합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagCodeBenchmark {
+
+    private static final int ROOMS = 64;
+    private static final int PLAYERS = 1024;
+    private static final int BURST = 1000;
+
+    private TagCodeService codes;
+    private TagIdempotencyService idempotency;
+    private long[] roomIds;
+    private long[] playerIds;
+    private String[] validCodes;
+    private String[] forgedCodes;
+    private GameEventMessage tagged;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        String secret = Base64.getEncoder().encodeToString(new byte[32]);
+        codes = new TagCodeService(true, secret, 30, 2, 8);
+        idempotency = new TagIdempotencyService(60, 256);
+        roomIds = new long[PLAYERS];
+        playerIds = new long[PLAYERS];
+        validCodes = new String[PLAYERS];
+        forgedCodes = new String[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            roomIds[i] = i % ROOMS;
+            playerIds[i] = 10_000 + i;
+            validCodes[i] = codes.issue(roomIds[i], playerIds[i]).code();
+            // 다른 방에서 발급된 코드: 형식과 구간은 맞고 서명만 다릅니다.
+            forgedCodes[i] = codes.issue(roomIds[i] + ROOMS, playerIds[i]).code();
+        }
+        tagged = GameEventMessage.of(GameEventType.TAG, 0L, 1L, new TagPayload(10_000L, validCodes[0], true, 3.0, 10.0));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void verifyValidBurst(Blackhole blackhole) {
+        for (int n = 0; n < BURST; n++) {
+            int i = cursor++ & (PLAYERS - 1);
+            blackhole.consume(codes.verify(roomIds[i], playerIds[i], validCodes[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void verifyForgedBurst(Blackhole blackhole) {
+        for (int n = 0; n < BURST; n++) {
+            int i = cursor++ & (PLAYERS - 1);
+            blackhole.consume(codes.verify(roomIds[i], playerIds[i], forgedCodes[i]));
+        }
+    }
+
+    /**
+     * 같은 태그가 다시 들어오는 경우(재전송)의 중복 확인 비용
+     */
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void duplicateCheckBurst(Blackhole blackhole) {
+        for (int n = 0; n < BURST; n++) {
+            int i = cursor++ & (PLAYERS - 1);
+            GameEventMessage previous = idempotency.findDuplicate(roomIds[i], 1L, playerIds[i]);
+            if (previous == null) {
+                idempotency.remember(roomIds[i], 1L, playerIds[i], tagged);
+            }
+            blackhole.consume(previous);
+        }
+    }
+
+    @Benchmark
+    public String issue() {
+        int i = cursor++ & (PLAYERS - 1);
+        return codes.issue(roomIds[i], playerIds[i]).code();
+    }
+}
@@ -0,0 +1,119 @@
+package com.policethief.benchmark;
+
+import com.policethief.service.HierarchicalTimingWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 게임 타이머 등록/취소 비용
+ * 타이머 100만 개(라운드 종료, 남은 시간 알림, 수감 해제가 10분 안에 흩어져 있음)가 걸려 있는 상태에서
+ * 한 번에 BURST 개씩 새 타이머를 걸고 걸려 있던 타이머 하나를 취소합니다. (수감 해제를 다시 거는 경우와 같은 모양)
+ * 계층형 타이밍 휠과 타이머마다 작업을 거는 ScheduledThreadPoolExecutor(취소하면 큐에서 제거)를 비교하며,
+ * 휠은 BURST 마다 한 번 휠 스레드처럼 쌓인 등록/취소를 반영합니다.
+ * tickAdvance 는 같은 상태에서 tick 하나를 처리하는 비용(만료된 타이머 전달 포함)입니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class TimerWheelBenchmark {
+
+    private static final long TICK_MILLIS = 50;
+    private static final long HORIZON_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final int BURST = 1024;
+
+    @Param({"1000000"})
+    public int timers;
+
+    private SplittableRandom random;
+
+    private HierarchicalTimingWheel<Long> wheel;
+    private HierarchicalTimingWheel.Timer<Long>[] wheelTimers;
+    private long wheelClock;
+
+    private ScheduledThreadPoolExecutor executor;
+    private ScheduledFuture<?>[] futures;
+    private final Runnable noop = () -> {
+    };
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        random = new SplittableRandom(7);
+        wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, 0);
+        wheelTimers = (HierarchicalTimingWheel.Timer<Long>[]) new HierarchicalTimingWheel.Timer<?>[timers];
+        executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        futures = new ScheduledFuture<?>[timers];
+        for (int i = 0; i < timers; i++) {
+            long delay = 1 + random.nextLong(HORIZON_MILLIS);
+            wheelTimers[i] = wheel.schedule((long) i, delay);
+            // 측정하는 동안 울리지 않도록 실행기 쪽은 충분히 먼 시각에 겁니다.
+            futures[i] = executor.schedule(noop, HORIZON_MILLIS + delay, TimeUnit.MILLISECONDS);
+        }
+        wheel.advance(0, item -> {
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void wheelScheduleCancel() {
+        for (int n = 0; n < BURST; n++) {
+            int i = random.nextInt(timers);
+            wheel.cancel(wheelTimers[i]);
+            wheelTimers[i] = wheel.schedule((long) i, wheelClock + 1 + random.nextLong(HORIZON_MILLIS));
+        }
+        // 시계는 멈춰 두고 쌓인 등록/취소만 반영합니다.
+        wheel.advance(wheelClock, item -> {
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void executorScheduleCancel() {
+        for (int n = 0; n < BURST; n++) {
+            int i = random.nextInt(timers);
+            futures[i].cancel(false);
+            futures[i] = executor.schedule(noop, HORIZON_MILLIS + 1 + random.nextLong(HORIZON_MILLIS),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * tick 하나를 처리합니다. 만료된 타이머는 같은 수만큼 다시 걸어 걸린 수를 유지합니다.
+     */
+    @Benchmark
+    public void tickAdvance(Blackhole blackhole) {
+        wheelClock += TICK_MILLIS;
+        long now = wheelClock;
+        blackhole.consume(wheel.advance(now, i -> {
+            int index = i.intValue();
+            wheelTimers[index] = wheel.schedule(i, now + 1 + random.nextLong(HORIZON_MILLIS));
+        }));
+    }
+}
@@ -0,0 +1,137 @@
+package com.policethief.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 부하 생성기 설정. 모든 항목은 {@code --이름=값} 인자로 바꿀 수 있습니다.
+ *
+ * @param url                    STOMP WebSocket 주소 (COMPACT 는 네이티브 엔드포인트 /api/ws-native 에서만 동작)
+ * @param sessions               여는 세션(플레이어) 수
+ * @param rooms                  세션을 나눠 넣을 방 수
+ * @param durationSeconds        램프업이 끝난 뒤 부하를 유지하는 시간 (초)
+ * @param rampUpSeconds          모든 세션을 여는 데 쓰는 시간 (초)
+ * @param locationIntervalMillis 위치 전송 주기 (밀리초, followAdvice 면 서버 권장 주기를 따름)
+ * @param followAdvice           LOCATION_INTERVAL 로 받은 권장 주기를 따를지
+ * @param tagIntervalMillis      경찰 한 명이 태그를 보내는 주기 (밀리초, 0이면 보내지 않음)
+ * @param policeRatio            방마다 경찰 비율
+ * @param speedMps               평균 이동 속도 (m/s)
+ * @param gpsNoiseMeters         보내는 위치에 더하는 GPS 오차 표준편차 (m)
+ * @param roomRadiusMeters       플레이어가 돌아다니는 방 중심으로부터의 반경 (m)
+ * @param encoding               위치 프레임 인코딩 (json, compact)
+ * @param roomIdBase             첫 방 ID (실제 방과 겹치지 않게 큰 값)
+ * @param playerIdBase           첫 플레이어 ID
+ * @param driverThreads          전송을 맡는 스레드 수
+ * @param reportSeconds          진행 상황 출력 주기 (초)
+ * @param sessionTokenKeys       서버와 같은 game.session-token.keys 값. 플레이어마다 세션 토큰을 만들어 CONNECT 에 싣습니다.
+ *                               (비우면 토큰 없이 연결하므로 서버가 game.session-token.required=false 여야 하고, 태그/퇴장은 버려집니다.)
+ * @param tagCodeSecret          서버와 같은 game.tag-code.secret 값. 경찰이 대상 도둑의 실제 태그 코드를 만들어 보냅니다.
+ *                               (비우면 형식이 맞지 않는 코드를 보내므로 game.tag-code.enabled 가 켜진 서버는 모두 invalid_code 로 거부합니다.)
+ */
+record LoadConfig(String url,
+                  int sessions,
+                  int rooms,
+                  int durationSeconds,
+                  int rampUpSeconds,
+                  long locationIntervalMillis,
+                  boolean followAdvice,
+                  long tagIntervalMillis,
+                  double policeRatio,
+                  double speedMps,
+                  double gpsNoiseMeters,
+                  double roomRadiusMeters,
+                  String encoding,
+                  long roomIdBase,
+                  long playerIdBase,
+                  int driverThreads,
+                  int reportSeconds,
+                  String sessionTokenKeys,
+                  String tagCodeSecret) {
+
+    static final double ORIGIN_LATITUDE = 37.5665;
+    static final double ORIGIN_LONGITUDE = 126.9780;
+
+    static LoadConfig parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("인자는 --이름=값 형식이어야 합니다 - " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        Options options = new Options(values);
+        LoadConfig config = new LoadConfig(
+                options.string("url", "ws://localhost:8080/api/ws-native"),
+                options.integer("sessions", 1000),
+                options.integer("rooms", 125),
+                options.integer("duration-seconds", 60),
+                options.integer("ramp-up-seconds", 10),
+                options.longValue("location-interval-millis", 1000),
+                options.bool("follow-advice", true),
+                options.longValue("tag-interval-millis", 10_000),
+                options.decimal("police-ratio", 0.25),
+                options.decimal("speed-mps", 1.5),
+                options.decimal("gps-noise-meters", 3),
+                options.decimal("room-radius-meters", 150),
+                options.string("encoding", "json"),
+                options.longValue("room-id-base", 900_000),
+                options.longValue("player-id-base", 9_000_000),
+                options.integer("driver-threads", 4),
+                options.integer("report-seconds", 5),
+                options.string("session-token-keys", ""),
+                options.string("tag-code-secret", ""));
+        options.rejectUnknown();
+        if (config.sessions < 1 || config.rooms < 1 || config.rooms > config.sessions) {
+            throw new IllegalArgumentException("sessions >= rooms >= 1 이어야 합니다.");
+        }
+        if (!config.encoding.equals("json") && !config.encoding.equals("compact")) {
+            throw new IllegalArgumentException("encoding 은 json 또는 compact 입니다 - " + config.encoding);
+        }
+        return config;
+    }
+
+    boolean compact() {
+        return encoding.equals("compact");
+    }
+
+    /**
+     * 읽은 항목을 지워 가며 값을 꺼내, 남은 항목(오타)은 오류로 알립니다.
+     */
+    private record Options(Map<String, String> values) {
+
+        String string(String name, String defaultValue) {
+            String value = values.remove(name);
+            return value != null ? value : defaultValue;
+        }
+
+        int integer(String name, int defaultValue) {
+            String value = values.remove(name);
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        }
+
+        long longValue(String name, long defaultValue) {
+            String value = values.remove(name);
+            return value != null ? Long.parseLong(value) : defaultValue;
+        }
+
+        double decimal(String name, double defaultValue) {
+            String value = values.remove(name);
+            return value != null ? Double.parseDouble(value) : defaultValue;
+        }
+
+        boolean bool(String name, boolean defaultValue) {
+            String value = values.remove(name);
+            return value != null ? Boolean.parseBoolean(value) : defaultValue;
+        }
+
+        void rejectUnknown() {
+            if (!values.isEmpty()) {
+                throw new IllegalArgumentException("알 수 없는 인자 - " + values.keySet());
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.policethief.loadtest;
+
+import com.policethief.dto.PlayerRole;
+import com.policethief.service.SessionTokenService;
+import com.policethief.service.TagCodeService;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 게임 부하 생성기
+ * 로컬에 띄운 백엔드에 STOMP over WebSocket 세션을 여러 개 열어 방마다 나눠 넣고, 플레이어마다 무작위 걸음으로
+ * 위치를 보내며 경찰은 주기적으로 태그를 보냅니다. 외부 서비스 없이 한 기기에서 돌아가도록 모든 세션이 같은 프로세스에 있습니다.
+ * 진행 중에는 report-seconds 마다 처리율과 최근 구간 p99 를, 끝나면 안정 구간(램프업 이후)의
+ * 처리율, 오류 수, 지연 p50/p90/p99/p99.9/최대를 출력합니다.
+ * <ul>
+ *     <li>입장 → JOIN: 입장 요청부터 자기 JOIN 이벤트를 받을 때까지</li>
+ *     <li>태그 → 방 전원: 태그 요청부터 방의 각 세션이 TAG/TAG_REJECTED 를 받을 때까지 (수신 처리 + 레인 + 브로커 + 전송 전체).
+ *     tag-code-secret 을 주면 서버와 같은 키로 대상 도둑의 현재 코드를 만들어 보내므로 코드 검증을 통과하고,
+ *     거리 판정까지 통과한 태그는 저널 기록, 중복 태그 기록, 수감 타이머를 거쳐 TAG 로 전달됩니다.
+ *     무작위 걸음으로는 대부분 태그 거리 밖이라 서버를 game.proximity.tag-policy=FLAG 로 띄워야 거리와 상관없이 이 경로를 탑니다.
+ *     같은 도둑을 다시 태그하면 중복 태그로 보고 보낸 세션에만 처음 결과를 다시 보냅니다.</li>
+ *     <li>POSITIONS / 기타 이벤트: 서버가 이벤트를 만든 시각(밀리초)부터 각 세션이 받을 때까지</li>
+ * </ul>
+ * <pre>
+ * KEYS=load:$(head -c 32 /dev/urandom | base64)
+ * TAG_SECRET=$(head -c 32 /dev/urandom | base64)
+ * GAME_SESSION_TOKEN_KEYS=$KEYS GAME_TAG_CODE_SECRET=$TAG_SECRET GAME_PROXIMITY_TAG_POLICY=FLAG \
+ *     java -jar target/running-man-game-backend-1.0.0.jar
+ * mvn -Ploadtest test-compile exec:exec -Dload.args="--sessions=2000 --rooms=250 --duration-seconds=120 \
+ *     --session-token-keys=$KEYS --tag-code-secret=$TAG_SECRET"
+ * </pre>
+ * 서버는 세션 토큰 없는 STOMP 연결을 거부하므로, 서버와 같은 서명 키로 플레이어마다 토큰을 만들어 연결합니다.
+ * 태그 코드는 서버 기본 설정(window-seconds 30, accepted-windows 2, mac-bytes 8)과 같은 형식으로 만듭니다.
+ * 인자는 {@link LoadConfig} 를 봅니다. 세션 수가 많으면 위치 수신 제한(game.location-rate)과 연결 수 제한,
+ * 열린 파일 수(ulimit -n)를 함께 확인합니다. 오류가 하나라도 있으면 종료 코드 1로 끝납니다.
+ */
+public final class LoadGenerator {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    /** 방 중심 사이 간격 (m) */
+    private static final double ROOM_SPACING_METERS = 1000;
+    private static final int ROOMS_PER_ROW = 32;
+    /** 동시에 진행하는 WebSocket 핸드셰이크 수 */
+    private static final int CONNECT_CONCURRENCY = 64;
+    /** 서버 기본 태그 코드 설정 (game.tag-code.window-seconds, accepted-windows, mac-bytes) */
+    private static final long TAG_CODE_WINDOW_SECONDS = 30;
+    private static final int TAG_CODE_ACCEPTED_WINDOWS = 2;
+    private static final int TAG_CODE_MAC_BYTES = 8;
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.parse(args);
+        PrintStream out = System.out;
+        out.printf("부하 생성 - %s, 세션 %d, 방 %d, 위치 %dms%s, 태그 %dms, 램프업 %ds, 유지 %ds, 인코딩 %s%n",
+                config.url(), config.sessions(), config.rooms(), config.locationIntervalMillis(),
+                config.followAdvice() ? " (권장 주기 따름)" : "", config.tagIntervalMillis(),
+                config.rampUpSeconds(), config.durationSeconds(), config.encoding());
+
+        LoadStats stats = new LoadStats();
+        WebSocketStompClient client = createClient();
+        ScheduledExecutorService driver = Executors.newScheduledThreadPool(config.driverThreads(), named("load-driver-"));
+        List<SimulatedPlayer> players = createPlayers(config, stats, driver);
+
+        long startedAt = System.nanoTime();
+        // 램프업 동안 세션을 고르게 나눠 엽니다. 연결이 밀려도 기준점과 진행 상황 출력이 늦지 않도록 스레드를 따로 둡니다.
+        ScheduledExecutorService ramp = Executors.newSingleThreadScheduledExecutor(named("load-ramp-"));
+        long rampNanos = TimeUnit.SECONDS.toNanos(config.rampUpSeconds());
+        for (int i = 0; i < players.size(); i++) {
+            SimulatedPlayer player = players.get(i);
+            ramp.schedule(() -> player.connect(client), rampNanos * i / players.size(), TimeUnit.NANOSECONDS);
+        }
+        ramp.shutdown();
+        ScheduledExecutorService control = Executors.newSingleThreadScheduledExecutor(named("load-control-"));
+        control.schedule(stats::markSteady, config.rampUpSeconds(), TimeUnit.SECONDS);
+        LoadStats.Counts[] previous = {stats.snapshot()};
+        long[] previousAt = {startedAt};
+        control.scheduleAtFixedRate(() -> {
+            long now = System.nanoTime();
+            LoadStats.Counts current = stats.snapshot();
+            stats.printProgress(out, TimeUnit.NANOSECONDS.toSeconds(now - startedAt), previous[0], current,
+                    (now - previousAt[0]) / 1e9);
+            previous[0] = current;
+            previousAt[0] = now;
+        }, config.reportSeconds(), config.reportSeconds(), TimeUnit.SECONDS);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(config.rampUpSeconds() + config.durationSeconds()));
+        control.shutdownNow();
+        // 결과를 먼저 고정한 뒤 퇴장시켜, 정리 중의 LEAVE 이벤트와 연결 종료가 결과에 섞이지 않게 합니다.
+        stats.printSummary(out, config.sessions());
+        long errors = stats.errorCount();
+        for (SimulatedPlayer player : players) {
+            player.stop();
+        }
+        driver.shutdownNow();
+        Thread.sleep(500);
+        client.stop();
+        System.exit(errors > 0 ? 1 : 0);
+    }
+
+    private static WebSocketStompClient createClient() {
+        StandardWebSocketClient webSocketClient = new StandardWebSocketClient();
+        SimpleAsyncTaskExecutor connectExecutor = new SimpleAsyncTaskExecutor("load-connect-");
+        connectExecutor.setConcurrencyLimit(CONNECT_CONCURRENCY);
+        webSocketClient.setTaskExecutor(connectExecutor);
+        WebSocketStompClient client = new WebSocketStompClient(webSocketClient);
+        // 브로커와 같은 설정의 JSON 변환기, COMPACT 위치 프레임은 바이트 그대로 받습니다.
+        MappingJackson2MessageConverter json = new MappingJackson2MessageConverter();
+        json.setObjectMapper(Jackson2ObjectMapperBuilder.json().build());
+        client.setMessageConverter(new CompositeMessageConverter(List.of(new ByteArrayMessageConverter(), json)));
+        return client;
+    }
+
+    /**
+     * 세션 i 를 방 i % rooms 에 넣어, 램프업 동안 방들이 고르게 채워지게 합니다.
+     * 방마다 앞쪽 police-ratio 만큼이 경찰이고, 경찰은 같은 방 도둑 중에서 태그 대상을 고릅니다.
+     */
+    private static List<SimulatedPlayer> createPlayers(LoadConfig config, LoadStats stats,
+                                                       ScheduledExecutorService driver) {
+        int rooms = config.rooms();
+        int[] police = new int[rooms];
+        long[][] thieves = new long[rooms][];
+        for (int room = 0; room < rooms; room++) {
+            int members = config.sessions() / rooms + (room < config.sessions() % rooms ? 1 : 0);
+            police[room] = Math.max(1, Math.min(members - 1, (int) Math.round(members * config.policeRatio())));
+            thieves[room] = new long[Math.max(0, members - police[room])];
+            for (int member = police[room]; member < members; member++) {
+                thieves[room][member - police[room]] = playerIdOf(config, room, member);
+            }
+        }
+        double metersPerDegreeLon = METERS_PER_DEGREE * Math.cos(Math.toRadians(LoadConfig.ORIGIN_LATITUDE));
+        ConcurrentHashMap<Long, Long> tagSentAt = new ConcurrentHashMap<>();
+        // 부하가 끝날 때까지 만료되지 않도록 넉넉한 유효 시간으로 만듭니다.
+        SessionTokenService sessionTokens = config.sessionTokenKeys().isEmpty() ? null
+                : new SessionTokenService(TimeUnit.DAYS.toSeconds(1), config.sessionTokenKeys(), 0);
+        TagCodeService tagCodes = config.tagCodeSecret().isEmpty() ? null
+                : new TagCodeService(true, config.tagCodeSecret(), TAG_CODE_WINDOW_SECONDS, TAG_CODE_ACCEPTED_WINDOWS,
+                        TAG_CODE_MAC_BYTES);
+        List<SimulatedPlayer> players = new ArrayList<>(config.sessions());
+        for (int i = 0; i < config.sessions(); i++) {
+            int room = i % rooms;
+            int member = i / rooms;
+            PlayerRole role = member < police[room] ? PlayerRole.POLICE : PlayerRole.THIEF;
+            // 방 중심은 원점에서 1km 간격 격자로 떨어뜨려, 서로 다른 방의 플레이어가 섞이지 않게 합니다.
+            double centerLatitude = LoadConfig.ORIGIN_LATITUDE
+                    + (room / ROOMS_PER_ROW) * ROOM_SPACING_METERS / METERS_PER_DEGREE;
+            double centerLongitude = LoadConfig.ORIGIN_LONGITUDE
+                    + (room % ROOMS_PER_ROW) * ROOM_SPACING_METERS / metersPerDegreeLon;
+            long playerId = playerIdOf(config, room, member);
+            String sessionToken = sessionTokens != null ? sessionTokens.issue(playerId).token() : null;
+            players.add(new SimulatedPlayer(config, stats, driver, tagSentAt, playerId, sessionToken, tagCodes,
+                    config.roomIdBase() + room, role, role == PlayerRole.POLICE ? thieves[room] : new long[0],
+                    centerLatitude, centerLongitude));
+        }
+        return players;
+    }
+
+    private static long playerIdOf(LoadConfig config, int room, int member) {
+        return config.playerIdBase() + (long) room * 10_000 + member;
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
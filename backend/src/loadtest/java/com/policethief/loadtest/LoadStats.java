@@ -0,0 +1,134 @@
+package com.policethief.loadtest;
+
+import com.policethief.service.LongHistogram;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 부하 생성기의 카운터와 지연 분포
+ * 램프업이 끝나면 {@link #markSteady()} 로 기준점을 잡아, 최종 결과의 처리율과 지연 분포는 안정 구간만으로 계산합니다.
+ * 입장은 램프업 동안에만 일어나므로 입장 지연은 처음부터 모두 씁니다.
+ */
+final class LoadStats {
+
+    final AtomicInteger connected = new AtomicInteger();
+
+    final LongAdder joinsSent = new LongAdder();
+    final LongAdder locationsSent = new LongAdder();
+    final LongAdder tagsSent = new LongAdder();
+
+    final LongAdder positionsReceived = new LongAdder();
+    final LongAdder tagsReceived = new LongAdder();
+    final LongAdder eventsReceived = new LongAdder();
+    final LongAdder advicesReceived = new LongAdder();
+    final LongAdder bytesReceived = new LongAdder();
+
+    final LongAdder connectFailures = new LongAdder();
+    final LongAdder transportErrors = new LongAdder();
+    final LongAdder stompErrors = new LongAdder();
+    final LongAdder sendFailures = new LongAdder();
+    final LongAdder handlerErrors = new LongAdder();
+    final LongAdder tagsUnanswered = new LongAdder();
+
+    /** 입장 요청 → 자기 JOIN 이벤트 수신 */
+    final Series join = new Series("입장 → JOIN");
+    /** 태그 요청 → 방 안 모든 세션의 TAG/TAG_REJECTED 수신 */
+    final Series tag = new Series("태그 → 방 전원");
+    /** POSITIONS 프레임을 만든 서버 시각 → 수신 (같은 기기의 시계, 밀리초 단위) */
+    final Series positions = new Series("POSITIONS (서버 시각)");
+    /** 나머지 방 이벤트를 만든 서버 시각 → 수신 */
+    final Series events = new Series("기타 이벤트 (서버 시각)");
+
+    private volatile Counts steady;
+    private volatile long steadyAtNanos = System.nanoTime();
+
+    void markSteady() {
+        tag.resetTotal();
+        positions.resetTotal();
+        events.resetTotal();
+        steady = snapshot();
+        steadyAtNanos = System.nanoTime();
+    }
+
+    long errorCount() {
+        return connectFailures.sum() + transportErrors.sum() + stompErrors.sum() + sendFailures.sum()
+                + handlerErrors.sum();
+    }
+
+    /**
+     * 직전 출력 이후 구간의 처리율과 지연을 한 줄로 출력합니다.
+     */
+    void printProgress(PrintStream out, long elapsedSeconds, Counts previous, Counts current, double seconds) {
+        LongHistogram positionsInterval = positions.interval.drain();
+        LongHistogram tagInterval = tag.interval.drain();
+        out.printf("[%4ds] 연결 %d | 보냄 위치 %.0f/s 태그 %.1f/s | 받음 POSITIONS %.0f/s 이벤트 %.0f/s %.2f MB/s"
+                        + " | POSITIONS p99 %.1fms 태그 p99 %.1fms | 오류 %d%n",
+                elapsedSeconds, connected.get(),
+                (current.locations - previous.locations) / seconds,
+                (current.tags - previous.tags) / seconds,
+                (current.positions - previous.positions) / seconds,
+                (current.events - previous.events) / seconds,
+                (current.bytes - previous.bytes) / seconds / 1_000_000,
+                positionsInterval.percentile(0.99) / 1000.0,
+                tagInterval.percentile(0.99) / 1000.0,
+                current.errors);
+    }
+
+    void printSummary(PrintStream out, int sessions) {
+        Counts base = steady != null ? steady : new Counts(0, 0, 0, 0, 0, 0);
+        Counts end = snapshot();
+        double seconds = Math.max(1e-3, (System.nanoTime() - steadyAtNanos) / 1e9);
+        out.printf("%n== 결과 (안정 구간 %.0f초, 연결 %d/%d) ==%n", seconds, connected.get(), sessions);
+        out.printf("보냄: 입장 %d, 위치 %d (%.1f/s), 태그 %d (%.1f/s)%n",
+                joinsSent.sum(),
+                end.locations - base.locations, (end.locations - base.locations) / seconds,
+                end.tags - base.tags, (end.tags - base.tags) / seconds);
+        out.printf("받음: POSITIONS %d (%.1f/s), 방 이벤트 %d (%.1f/s, 태그 %d 포함), 권장 주기 %d, %.2f MB/s%n",
+                end.positions - base.positions, (end.positions - base.positions) / seconds,
+                end.events - base.events, (end.events - base.events) / seconds, tagsReceived.sum(),
+                advicesReceived.sum(),
+                (end.bytes - base.bytes) / seconds / 1_000_000);
+        out.printf("오류: 연결 실패 %d, 전송 오류 %d, STOMP ERROR %d, 보내기 실패 %d, 처리 오류 %d, 응답 없는 태그 %d%n",
+                connectFailures.sum(), transportErrors.sum(), stompErrors.sum(), sendFailures.sum(),
+                handlerErrors.sum(), tagsUnanswered.sum());
+        out.printf("%-26s %10s %9s %9s %9s %9s %9s%n", "지연 (ms)", "건수", "p50", "p90", "p99", "p99.9", "최대");
+        for (Series series : new Series[]{join, tag, positions, events}) {
+            LongHistogram h = series.total;
+            out.printf("%-26s %10d %9.2f %9.2f %9.2f %9.2f %9.2f%n", series.name, h.count(),
+                    h.percentile(0.50) / 1000.0, h.percentile(0.90) / 1000.0, h.percentile(0.99) / 1000.0,
+                    h.percentile(0.999) / 1000.0, h.max() / 1000.0);
+        }
+    }
+
+    Counts snapshot() {
+        return new Counts(locationsSent.sum(), tagsSent.sum(), positionsReceived.sum(),
+                tagsReceived.sum() + eventsReceived.sum(), bytesReceived.sum(), errorCount());
+    }
+
+    record Counts(long locations, long tags, long positions, long events, long bytes, long errors) {
+    }
+
+    /**
+     * 지연 한 종류. 누적 분포와 진행 상황 출력용 구간 분포에 함께 기록합니다.
+     */
+    static final class Series {
+        private final String name;
+        private volatile LongHistogram total = new LongHistogram();
+        private final LongHistogram interval = new LongHistogram();
+
+        private Series(String name) {
+            this.name = name;
+        }
+
+        void record(long micros) {
+            total.record(micros);
+            interval.record(micros);
+        }
+
+        private void resetTotal() {
+            total = new LongHistogram();
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.policethief.loadtest;
+
+import com.policethief.cluster.LocalEventDelivery;
+import com.policethief.dto.GameEventMessage;
+import com.policethief.dto.GameEventType;
+import com.policethief.dto.PlayerRole;
+import com.policethief.service.CompactFrameCodec;
+import com.policethief.service.SessionTokenInterceptor;
+import com.policethief.service.TagCodeService;
+import com.policethief.service.WireFormatNegotiator;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * STOMP 세션 하나로 움직이는 가상 플레이어
+ * 방 토픽과 자기 사용자 큐를 구독한 뒤 입장하고, 방 중심 주변을 GPS 오차가 섞인 무작위 걸음으로 움직이며
+ * 위치를 보냅니다. 경찰은 같은 방의 도둑에게 주기적으로 태그를 보냅니다.
+ * 위치/태그는 플레이어마다 하나씩 이어지는 예약 작업에서 보내고, 세션 쓰기는 플레이어 모니터로 묶어 동시에 쓰지 않습니다.
+ */
+final class SimulatedPlayer extends StompSessionHandlerAdapter {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    /** 이동 방식(정지/걷기)을 다시 고르는 간격 범위 (밀리초) */
+    private static final long MIN_SEGMENT_MILLIS = 10_000;
+    private static final long MAX_SEGMENT_MILLIS = 30_000;
+    private static final double IDLE_PROBABILITY = 0.2;
+
+    private final LoadConfig config;
+    private final LoadStats stats;
+    private final ScheduledExecutorService driver;
+    /** 태그를 보낸 플레이어 ID → 보낸 시각 (나노초). 방의 다른 세션이 받은 시각과 비교합니다. */
+    private final ConcurrentHashMap<Long, Long> tagSentAt;
+
+    private final long playerId;
+    private final String sessionToken;
+    /** 대상 도둑의 태그 코드를 만드는 서버와 같은 키의 발급기 (null 이면 형식이 맞지 않는 코드를 보냄) */
+    private final TagCodeService tagCodes;
+    private final long roomId;
+    private final PlayerRole role;
+    private final long[] targets;
+    private final double centerLatitude;
+    private final double centerLongitude;
+    private final SplittableRandom random;
+
+    private volatile StompSession session;
+    private volatile boolean running = true;
+    private volatile long intervalMillis;
+    private volatile long joinSentAt;
+    private volatile boolean joined;
+    private volatile boolean tagAnswered = true;
+
+    // 예약 작업 안에서만 바뀌는 이동 상태
+    private double north;
+    private double east;
+    private double heading;
+    private double speed;
+    private long segmentEndsAt;
+    private long lastStepAt;
+    private long nextTagAt;
+
+    SimulatedPlayer(LoadConfig config, LoadStats stats, ScheduledExecutorService driver,
+                    ConcurrentHashMap<Long, Long> tagSentAt, long playerId, String sessionToken,
+                    TagCodeService tagCodes, long roomId, PlayerRole role,
+                    long[] targets, double centerLatitude, double centerLongitude) {
+        this.config = config;
+        this.stats = stats;
+        this.driver = driver;
+        this.tagSentAt = tagSentAt;
+        this.playerId = playerId;
+        this.sessionToken = sessionToken;
+        this.tagCodes = tagCodes;
+        this.roomId = roomId;
+        this.role = role;
+        this.targets = targets;
+        this.centerLatitude = centerLatitude;
+        this.centerLongitude = centerLongitude;
+        this.random = new SplittableRandom(playerId);
+        this.intervalMillis = config.locationIntervalMillis();
+        double radius = config.roomRadiusMeters() * Math.sqrt(random.nextDouble());
+        double angle = random.nextDouble(2 * Math.PI);
+        this.north = radius * Math.cos(angle);
+        this.east = radius * Math.sin(angle);
+        this.heading = random.nextDouble(2 * Math.PI);
+    }
+
+    void connect(WebSocketStompClient client) {
+        StompHeaders connectHeaders = new StompHeaders();
+        if (sessionToken != null) {
+            connectHeaders.set(SessionTokenInterceptor.AUTHORIZATION_HEADER, "Bearer " + sessionToken);
+        }
+        if (config.compact()) {
+            connectHeaders.set(WireFormatNegotiator.ENCODING_HEADER, "compact");
+        }
+        client.connectAsync(config.url(), new WebSocketHttpHeaders(), connectHeaders, this)
+                .exceptionally(failure -> {
+                    stats.connectFailures.increment();
+                    return null;
+                });
+    }
+
+    @Override
+    public void afterConnected(@NonNull StompSession session, @NonNull StompHeaders connectedHeaders) {
+        this.session = session;
+        stats.connected.incrementAndGet();
+        EventHandler handler = new EventHandler();
+        session.subscribe(LocalEventDelivery.TOPIC_PREFIX + roomId, handler);
+        session.subscribe("/user" + LocalEventDelivery.USER_DESTINATION_PREFIX + roomId, handler);
+        joinSentAt = System.nanoTime();
+        if (send("/join", Map.of("playerId", playerId, "nickname", "load-" + playerId, "role", role.name()))) {
+            stats.joinsSent.increment();
+        }
+        long now = System.currentTimeMillis();
+        lastStepAt = now;
+        nextTagAt = now + random.nextLong(Math.max(1, config.tagIntervalMillis()));
+        // 위치 전송 시점을 플레이어마다 흩어 둡니다.
+        driver.schedule(this::step, random.nextLong(Math.max(1, intervalMillis)), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 부하를 멈추고 방에서 나간 뒤 연결을 닫습니다.
+     */
+    void stop() {
+        running = false;
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            send("/leave", Map.of("playerId", playerId));
+            current.disconnect();
+            stats.connected.decrementAndGet();
+        }
+    }
+
+    private void step() {
+        StompSession current = session;
+        if (!running || current == null || !current.isConnected()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            move(now);
+            double latitude = centerLatitude + (north + random.nextGaussian() * config.gpsNoiseMeters()) / METERS_PER_DEGREE;
+            double longitude = centerLongitude
+                    + (east + random.nextGaussian() * config.gpsNoiseMeters()) / metersPerDegreeLon();
+            if (send("/location", Map.of("playerId", playerId, "latitude", latitude, "longitude", longitude,
+                    "accuracy", Math.max(1.0, config.gpsNoiseMeters())))) {
+                stats.locationsSent.increment();
+            }
+            if (role == PlayerRole.POLICE && targets.length > 0 && config.tagIntervalMillis() > 0 && now >= nextTagAt) {
+                nextTagAt = now + config.tagIntervalMillis();
+                sendTag();
+            }
+        } catch (RuntimeException e) {
+            stats.handlerErrors.increment();
+        } finally {
+            driver.schedule(this::step, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void sendTag() {
+        if (!tagAnswered) {
+            stats.tagsUnanswered.increment();
+        }
+        long target = targets[random.nextInt(targets.length)];
+        tagAnswered = false;
+        tagSentAt.put(playerId, System.nanoTime());
+        // 코드는 주기마다 바뀌므로 보낼 때마다 현재 구간 코드를 만듭니다.
+        String qrCode = tagCodes != null ? tagCodes.issue(roomId, target).code() : "load-" + target;
+        if (send("/tag", Map.of("taggerId", playerId, "targetId", target, "qrCode", qrCode))) {
+            stats.tagsSent.increment();
+        }
+    }
+
+    /**
+     * 정지/걷기 구간을 번갈아 고르며, 방 반경을 벗어나면 중심 쪽으로 방향을 틉니다.
+     */
+    private void move(long now) {
+        double seconds = (now - lastStepAt) / 1000.0;
+        lastStepAt = now;
+        if (now >= segmentEndsAt) {
+            segmentEndsAt = now + random.nextLong(MIN_SEGMENT_MILLIS, MAX_SEGMENT_MILLIS);
+            speed = random.nextDouble() < IDLE_PROBABILITY ? 0 : config.speedMps() * random.nextDouble(0.5, 1.5);
+        }
+        heading += random.nextGaussian() * 0.3;
+        if (Math.hypot(north, east) > config.roomRadiusMeters()) {
+            heading = Math.atan2(-east, -north);
+        }
+        north += speed * Math.cos(heading) * seconds;
+        east += speed * Math.sin(heading) * seconds;
+    }
+
+    private synchronized boolean send(String action, Map<String, Object> body) {
+        StompSession current = session;
+        if (current == null) {
+            return false;
+        }
+        try {
+            current.send("/app/game/" + roomId + action, body);
+            return true;
+        } catch (RuntimeException e) {
+            stats.sendFailures.increment();
+            return false;
+        }
+    }
+
+    private double metersPerDegreeLon() {
+        return METERS_PER_DEGREE * Math.cos(Math.toRadians(centerLatitude));
+    }
+
+    @Override
+    @NonNull
+    public Type getPayloadType(@NonNull StompHeaders headers) {
+        return String.class;
+    }
+
+    /**
+     * 세션 핸들러로 오는 프레임은 서버의 ERROR 프레임입니다. (멈춘 뒤 연결을 닫으며 받는 것은 세지 않습니다.)
+     */
+    @Override
+    public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+        if (running) {
+            stats.stompErrors.increment();
+        }
+    }
+
+    @Override
+    public void handleException(@NonNull StompSession session, StompCommand command, @NonNull StompHeaders headers,
+                                @NonNull byte[] payload, @NonNull Throwable exception) {
+        stats.handlerErrors.increment();
+    }
+
+    @Override
+    public void handleTransportError(@NonNull StompSession session, @NonNull Throwable exception) {
+        if (running) {
+            stats.transportErrors.increment();
+            if (!session.isConnected() && this.session == session) {
+                this.session = null;
+                stats.connected.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 방 토픽과 사용자 큐로 오는 게임 이벤트. COMPACT 위치 프레임은 바이트 배열로 받습니다.
+     */
+    private final class EventHandler implements StompFrameHandler {
+
+        @Override
+        @NonNull
+        public Type getPayloadType(@NonNull StompHeaders headers) {
+            return MimeTypeUtils.APPLICATION_OCTET_STREAM.equals(headers.getContentType())
+                    ? byte[].class : GameEventMessage.class;
+        }
+
+        @Override
+        public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+            long receivedAt = System.nanoTime();
+            long receivedMillis = System.currentTimeMillis();
+            if (headers.getContentLength() > 0) {
+                stats.bytesReceived.add(headers.getContentLength());
+            }
+            if (payload instanceof byte[] frame) {
+                stats.positionsReceived.increment();
+                stats.positions.record((receivedMillis - CompactFrameCodec.decodePositions(frame).getTimestamp()) * 1000);
+                return;
+            }
+            GameEventMessage event = (GameEventMessage) payload;
+            switch (event.getType()) {
+                case POSITIONS -> {
+                    stats.positionsReceived.increment();
+                    stats.positions.record((receivedMillis - event.getTimestamp()) * 1000);
+                }
+                case TAG, TAG_REJECTED -> {
+                    stats.tagsReceived.increment();
+                    Long sentAt = event.getSenderId() != null ? tagSentAt.get(event.getSenderId()) : null;
+                    if (sentAt != null) {
+                        stats.tag.record((receivedAt - sentAt) / 1000);
+                    }
+                    if (event.getSenderId() != null && event.getSenderId() == playerId) {
+                        tagAnswered = true;
+                    }
+                }
+                case LOCATION_INTERVAL -> {
+                    stats.advicesReceived.increment();
+                    if (config.followAdvice() && event.getPayload() instanceof Map<?, ?> advice
+                            && advice.get("intervalMillis") instanceof Number interval) {
+                        intervalMillis = Math.max(1, interval.longValue());
+                    }
+                }
+                case ROSTER -> {
+                    // 입장 직후 자기 세션으로만 오는 명단이므로 방 이벤트 지연에 넣지 않습니다.
+                }
+                default -> {
+                    stats.eventsReceived.increment();
+                    stats.events.record((receivedMillis - event.getTimestamp()) * 1000);
+                    if (event.getType() == GameEventType.JOIN && !joined
+                            && event.getSenderId() != null && event.getSenderId() == playerId) {
+                        joined = true;
+                        stats.join.record((receivedAt - joinSentAt) / 1000);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.policethief.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 방 ID → 소유 노드 일관 해시 링
+ * 노드마다 가상 노드를 여러 개 배치해 방이 고르게 나뉘도록 하고,
+ * 노드가 추가/제거될 때 약 1/N 의 방만 소유자가 바뀌도록 합니다.
+ * 불변 객체이며 멤버십이 바뀌면 새 링을 만듭니다.
+ */
+public final class ConsistentHashRing {
+
+    private final int virtualNodes;
+    private final NavigableMap<Long, String> ring;
+    private final Set<String> nodes;
+
+    private ConsistentHashRing(int virtualNodes, Set<String> nodes) {
+        this.virtualNodes = virtualNodes;
+        this.nodes = Collections.unmodifiableSet(nodes);
+        TreeMap<Long, String> tokens = new TreeMap<>();
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // 토큰 충돌 시에는 노드 ID 순서상 앞선 노드가 차지하도록 해서 모든 노드가 같은 링을 만들게 합니다.
+                tokens.merge(tokenOf(node, i), node, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+        this.ring = tokens;
+    }
+
+    public static ConsistentHashRing empty(int virtualNodes) {
+        return new ConsistentHashRing(virtualNodes, new TreeSet<>());
+    }
+
+    public ConsistentHashRing withNode(String nodeId) {
+        TreeSet<String> next = new TreeSet<>(nodes);
+        next.add(nodeId);
+        return new ConsistentHashRing(virtualNodes, next);
+    }
+
+    public ConsistentHashRing withoutNode(String nodeId) {
+        TreeSet<String> next = new TreeSet<>(nodes);
+        next.remove(nodeId);
+        return new ConsistentHashRing(virtualNodes, next);
+    }
+
+    /**
+     * 방의 소유 노드 (노드가 하나도 없으면 null)
+     */
+    public String ownerOf(long roomId) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(mix(roomId));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public Set<String> getNodes() {
+        return nodes;
+    }
+
+    private static long tokenOf(String nodeId, int replica) {
+        byte[] bytes = (nodeId + '#' + replica).getBytes(StandardCharsets.UTF_8);
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * 연속된 방 ID가 링 위에 고르게 흩어지도록 하는 64비트 믹서 (MurmurHash3 fmix64)
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
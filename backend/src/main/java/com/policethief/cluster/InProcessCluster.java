@@ -0,0 +1,158 @@
+package com.policethief.cluster;
+
+import com.policethief.domain.GameRoom;
+import com.policethief.dto.GameEventMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 한 JVM 안에서 여러 노드를 흉내 내는 클러스터
+ * 같은 이름으로 띄운 애플리케이션 컨텍스트들이 이 객체를 네트워크 대신 공유합니다.
+ * 외부 서비스 없이 소유권 라우팅, 노드 간 전달, 리밸런싱을 한 머신에서 확인하기 위한 용도입니다.
+ * (실제 배포에서는 같은 역할을 메시지 브로커/서비스 디스커버리가 맡습니다.)
+ */
+@Slf4j
+public final class InProcessCluster {
+
+    private static final ConcurrentHashMap<String, InProcessCluster> CLUSTERS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final Object membershipLock = new Object();
+    private final ConcurrentHashMap<String, InProcessRoomEventBus> members = new ConcurrentHashMap<>();
+    /** 복제 방 목록의 원본 (새로 합류한 노드에 재생합니다) */
+    private final Map<Long, GameRoom> rooms = new HashMap<>();
+    /** 복제 멤버 목록의 원본 (방 목록과 함께 재생합니다) */
+    private final Map<Long, RoomMembership> memberships = new HashMap<>();
+    private final AtomicLong roomSequence = new AtomicLong();
+    private volatile ConsistentHashRing ring;
+    /** 이 클러스터를 잡고 있는 노드 수 (CLUSTERS.compute 안에서만 바꿉니다) */
+    private int attached;
+
+    private InProcessCluster(String name, int virtualNodes) {
+        this.name = name;
+        this.ring = ConsistentHashRing.empty(virtualNodes);
+    }
+
+    /**
+     * 이름으로 클러스터를 찾거나 새로 만들어 잡습니다. 잡은 노드가 모두 {@link #detach()} 하면 클러스터를 버리므로,
+     * 같은 이름으로 다시 띄운 노드는 이전 방 목록/ID 없이 새 클러스터에서 시작합니다.
+     */
+    public static InProcessCluster attach(String name, int virtualNodes) {
+        return CLUSTERS.compute(name, (key, cluster) -> {
+            InProcessCluster attachedTo = cluster != null ? cluster : new InProcessCluster(key, virtualNodes);
+            attachedTo.attached++;
+            return attachedTo;
+        });
+    }
+
+    /**
+     * 노드가 클러스터를 놓습니다. 마지막 노드가 놓으면 이름 표에서 지웁니다.
+     */
+    void detach() {
+        CLUSTERS.computeIfPresent(name, (key, cluster) -> {
+            if (cluster != this) {
+                return cluster;
+            }
+            return --attached == 0 ? null : this;
+        });
+    }
+
+    public ConsistentHashRing getRing() {
+        return ring;
+    }
+
+    long nextRoomId() {
+        return roomSequence.incrementAndGet();
+    }
+
+    void reserveRoomId(long roomId) {
+        roomSequence.accumulateAndGet(roomId, Math::max);
+    }
+
+    void join(InProcessRoomEventBus node) {
+        synchronized (membershipLock) {
+            members.put(node.getLocalNodeId(), node);
+            rooms.values().forEach(node::applyRoomCreated);
+            memberships.forEach(node::applyMembership);
+            ring = ring.withNode(node.getLocalNodeId());
+            log.info("클러스터 노드 합류 - cluster={}, nodeId={}, nodes={}", name, node.getLocalNodeId(), ring.getNodes());
+            // 새 노드 몫이 된 방은 기존 소유 노드가 넘겨줍니다.
+            for (InProcessRoomEventBus member : members.values()) {
+                member.onOwnershipChanged();
+            }
+        }
+    }
+
+    void leave(InProcessRoomEventBus node) {
+        synchronized (membershipLock) {
+            ring = ring.withoutNode(node.getLocalNodeId());
+            // 떠나는 노드는 아직 전달 경로가 살아 있을 때 자기 방을 모두 넘깁니다.
+            node.onOwnershipChanged();
+            members.remove(node.getLocalNodeId());
+            log.info("클러스터 노드 이탈 - cluster={}, nodeId={}, nodes={}", name, node.getLocalNodeId(), ring.getNodes());
+        }
+    }
+
+    void dispatch(RoomCommand command) {
+        String owner = ring.ownerOf(command.getRoomId());
+        InProcessRoomEventBus target = owner != null ? members.get(owner) : null;
+        if (target == null) {
+            log.warn("방 소유 노드를 찾을 수 없어 명령을 버립니다 - roomId={}, type={}", command.getRoomId(), command.getType());
+            return;
+        }
+        target.handle(command);
+    }
+
+    void publish(Long roomId, GameEventMessage message) {
+        for (InProcessRoomEventBus member : members.values()) {
+            member.publishLocal(roomId, message);
+        }
+    }
+
+    void deliver(Long roomId, Collection<SessionRef> targets, RoomFrame frame) {
+        Map<String, List<String>> byNode = new HashMap<>();
+        for (SessionRef target : targets) {
+            byNode.computeIfAbsent(target.getNodeId(), id -> new ArrayList<>()).add(target.getSessionId());
+        }
+        byNode.forEach((nodeId, sessionIds) -> {
+            InProcessRoomEventBus member = members.get(nodeId);
+            if (member != null) {
+                member.deliverLocal(roomId, sessionIds, frame);
+            }
+        });
+    }
+
+    void announceRoom(GameRoom room) {
+        synchronized (membershipLock) {
+            rooms.put(room.getId(), room);
+            members.values().forEach(member -> member.applyRoomCreated(room));
+        }
+    }
+
+    void retireRoom(Long roomId) {
+        synchronized (membershipLock) {
+            memberships.remove(roomId);
+            if (rooms.remove(roomId) != null) {
+                members.values().forEach(member -> member.applyRoomClosed(roomId));
+            }
+        }
+    }
+
+    void announceMembership(Long roomId, RoomMembership membership) {
+        synchronized (membershipLock) {
+            // 이미 닫힌 방의 늦은 알림은 버립니다.
+            if (!rooms.containsKey(roomId)) {
+                return;
+            }
+            memberships.put(roomId, membership);
+            members.values().forEach(member -> member.applyMembership(roomId, membership));
+        }
+    }
+}
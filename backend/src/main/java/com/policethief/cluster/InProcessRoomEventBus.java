@@ -0,0 +1,153 @@
+package com.policethief.cluster;
+
+import com.policethief.domain.GameRoom;
+import com.policethief.dto.GameEventMessage;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * {@link InProcessCluster} 에 합류하는 노드의 이벤트 버스
+ * 컨텍스트가 시작되면 클러스터에 합류하고, 종료될 때 소유한 방을 넘긴 뒤 이탈합니다.
+ * 클러스터는 생성할 때 잡고 빈이 폐기될 때 놓으므로, 마지막 노드가 내려가면 클러스터도 사라집니다.
+ */
+@Component
+@ConditionalOnProperty(name = "game.cluster.mode", havingValue = "in-process")
+public class InProcessRoomEventBus implements RoomEventBus, SmartLifecycle {
+
+    private final String nodeId;
+    private final InProcessCluster cluster;
+    private final LocalEventDelivery delivery;
+    private final List<RegistryListener> registryListeners = new CopyOnWriteArrayList<>();
+    private volatile CommandHandler commandHandler;
+    private volatile boolean running;
+
+    public InProcessRoomEventBus(
+            @Value("${game.cluster.node-id:node-${server.port:8080}}") String nodeId,
+            @Value("${game.cluster.name:default}") String clusterName,
+            @Value("${game.cluster.virtual-nodes:128}") int virtualNodes,
+            LocalEventDelivery delivery) {
+        this.nodeId = nodeId;
+        this.cluster = InProcessCluster.attach(clusterName, virtualNodes);
+        this.delivery = delivery;
+    }
+
+    @Override
+    public String getLocalNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public String ownerOf(Long roomId) {
+        return cluster.getRing().ownerOf(roomId);
+    }
+
+    @Override
+    public long nextRoomId() {
+        return cluster.nextRoomId();
+    }
+
+    @Override
+    public void reserveRoomId(long roomId) {
+        cluster.reserveRoomId(roomId);
+    }
+
+    @Override
+    public void dispatch(RoomCommand command) {
+        cluster.dispatch(command);
+    }
+
+    @Override
+    public void publish(Long roomId, GameEventMessage message) {
+        cluster.publish(roomId, message);
+    }
+
+    @Override
+    public void deliver(Long roomId, Collection<SessionRef> targets, RoomFrame frame) {
+        cluster.deliver(roomId, targets, frame);
+    }
+
+    @Override
+    public void announceRoom(GameRoom room) {
+        cluster.announceRoom(room);
+    }
+
+    @Override
+    public void retireRoom(Long roomId) {
+        cluster.retireRoom(roomId);
+    }
+
+    @Override
+    public void announceMembership(Long roomId, RoomMembership membership) {
+        cluster.announceMembership(roomId, membership);
+    }
+
+    @Override
+    public void setCommandHandler(CommandHandler handler) {
+        this.commandHandler = handler;
+    }
+
+    @Override
+    public void addRegistryListener(RegistryListener listener) {
+        registryListeners.add(listener);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        cluster.join(this);
+    }
+
+    @Override
+    public void stop() {
+        cluster.leave(this);
+        running = false;
+    }
+
+    /**
+     * 이탈({@link #stop()}) 뒤, 또는 시작하지 못하고 폐기될 때(컨텍스트 기동 실패 등) 클러스터를 놓습니다.
+     */
+    @PreDestroy
+    void release() {
+        cluster.detach();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void handle(RoomCommand command) {
+        commandHandler.handle(command);
+    }
+
+    void onOwnershipChanged() {
+        commandHandler.onOwnershipChanged();
+    }
+
+    void publishLocal(Long roomId, GameEventMessage message) {
+        delivery.publish(roomId, message);
+    }
+
+    void deliverLocal(Long roomId, List<String> sessionIds, RoomFrame frame) {
+        delivery.deliver(roomId, sessionIds, frame);
+    }
+
+    void applyRoomCreated(GameRoom room) {
+        registryListeners.forEach(listener -> listener.onRoomCreated(room));
+    }
+
+    void applyRoomClosed(Long roomId) {
+        registryListeners.forEach(listener -> listener.onRoomClosed(roomId));
+    }
+
+    void applyMembership(Long roomId, RoomMembership membership) {
+        registryListeners.forEach(listener -> listener.onMembershipChanged(roomId, membership));
+    }
+}
@@ -0,0 +1,138 @@
+package com.policethief.cluster;
+
+import com.policethief.dto.GameEventMessage;
+import com.policethief.dto.GameEventType;
+import com.policethief.dto.LocationIntervalPayload;
+import com.policethief.dto.WireFormat;
+import com.policethief.service.LocationRateService;
+import com.policethief.service.MessagingMetrics;
+import com.policethief.service.SlowConsumerGuard;
+import com.policethief.service.WireFormatNegotiator;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Collection;
+
+/**
+ * 이 노드에 붙어 있는 세션으로의 실제 전송
+ * 프레임은 세션이 협상한 인코딩(JSON/COMPACT)별로 한 번씩만 직렬화합니다.
+ * POSITIONS 프레임은 {@link SlowConsumerGuard} 를 거쳐, 밀려 있는 세션에는 합쳐 두었다가 최신 위치만 보냅니다.
+ * LOCATION_INTERVAL 프레임은 보내면서 그 세션의 위치 수신 제한({@link LocationRateService})에도 반영합니다.
+ * 방송마다 팬아웃 시간과 직렬화한 프레임 크기를 {@link MessagingMetrics} 에 남깁니다.
+ */
+@Component
+public class LocalEventDelivery {
+
+    public static final String TOPIC_PREFIX = "/topic/game/";
+    public static final String USER_DESTINATION_PREFIX = "/queue/game/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final WireFormatNegotiator wireFormatNegotiator;
+    private final SlowConsumerGuard slowConsumerGuard;
+    private final LocationRateService locationRateService;
+    private final MessagingMetrics metrics;
+
+    public LocalEventDelivery(SimpMessagingTemplate messagingTemplate, WireFormatNegotiator wireFormatNegotiator,
+                              SlowConsumerGuard slowConsumerGuard, LocationRateService locationRateService,
+                              MessagingMetrics metrics) {
+        this.messagingTemplate = messagingTemplate;
+        this.wireFormatNegotiator = wireFormatNegotiator;
+        this.slowConsumerGuard = slowConsumerGuard;
+        this.locationRateService = locationRateService;
+        this.metrics = metrics;
+        slowConsumerGuard.setHeldFrameSender(this::deliverOne);
+    }
+
+    /**
+     * 방 토픽으로 발행합니다. 구독 세션마다 나눠 보내는 것은 브로커가 이 호출 안에서 합니다.
+     */
+    @SuppressWarnings("null")
+    public void publish(Long roomId, GameEventMessage message) {
+        long startedAt = System.nanoTime();
+        Message<?> encoded = encode(message);
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(encoded.getHeaders().get(MessageHeaders.CONTENT_TYPE, MimeType.class));
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send(TOPIC_PREFIX + roomId,
+                MessageBuilder.createMessage(encoded.getPayload(), accessor.getMessageHeaders()));
+        metrics.recordFanout(message.getType(), startedAt);
+    }
+
+    public void deliver(Long roomId, Collection<String> sessionIds, RoomFrame frame) {
+        long startedAt = System.nanoTime();
+        Message<?> json = null;
+        Message<?> compact = null;
+        boolean interval = frame.getEvent().getType() == GameEventType.LOCATION_INTERVAL;
+        for (String sessionId : sessionIds) {
+            if (interval) {
+                locationRateService.applyInterval(sessionId,
+                        ((LocationIntervalPayload) frame.getEvent().getPayload()).getIntervalMillis());
+            }
+            RoomFrame admitted = slowConsumerGuard.admitPositions(sessionId, roomId, frame);
+            if (admitted == null) {
+                continue;
+            }
+            if (admitted != frame) {
+                // 합쳐 둔 위치가 섞인 프레임은 이 세션만 받으므로 따로 인코딩합니다.
+                deliverOne(roomId, sessionId, admitted);
+                continue;
+            }
+            Message<?> encoded;
+            if (isCompact(sessionId, frame)) {
+                if (compact == null) {
+                    compact = encodeCompact(frame);
+                }
+                encoded = compact;
+            } else {
+                if (json == null) {
+                    json = encode(frame.getEvent());
+                }
+                encoded = json;
+            }
+            sendToSession(roomId, sessionId, encoded);
+        }
+        metrics.recordFanout(frame.getEvent().getType(), startedAt);
+    }
+
+    private void deliverOne(Long roomId, String sessionId, RoomFrame frame) {
+        sendToSession(roomId, sessionId, isCompact(sessionId, frame) ? encodeCompact(frame) : encode(frame.getEvent()));
+    }
+
+    private boolean isCompact(String sessionId, RoomFrame frame) {
+        return wireFormatNegotiator.formatOf(sessionId) == WireFormat.COMPACT && frame.getCompact() != null;
+    }
+
+    @SuppressWarnings("null")
+    private Message<?> encodeCompact(RoomFrame frame) {
+        metrics.recordFrame(frame.getEvent().getType(), frame.getCompact().length);
+        return MessageBuilder.withPayload(frame.getCompact())
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_OCTET_STREAM)
+                .build();
+    }
+
+    @SuppressWarnings("null")
+    private Message<?> encode(GameEventMessage message) {
+        Message<?> encoded = messagingTemplate.getMessageConverter().toMessage(message, null);
+        if (encoded.getPayload() instanceof byte[] bytes) {
+            metrics.recordFrame(message.getType(), bytes.length);
+        }
+        return encoded;
+    }
+
+    @SuppressWarnings("null")
+    private void sendToSession(Long roomId, String sessionId, Message<?> encoded) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setContentType(encoded.getHeaders().get(MessageHeaders.CONTENT_TYPE, MimeType.class));
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send("/user/" + sessionId + USER_DESTINATION_PREFIX + roomId,
+                MessageBuilder.createMessage(encoded.getPayload(), accessor.getMessageHeaders()));
+    }
+}
@@ -0,0 +1,99 @@
+package com.policethief.cluster;
+
+import com.policethief.domain.GameRoom;
+import com.policethief.dto.GameEventMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 단일 노드 이벤트 버스 (기본값)
+ * 모든 방을 이 노드가 소유하므로 명령은 바로 처리하고 이벤트는 로컬 브로커로만 보냅니다.
+ */
+@Component
+@ConditionalOnProperty(name = "game.cluster.mode", havingValue = "local", matchIfMissing = true)
+public class LocalRoomEventBus implements RoomEventBus {
+
+    private final String nodeId;
+    private final LocalEventDelivery delivery;
+    private final AtomicLong roomSequence = new AtomicLong();
+    private final List<RegistryListener> registryListeners = new CopyOnWriteArrayList<>();
+    private volatile CommandHandler commandHandler;
+
+    public LocalRoomEventBus(
+            @Value("${game.cluster.node-id:node-${server.port:8080}}") String nodeId,
+            LocalEventDelivery delivery) {
+        this.nodeId = nodeId;
+        this.delivery = delivery;
+    }
+
+    @Override
+    public String getLocalNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public String ownerOf(Long roomId) {
+        return nodeId;
+    }
+
+    @Override
+    public long nextRoomId() {
+        return roomSequence.incrementAndGet();
+    }
+
+    @Override
+    public void reserveRoomId(long roomId) {
+        roomSequence.accumulateAndGet(roomId, Math::max);
+    }
+
+    @Override
+    public void dispatch(RoomCommand command) {
+        commandHandler.handle(command);
+    }
+
+    @Override
+    public void publish(Long roomId, GameEventMessage message) {
+        delivery.publish(roomId, message);
+    }
+
+    @Override
+    public void deliver(Long roomId, Collection<SessionRef> targets, RoomFrame frame) {
+        List<String> sessionIds = new ArrayList<>(targets.size());
+        for (SessionRef target : targets) {
+            sessionIds.add(target.getSessionId());
+        }
+        delivery.deliver(roomId, sessionIds, frame);
+    }
+
+    @Override
+    public void announceRoom(GameRoom room) {
+        registryListeners.forEach(listener -> listener.onRoomCreated(room));
+    }
+
+    @Override
+    public void retireRoom(Long roomId) {
+        registryListeners.forEach(listener -> listener.onRoomClosed(roomId));
+    }
+
+    @Override
+    public void announceMembership(Long roomId, RoomMembership membership) {
+        registryListeners.forEach(listener -> listener.onMembershipChanged(roomId, membership));
+    }
+
+    @Override
+    public void setCommandHandler(CommandHandler handler) {
+        this.commandHandler = handler;
+    }
+
+    @Override
+    public void addRegistryListener(RegistryListener listener) {
+        registryListeners.add(listener);
+    }
+}
@@ -0,0 +1,55 @@
+package com.policethief.cluster;
+
+/**
+ * 방 소유 노드에서 처리해야 하는 명령
+ * 클라이언트가 어느 노드에 접속했든 명령은 방을 소유한 노드로 전달되어 처리됩니다.
+ */
+public final class RoomCommand {
+
+    public enum Type {
+        JOIN,
+        LEAVE,
+        START,
+        TAG,
+        LOCATION,
+        /** 리밸런싱으로 소유자가 바뀐 방의 상태 인계 (payload: {@link RoomHandoff}) */
+        HANDOFF,
+        /** 플레이어의 STOMP 세션 연결이 끊김 (origin: 끊긴 세션, payload: playerId) */
+        DISCONNECT,
+        /** 접속 상태가 만료되어 자동 퇴장 (payload: playerId) */
+        EXPIRE,
+        /** 게임 타이머가 만료됨 (payload: {@link com.policethief.service.GameTimerService.GameTimer}) */
+        TIMER
+    }
+
+    private final Type type;
+    private final Long roomId;
+    private final SessionRef origin;
+    private final Object payload;
+
+    public RoomCommand(Type type, Long roomId, SessionRef origin, Object payload) {
+        this.type = type;
+        this.roomId = roomId;
+        this.origin = origin;
+        this.payload = payload;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * 명령을 보낸 세션 (인계처럼 세션과 무관한 명령이면 null)
+     */
+    public SessionRef getOrigin() {
+        return origin;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+}
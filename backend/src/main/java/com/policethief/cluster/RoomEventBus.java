@@ -0,0 +1,94 @@
+package com.policethief.cluster;
+
+import com.policethief.domain.GameRoom;
+import com.policethief.dto.GameEventMessage;
+
+import java.util.Collection;
+
+/**
+ * 방 이벤트 버스
+ * 방마다 소유 노드가 하나씩 정해지고(일관 해시), 방에 대한 명령은 소유 노드로 보내져 그곳의 상태만 변경합니다.
+ * 소유 노드가 만든 이벤트는 세션이 붙어 있는 노드로 전달되어 각 노드의 로컬 브로커가 내보냅니다.
+ * 방 목록(메타데이터)은 검색을 위해 모든 노드에 복제됩니다.
+ */
+public interface RoomEventBus {
+
+    String getLocalNodeId();
+
+    /**
+     * 방의 현재 소유 노드
+     */
+    String ownerOf(Long roomId);
+
+    default boolean isLocalOwner(Long roomId) {
+        return getLocalNodeId().equals(ownerOf(roomId));
+    }
+
+    /**
+     * 클러스터 전체에서 유일한 방 ID를 발급합니다.
+     */
+    long nextRoomId();
+
+    /**
+     * 이미 쓰인 방 ID (재시작 후 복구한 방 등) 보다 큰 ID부터 발급하도록 합니다.
+     */
+    void reserveRoomId(long roomId);
+
+    /**
+     * 명령을 방 소유 노드로 보냅니다.
+     */
+    void dispatch(RoomCommand command);
+
+    /**
+     * 방 토픽(/topic/game/{roomId}) 이벤트를 모든 노드의 구독자에게 보냅니다.
+     */
+    void publish(Long roomId, GameEventMessage message);
+
+    /**
+     * 지정한 세션들에만 이벤트를 보냅니다. 노드별로 묶어서 한 번씩 전달합니다.
+     */
+    void deliver(Long roomId, Collection<SessionRef> targets, RoomFrame frame);
+
+    void announceRoom(GameRoom room);
+
+    void retireRoom(Long roomId);
+
+    /**
+     * 소유 노드가 바뀐 멤버 목록/진행 상태를 모든 노드에 복제합니다. 닫힌 방의 사본은 {@link #retireRoom}이 함께 지웁니다.
+     */
+    void announceMembership(Long roomId, RoomMembership membership);
+
+    void setCommandHandler(CommandHandler handler);
+
+    void addRegistryListener(RegistryListener listener);
+
+    /**
+     * 방 소유 노드에서 명령을 처리하는 쪽
+     */
+    interface CommandHandler {
+
+        void handle(RoomCommand command);
+
+        /**
+         * 멤버십 변경으로 소유자가 바뀌었을 수 있을 때 호출됩니다.
+         * 더 이상 소유하지 않는 방의 상태는 새 소유 노드로 넘겨야 합니다.
+         */
+        void onOwnershipChanged();
+    }
+
+    /**
+     * 복제된 방 목록을 유지하는 쪽
+     */
+    interface RegistryListener {
+
+        void onRoomCreated(GameRoom room);
+
+        void onRoomClosed(Long roomId);
+
+        /**
+         * 방의 멤버 목록/진행 상태가 바뀌었을 때 호출됩니다.
+         */
+        default void onMembershipChanged(Long roomId, RoomMembership membership) {
+        }
+    }
+}
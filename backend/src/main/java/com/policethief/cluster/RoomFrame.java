@@ -0,0 +1,71 @@
+package com.policethief.cluster;
+
+import com.policethief.dto.GameEventMessage;
+import com.policethief.dto.PositionsPayload;
+import com.policethief.service.CompactFrameCodec;
+
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * 세션들에 보낼 이벤트 한 건
+ * JSON은 각 노드가 필요할 때 한 번 직렬화하고, COMPACT 바이트는 방 소유 노드에서
+ * COMPACT 세션이 있을 때 처음 한 번만 만들어 모든 노드가 함께 씁니다.
+ * POSITIONS 프레임은 플레이어 인덱스 조회 함수를 함께 들고 다녀, 느린 세션에서 여러 프레임을 합친 뒤 다시 인코딩할 수 있습니다.
+ */
+public final class RoomFrame {
+    private final GameEventMessage event;
+    private final Supplier<byte[]> compactEncoder;
+    private final ToIntFunction<Long> playerIndex;
+    private byte[] compact;
+
+    public RoomFrame(GameEventMessage event, Supplier<byte[]> compactEncoder) {
+        this(event, compactEncoder, null);
+    }
+
+    private RoomFrame(GameEventMessage event, Supplier<byte[]> compactEncoder, ToIntFunction<Long> playerIndex) {
+        this.event = event;
+        this.compactEncoder = compactEncoder;
+        this.playerIndex = playerIndex;
+    }
+
+    public static RoomFrame of(GameEventMessage event) {
+        return new RoomFrame(event, null);
+    }
+
+    /**
+     * POSITIONS 프레임 (payload: {@link PositionsPayload})
+     *
+     * @param playerIndex 플레이어 ID → 방 안 인덱스 (COMPACT 인코딩용, 방에 없으면 음수)
+     */
+    public static RoomFrame positions(GameEventMessage event, ToIntFunction<Long> playerIndex) {
+        PositionsPayload payload = (PositionsPayload) event.getPayload();
+        return new RoomFrame(event, () -> CompactFrameCodec.encodePositions(
+                event.getTimestamp(), payload.getPositions(), payload.getHidden(), playerIndex), playerIndex);
+    }
+
+    /**
+     * 플레이어별 최신 위치로 합칠 수 있는 POSITIONS 프레임이면 true
+     */
+    public boolean isPositions() {
+        return playerIndex != null;
+    }
+
+    public ToIntFunction<Long> getPlayerIndex() {
+        return playerIndex;
+    }
+
+    public GameEventMessage getEvent() {
+        return event;
+    }
+
+    /**
+     * COMPACT 인코딩 결과 (COMPACT 표현이 없는 이벤트면 null)
+     */
+    public synchronized byte[] getCompact() {
+        if (compact == null && compactEncoder != null) {
+            compact = compactEncoder.get();
+        }
+        return compact;
+    }
+}
@@ -0,0 +1,56 @@
+package com.policethief.cluster;
+
+import com.policethief.domain.RoomStatus;
+import com.policethief.dto.RosterEntry;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 소유자가 바뀐 방을 새 소유 노드로 넘길 때 보내는 상태
+ * 위치/근접 상태는 다음 위치 갱신에서 다시 채워지므로 멤버 명단, 방장/진행 상태와 세션 주소만 넘깁니다.
+ * 라운드 시계는 시작 시각만 넘기면 새 소유 노드가 종료/알림 타이머를 다시 겁니다.
+ */
+public final class RoomHandoff {
+    private final List<RosterEntry> members;
+    private final Long hostId;
+    private final RoomStatus status;
+    private final Map<Long, SessionRef> sessions;
+    private final long startedAt;
+
+    public RoomHandoff(List<RosterEntry> members, Long hostId, RoomStatus status, Map<Long, SessionRef> sessions) {
+        this(members, hostId, status, sessions, 0);
+    }
+
+    public RoomHandoff(List<RosterEntry> members, Long hostId, RoomStatus status, Map<Long, SessionRef> sessions,
+                       long startedAt) {
+        this.members = members;
+        this.hostId = hostId;
+        this.status = status;
+        this.sessions = sessions;
+        this.startedAt = startedAt;
+    }
+
+    public List<RosterEntry> getMembers() {
+        return members;
+    }
+
+    public Long getHostId() {
+        return hostId;
+    }
+
+    public RoomStatus getStatus() {
+        return status;
+    }
+
+    public Map<Long, SessionRef> getSessions() {
+        return sessions;
+    }
+
+    /**
+     * 진행 중인 라운드의 시작 시각 (epoch 밀리초, 모르거나 진행 중이 아니면 0)
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+}
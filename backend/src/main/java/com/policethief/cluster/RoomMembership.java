@@ -0,0 +1,36 @@
+package com.policethief.cluster;
+
+import com.policethief.domain.RoomStatus;
+
+import java.util.Arrays;
+
+/**
+ * 방 소유 노드가 다른 노드에 복제하는 방의 멤버 목록과 진행 상태
+ * 멤버 상태는 소유 노드에만 있으므로, 다른 노드는 이 사본으로 인원 수/멤버 여부/진행 상태를 답합니다.
+ * 소유 노드가 바뀔 때마다 통째로 다시 보내는 불변 값입니다.
+ */
+public final class RoomMembership {
+    private final long[] playerIds;
+    private final RoomStatus status;
+
+    /**
+     * @param playerIds 멤버 ID (복사해서 정렬해 둡니다)
+     */
+    public RoomMembership(long[] playerIds, RoomStatus status) {
+        this.playerIds = playerIds.clone();
+        Arrays.sort(this.playerIds);
+        this.status = status;
+    }
+
+    public boolean contains(Long playerId) {
+        return playerId != null && Arrays.binarySearch(playerIds, playerId) >= 0;
+    }
+
+    public int size() {
+        return playerIds.length;
+    }
+
+    public RoomStatus getStatus() {
+        return status;
+    }
+}
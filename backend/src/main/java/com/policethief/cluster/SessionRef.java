@@ -0,0 +1,45 @@
+package com.policethief.cluster;
+
+import java.util.Objects;
+
+/**
+ * 클러스터 안에서 STOMP 세션을 가리키는 주소 (세션이 붙어 있는 노드 + 노드 내 세션 ID)
+ */
+public final class SessionRef {
+    private final String nodeId;
+    private final String sessionId;
+
+    public SessionRef(String nodeId, String sessionId) {
+        this.nodeId = nodeId;
+        this.sessionId = sessionId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SessionRef other)) {
+            return false;
+        }
+        return nodeId.equals(other.nodeId) && sessionId.equals(other.sessionId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nodeId, sessionId);
+    }
+
+    @Override
+    public String toString() {
+        return nodeId + "/" + sessionId;
+    }
+}
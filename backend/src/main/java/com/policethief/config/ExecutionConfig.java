@@ -0,0 +1,36 @@
+package com.policethief.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * 실행 방식 설정
+ * game.execution.mode=virtual 이면 HTTP 요청(카카오 API 호출 대기 포함)을 가상 스레드에서 처리합니다.
+ * STOMP 채널 실행기는 WebSocketConfig에서 같은 설정을 보고 바꿉니다.
+ * 가상 스레드는 JDK 21 이상에서만 동작하므로, 그보다 낮은 JDK에서 virtual 로 설정하면
+ * 웹 서버를 띄우다 깊은 곳에서 실패하는 대신 설정을 읽는 시점에 바로 시작을 멈춥니다.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    private static final int VIRTUAL_THREAD_MIN_JDK = 21;
+
+    public ExecutionConfig(@Value("${game.execution.mode:platform}") ExecutionMode executionMode) {
+        int jdk = Runtime.version().feature();
+        if (executionMode == ExecutionMode.VIRTUAL && jdk < VIRTUAL_THREAD_MIN_JDK) {
+            throw new IllegalStateException("game.execution.mode=virtual 은 JDK " + VIRTUAL_THREAD_MIN_JDK
+                    + " 이상에서만 쓸 수 있습니다. (현재 JDK " + jdk + ") "
+                    + "game.execution.mode=platform 으로 바꾸거나 JDK " + VIRTUAL_THREAD_MIN_JDK + " 이상으로 실행하세요.");
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "game.execution.mode", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(new VirtualThreadTaskExecutor("http-"));
+    }
+}
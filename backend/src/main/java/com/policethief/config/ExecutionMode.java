@@ -0,0 +1,11 @@
+package com.policethief.config;
+
+/**
+ * 요청/메시지 처리 스레드 실행 방식
+ */
+public enum ExecutionMode {
+    /** 기존과 같은 고정 크기 플랫폼 스레드 풀 */
+    PLATFORM,
+    /** 작업마다 가상 스레드 (JDK 21 이상 필요) */
+    VIRTUAL
+}
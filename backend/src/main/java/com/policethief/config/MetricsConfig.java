@@ -0,0 +1,20 @@
+package com.policethief.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 운영 지표를 등록하는 MeterRegistry
+ * Actuator 없이 메모리 레지스트리 하나를 두고, 등록된 지표는 GET /api/game/metrics/meters 로 읽습니다.
+ * 지표는 각 구성 요소의 카운터를 조회 때 읽는 함수형 미터라 기록 경로에는 비용이 더해지지 않습니다.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+}
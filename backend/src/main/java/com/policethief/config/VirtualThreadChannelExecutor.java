@@ -0,0 +1,77 @@
+package com.policethief.config;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * STOMP 채널용 가상 스레드 실행기
+ * ChannelRegistration.taskExecutor 는 ThreadPoolTaskExecutor 만 받고, 등록한 실행기는 그 타입의 빈
+ * (clientInboundChannelExecutor/clientOutboundChannelExecutor)으로 노출되어 GameMetricsService 도 그 타입으로 주입받습니다.
+ * 그래서 풀 실행기를 상속해 타입만 맞추고, 작업을 넣는 메서드를 모두 덮어써 실제 작업은 메시지마다 새 가상 스레드에서 실행합니다.
+ * 상위 클래스의 풀은 빈 초기화 때 만들어지기만 하고 작업을 받지 않으므로 스레드를 띄우지 않습니다.
+ * 대기열이 없으므로 계측에는 실행 중인 작업 수를 활성 스레드 수로 알립니다.
+ */
+public class VirtualThreadChannelExecutor extends ThreadPoolTaskExecutor {
+
+    private static final long serialVersionUID = 1L;
+
+    private final VirtualThreadTaskExecutor delegate;
+    private final AtomicInteger active = new AtomicInteger();
+
+    public VirtualThreadChannelExecutor(String threadNamePrefix) {
+        this.delegate = new VirtualThreadTaskExecutor(threadNamePrefix);
+        setThreadNamePrefix(threadNamePrefix);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        delegate.execute(tracked(task));
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        return delegate.submit(tracked(task));
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        return delegate.submit(() -> {
+            active.incrementAndGet();
+            try {
+                return task.call();
+            } finally {
+                active.decrementAndGet();
+            }
+        });
+    }
+
+    @Override
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    @Override
+    public int getPoolSize() {
+        return active.get();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return 0;
+    }
+
+    private Runnable tracked(Runnable task) {
+        return () -> {
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        };
+    }
+}
@@ -1,20 +1,63 @@
 package com.policethief.config;
 
+import com.policethief.service.MessagingMetrics;
+import com.policethief.service.RoomLaneExecutor;
+import com.policethief.service.SessionTokenInterceptor;
+import com.policethief.service.SlowConsumerGuard;
+import com.policethief.service.WireFormatNegotiator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WireFormatNegotiator wireFormatNegotiator;
+    private final SessionTokenInterceptor sessionTokenInterceptor;
+    private final ExecutionMode executionMode;
+    private final RoomLaneExecutor.Mode roomDispatch;
+    private final SlowConsumerGuard slowConsumerGuard;
+    private final MessagingMetrics messagingMetrics;
+    private final int sendTimeLimitMillis;
+    private final int sendBufferSizeKb;
+
+    public WebSocketConfig(WireFormatNegotiator wireFormatNegotiator,
+                           SessionTokenInterceptor sessionTokenInterceptor,
+                           @Value("${game.execution.mode:platform}") ExecutionMode executionMode,
+                           @Value("${game.execution.room-dispatch:lanes}") RoomLaneExecutor.Mode roomDispatch,
+                           SlowConsumerGuard slowConsumerGuard,
+                           MessagingMetrics messagingMetrics,
+                           @Value("${game.outbound.send-time-limit-millis:10000}") int sendTimeLimitMillis,
+                           @Value("${game.outbound.send-buffer-size-kb:512}") int sendBufferSizeKb) {
+        this.wireFormatNegotiator = wireFormatNegotiator;
+        this.sessionTokenInterceptor = sessionTokenInterceptor;
+        this.executionMode = executionMode;
+        this.roomDispatch = roomDispatch;
+        this.slowConsumerGuard = slowConsumerGuard;
+        this.messagingMetrics = messagingMetrics;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.sendBufferSizeKb = sendBufferSizeKb;
+    }
+
     @Override
     public void configureMessageBroker(@NonNull MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic");
+        registry.enableSimpleBroker("/topic", "/queue");
         registry.setApplicationDestinationPrefixes("/app");
+        // 역할별로 걸러진 위치 프레임은 /user/queue/game/{roomId} 로 세션마다 전달합니다.
+        registry.setUserDestinationPrefix("/user");
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            // 메시지마다 스레드가 따로 돌기 때문에 세션별 전송 순서를 브로커가 보장하도록 합니다.
+            registry.setPreservePublishOrder(true);
+        }
     }
 
     @Override
@@ -22,5 +65,55 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOrigins("http://localhost:3000")
                 .withSockJS();
+        // 바이너리(COMPACT) 위치 프레임을 받을 수 있는 네이티브 WebSocket 엔드포인트
+        registry.addEndpoint("/ws-native")
+                .setAllowedOrigins("http://localhost:3000")
+                .addInterceptors(wireFormatNegotiator.nativeTransportMarker());
+        if (executionMode == ExecutionMode.VIRTUAL || roomDispatch == RoomLaneExecutor.Mode.LANES) {
+            // 같은 세션의 위치 갱신이 뒤바뀌지 않도록 수신 순서를 유지합니다.
+            // 레인 모드에서는 세션의 메시지가 이 순서대로 방 레인에 들어가므로 JOIN → START → TAG 순서가 그대로 처리됩니다.
+            registry.setPreserveReceiveOrder(true);
+        }
+    }
+
+    @Override
+    public void configureClientInboundChannel(@NonNull ChannelRegistration registration) {
+        // 세션 토큰 검증이 먼저 끝나야 거부된 연결의 인코딩 상태가 남지 않습니다.
+        // MessagingMetrics 는 @MessageMapping 핸들러 실행 앞뒤에서만 동작합니다.
+        registration.interceptors(sessionTokenInterceptor, wireFormatNegotiator, messagingMetrics);
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            registration.taskExecutor(new VirtualThreadChannelExecutor("ws-inbound-"));
+        }
+    }
+
+    /**
+     * 연결별 소켓 송신 버퍼를 고정합니다. 운영체제 자동 조절에 맡기면 느린 클라이언트 앞에 수 MB가 커널에 쌓여
+     * 서버의 쓰기가 막히지 않으므로, 밀린 프레임을 알아채고 합칠 기회 없이 오래된 위치가 그대로 전달됩니다.
+     */
+    @Bean
+    public TomcatConnectorCustomizer socketSendBufferCustomizer(
+            @Value("${game.outbound.socket-send-buffer-kb:32}") int socketSendBufferKb) {
+        return connector -> {
+            if (socketSendBufferKb > 0) {
+                connector.setProperty("socket.txBufSize", String.valueOf(socketSendBufferKb * 1024));
+            }
+        };
+    }
+
+    @Override
+    public void configureWebSocketTransport(@NonNull WebSocketTransportRegistration registration) {
+        // 한 번의 전송이 시간 제한을 넘기거나 밀린 프레임이 버퍼 제한을 넘으면 연결을 끊어 세션당 메모리를 묶습니다.
+        // 위치 프레임은 그 전에 SlowConsumerGuard 가 합쳐 두므로, 이 제한에 걸리는 것은 합칠 수 없는 이벤트가 밀린 경우뿐입니다.
+        registration.setSendTimeLimit(sendTimeLimitMillis)
+                .setSendBufferSizeLimit(sendBufferSizeKb * 1024)
+                .addDecoratorFactory(slowConsumerGuard);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(@NonNull ChannelRegistration registration) {
+        registration.interceptors(slowConsumerGuard);
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            registration.taskExecutor(new VirtualThreadChannelExecutor("ws-outbound-"));
+        }
     }
 }
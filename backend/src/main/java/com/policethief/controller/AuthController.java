@@ -2,38 +2,51 @@ package com.policethief.controller;
 
 import com.policethief.dto.KakaoLoginResponse;
 import com.policethief.service.KakaoAuthService;
+import com.policethief.service.SessionTokenService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @RestController
 @RequestMapping("/auth")
-@CrossOrigin(origins = "*")
 @RequiredArgsConstructor
 public class AuthController {
 
     private final KakaoAuthService kakaoAuthService;
+    private final SessionTokenService sessionTokenService;
 
     @PostMapping("/kakao/login")
-    public ResponseEntity<KakaoLoginResponse> kakaoLogin(@Valid @RequestBody KakaoLoginRequest request) {
+    public Mono<ResponseEntity<KakaoLoginResponse>> kakaoLogin(@Valid @RequestBody KakaoLoginRequest request) {
         log.info("카카오 로그인 요청 수신");
         
-        KakaoLoginResponse response = kakaoAuthService.getUserInfo(request.getAccessToken());
-        
-        return ResponseEntity.ok(response);
+        return kakaoAuthService.getUserInfo(request.getAccessToken())
+                .map(this::withSessionToken);
     }
 
     @PostMapping("/kakao/oauth")
-    public ResponseEntity<KakaoLoginResponse> kakaoOAuth(@Valid @RequestBody KakaoOAuthRequest request) {
+    public Mono<ResponseEntity<KakaoLoginResponse>> kakaoOAuth(@Valid @RequestBody KakaoOAuthRequest request) {
         log.info("카카오 OAuth 인가 코드 요청 수신");
 
-        KakaoLoginResponse response = kakaoAuthService.loginWithAuthorizationCode(
-                request.getCode(), request.getRedirectUri());
+        return kakaoAuthService.loginWithAuthorizationCode(request.getCode(), request.getRedirectUri())
+                .map(this::withSessionToken);
+    }
 
-        return ResponseEntity.ok(response);
+    /**
+     * 카카오 사용자 정보에 게임 세션 토큰을 붙입니다. (캐시된 프로필은 공유되므로 복사본에 붙입니다.)
+     * 토큰 안의 만료 시각은 초 단위지만, API가 돌려주는 시각은 모두 epoch 밀리초이므로 바꿔서 내려줍니다.
+     */
+    private ResponseEntity<KakaoLoginResponse> withSessionToken(KakaoLoginResponse profile) {
+        SessionTokenService.IssuedToken issued = sessionTokenService.issue(profile.getId());
+        return ResponseEntity.ok(profile.toBuilder()
+                .sessionToken(issued.token())
+                .sessionTokenExpiresAt(TimeUnit.SECONDS.toMillis(issued.expiresAt()))
+                .build());
     }
 
     public static class KakaoLoginRequest {
@@ -1,24 +1,188 @@
 package com.policethief.controller;
 
+import com.policethief.cluster.RoomCommand;
+import com.policethief.cluster.RoomEventBus;
+import com.policethief.domain.RoomStatus;
+import com.policethief.dto.GameEventType;
+import com.policethief.dto.TagEventRequest;
+import com.policethief.dto.WireFormat;
+import com.policethief.service.GameMetricsService;
+import com.policethief.service.GameRoomService;
+import com.policethief.service.GameTimelineService;
+import com.policethief.service.RoomDirectoryService;
+import com.policethief.service.RoomLaneExecutor;
+import com.policethief.service.SessionTokenInterceptor;
+import com.policethief.service.TagCodeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/game")
-@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
 public class GameController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final GameTimelineService timelineService;
+    private final RoomLaneExecutor roomLaneExecutor;
+    private final GameMetricsService metricsService;
+    private final GameRoomService gameRoomService;
+    private final TagCodeService tagCodeService;
+    private final SessionTokenInterceptor sessionTokenInterceptor;
+    private final RoomEventBus eventBus;
+    private final RoomDirectoryService roomDirectory;
+
+    /**
+     * 방 명령 레인별 대기열 상태 (대기 작업 수, 처리량, 대기 시간)
+     */
+    @GetMapping("/lanes")
+    public ResponseEntity<List<RoomLaneExecutor.LaneStats>> getLaneStats() {
+        return ResponseEntity.ok(roomLaneExecutor.getLaneStats());
+    }
+
+    /**
+     * 운영 지표 (방/세션 수, 채널 실행기 상태, @MessageMapping 별 처리 시간, 이벤트별 팬아웃 시간과 프레임 크기, 구성 요소 카운터)
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<GameMetricsService.Snapshot> getMetrics() {
+        return ResponseEntity.ok(metricsService.snapshot());
+    }
+
+    /**
+     * MeterRegistry 에 등록된 운영 지표의 현재 값 (외부 수집기가 긁어 가기 좋은 평평한 목록)
+     */
+    @GetMapping("/metrics/meters")
+    public ResponseEntity<List<GameMetricsService.MeterValue>> getMeters() {
+        return ResponseEntity.ok(metricsService.meters());
+    }
+
+    /**
+     * 경기 타임라인(입장/퇴장/시작/태그/라운드 종료와 모든 위치)을 시각순으로 내려받습니다.
+     * 전체를 메모리에 만들지 않고 chunked 응답으로 흘려보냅니다.
+     * 모든 플레이어의 위치가 담기므로 세션 토큰으로 확인한 방의 멤버(또는 이 방에 들어왔던 플레이어)만 받을 수 있고,
+     * 라운드가 진행 중인 방은 역할별 위치 공개 규칙을 우회하게 되므로 라운드가 끝나거나 방이 닫힌 뒤에만 받을 수 있습니다.
+     *
+     * @param from         이 시각 이상 (epoch millis)
+     * @param to           이 시각 미만 (epoch millis)
+     * @param types        담을 이벤트 종류 (예: JOIN,TAG,LOCATION. 비우면 전부)
+     * @param sampleMillis 플레이어별 위치 최소 간격 (밀리초, 0이면 전부)
+     * @param format       JSON: NDJSON, COMPACT: 길이 접두 바이너리 프레임
+     */
+    @GetMapping("/{roomId}/timeline")
+    public ResponseEntity<StreamingResponseBody> exportTimeline(
+            @PathVariable Long roomId,
+            @RequestParam(defaultValue = "0") long from,
+            @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to,
+            @RequestParam(required = false) List<GameEventType> types,
+            @RequestParam(defaultValue = "0") long sampleMillis,
+            @RequestParam(defaultValue = "JSON") WireFormat format,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) throws IOException {
+        Long playerId = sessionTokenInterceptor.requireToken(authorization);
+        if (!roomDirectory.isMember(roomId, playerId) && !timelineService.hasJoined(roomId, playerId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "이 게임방에 참가한 플레이어만 타임라인을 받을 수 있습니다.");
+        }
+        if (gameRoomService.getRoom(roomId).isPresent() && roomDirectory.getStatus(roomId) == RoomStatus.PLAYING) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "라운드가 끝난 뒤에 타임라인을 받을 수 있습니다.");
+        }
+        Set<GameEventType> selected = types == null || types.isEmpty()
+                ? GameTimelineService.EXPORTABLE_TYPES : EnumSet.copyOf(types);
+        if (!GameTimelineService.EXPORTABLE_TYPES.containsAll(selected)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "내보낼 수 있는 이벤트 종류는 " + GameTimelineService.EXPORTABLE_TYPES + " 입니다.");
+        }
+        if (from >= to || sampleMillis < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "조회 구간 또는 샘플 간격이 잘못되었습니다.");
+        }
+        if (!timelineService.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "진행 중인 내보내기가 많습니다. 잠시 후 다시 시도해 주세요.");
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                timelineService.export(roomId, from, to, selected, sampleMillis, format, out);
+            } finally {
+                timelineService.release();
+            }
+        };
+        boolean compact = format == WireFormat.COMPACT;
+        return ResponseEntity.ok()
+                .contentType(compact ? MediaType.APPLICATION_OCTET_STREAM : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("room-" + roomId + "-timeline" + (compact ? ".bin" : ".ndjson"))
+                        .build().toString())
+                .body(body);
+    }
+
+    /**
+     * 내 태그 QR 코드를 발급합니다. refreshAt 이 지나면 다시 받아 화면의 QR을 바꿉니다.
+     * 세션 토큰(Authorization: Bearer)으로 확인한 플레이어가 방의 멤버일 때만 그 플레이어의 코드를 발급합니다.
+     */
+    @GetMapping("/{roomId}/tag-code")
+    public ResponseEntity<TagCodeService.IssuedCode> issueTagCode(
+            @PathVariable Long roomId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!tagCodeService.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "태그 코드를 사용하지 않습니다.");
+        }
+        if (gameRoomService.getRoom(roomId).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "게임방을 찾을 수 없습니다.");
+        }
+        Long owner = requireMember(roomId, authorization);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(tagCodeService.issue(roomId, owner));
+    }
+
+    /**
+     * 찍은 QR 코드로 태그합니다. 처리 결과(TAG/TAG_REJECTED)는 방 토픽으로 전달됩니다.
+     * 태그하는 플레이어는 세션 토큰으로 확인하며 방의 멤버여야 합니다. 같은 태그를 다시 보내도 한 번만 처리됩니다.
+     */
     @PostMapping("/{roomId}/tag")
-    public ResponseEntity<?> tagPlayer(
+    public ResponseEntity<Void> tagPlayer(
             @PathVariable Long roomId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
             @RequestBody TagPlayerRequest request) {
-        // TODO: QR 코드 촬영으로 플레이어 태그 구현
-        return ResponseEntity.ok().body("플레이어 태그 준비 중");
+        if (gameRoomService.getRoom(roomId).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "게임방을 찾을 수 없습니다.");
+        }
+        if (request.getQrCode() == null || request.getQrCode().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "QR 코드는 필수입니다.");
+        }
+        TagEventRequest tag = new TagEventRequest();
+        tag.setTaggerId(requireMember(roomId, authorization));
+        tag.setQrCode(request.getQrCode());
+        eventBus.dispatch(new RoomCommand(RoomCommand.Type.TAG, roomId, null, tag));
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * 세션 토큰으로 확인한 플레이어가 방의 멤버인지 확인합니다.
+     * 멤버 상태는 방 소유 노드에만 있으므로 복제된 멤버 목록으로 확인합니다.
+     *
+     * @return 토큰으로 확인된 플레이어 ID
+     */
+    private Long requireMember(Long roomId, String authorization) {
+        Long playerId = sessionTokenInterceptor.requireToken(authorization);
+        if (!roomDirectory.isMember(roomId, playerId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "게임방의 멤버가 아닙니다.");
+        }
+        return playerId;
     }
 
     public static class TagPlayerRequest {
         private String qrCode;
-        private Long playerId;
 
         public String getQrCode() {
             return qrCode;
@@ -27,13 +191,5 @@ public class GameController {
         public void setQrCode(String qrCode) {
             this.qrCode = qrCode;
         }
-
-        public Long getPlayerId() {
-            return playerId;
-        }
-
-        public void setPlayerId(Long playerId) {
-            this.playerId = playerId;
-        }
     }
 }
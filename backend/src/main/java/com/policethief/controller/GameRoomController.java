@@ -1,27 +1,96 @@
 package com.policethief.controller;
 
+import com.policethief.domain.GameRoom;
+import com.policethief.domain.GeoPoint;
+import com.policethief.service.GameRoomService;
+import com.policethief.service.RoomDirectoryService;
+import com.policethief.service.RoomSnapshotService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
 @RequestMapping("/rooms")
-@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
 public class GameRoomController {
 
+    private final GameRoomService gameRoomService;
+    private final RoomDirectoryService roomDirectory;
+    private final RoomSnapshotService roomSnapshotService;
+
+    /**
+     * 방 목록. 방별로 직렬화해 둔 스냅샷을 이어 붙여 보내며, If-None-Match 가 같으면 본문 없이 304 로 답합니다.
+     */
     @GetMapping
-    public ResponseEntity<List<GameRoomResponse>> getRooms(
+    public ResponseEntity<byte[]> getRooms(
             @RequestParam(required = false) Double latitude,
-            @RequestParam(required = false) Double longitude) {
-        // TODO: 지역별 채팅방 목록 조회 구현
-        return ResponseEntity.ok().body(List.of());
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        List<RoomSnapshotService.RoomSnapshot> snapshots;
+        double[] distancesKm = null;
+        if (latitude == null || longitude == null) {
+            List<GameRoom> rooms = gameRoomService.getRooms(limit);
+            snapshots = new ArrayList<>(rooms.size());
+            for (GameRoom room : rooms) {
+                snapshots.add(roomSnapshotService.get(room));
+            }
+        } else {
+            List<GameRoomService.NearbyRoom> nearby = gameRoomService.findNearbyRooms(latitude, longitude, radiusKm, limit);
+            snapshots = new ArrayList<>(nearby.size());
+            distancesKm = new double[nearby.size()];
+            for (int i = 0; i < nearby.size(); i++) {
+                snapshots.add(roomSnapshotService.get(nearby.get(i).getRoom()));
+                distancesKm[i] = nearby.get(i).getDistanceKm();
+            }
+        }
+        String etag = roomSnapshotService.listEtag(snapshots, distancesKm);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return snapshotResponse(etag, roomSnapshotService.listBody(snapshots, distancesKm, etag));
     }
 
     @GetMapping("/{roomId}")
-    public ResponseEntity<GameRoomResponse> getRoom(@PathVariable Long roomId) {
-        // TODO: 채팅방 상세 정보 조회 구현
-        return ResponseEntity.ok().body(new GameRoomResponse());
+    public ResponseEntity<byte[]> getRoom(@PathVariable Long roomId, WebRequest webRequest) {
+        GameRoom room = gameRoomService.getRoom(roomId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "게임방을 찾을 수 없습니다."));
+        RoomSnapshotService.RoomSnapshot snapshot = roomSnapshotService.get(room);
+        if (webRequest.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
+        return snapshotResponse(snapshot.getEtag(), snapshot.getDetailBody());
+    }
+
+    /**
+     * 브라우저가 폴링할 때마다 If-None-Match 로 다시 확인하도록 no-cache 를 붙입니다.
+     */
+    private static ResponseEntity<byte[]> snapshotResponse(String etag, byte[] body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(body);
+    }
+
+    @PostMapping
+    public ResponseEntity<GameRoomResponse> createRoom(@Valid @RequestBody CreateRoomRequest request) {
+        GameRoom room = gameRoomService.createRoom(
+                request.getName(), request.getLocation(), request.getLatitude(), request.getLongitude(),
+                toGeoPoints(request.getPlayArea()));
+        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(room));
     }
 
     @PostMapping("/{roomId}/start")
@@ -30,11 +99,129 @@ public class GameRoomController {
         return ResponseEntity.ok().body("게임 시작 준비 중");
     }
 
+    /**
+     * 조회 응답은 {@link RoomSnapshotService} 가 같은 모양으로 직렬화해 둔 것을 쓰며, 이 변환은 생성 응답에만 씁니다.
+     * 목록 조회에는 꼭짓점이 많은 구역이 여러 개 실릴 수 있어 놀이 구역을 빼고, 방 하나를 돌려줄 때만 싣습니다.
+     */
+    private GameRoomResponse toResponse(GameRoom room) {
+        GameRoomResponse response = new GameRoomResponse();
+        response.setId(room.getId());
+        response.setName(room.getName());
+        response.setLocation(room.getLocation());
+        response.setLatitude(room.getLatitude());
+        response.setLongitude(room.getLongitude());
+        response.setPlayerCount(roomDirectory.getPlayerCount(room.getId()));
+        response.setPlayArea(room.getPlayArea().stream()
+                .map(vertex -> new PlayAreaPoint(vertex.getLatitude(), vertex.getLongitude()))
+                .toList());
+        return response;
+    }
+
+    private static List<GeoPoint> toGeoPoints(List<PlayAreaPoint> points) {
+        if (points == null) {
+            return List.of();
+        }
+        return points.stream()
+                .map(point -> point != null && point.getLatitude() != null && point.getLongitude() != null
+                        ? new GeoPoint(point.getLatitude(), point.getLongitude())
+                        : null)
+                .toList();
+    }
+
+    public static class CreateRoomRequest {
+        @NotBlank(message = "방 이름은 필수입니다.")
+        private String name;
+
+        private String location;
+
+        @NotNull(message = "위도는 필수입니다.")
+        private Double latitude;
+
+        @NotNull(message = "경도는 필수입니다.")
+        private Double longitude;
+
+        /** 놀이 구역 다각형 꼭짓점 (순서대로, 생략하면 구역 제한 없음) */
+        private List<PlayAreaPoint> playArea;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public void setLocation(String location) {
+            this.location = location;
+        }
+
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        public void setLatitude(Double latitude) {
+            this.latitude = latitude;
+        }
+
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        public void setLongitude(Double longitude) {
+            this.longitude = longitude;
+        }
+
+        public List<PlayAreaPoint> getPlayArea() {
+            return playArea;
+        }
+
+        public void setPlayArea(List<PlayAreaPoint> playArea) {
+            this.playArea = playArea;
+        }
+    }
+
+    public static class PlayAreaPoint {
+        private Double latitude;
+        private Double longitude;
+
+        public PlayAreaPoint() {
+        }
+
+        public PlayAreaPoint(Double latitude, Double longitude) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        public void setLatitude(Double latitude) {
+            this.latitude = latitude;
+        }
+
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        public void setLongitude(Double longitude) {
+            this.longitude = longitude;
+        }
+    }
+
     public static class GameRoomResponse {
         private Long id;
         private String name;
         private String location;
+        private Double latitude;
+        private Double longitude;
         private Integer playerCount;
+        private Double distanceKm;
+        private List<PlayAreaPoint> playArea;
 
         // Getters and Setters
         public Long getId() {
@@ -61,6 +248,22 @@ public class GameRoomController {
             this.location = location;
         }
 
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        public void setLatitude(Double latitude) {
+            this.latitude = latitude;
+        }
+
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        public void setLongitude(Double longitude) {
+            this.longitude = longitude;
+        }
+
         public Integer getPlayerCount() {
             return playerCount;
         }
@@ -68,5 +271,21 @@ public class GameRoomController {
         public void setPlayerCount(Integer playerCount) {
             this.playerCount = playerCount;
         }
+
+        public Double getDistanceKm() {
+            return distanceKm;
+        }
+
+        public void setDistanceKm(Double distanceKm) {
+            this.distanceKm = distanceKm;
+        }
+
+        public List<PlayAreaPoint> getPlayArea() {
+            return playArea;
+        }
+
+        public void setPlayArea(List<PlayAreaPoint> playArea) {
+            this.playArea = playArea;
+        }
     }
 }
@@ -1,103 +1,112 @@
 package com.policethief.controller;
 
-import com.policethief.dto.GameEventMessage;
-import com.policethief.dto.GameEventType;
+import com.policethief.cluster.RoomCommand;
+import com.policethief.cluster.RoomEventBus;
+import com.policethief.cluster.SessionRef;
 import com.policethief.dto.JoinRoomRequest;
 import com.policethief.dto.LeaveRoomRequest;
 import com.policethief.dto.LocationUpdateRequest;
 import com.policethief.dto.StartGameRequest;
 import com.policethief.dto.TagEventRequest;
-import com.policethief.service.GameRoomSessionService;
+import com.policethief.service.LocationRateService;
+import com.policethief.service.PlayerPrincipal;
+import com.policethief.service.PresenceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.stereotype.Controller;
 
-import java.util.Map;
-
+/**
+ * 게임 STOMP 메시지 진입점
+ * 이 노드에 붙은 세션의 메시지를 명령으로 바꿔 방 소유 노드로 보냅니다. 실제 처리는 GameCommandService가 합니다.
+ * 세션 토큰으로 연결한 세션은 본문의 플레이어 ID 대신 CONNECT 때 확인된 ID만 씁니다.
+ * 토큰 없는 연결은 game.session-token.required=false 일 때만 들어오며, 이런 세션은 본문의 ID로 입장/위치 갱신만 할 수 있고
+ * 다른 플레이어를 내보내거나 방장으로 시작하거나 경찰로 태그할 수 있는 퇴장/시작/태그는 버립니다.
+ * 위치 메시지는 세션별 속도 제한을 넘으면 명령으로 바꾸지 않고 버립니다.
+ */
 @Slf4j
 @Controller
 @RequiredArgsConstructor
 public class GameSocketController {
 
-    private final SimpMessagingTemplate messagingTemplate;
-    private final GameRoomSessionService roomSessionService;
+    private final RoomEventBus eventBus;
+    private final PresenceService presenceService;
+    private final LocationRateService locationRateService;
+
+    private void dispatch(RoomCommand.Type type, Long roomId, SimpMessageHeaderAccessor headerAccessor, Object request) {
+        SessionRef origin = new SessionRef(eventBus.getLocalNodeId(), headerAccessor.getSessionId());
+        eventBus.dispatch(new RoomCommand(type, roomId, origin, request));
+    }
+
+    /**
+     * 세션 토큰으로 확인된 플레이어 ID (토큰 없이 연결한 세션이면 본문의 값)
+     */
+    private static Long playerIdOf(SimpMessageHeaderAccessor headerAccessor, Long claimed) {
+        Long bound = boundPlayerIdOf(headerAccessor);
+        return bound != null ? bound : claimed;
+    }
 
-    @SuppressWarnings("null")
-    private void sendEvent(Long roomId, GameEventMessage message) {
-        messagingTemplate.convertAndSend("/topic/game/" + roomId, (Object) message);
+    /**
+     * 세션 토큰으로 확인된 플레이어 ID (토큰 없이 연결한 세션이면 null)
+     */
+    private static Long boundPlayerIdOf(SimpMessageHeaderAccessor headerAccessor) {
+        return headerAccessor.getUser() instanceof PlayerPrincipal principal ? principal.getPlayerId() : null;
     }
 
     @MessageMapping("/game/{roomId}/join")
-    public void joinRoom(@DestinationVariable Long roomId, JoinRoomRequest request) {
-        log.info("방 입장 이벤트 - roomId={}, playerId={}", roomId, request.getPlayerId());
-        int memberCount = roomSessionService.joinRoom(roomId, request.getPlayerId());
-        GameEventMessage message = GameEventMessage.of(
-                GameEventType.JOIN,
-                roomId,
-                request.getPlayerId(),
-                Map.of(
-                        "nickname", request.getNickname(),
-                        "memberCount", memberCount
-                )
-        );
-        sendEvent(roomId, message);
+    public void joinRoom(@DestinationVariable Long roomId, JoinRoomRequest request,
+                         SimpMessageHeaderAccessor headerAccessor) {
+        request.setPlayerId(playerIdOf(headerAccessor, request.getPlayerId()));
+        presenceService.bindSession(headerAccessor.getSessionId(), roomId, request.getPlayerId());
+        dispatch(RoomCommand.Type.JOIN, roomId, headerAccessor, request);
     }
 
     @MessageMapping("/game/{roomId}/leave")
-    public void leaveRoom(@DestinationVariable Long roomId, LeaveRoomRequest request) {
-        log.info("방 퇴장 이벤트 - roomId={}, playerId={}", roomId, request.getPlayerId());
-        int memberCount = roomSessionService.leaveRoom(roomId, request.getPlayerId());
-        GameEventMessage message = GameEventMessage.of(
-                GameEventType.LEAVE,
-                roomId,
-                request.getPlayerId(),
-                Map.of("memberCount", memberCount)
-        );
-        sendEvent(roomId, message);
+    public void leaveRoom(@DestinationVariable Long roomId, LeaveRoomRequest request,
+                          SimpMessageHeaderAccessor headerAccessor) {
+        Long playerId = boundPlayerIdOf(headerAccessor);
+        if (playerId == null) {
+            log.debug("세션 토큰 없는 퇴장 무시 - roomId={}, sessionId={}", roomId, headerAccessor.getSessionId());
+            return;
+        }
+        request.setPlayerId(playerId);
+        presenceService.unbindSession(headerAccessor.getSessionId(), roomId);
+        dispatch(RoomCommand.Type.LEAVE, roomId, headerAccessor, request);
     }
 
     @MessageMapping("/game/{roomId}/start")
-    public void startGame(@DestinationVariable Long roomId, StartGameRequest request) {
-        log.info("게임 시작 이벤트 - roomId={}, hostId={}", roomId, request.getHostId());
-        GameEventMessage message = GameEventMessage.of(
-                GameEventType.START,
-                roomId,
-                request.getHostId(),
-                Map.of("status", "started")
-        );
-        sendEvent(roomId, message);
+    public void startGame(@DestinationVariable Long roomId, StartGameRequest request,
+                          SimpMessageHeaderAccessor headerAccessor) {
+        Long hostId = boundPlayerIdOf(headerAccessor);
+        if (hostId == null) {
+            log.debug("세션 토큰 없는 게임 시작 무시 - roomId={}, sessionId={}", roomId, headerAccessor.getSessionId());
+            return;
+        }
+        request.setHostId(hostId);
+        dispatch(RoomCommand.Type.START, roomId, headerAccessor, request);
     }
 
     @MessageMapping("/game/{roomId}/tag")
-    public void tagPlayer(@DestinationVariable Long roomId, TagEventRequest request) {
-        log.info("태그 이벤트 - roomId={}, taggerId={}, targetId={}", roomId, request.getTaggerId(), request.getTargetId());
-        GameEventMessage message = GameEventMessage.of(
-                GameEventType.TAG,
-                roomId,
-                request.getTaggerId(),
-                Map.of(
-                        "targetId", request.getTargetId(),
-                        "qrCode", request.getQrCode()
-                )
-        );
-        sendEvent(roomId, message);
+    public void tagPlayer(@DestinationVariable Long roomId, TagEventRequest request,
+                          SimpMessageHeaderAccessor headerAccessor) {
+        Long taggerId = boundPlayerIdOf(headerAccessor);
+        if (taggerId == null) {
+            log.debug("세션 토큰 없는 태그 무시 - roomId={}, sessionId={}", roomId, headerAccessor.getSessionId());
+            return;
+        }
+        request.setTaggerId(taggerId);
+        dispatch(RoomCommand.Type.TAG, roomId, headerAccessor, request);
     }
 
     @MessageMapping("/game/{roomId}/location")
-    public void updateLocation(@DestinationVariable Long roomId, LocationUpdateRequest request) {
-        GameEventMessage message = GameEventMessage.of(
-                GameEventType.LOCATION,
-                roomId,
-                request.getPlayerId(),
-                Map.of(
-                        "latitude", request.getLatitude(),
-                        "longitude", request.getLongitude(),
-                        "accuracy", request.getAccuracy()
-                )
-        );
-        sendEvent(roomId, message);
+    public void updateLocation(@DestinationVariable Long roomId, LocationUpdateRequest request,
+                               SimpMessageHeaderAccessor headerAccessor) {
+        if (!locationRateService.tryAcquire(headerAccessor.getSessionId())) {
+            return;
+        }
+        request.setPlayerId(playerIdOf(headerAccessor, request.getPlayerId()));
+        dispatch(RoomCommand.Type.LOCATION, roomId, headerAccessor, request);
     }
 }
@@ -0,0 +1,61 @@
+package com.policethief.domain;
+
+import java.util.List;
+
+/**
+ * 게임방 정보
+ * 생성 이후 변하지 않는 값만 담고, 인원 수 같은 실시간 상태는 세션 서비스가 관리합니다.
+ * 놀이 구역(playArea)은 꼭짓점 순서대로의 다각형이며, 비어 있으면 구역 제한이 없습니다.
+ */
+public class GameRoom {
+    private final Long id;
+    private final String name;
+    private final String location;
+    private final double latitude;
+    private final double longitude;
+    private final long createdAt;
+    private final List<GeoPoint> playArea;
+
+    public GameRoom(Long id, String name, String location, double latitude, double longitude, long createdAt) {
+        this(id, name, location, latitude, longitude, createdAt, List.of());
+    }
+
+    public GameRoom(Long id, String name, String location, double latitude, double longitude, long createdAt,
+                    List<GeoPoint> playArea) {
+        this.id = id;
+        this.name = name;
+        this.location = location;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.createdAt = createdAt;
+        this.playArea = playArea != null ? List.copyOf(playArea) : List.of();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public List<GeoPoint> getPlayArea() {
+        return playArea;
+    }
+}
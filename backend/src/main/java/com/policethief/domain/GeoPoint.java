@@ -0,0 +1,22 @@
+package com.policethief.domain;
+
+/**
+ * 위도/경도 한 점 (놀이 구역 다각형의 꼭짓점 등)
+ */
+public class GeoPoint {
+    private final double latitude;
+    private final double longitude;
+
+    public GeoPoint(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+}
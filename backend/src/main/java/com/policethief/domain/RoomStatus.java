@@ -0,0 +1,11 @@
+package com.policethief.domain;
+
+/**
+ * 게임방 진행 상태
+ */
+public enum RoomStatus {
+    /** 플레이어를 모으는 중 */
+    WAITING,
+    /** 방장이 게임을 시작함 */
+    PLAYING
+}
@@ -0,0 +1,20 @@
+package com.policethief.dto;
+
+/**
+ * OUT_OF_BOUNDS / BACK_IN_BOUNDS 이벤트 내용 (이벤트의 senderId가 구역을 넘나든 플레이어)
+ * 숨어 있는 도둑의 위치가 드러나지 않도록 좌표는 싣지 않고 경계까지 거리만 알립니다.
+ */
+public class BoundsPayload {
+    private final double distanceMeters;
+
+    public BoundsPayload(double distanceMeters) {
+        this.distanceMeters = distanceMeters;
+    }
+
+    /**
+     * 경계까지 거리 (m, game.geofence.distance-limit-meters 를 넘으면 그 값)
+     */
+    public double getDistanceMeters() {
+        return distanceMeters;
+    }
+}
@@ -0,0 +1,30 @@
+package com.policethief.dto;
+
+/**
+ * COUNTDOWN / ROUND_END / JAIL_RELEASE 이벤트 내용
+ * 타이머 이벤트마다 서버 기준 라운드 종료 시각을 함께 실어, 클라이언트가 자기 시계 대신 이 값으로 남은 시간을 맞춥니다.
+ * JAIL_RELEASE 는 이벤트의 senderId가 풀려난 도둑입니다.
+ */
+public class GameClockPayload {
+    private final Long endsAt;
+    private final Long remainingSeconds;
+
+    public GameClockPayload(Long endsAt, Long remainingSeconds) {
+        this.endsAt = endsAt;
+        this.remainingSeconds = remainingSeconds;
+    }
+
+    /**
+     * 라운드가 끝나는 시각 (epoch 밀리초, 제한 시간이 없거나 진행 중이 아니면 null)
+     */
+    public Long getEndsAt() {
+        return endsAt;
+    }
+
+    /**
+     * 이벤트 시점의 남은 시간 (초, endsAt이 없으면 null)
+     */
+    public Long getRemainingSeconds() {
+        return remainingSeconds;
+    }
+}
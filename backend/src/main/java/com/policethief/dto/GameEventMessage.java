@@ -1,18 +1,20 @@
 package com.policethief.dto;
 
-import java.util.Map;
-
+/**
+ * 게임 이벤트 메시지
+ * payload에는 이벤트 종류별 타입(JoinPayload, PositionsPayload 등)이 담깁니다.
+ */
 public class GameEventMessage {
     private GameEventType type;
     private Long roomId;
     private Long senderId;
-    private Map<String, Object> payload;
+    private Object payload;
     private long timestamp;
 
     public static GameEventMessage of(GameEventType type,
                                       Long roomId,
                                       Long senderId,
-                                      Map<String, Object> payload) {
+                                      Object payload) {
         GameEventMessage message = new GameEventMessage();
         message.setType(type);
         message.setRoomId(roomId);
@@ -46,11 +48,11 @@ public class GameEventMessage {
         this.senderId = senderId;
     }
 
-    public Map<String, Object> getPayload() {
+    public Object getPayload() {
         return payload;
     }
 
-    public void setPayload(Map<String, Object> payload) {
+    public void setPayload(Object payload) {
         this.payload = payload;
     }
 
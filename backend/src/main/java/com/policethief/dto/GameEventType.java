@@ -5,5 +5,15 @@ public enum GameEventType {
     LEAVE,
     START,
     TAG,
-    LOCATION
+    LOCATION,
+    POSITIONS,
+    TAG_REJECTED,
+    PROXIMITY,
+    ROSTER,
+    LOCATION_INTERVAL,
+    OUT_OF_BOUNDS,
+    BACK_IN_BOUNDS,
+    COUNTDOWN,
+    ROUND_END,
+    JAIL_RELEASE
 }
@@ -0,0 +1,34 @@
+package com.policethief.dto;
+
+/**
+ * JOIN 이벤트 내용
+ */
+public class JoinPayload {
+    private final String nickname;
+    private final int memberCount;
+    private final PlayerRole role;
+    private final int playerIndex;
+
+    public JoinPayload(String nickname, int memberCount, PlayerRole role, int playerIndex) {
+        this.nickname = nickname;
+        this.memberCount = memberCount;
+        this.role = role;
+        this.playerIndex = playerIndex;
+    }
+
+    public String getNickname() {
+        return nickname;
+    }
+
+    public int getMemberCount() {
+        return memberCount;
+    }
+
+    public PlayerRole getRole() {
+        return role;
+    }
+
+    public int getPlayerIndex() {
+        return playerIndex;
+    }
+}
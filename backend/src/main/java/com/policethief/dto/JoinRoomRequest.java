@@ -3,6 +3,7 @@ package com.policethief.dto;
 public class JoinRoomRequest {
     private Long playerId;
     private String nickname;
+    private PlayerRole role;
 
     public Long getPlayerId() {
         return playerId;
@@ -19,4 +20,12 @@ public class JoinRoomRequest {
     public void setNickname(String nickname) {
         this.nickname = nickname;
     }
+
+    public PlayerRole getRole() {
+        return role;
+    }
+
+    public void setRole(PlayerRole role) {
+        this.role = role;
+    }
 }
@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
  * 카카오 로그인 응답 DTO
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class KakaoLoginResponse {
@@ -18,4 +18,8 @@ public class KakaoLoginResponse {
     private String email;
     private String profileImageUrl;
     private String thumbnailImageUrl;
+    /** STOMP CONNECT에 보낼 게임 세션 토큰 */
+    private String sessionToken;
+    /** 세션 토큰 만료 시각 (epoch 밀리초) */
+    private Long sessionTokenExpiresAt;
 }
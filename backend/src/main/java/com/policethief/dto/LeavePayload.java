@@ -0,0 +1,27 @@
+package com.policethief.dto;
+
+/**
+ * LEAVE 이벤트 내용
+ */
+public class LeavePayload {
+    /** 플레이어가 직접 나감 */
+    public static final String REASON_LEFT = "left";
+    /** 연결이 끊기거나 위치 갱신이 끊겨 자동으로 내보냄 */
+    public static final String REASON_TIMEOUT = "timeout";
+
+    private final int memberCount;
+    private final String reason;
+
+    public LeavePayload(int memberCount, String reason) {
+        this.memberCount = memberCount;
+        this.reason = reason;
+    }
+
+    public int getMemberCount() {
+        return memberCount;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,32 @@
+package com.policethief.dto;
+
+/**
+ * LOCATION_INTERVAL 이벤트 내용 (플레이어 본인에게만 보냄)
+ * 클라이언트는 이 간격마다 위치를 보내면 되며, 훨씬 빨리 보내는 갱신은 서버가 버립니다.
+ */
+public class LocationIntervalPayload {
+    /** 상대가 근접 반경 안에 있음 */
+    public static final String REASON_NEAR_OPPONENT = "near_opponent";
+    /** 상대가 근접 반경 가까이 있음 */
+    public static final String REASON_APPROACHING = "approaching";
+    /** 이동 중 */
+    public static final String REASON_MOVING = "moving";
+    /** 멈춰 있음 */
+    public static final String REASON_IDLE = "idle";
+
+    private final long intervalMillis;
+    private final String reason;
+
+    public LocationIntervalPayload(long intervalMillis, String reason) {
+        this.intervalMillis = intervalMillis;
+        this.reason = reason;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,56 @@
+package com.policethief.dto;
+
+/**
+ * 브로드캐스트 프레임에 담기는 플레이어 위치 스냅샷
+ * speed/heading 이 있으면 받는 쪽은 다음 위치를 받을 때까지 프레임 시각부터 그 속도/방향으로 밀어 그립니다.
+ */
+public class PlayerPosition {
+    private final Long playerId;
+    private final double latitude;
+    private final double longitude;
+    private final Double accuracy;
+    private final Double speed;
+    private final Double heading;
+
+    public PlayerPosition(Long playerId, double latitude, double longitude, Double accuracy) {
+        this(playerId, latitude, longitude, accuracy, null, null);
+    }
+
+    /**
+     * @param speed   이동 속도 (m/s)
+     * @param heading 이동 방향 (북쪽 기준 시계 방향 각도, 0~360)
+     */
+    public PlayerPosition(Long playerId, double latitude, double longitude, Double accuracy,
+                          Double speed, Double heading) {
+        this.playerId = playerId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.accuracy = accuracy;
+        this.speed = speed;
+        this.heading = heading;
+    }
+
+    public Long getPlayerId() {
+        return playerId;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public Double getAccuracy() {
+        return accuracy;
+    }
+
+    public Double getSpeed() {
+        return speed;
+    }
+
+    public Double getHeading() {
+        return heading;
+    }
+}
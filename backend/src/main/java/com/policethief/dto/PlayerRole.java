@@ -0,0 +1,10 @@
+package com.policethief.dto;
+
+public enum PlayerRole {
+    POLICE,
+    THIEF;
+
+    public PlayerRole opponent() {
+        return this == POLICE ? THIEF : POLICE;
+    }
+}
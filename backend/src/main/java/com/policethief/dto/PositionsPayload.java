@@ -0,0 +1,24 @@
+package com.policethief.dto;
+
+import java.util.List;
+
+/**
+ * POSITIONS 프레임 내용
+ */
+public class PositionsPayload {
+    private final List<PlayerPosition> positions;
+    private final List<Long> hidden;
+
+    public PositionsPayload(List<PlayerPosition> positions, List<Long> hidden) {
+        this.positions = positions;
+        this.hidden = hidden;
+    }
+
+    public List<PlayerPosition> getPositions() {
+        return positions;
+    }
+
+    public List<Long> getHidden() {
+        return hidden;
+    }
+}
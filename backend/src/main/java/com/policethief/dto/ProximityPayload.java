@@ -0,0 +1,22 @@
+package com.policethief.dto;
+
+/**
+ * PROXIMITY 이벤트 내용 (이벤트의 senderId가 경찰)
+ */
+public class ProximityPayload {
+    private final Long thiefId;
+    private final double distanceMeters;
+
+    public ProximityPayload(Long thiefId, double distanceMeters) {
+        this.thiefId = thiefId;
+        this.distanceMeters = distanceMeters;
+    }
+
+    public Long getThiefId() {
+        return thiefId;
+    }
+
+    public double getDistanceMeters() {
+        return distanceMeters;
+    }
+}
@@ -0,0 +1,34 @@
+package com.policethief.dto;
+
+/**
+ * ROSTER 이벤트의 플레이어 항목
+ */
+public class RosterEntry {
+    private final Long playerId;
+    private final int playerIndex;
+    private final PlayerRole role;
+    private final String nickname;
+
+    public RosterEntry(Long playerId, int playerIndex, PlayerRole role, String nickname) {
+        this.playerId = playerId;
+        this.playerIndex = playerIndex;
+        this.role = role;
+        this.nickname = nickname;
+    }
+
+    public Long getPlayerId() {
+        return playerId;
+    }
+
+    public int getPlayerIndex() {
+        return playerIndex;
+    }
+
+    public PlayerRole getRole() {
+        return role;
+    }
+
+    public String getNickname() {
+        return nickname;
+    }
+}
@@ -0,0 +1,18 @@
+package com.policethief.dto;
+
+import java.util.List;
+
+/**
+ * ROSTER 이벤트 내용 (방에 입장한 세션에만 전달)
+ */
+public class RosterPayload {
+    private final List<RosterEntry> members;
+
+    public RosterPayload(List<RosterEntry> members) {
+        this.members = members;
+    }
+
+    public List<RosterEntry> getMembers() {
+        return members;
+    }
+}
@@ -0,0 +1,29 @@
+package com.policethief.dto;
+
+/**
+ * START 이벤트 내용
+ */
+public class StartPayload {
+    private final String status;
+    private final Long endsAt;
+
+    public StartPayload(String status) {
+        this(status, null);
+    }
+
+    public StartPayload(String status, Long endsAt) {
+        this.status = status;
+        this.endsAt = endsAt;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * 라운드가 끝나는 시각 (epoch 밀리초, 제한 시간이 없으면 null)
+     */
+    public Long getEndsAt() {
+        return endsAt;
+    }
+}
@@ -0,0 +1,67 @@
+package com.policethief.dto;
+
+/**
+ * TAG / TAG_REJECTED 이벤트 내용
+ */
+public class TagPayload {
+    /** 태그 대상과의 거리가 허용 거리를 넘음 */
+    public static final String REASON_OUT_OF_RANGE = "out_of_range";
+    /** QR 코드가 없거나 형식/서명이 맞지 않음 */
+    public static final String REASON_INVALID_CODE = "invalid_code";
+    /** QR 코드가 대상 플레이어의 것이 아님 */
+    public static final String REASON_WRONG_PLAYER = "wrong_player";
+    /** QR 코드의 유효 구간이 지남 */
+    public static final String REASON_EXPIRED_CODE = "expired_code";
+    /** 경찰이 도둑을 태그한 것이 아님 */
+    public static final String REASON_WRONG_ROLE = "wrong_role";
+    /** 태그한 쪽이나 대상의 마지막 위치가 너무 오래됨 */
+    public static final String REASON_STALE_POSITION = "stale_position";
+
+    private final Long targetId;
+    private final String qrCode;
+    private final boolean verified;
+    private final Double distanceMeters;
+    private final double allowedMeters;
+    private final String reason;
+
+    public TagPayload(Long targetId, String qrCode, boolean verified, Double distanceMeters, double allowedMeters) {
+        this(targetId, qrCode, verified, distanceMeters, allowedMeters, null);
+    }
+
+    public TagPayload(Long targetId, String qrCode, boolean verified, Double distanceMeters, double allowedMeters,
+                      String reason) {
+        this.targetId = targetId;
+        this.qrCode = qrCode;
+        this.verified = verified;
+        this.distanceMeters = distanceMeters;
+        this.allowedMeters = allowedMeters;
+        this.reason = reason;
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    public String getQrCode() {
+        return qrCode;
+    }
+
+    public boolean isVerified() {
+        return verified;
+    }
+
+    public Double getDistanceMeters() {
+        return distanceMeters;
+    }
+
+    public double getAllowedMeters() {
+        return allowedMeters;
+    }
+
+    /**
+     * TAG_REJECTED 의 거부 사유 (TAG 이면 null)
+     */
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,11 @@
+package com.policethief.dto;
+
+/**
+ * 연결별로 협상되는 위치 프레임 인코딩
+ */
+public enum WireFormat {
+    /** 기본 JSON 텍스트 프레임 */
+    JSON,
+    /** 고정소수점 좌표와 플레이어 인덱스를 쓰는 바이너리 프레임 (네이티브 WebSocket 전용) */
+    COMPACT
+}
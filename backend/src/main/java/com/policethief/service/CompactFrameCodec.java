@@ -0,0 +1,318 @@
+package com.policethief.service;
+
+import com.policethief.dto.PlayerPosition;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * COMPACT 위치 프레임 인코더/디코더
+ * <pre>
+ * kind(1바이트, 0x01) | timestamp | count | count × [playerIndex, lat, lon, accuracy+1, speed+1, (heading)] | hiddenCount | hiddenCount × playerIndex
+ * </pre>
+ * 정수는 모두 LEB128 varint입니다. 좌표는 1e-6도 단위 고정소수점이며 첫 항목은 절대값,
+ * 이후 항목은 같은 프레임의 바로 앞 항목과의 차분(zigzag)이라 같은 방 안에서는 보통 2~3바이트면 됩니다.
+ * 속도는 0.1m/s 단위(0이면 없음)이고, 움직이는 경우(speed+1 &gt; 1)에만 방향(북쪽 기준 시계 방향, 1도 단위)이 뒤따릅니다.
+ * 프레임 간 상태를 두지 않으므로 중간에 입장한 세션이나 프레임을 놓친 세션도 바로 해석할 수 있습니다.
+ * 경기 타임라인 내보내기 스트림은 {@link TimelineEncoder} 형식을 씁니다.
+ */
+public final class CompactFrameCodec {
+
+    public static final byte KIND_POSITIONS = 0x01;
+    public static final byte KIND_TIMELINE_POSITION = 0x02;
+    public static final byte KIND_TIMELINE_EVENT = 0x03;
+
+    private static final double FIXED_POINT_SCALE = 1_000_000.0;
+    private static final int MAX_VARINT32 = 5;
+    private static final int MAX_VARINT64 = 10;
+    private static final int MAX_ACCURACY = 65_534;
+    private static final int MAX_SPEED_DECIMETERS = 10_000;
+
+    private CompactFrameCodec() {
+    }
+
+    /**
+     * POSITIONS 프레임을 인코딩합니다. 인덱스가 없는(방에 없는) 플레이어는 제외됩니다.
+     */
+    public static byte[] encodePositions(long timestamp, List<PlayerPosition> positions, List<Long> hidden,
+                                         ToIntFunction<Long> indexOf) {
+        byte[] buffer = new byte[1 + MAX_VARINT64 + MAX_VARINT32 * (2 + positions.size() * 6 + hidden.size())];
+        int offset = 0;
+        buffer[offset++] = KIND_POSITIONS;
+        offset = writeVarLong(buffer, offset, timestamp);
+
+        int[] indexes = new int[positions.size()];
+        int count = 0;
+        for (int i = 0; i < positions.size(); i++) {
+            indexes[i] = indexOf.applyAsInt(positions.get(i).getPlayerId());
+            if (indexes[i] >= 0) {
+                count++;
+            }
+        }
+        offset = writeVarInt(buffer, offset, count);
+
+        int previousLat = 0;
+        int previousLon = 0;
+        for (int i = 0; i < positions.size(); i++) {
+            if (indexes[i] < 0) {
+                continue;
+            }
+            PlayerPosition position = positions.get(i);
+            int lat = toFixedPoint(position.getLatitude());
+            int lon = toFixedPoint(position.getLongitude());
+            offset = writeVarInt(buffer, offset, indexes[i]);
+            offset = writeVarInt(buffer, offset, zigzag(lat - previousLat));
+            offset = writeVarInt(buffer, offset, zigzag(lon - previousLon));
+            offset = writeVarInt(buffer, offset, encodeAccuracy(position.getAccuracy()));
+            int speed = encodeSpeed(position.getSpeed(), position.getHeading());
+            offset = writeVarInt(buffer, offset, speed);
+            if (speed > 1) {
+                offset = writeVarInt(buffer, offset, (int) Math.round(position.getHeading()) % 360);
+            }
+            previousLat = lat;
+            previousLon = lon;
+        }
+
+        int hiddenCount = 0;
+        for (Long playerId : hidden) {
+            if (indexOf.applyAsInt(playerId) >= 0) {
+                hiddenCount++;
+            }
+        }
+        offset = writeVarInt(buffer, offset, hiddenCount);
+        for (Long playerId : hidden) {
+            int index = indexOf.applyAsInt(playerId);
+            if (index >= 0) {
+                offset = writeVarInt(buffer, offset, index);
+            }
+        }
+
+        return Arrays.copyOf(buffer, offset);
+    }
+
+    /**
+     * POSITIONS 프레임을 해석합니다. (부하 도구, 벤치마크, 네이티브 클라이언트 참고용)
+     */
+    public static DecodedPositions decodePositions(byte[] frame) {
+        if (frame.length == 0 || frame[0] != KIND_POSITIONS) {
+            throw new IllegalArgumentException("Not a POSITIONS frame");
+        }
+        Reader reader = new Reader(frame, 1);
+        long timestamp = reader.readVarLong();
+        int count = reader.readVarInt();
+        List<DecodedPosition> positions = new ArrayList<>(count);
+        int lat = 0;
+        int lon = 0;
+        for (int i = 0; i < count; i++) {
+            int index = reader.readVarInt();
+            lat += unzigzag(reader.readVarInt());
+            lon += unzigzag(reader.readVarInt());
+            int accuracy = reader.readVarInt();
+            int speed = reader.readVarInt();
+            int heading = speed > 1 ? reader.readVarInt() : 0;
+            positions.add(new DecodedPosition(index, lat / FIXED_POINT_SCALE, lon / FIXED_POINT_SCALE,
+                    accuracy == 0 ? null : (double) (accuracy - 1),
+                    speed == 0 ? null : (speed - 1) / 10.0, speed > 1 ? (double) heading : null));
+        }
+        int hiddenCount = reader.readVarInt();
+        int[] hidden = new int[hiddenCount];
+        for (int i = 0; i < hiddenCount; i++) {
+            hidden[i] = reader.readVarInt();
+        }
+        return new DecodedPositions(timestamp, positions, hidden);
+    }
+
+    private static int toFixedPoint(double degrees) {
+        return (int) Math.round(degrees * FIXED_POINT_SCALE);
+    }
+
+    private static int encodeAccuracy(Double accuracy) {
+        if (accuracy == null || accuracy.isNaN()) {
+            return 0;
+        }
+        return (int) Math.max(0, Math.min(MAX_ACCURACY, Math.round(accuracy))) + 1;
+    }
+
+    private static int encodeSpeed(Double speed, Double heading) {
+        if (speed == null || speed.isNaN()) {
+            return 0;
+        }
+        int decimeters = (int) Math.max(0, Math.min(MAX_SPEED_DECIMETERS, Math.round(speed * 10)));
+        // 방향이 없으면 멈춘 것으로 보냅니다.
+        return (heading == null ? 0 : decimeters) + 1;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int writeVarInt(byte[] buffer, int offset, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[offset++] = (byte) value;
+        return offset;
+    }
+
+    private static int writeVarLong(byte[] buffer, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[offset++] = (byte) value;
+        return offset;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * 경기 타임라인 내보내기용 COMPACT 스트림 인코더
+     * <pre>
+     * 스트림: [프레임 길이 varint][프레임] 의 연속
+     * POSITION: kind(0x02) | Δtimestamp | playerId | Δlat | Δlon | accuracy+1
+     * EVENT:    kind(0x03) | Δtimestamp | GameEventMessage JSON (UTF-8, 프레임 끝까지)
+     * </pre>
+     * 시각과 좌표는 같은 스트림의 바로 앞 레코드와의 차분(zigzag)이라 처음부터 순서대로 읽어야 합니다.
+     * 버퍼를 재사용하므로 위치 레코드마다 배열을 만들지 않습니다. 스트림 하나에 인코더 하나를 씁니다.
+     */
+    public static final class TimelineEncoder {
+        private final byte[] frame = new byte[1 + MAX_VARINT64 * 2 + MAX_VARINT32 * 3];
+        private final byte[] prefix = new byte[MAX_VARINT32];
+        private long previousTimestamp;
+        private int previousLat;
+        private int previousLon;
+
+        public void writePosition(OutputStream out, long timestamp, long playerId,
+                                  double latitude, double longitude, Double accuracy) throws IOException {
+            int lat = toFixedPoint(latitude);
+            int lon = toFixedPoint(longitude);
+            int offset = 0;
+            frame[offset++] = KIND_TIMELINE_POSITION;
+            offset = writeVarLong(frame, offset, zigzag(timestamp - previousTimestamp));
+            offset = writeVarLong(frame, offset, playerId);
+            offset = writeVarInt(frame, offset, zigzag(lat - previousLat));
+            offset = writeVarInt(frame, offset, zigzag(lon - previousLon));
+            offset = writeVarInt(frame, offset, encodeAccuracy(accuracy));
+            previousTimestamp = timestamp;
+            previousLat = lat;
+            previousLon = lon;
+            out.write(prefix, 0, writeVarInt(prefix, 0, offset));
+            out.write(frame, 0, offset);
+        }
+
+        public void writeEvent(OutputStream out, long timestamp, byte[] json) throws IOException {
+            int offset = 0;
+            frame[offset++] = KIND_TIMELINE_EVENT;
+            offset = writeVarLong(frame, offset, zigzag(timestamp - previousTimestamp));
+            previousTimestamp = timestamp;
+            out.write(prefix, 0, writeVarInt(prefix, 0, offset + json.length));
+            out.write(frame, 0, offset);
+            out.write(json);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int offset;
+
+        private Reader(byte[] buffer, int offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+
+        private int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        private long readVarLong() {
+            long result = 0;
+            int shift = 0;
+            while (true) {
+                byte b = buffer[offset++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+                shift += 7;
+            }
+        }
+    }
+
+    public static final class DecodedPositions {
+        private final long timestamp;
+        private final List<DecodedPosition> positions;
+        private final int[] hiddenIndexes;
+
+        private DecodedPositions(long timestamp, List<DecodedPosition> positions, int[] hiddenIndexes) {
+            this.timestamp = timestamp;
+            this.positions = positions;
+            this.hiddenIndexes = hiddenIndexes;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public List<DecodedPosition> getPositions() {
+            return positions;
+        }
+
+        public int[] getHiddenIndexes() {
+            return hiddenIndexes;
+        }
+    }
+
+    public static final class DecodedPosition {
+        private final int playerIndex;
+        private final double latitude;
+        private final double longitude;
+        private final Double accuracy;
+        private final Double speed;
+        private final Double heading;
+
+        private DecodedPosition(int playerIndex, double latitude, double longitude, Double accuracy,
+                                Double speed, Double heading) {
+            this.playerIndex = playerIndex;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.accuracy = accuracy;
+            this.speed = speed;
+            this.heading = heading;
+        }
+
+        public int getPlayerIndex() {
+            return playerIndex;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public Double getAccuracy() {
+            return accuracy;
+        }
+
+        public Double getSpeed() {
+            return speed;
+        }
+
+        public Double getHeading() {
+            return heading;
+        }
+    }
+}
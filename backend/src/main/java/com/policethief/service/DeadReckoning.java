@@ -0,0 +1,185 @@
+package com.policethief.service;
+
+import com.policethief.dto.PlayerPosition;
+
+/**
+ * 위치 추측 항법(dead reckoning) 모델
+ * 플레이어마다 마지막으로 보낸 위치/속도/방향을 기억해 두고, 새 GPS 위치가 그 상태로 예측한 위치에서
+ * 허용 오차보다 멀어졌을 때나 heartbeat 간격이 지났을 때만 새 상태를 보냅니다.
+ * 받는 쪽은 {@link #extrapolate}와 같은 방식으로 마지막 상태에서 앞으로 밀어 그리므로, 일정한 속도로 곧게
+ * 움직이는 동안은 보내지 않아도 위치가 맞습니다.
+ * 위치와 속도는 GPS 위치를 그대로 쓰지 않고 알파-베타 필터로 추정해, GPS 오차로 인한 흔들림이 전송으로 이어지지 않게 합니다.
+ * (예측 위치와 새 GPS 위치의 차이 중 gain 만큼을 위치에, gain²/(2-gain) 만큼을 속도에 반영)
+ *
+ * <p>시각은 모두 호출하는 쪽이 넘기며, 트랙 하나는 한 스레드(틱 스레드)에서만 다룹니다.
+ */
+public final class DeadReckoning {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    /** GPS 위치가 이 시간 넘게 끊겼다가 들어오면 추정을 새로 시작합니다. (밀리초) */
+    private static final long RESET_GAP_MILLIS = 10_000;
+    /** 이보다 느리면 멈춘 것으로 보내 받는 쪽이 밀어 그리지 않게 합니다. (m/s) */
+    private static final double MIN_SPEED_MPS = 0.2;
+
+    private final double deviationMeters;
+    private final long heartbeatMillis;
+    private final double positionGain;
+    private final double velocityGain;
+
+    /**
+     * @param deviationMeters 예측 위치와 추정 위치가 이보다 멀면 보냄 (m)
+     * @param heartbeatMillis 새 위치가 있는데 이 시간 동안 보내지 않았으면 보냄
+     * @param gain            새 GPS 위치의 반영 비율 (0~1, 1이면 GPS 위치를 그대로 씀)
+     */
+    public DeadReckoning(double deviationMeters, long heartbeatMillis, double gain) {
+        this.deviationMeters = deviationMeters;
+        this.heartbeatMillis = heartbeatMillis;
+        this.positionGain = Math.min(1.0, Math.max(0.05, gain));
+        this.velocityGain = positionGain * positionGain / (2 - positionGain);
+    }
+
+    public Track newTrack(Long playerId) {
+        return new Track(playerId);
+    }
+
+    /**
+     * 보낸 위치를 sentAt 부터 now 까지 속도/방향대로 밀어 낸 위치 {위도, 경도} (받는 쪽이 그리는 위치)
+     */
+    public static double[] extrapolate(PlayerPosition position, long sentAt, long now) {
+        if (position.getSpeed() == null || position.getSpeed() == 0 || position.getHeading() == null) {
+            return new double[]{position.getLatitude(), position.getLongitude()};
+        }
+        double seconds = (now - sentAt) / 1000.0;
+        double heading = Math.toRadians(position.getHeading());
+        double north = position.getSpeed() * Math.cos(heading) * seconds;
+        double east = position.getSpeed() * Math.sin(heading) * seconds;
+        return new double[]{
+                position.getLatitude() + north / METERS_PER_DEGREE,
+                position.getLongitude() + east / metersPerDegreeLon(position.getLatitude())};
+    }
+
+    /**
+     * 두 지점 사이 거리 (m, 가까운 거리용 평면 근사)
+     */
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double north = (lat2 - lat1) * METERS_PER_DEGREE;
+        double east = (lon2 - lon1) * metersPerDegreeLon(lat1);
+        return Math.sqrt(north * north + east * east);
+    }
+
+    private static double metersPerDegreeLon(double latitude) {
+        return METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+    }
+
+    /**
+     * 플레이어 한 명의 상태
+     */
+    public final class Track {
+        private final Long playerId;
+
+        // 마지막 GPS 위치 시각의 추정 위치와 속도 (m/s)
+        private boolean hasFix;
+        private double latitude;
+        private double longitude;
+        private Double accuracy;
+        private long fixAt;
+        private boolean fixSinceSent;
+        private double velocityNorth;
+        private double velocityEast;
+
+        // 마지막으로 보낸 상태
+        private PlayerPosition sent;
+        private long sentAt;
+
+        private Track(Long playerId) {
+            this.playerId = playerId;
+        }
+
+        /**
+         * 새 GPS 위치를 반영해 위치와 속도 추정을 갱신합니다.
+         */
+        public void observe(double latitude, double longitude, Double accuracy, long now) {
+            this.accuracy = accuracy;
+            this.fixSinceSent = true;
+            double seconds = (now - fixAt) / 1000.0;
+            if (!hasFix || now - fixAt > RESET_GAP_MILLIS || seconds <= 0) {
+                // 처음이거나 오래 끊겼던 위치는 그대로 받아들이고, 같은 시각에 두 번 온 위치는 새 값으로 바꿉니다.
+                if (!hasFix || seconds > 0) {
+                    velocityNorth = 0;
+                    velocityEast = 0;
+                }
+                hasFix = true;
+                this.latitude = latitude;
+                this.longitude = longitude;
+                this.fixAt = now;
+                return;
+            }
+            double perDegreeLon = metersPerDegreeLon(this.latitude);
+            double predictedNorth = velocityNorth * seconds;
+            double predictedEast = velocityEast * seconds;
+            double residualNorth = (latitude - this.latitude) * METERS_PER_DEGREE - predictedNorth;
+            double residualEast = (longitude - this.longitude) * perDegreeLon - predictedEast;
+            this.latitude += (predictedNorth + positionGain * residualNorth) / METERS_PER_DEGREE;
+            this.longitude += (predictedEast + positionGain * residualEast) / perDegreeLon;
+            velocityNorth += velocityGain * residualNorth / seconds;
+            velocityEast += velocityGain * residualEast / seconds;
+            this.fixAt = now;
+        }
+
+        /**
+         * 지금 보내야 하면 보낼 위치를 돌려주고 보낸 상태로 기록합니다. (보낼 필요가 없으면 null)
+         */
+        public PlayerPosition poll(long now) {
+            if (!hasFix) {
+                return null;
+            }
+            if (sent == null) {
+                return send(now);
+            }
+            if (fixSinceSent) {
+                double[] predicted = extrapolate(sent, sentAt, fixAt);
+                double deviation = distanceMeters(predicted[0], predicted[1], latitude, longitude);
+                if (deviation > deviationMeters || now - sentAt >= heartbeatMillis) {
+                    return send(now);
+                }
+            } else if (sent.getSpeed() != null && sent.getSpeed() > 0 && now - fixAt >= heartbeatMillis) {
+                // 위치가 끊긴 플레이어를 받는 쪽이 계속 밀어 그리지 않도록 멈춘 상태로 보냅니다.
+                velocityNorth = 0;
+                velocityEast = 0;
+                return send(now);
+            }
+            return null;
+        }
+
+        /**
+         * 지금 보낸다면 보낼 상태. 보낸 상태로 기록하지 않습니다. (새로 드러난 상대에게 한 번 보내는 경우 등)
+         */
+        public PlayerPosition peek(long now) {
+            return hasFix ? snapshot(now) : null;
+        }
+
+        public boolean hasFix() {
+            return hasFix;
+        }
+
+        private PlayerPosition send(long now) {
+            sent = snapshot(now);
+            sentAt = now;
+            fixSinceSent = false;
+            return sent;
+        }
+
+        private PlayerPosition snapshot(long now) {
+            double speed = Math.sqrt(velocityNorth * velocityNorth + velocityEast * velocityEast);
+            if (speed < MIN_SPEED_MPS) {
+                speed = 0;
+            }
+            // 마지막 GPS 시각부터 지금까지 움직였을 만큼 밀어서, 받는 쪽이 프레임 시각을 기준으로 그리게 합니다.
+            double seconds = Math.max(0, now - fixAt) / 1000.0;
+            double lat = speed > 0 ? latitude + velocityNorth * seconds / METERS_PER_DEGREE : latitude;
+            double lon = speed > 0 ? longitude + velocityEast * seconds / metersPerDegreeLon(latitude) : longitude;
+            double heading = (Math.toDegrees(Math.atan2(velocityEast, velocityNorth)) + 360) % 360;
+            return new PlayerPosition(playerId, lat, lon, accuracy, speed, speed > 0 ? heading : null);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.policethief.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 메모리 매핑 세그먼트 파일에 쌓는 추가 전용(append-only) 저널
+ * 레코드는 [본문 길이 int][본문 CRC32C int][본문] 형식이며, 세그먼트가 차면 다음 파일로 넘어갑니다.
+ * 위치는 저널 전체에서 이어지는 바이트 오프셋이고, 세그먼트 파일 이름은 그 파일의 시작 위치입니다.
+ * 읽을 때는 길이가 0이거나 체크섬이 맞지 않는 레코드에서 그 세그먼트를 끝낸 것으로 봅니다.
+ * 다시 열 때는 이전 세그먼트에 이어 쓰지 않고 항상 새 세그먼트를 시작하므로, 잘린 꼬리 뒤에 남은 옛 바이트가
+ * 새 레코드와 이어져 읽히는 일이 없습니다.
+ *
+ * 기록은 {@link #begin(int)} 으로 받은 버퍼에 본문을 직접 쓰고 {@link #commit()} 하는 방식이라 레코드마다 객체를 만들지 않습니다.
+ * begin ~ commit 사이에는 호출자가 이 객체의 모니터를 잡고 있어야 합니다.
+ */
+public final class EventJournal implements Closeable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final CRC32C crc = new CRC32C();
+    /** 시작 위치 → 세그먼트 파일 (활성 세그먼트 포함) */
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer active;
+    private long activeBase;
+    private int writePosition;
+    private int recordStart = -1;
+    private int forcedUpTo;
+
+    private EventJournal(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * 디렉터리의 세그먼트를 읽어 들이고, 마지막 세그먼트의 유효한 끝에서 새 세그먼트를 엽니다.
+     */
+    public static EventJournal open(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes < 64 * 1024) {
+            throw new IllegalArgumentException("세그먼트 크기가 너무 작습니다: " + segmentBytes);
+        }
+        Files.createDirectories(directory);
+        EventJournal journal = new EventJournal(directory, segmentBytes);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(file -> journal.segments.put(baseOf(file), file));
+        }
+        long next = 0;
+        if (!journal.segments.isEmpty()) {
+            Map.Entry<Long, Path> last = journal.segments.lastEntry();
+            int length = journal.validLength(last.getValue());
+            next = last.getKey() + length;
+            if (length == 0) {
+                // 레코드가 하나도 없는 세그먼트는 지우고 같은 위치에서 빈 파일로 다시 만듭니다.
+                Files.delete(last.getValue());
+                journal.segments.remove(last.getKey());
+            }
+        }
+        journal.roll(next);
+        return journal;
+    }
+
+    /**
+     * 다음 레코드를 쓸 위치 (마지막 레코드의 끝)
+     */
+    public synchronized long position() {
+        return activeBase + writePosition;
+    }
+
+    /**
+     * 본문을 최대 maxBodyBytes 만큼 쓸 수 있는 버퍼를 돌려줍니다. 버퍼의 현재 위치부터 본문을 쓰고 {@link #commit()} 합니다.
+     * 남은 공간이 부족하면 다음 세그먼트로 넘어갑니다.
+     */
+    public ByteBuffer begin(int maxBodyBytes) throws IOException {
+        if (active == null) {
+            throw new IllegalStateException("저널이 닫혔습니다");
+        }
+        if (HEADER_BYTES + maxBodyBytes > segmentBytes) {
+            throw new IllegalArgumentException("레코드가 세그먼트보다 큽니다: " + maxBodyBytes);
+        }
+        if (writePosition + HEADER_BYTES + maxBodyBytes > segmentBytes) {
+            roll(activeBase + writePosition);
+        }
+        recordStart = writePosition;
+        active.position(recordStart + HEADER_BYTES);
+        return active;
+    }
+
+    /**
+     * begin 이후 쓴 본문에 체크섬과 길이를 붙여 레코드를 확정합니다. 길이를 마지막에 써서 쓰다 만 레코드는 길이 0으로 남습니다.
+     *
+     * @return 다음 레코드를 쓸 위치
+     */
+    public long commit() {
+        int bodyStart = recordStart + HEADER_BYTES;
+        int bodyEnd = active.position();
+        active.position(bodyStart).limit(bodyEnd);
+        crc.reset();
+        crc.update(active);
+        active.limit(segmentBytes);
+        active.putInt(recordStart + 4, (int) crc.getValue());
+        active.putInt(recordStart, bodyEnd - bodyStart);
+        writePosition = bodyEnd;
+        recordStart = -1;
+        return activeBase + writePosition;
+    }
+
+    /**
+     * 아직 디스크에 내리지 않은 범위를 fsync 합니다.
+     * 범위만 모니터 안에서 정하고 실제 동기화는 밖에서 하므로 기록 중인 스레드를 오래 막지 않습니다.
+     */
+    public void force() {
+        MappedByteBuffer segment;
+        int from;
+        int to;
+        synchronized (this) {
+            segment = active;
+            from = forcedUpTo;
+            to = writePosition;
+            if (segment == null || to <= from) {
+                return;
+            }
+            forcedUpTo = to;
+        }
+        segment.force(from, to - from);
+    }
+
+    /**
+     * from 위치부터 마지막 레코드까지 차례로 읽습니다. from 은 레코드 경계여야 합니다.
+     *
+     * @return 읽은 레코드 수
+     */
+    public int replay(long from, RecordHandler handler) throws IOException {
+        List<Map.Entry<Long, Path>> targets;
+        long activeStart;
+        int activeEnd;
+        synchronized (this) {
+            targets = new ArrayList<>(segments.entrySet());
+            activeStart = activeBase;
+            activeEnd = writePosition;
+        }
+        int count = 0;
+        for (int i = 0; i < targets.size(); i++) {
+            long base = targets.get(i).getKey();
+            long next = i + 1 < targets.size() ? targets.get(i + 1).getKey() : Long.MAX_VALUE;
+            if (next <= from) {
+                continue;
+            }
+            ByteBuffer segment = map(targets.get(i).getValue(), FileChannel.MapMode.READ_ONLY);
+            if (base == activeStart) {
+                // 활성 세그먼트는 호출 시점까지 확정된 레코드만 읽습니다.
+                segment.limit(activeEnd);
+            }
+            int offset = (int) Math.max(0, from - base);
+            while (offset + HEADER_BYTES <= segment.limit()) {
+                int length = readRecord(segment, offset);
+                if (length < 0) {
+                    break;
+                }
+                handler.onRecord(base + offset, segment.slice(offset + HEADER_BYTES, length));
+                offset += HEADER_BYTES + length;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * position 이전에 완전히 끝났고 마지막 수정 시각이 modifiedBefore 보다 이른 세그먼트 파일을 오래된 것부터 지웁니다.
+     * 활성 세그먼트는 지우지 않습니다.
+     *
+     * @return 지운 세그먼트 수
+     */
+    public int deleteBefore(long position, long modifiedBefore) throws IOException {
+        List<Path> obsolete = new ArrayList<>();
+        synchronized (this) {
+            Long next;
+            while ((next = segments.higherKey(segments.firstKey())) != null && next <= position
+                    && Files.getLastModifiedTime(segments.firstEntry().getValue()).toMillis() < modifiedBefore) {
+                obsolete.add(segments.pollFirstEntry().getValue());
+            }
+        }
+        for (Path file : obsolete) {
+            Files.deleteIfExists(file);
+        }
+        return obsolete.size();
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (active != null) {
+            active.force();
+            active = null;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * 현재 세그먼트를 디스크에 내리고 base 위치에서 시작하는 새 세그먼트를 엽니다.
+     */
+    private void roll(long base) throws IOException {
+        if (active != null) {
+            active.force();
+            channel.close();
+        }
+        Path file = directory.resolve(String.format("%020d%s", base, SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        active = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        activeBase = base;
+        writePosition = 0;
+        forcedUpTo = 0;
+        segments.put(base, file);
+    }
+
+    /**
+     * 세그먼트 앞에서부터 체크섬이 맞는 레코드가 이어지는 길이
+     */
+    private int validLength(Path file) throws IOException {
+        ByteBuffer segment = map(file, FileChannel.MapMode.READ_ONLY);
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segment.limit()) {
+            int length = readRecord(segment, offset);
+            if (length < 0) {
+                break;
+            }
+            offset += HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    /**
+     * offset 의 레코드 본문 길이 (레코드가 없거나 손상되었으면 -1)
+     */
+    private int readRecord(ByteBuffer segment, int offset) {
+        int length = segment.getInt(offset);
+        if (length <= 0 || length > segment.limit() - offset - HEADER_BYTES) {
+            return -1;
+        }
+        CRC32C check = new CRC32C();
+        check.update(segment.slice(offset + HEADER_BYTES, length));
+        return (int) check.getValue() == segment.getInt(offset + 4) ? length : -1;
+    }
+
+    private static ByteBuffer map(Path file, FileChannel.MapMode mode) throws IOException {
+        try (FileChannel readChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readChannel.map(mode, 0, readChannel.size());
+        }
+    }
+
+    private static long baseOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * 재생 시 레코드 하나를 받는 쪽. body 는 본문만 담은 읽기 전용 버퍼입니다.
+     */
+    public interface RecordHandler {
+        void onRecord(long position, ByteBuffer body) throws IOException;
+    }
+}
@@ -0,0 +1,512 @@
+package com.policethief.service;
+
+import com.policethief.cluster.RoomCommand;
+import com.policethief.cluster.RoomEventBus;
+import com.policethief.cluster.RoomFrame;
+import com.policethief.cluster.RoomHandoff;
+import com.policethief.cluster.RoomMembership;
+import com.policethief.cluster.SessionRef;
+import com.policethief.domain.RoomStatus;
+import com.policethief.dto.BoundsPayload;
+import com.policethief.dto.GameClockPayload;
+import com.policethief.dto.GameEventMessage;
+import com.policethief.dto.GameEventType;
+import com.policethief.dto.JoinPayload;
+import com.policethief.dto.JoinRoomRequest;
+import com.policethief.dto.LeavePayload;
+import com.policethief.dto.LeaveRoomRequest;
+import com.policethief.dto.LocationIntervalPayload;
+import com.policethief.dto.LocationUpdateRequest;
+import com.policethief.dto.PlayerRole;
+import com.policethief.dto.ProximityPayload;
+import com.policethief.dto.RosterEntry;
+import com.policethief.dto.RosterPayload;
+import com.policethief.dto.StartGameRequest;
+import com.policethief.dto.StartPayload;
+import com.policethief.dto.TagEventRequest;
+import com.policethief.dto.TagPayload;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * 방 소유 노드에서 게임 명령을 처리합니다.
+ * 클라이언트가 붙은 노드와 관계없이 이벤트 버스가 명령을 이곳으로 보내므로,
+ * 방 상태는 항상 소유 노드 한 곳에서만 바뀝니다.
+ * 소유 노드 안에서는 방마다 정해진 레인({@link RoomLaneExecutor})에서 명령을 하나씩 받은 순서대로 처리합니다.
+ * 라운드 종료/남은 시간 알림/수감 해제 타이머({@link GameTimerService})도 만료되면 TIMER 명령으로 같은 레인에 들어옵니다.
+ */
+@Slf4j
+@Service
+public class GameCommandService implements RoomEventBus.CommandHandler {
+
+    private final RoomEventBus eventBus;
+    private final GameRoomService gameRoomService;
+    private final GameRoomSessionService roomSessionService;
+    private final LocationBroadcastService locationBroadcastService;
+    private final ProximityEngine proximityEngine;
+    private final PlayerSessionRegistry sessionRegistry;
+    private final PresenceService presenceService;
+    private final LocationTrailWriter trailWriter;
+    private final GameJournalService journal;
+    private final RoomLaneExecutor lanes;
+    private final LocationRateService locationRateService;
+    private final GeofenceService geofenceService;
+    private final TagCodeService tagCodeService;
+    private final TagIdempotencyService tagIdempotency;
+    private final GameTimerService gameTimers;
+
+    public GameCommandService(RoomEventBus eventBus,
+                              GameRoomService gameRoomService,
+                              GameRoomSessionService roomSessionService,
+                              LocationBroadcastService locationBroadcastService,
+                              ProximityEngine proximityEngine,
+                              PlayerSessionRegistry sessionRegistry,
+                              PresenceService presenceService,
+                              LocationTrailWriter trailWriter,
+                              GameJournalService journal,
+                              RoomLaneExecutor lanes,
+                              LocationRateService locationRateService,
+                              GeofenceService geofenceService,
+                              TagCodeService tagCodeService,
+                              TagIdempotencyService tagIdempotency,
+                              GameTimerService gameTimers) {
+        this.eventBus = eventBus;
+        this.gameRoomService = gameRoomService;
+        this.roomSessionService = roomSessionService;
+        this.locationBroadcastService = locationBroadcastService;
+        this.proximityEngine = proximityEngine;
+        this.sessionRegistry = sessionRegistry;
+        this.presenceService = presenceService;
+        this.trailWriter = trailWriter;
+        this.journal = journal;
+        this.lanes = lanes;
+        this.locationRateService = locationRateService;
+        this.geofenceService = geofenceService;
+        this.tagCodeService = tagCodeService;
+        this.tagIdempotency = tagIdempotency;
+        this.gameTimers = gameTimers;
+    }
+
+    @PostConstruct
+    void registerHandler() throws IOException {
+        eventBus.setCommandHandler(this);
+        // 타이머는 이 노드가 소유한 방에만 걸리므로 명령 버스를 거치지 않고 바로 방의 레인에 넣습니다.
+        gameTimers.setFireHandler(timer ->
+                handle(new RoomCommand(RoomCommand.Type.TIMER, timer.getRoomId(), null, timer)));
+        recoverFromJournal();
+    }
+
+    /**
+     * 재시작 전의 방을 저널에서 복구합니다. 방 목록을 다시 알리고 멤버 상태는 넘겨받은 방처럼 복원한 뒤,
+     * 복구 결과로 첫 스냅샷을 남기고 기록을 시작합니다.
+     */
+    private void recoverFromJournal() throws IOException {
+        GameJournalService.Recovery recovery = journal.recover();
+        recovery.getRooms().forEach(gameRoomService::restoreRoom);
+        recovery.getHandoffs().forEach(this::acceptHandoff);
+        journal.checkpoint();
+    }
+
+    @Override
+    public void handle(RoomCommand command) {
+        lanes.execute(command.getRoomId(), () -> process(command));
+    }
+
+    private void process(RoomCommand command) {
+        Long roomId = command.getRoomId();
+        switch (command.getType()) {
+            case JOIN -> join(roomId, (JoinRoomRequest) command.getPayload(), command.getOrigin());
+            case LEAVE -> leave(roomId, ((LeaveRoomRequest) command.getPayload()).getPlayerId(), LeavePayload.REASON_LEFT);
+            case START -> start(roomId, (StartGameRequest) command.getPayload());
+            case TAG -> tag(roomId, (TagEventRequest) command.getPayload(), command.getOrigin());
+            case LOCATION -> updateLocation(roomId, (LocationUpdateRequest) command.getPayload());
+            case HANDOFF -> acceptHandoff(roomId, (RoomHandoff) command.getPayload());
+            case DISCONNECT -> presenceService.markDisconnected(roomId, (Long) command.getPayload(), command.getOrigin());
+            case EXPIRE -> expire(roomId, (Long) command.getPayload());
+            case TIMER -> onTimer(roomId, (GameTimerService.GameTimer) command.getPayload());
+        }
+    }
+
+    /**
+     * 더 이상 이 노드가 소유하지 않는 방의 멤버/세션 상태를 새 소유 노드로 넘깁니다.
+     * 인계는 방의 레인에서 하므로 그 전에 들어와 있던 명령까지 반영한 상태를 넘깁니다.
+     */
+    @Override
+    public void onOwnershipChanged() {
+        for (Long roomId : roomSessionService.getRoomIds()) {
+            if (!eventBus.isLocalOwner(roomId)) {
+                lanes.execute(roomId, () -> handOff(roomId));
+            }
+        }
+    }
+
+    private void handOff(Long roomId) {
+        List<RosterEntry> members = roomSessionService.getRoster(roomId);
+        // 레인에서 차례를 기다리는 사이 다시 소유하게 된 방은 그대로 두고, 그사이 비었거나 이미 넘긴 방은 정리만 합니다.
+        if (eventBus.isLocalOwner(roomId)) {
+            return;
+        }
+        if (members.isEmpty()) {
+            releaseRoom(roomId);
+            return;
+        }
+        RoomHandoff handoff = new RoomHandoff(
+                members,
+                roomSessionService.getHostId(roomId),
+                roomSessionService.getStatus(roomId),
+                new HashMap<>(sessionRegistry.getSessions(roomId)),
+                roomSessionService.getStartedAt(roomId));
+        releaseRoom(roomId);
+        log.info("방 소유권 이전 - roomId={}, to={}, members={}",
+                roomId, eventBus.ownerOf(roomId), handoff.getMembers().size());
+        eventBus.dispatch(new RoomCommand(RoomCommand.Type.HANDOFF, roomId, null, handoff));
+    }
+
+    private void join(Long roomId, JoinRoomRequest request, SessionRef origin) {
+        log.info("방 입장 이벤트 - roomId={}, playerId={}", roomId, request.getPlayerId());
+        int memberCount = roomSessionService.joinRoom(
+                roomId, request.getPlayerId(), request.getNickname(), request.getRole());
+        sessionRegistry.register(roomId, request.getPlayerId(), origin);
+        presenceService.track(roomId, request.getPlayerId(), origin);
+        PlayerRole role = roomSessionService.getRole(roomId, request.getPlayerId());
+        int playerIndex = roomSessionService.getPlayerIndex(roomId, request.getPlayerId());
+        GameEventMessage joined = GameEventMessage.of(
+                GameEventType.JOIN,
+                roomId,
+                request.getPlayerId(),
+                new JoinPayload(request.getNickname(), memberCount, role, playerIndex)
+        );
+        journal.append(joined);
+        eventBus.publish(roomId, joined);
+        // 새로 들어온 세션은 COMPACT 프레임의 플레이어 인덱스를 해석할 수 있도록 현재 명단을 받습니다.
+        if (origin != null) {
+            eventBus.deliver(roomId, List.of(origin), RoomFrame.of(GameEventMessage.of(
+                    GameEventType.ROSTER,
+                    roomId,
+                    request.getPlayerId(),
+                    new RosterPayload(roomSessionService.getRoster(roomId))
+            )));
+        }
+        announceMembership(roomId);
+    }
+
+    private void leave(Long roomId, Long playerId, String reason) {
+        log.info("방 퇴장 이벤트 - roomId={}, playerId={}, reason={}", roomId, playerId, reason);
+        int memberCount = roomSessionService.leaveRoom(roomId, playerId);
+        if (memberCount == 0) {
+            // 마지막 플레이어가 나가면 방을 종료하고 검색 인덱스에서도 제거합니다.
+            // 멤버 상태는 leaveRoom이 이미 원자적으로 제거했으므로 그사이 새로 입장한 멤버는 건드리지 않습니다.
+            gameRoomService.closeRoom(roomId);
+            releaseRuntimeState(roomId);
+        } else {
+            locationBroadcastService.removePlayer(roomId, playerId);
+            proximityEngine.removePlayer(roomId, playerId);
+            sessionRegistry.unregister(roomId, playerId);
+            presenceService.untrack(roomId, playerId);
+            locationRateService.removePlayer(roomId, playerId);
+            geofenceService.removePlayer(roomId, playerId);
+            gameTimers.removePlayer(roomId, playerId);
+            announceMembership(roomId);
+        }
+        GameEventMessage left = GameEventMessage.of(
+                GameEventType.LEAVE,
+                roomId,
+                playerId,
+                new LeavePayload(memberCount, reason)
+        );
+        journal.append(left);
+        eventBus.publish(roomId, left);
+    }
+
+    /**
+     * 연결이 끊긴 뒤 유예 시간 안에 돌아오지 않았거나 위치 갱신이 끊긴 플레이어를 내보냅니다.
+     */
+    private void expire(Long roomId, Long playerId) {
+        if (roomSessionService.getPlayerIndex(roomId, playerId) < 0) {
+            return;
+        }
+        leave(roomId, playerId, LeavePayload.REASON_TIMEOUT);
+    }
+
+    private void start(Long roomId, StartGameRequest request) {
+        log.info("게임 시작 이벤트 - roomId={}, hostId={}", roomId, request.getHostId());
+        long startedAt = System.currentTimeMillis();
+        if (!roomSessionService.startGame(roomId, request.getHostId(), startedAt)) {
+            log.warn("게임 시작 거부 (방장이 아니거나 이미 시작됨) - roomId={}, hostId={}, 방장={}",
+                    roomId, request.getHostId(), roomSessionService.getHostId(roomId));
+            return;
+        }
+        GameEventMessage started = GameEventMessage.of(
+                GameEventType.START,
+                roomId,
+                request.getHostId(),
+                new StartPayload("started", startClock(roomId, startedAt))
+        );
+        // 저널 복구가 이 시각으로 라운드 시계를 다시 맞춥니다.
+        started.setTimestamp(startedAt);
+        journal.append(started);
+        eventBus.publish(roomId, started);
+        announceMembership(roomId);
+    }
+
+    /**
+     * 라운드 종료와 첫 남은 시간 알림을 겁니다. 종료 시각이 이미 지났으면 다음 tick에 끝납니다.
+     *
+     * @return 라운드 종료 시각 (제한 시간이 없으면 null)
+     */
+    private Long startClock(Long roomId, long startedAt) {
+        long endsAt = gameTimers.roundEndsAt(startedAt);
+        if (endsAt < 0) {
+            return null;
+        }
+        gameTimers.schedule(roomId, null, GameTimerService.Kind.ROUND_END, endsAt);
+        scheduleCountdown(roomId, endsAt, System.currentTimeMillis());
+        return endsAt;
+    }
+
+    private void scheduleCountdown(Long roomId, long endsAt, long after) {
+        long at = gameTimers.nextCountdownAt(endsAt, after);
+        if (at >= 0) {
+            gameTimers.schedule(roomId, null, GameTimerService.Kind.COUNTDOWN, at);
+        }
+    }
+
+    private void onTimer(Long roomId, GameTimerService.GameTimer timer) {
+        // 레인에서 차례를 기다리는 사이 취소되었거나 다시 걸린 타이머는 무시합니다.
+        if (!gameTimers.claim(timer)) {
+            return;
+        }
+        switch (timer.getKind()) {
+            case ROUND_END -> endRound(roomId);
+            case COUNTDOWN -> countdown(roomId);
+            case JAIL_RELEASE -> releaseFromJail(roomId, timer.getPlayerId());
+        }
+    }
+
+    private void countdown(Long roomId) {
+        GameClockPayload clock = clockOf(roomId);
+        if (clock.getEndsAt() == null) {
+            return;
+        }
+        eventBus.publish(roomId, GameEventMessage.of(GameEventType.COUNTDOWN, roomId, null, clock));
+        scheduleCountdown(roomId, clock.getEndsAt(), System.currentTimeMillis());
+    }
+
+    private void endRound(Long roomId) {
+        GameClockPayload clock = clockOf(roomId);
+        if (!roomSessionService.finishRound(roomId)) {
+            return;
+        }
+        log.info("라운드 종료 - roomId={}", roomId);
+        // 남은 알림과 수감 타이머, 이번 라운드의 태그 기록은 다음 라운드로 넘기지 않습니다.
+        gameTimers.removeRoom(roomId);
+        tagIdempotency.removeRoom(roomId);
+        GameEventMessage ended = GameEventMessage.of(GameEventType.ROUND_END, roomId, null,
+                new GameClockPayload(clock.getEndsAt(), 0L));
+        journal.append(ended);
+        eventBus.publish(roomId, ended);
+        announceMembership(roomId);
+    }
+
+    private void releaseFromJail(Long roomId, Long playerId) {
+        if (roomSessionService.getPlayerIndex(roomId, playerId) < 0) {
+            return;
+        }
+        // 풀려난 도둑은 같은 경찰에게 다시 잡힐 수 있어야 하므로 중복 태그 기록에서 뺍니다.
+        tagIdempotency.forgetTarget(roomId, playerId);
+        eventBus.publish(roomId, GameEventMessage.of(GameEventType.JAIL_RELEASE, roomId, playerId, clockOf(roomId)));
+    }
+
+    /**
+     * 방의 현재 라운드 시계
+     */
+    private GameClockPayload clockOf(Long roomId) {
+        long startedAt = roomSessionService.getStartedAt(roomId);
+        long endsAt = startedAt > 0 ? gameTimers.roundEndsAt(startedAt) : -1;
+        if (endsAt < 0) {
+            return new GameClockPayload(null, null);
+        }
+        long remainingMillis = Math.max(0, endsAt - System.currentTimeMillis());
+        return new GameClockPayload(endsAt, (remainingMillis + 500) / 1000);
+    }
+
+    private void tag(Long roomId, TagEventRequest request, SessionRef origin) {
+        if (request.getTargetId() == null) {
+            // 대상을 따로 보내지 않으면 QR 코드에 담긴 플레이어를 대상으로 봅니다.
+            request.setTargetId(TagCodeService.playerIdOf(request.getQrCode()));
+        }
+        log.info("태그 이벤트 - roomId={}, taggerId={}, targetId={}", roomId, request.getTaggerId(), request.getTargetId());
+        if (request.getTaggerId() != null && request.getTargetId() != null) {
+            // 재전송된 태그는 다시 처리하지 않고, 보낸 세션에만 처음 결과를 다시 보냅니다.
+            GameEventMessage previous = tagIdempotency.findDuplicate(roomId, request.getTaggerId(), request.getTargetId());
+            if (previous != null) {
+                log.info("중복 태그 무시 - roomId={}, taggerId={}, targetId={}",
+                        roomId, request.getTaggerId(), request.getTargetId());
+                if (origin != null) {
+                    eventBus.deliver(roomId, List.of(origin), RoomFrame.of(previous));
+                }
+                return;
+            }
+        }
+        ProximityEngine.TagCheck check = proximityEngine.checkTag(roomId, request.getTaggerId(), request.getTargetId());
+
+        String rejectReason = null;
+        if (tagCodeService.isEnabled()) {
+            rejectReason = switch (tagCodeService.verify(roomId, request.getTargetId(), request.getQrCode())) {
+                case VALID -> null;
+                case WRONG_PLAYER -> TagPayload.REASON_WRONG_PLAYER;
+                case EXPIRED -> TagPayload.REASON_EXPIRED_CODE;
+                case MALFORMED, FORGED -> TagPayload.REASON_INVALID_CODE;
+            };
+        }
+        if (rejectReason == null) {
+            rejectReason = check.getRejectReason();
+        }
+        if (rejectReason != null) {
+            log.warn("태그 거부 - roomId={}, taggerId={}, targetId={}, reason={}, distance={}",
+                    roomId, request.getTaggerId(), request.getTargetId(), rejectReason, check.getDistanceMeters());
+            TagPayload rejected = new TagPayload(request.getTargetId(), null, check.isWithinRange(),
+                    check.getDistanceMeters(), check.getAllowedMeters(), rejectReason);
+            eventBus.publish(roomId, GameEventMessage.of(GameEventType.TAG_REJECTED, roomId, request.getTaggerId(), rejected));
+            return;
+        }
+
+        TagPayload payload = new TagPayload(request.getTargetId(), request.getQrCode(), check.isWithinRange(),
+                check.getDistanceMeters(), check.getAllowedMeters());
+        GameEventMessage tagged = GameEventMessage.of(GameEventType.TAG, roomId, request.getTaggerId(), payload);
+        tagIdempotency.remember(roomId, request.getTaggerId(), request.getTargetId(), tagged);
+        journal.append(tagged);
+        eventBus.publish(roomId, tagged);
+        long releaseAt = gameTimers.jailReleaseAt(tagged.getTimestamp());
+        if (releaseAt >= 0 && request.getTargetId() != null) {
+            gameTimers.schedule(roomId, request.getTargetId(), GameTimerService.Kind.JAIL_RELEASE, releaseAt);
+        }
+    }
+
+    private void updateLocation(Long roomId, LocationUpdateRequest request) {
+        // 멤버가 아닌 플레이어(입장 전이거나 이미 나간 경우)의 위치는 접속 상태/근접 판정/이력/전송 어디에도 반영하지 않습니다.
+        PlayerRole role = roomSessionService.getRole(roomId, request.getPlayerId());
+        if (role == null) {
+            log.debug("멤버가 아닌 플레이어의 위치 무시 - roomId={}, playerId={}", roomId, request.getPlayerId());
+            return;
+        }
+        presenceService.touch(roomId, request.getPlayerId());
+        List<ProximityEngine.ProximityAlert> alerts = proximityEngine.updatePosition(
+                roomId,
+                request.getPlayerId(),
+                role,
+                request.getLatitude(),
+                request.getLongitude(),
+                request.getAccuracy()
+        );
+        for (ProximityEngine.ProximityAlert alert : alerts) {
+            eventBus.publish(roomId, GameEventMessage.of(
+                    GameEventType.PROXIMITY,
+                    roomId,
+                    alert.getPoliceId(),
+                    new ProximityPayload(alert.getThiefId(), alert.getDistanceMeters())
+            ));
+            // 근접 반경에 들어온 상대는 다음 갱신을 기다리지 않고 바로 주기를 줄이도록 알립니다.
+            Long opponentId = request.getPlayerId().equals(alert.getPoliceId()) ? alert.getThiefId() : alert.getPoliceId();
+            adviseInterval(roomId, opponentId);
+        }
+        adviseInterval(roomId, request.getPlayerId());
+
+        GeofenceService.Crossing crossing = geofenceService.check(roomId, request.getPlayerId(),
+                request.getLatitude(), request.getLongitude(), request.getAccuracy());
+        if (crossing != null) {
+            eventBus.publish(roomId, GameEventMessage.of(crossing.getType(), roomId, request.getPlayerId(),
+                    new BoundsPayload(crossing.getDistanceMeters())));
+        }
+
+        // 이력은 큐에만 넣고 백그라운드에서 배치로 기록합니다.
+        trailWriter.record(roomId, request.getPlayerId(), request.getLatitude(), request.getLongitude(),
+                request.getAccuracy(), System.currentTimeMillis());
+
+        // 개별 전송하지 않고 최신 위치만 남겨 두었다가 틱마다 역할별 POSITIONS 프레임으로 묶어 보냅니다.
+        locationBroadcastService.updateLocation(
+                roomId,
+                request.getPlayerId(),
+                request.getLatitude(),
+                request.getLongitude(),
+                request.getAccuracy()
+        );
+    }
+
+    /**
+     * 플레이어의 권장 위치 갱신 주기가 바뀌었으면 그 플레이어의 세션에만 알립니다.
+     */
+    private void adviseInterval(Long roomId, Long playerId) {
+        SessionRef session = sessionRegistry.getSessions(roomId).get(playerId);
+        if (session == null) {
+            return;
+        }
+        LocationIntervalPayload advice = locationRateService.advise(
+                roomId, playerId, proximityEngine.getMotion(roomId, playerId));
+        if (advice != null) {
+            eventBus.deliver(roomId, List.of(session),
+                    RoomFrame.of(GameEventMessage.of(GameEventType.LOCATION_INTERVAL, roomId, playerId, advice)));
+        }
+    }
+
+    private void acceptHandoff(Long roomId, RoomHandoff handoff) {
+        for (RosterEntry entry : handoff.getMembers()) {
+            roomSessionService.restoreMember(roomId, entry);
+            if (!handoff.getSessions().containsKey(entry.getPlayerId())) {
+                // 세션 없이 넘어온 멤버(재시작 후 복구 등)도 돌아오지 않으면 만료되도록 추적합니다.
+                presenceService.track(roomId, entry.getPlayerId(), null);
+            }
+        }
+        // 시작 시각을 모르는 진행 중인 방(이전 형식의 스냅샷에서 복구)은 인수 시점부터 라운드 시간을 잽니다.
+        long startedAt = handoff.getStatus() == RoomStatus.PLAYING && handoff.getStartedAt() <= 0
+                ? System.currentTimeMillis() : handoff.getStartedAt();
+        roomSessionService.restoreState(roomId, handoff.getHostId(), handoff.getStatus(), startedAt);
+        handoff.getSessions().forEach((playerId, session) -> {
+            sessionRegistry.register(roomId, playerId, session);
+            presenceService.track(roomId, playerId, session);
+        });
+        if (roomSessionService.getStatus(roomId) == RoomStatus.PLAYING) {
+            // 수감 타이머는 넘기지 않으므로 인계 전에 잡힌 도둑은 해제 알림 없이 풀린 것으로 봅니다.
+            startClock(roomId, startedAt);
+        }
+        announceMembership(roomId);
+        log.info("방 소유권 인수 - roomId={}, members={}", roomId, handoff.getMembers().size());
+    }
+
+    /**
+     * 바뀐 멤버 목록/진행 상태를 다른 노드에 복제합니다. ({@link RoomDirectoryService})
+     */
+    private void announceMembership(Long roomId) {
+        RoomMembership membership = roomSessionService.getMembership(roomId);
+        if (membership != null) {
+            eventBus.announceMembership(roomId, membership);
+        }
+    }
+
+    /**
+     * 이 노드에 남아 있는 방의 런타임 상태를 모두 정리합니다.
+     */
+    private void releaseRoom(Long roomId) {
+        roomSessionService.removeRoom(roomId);
+        releaseRuntimeState(roomId);
+    }
+
+    /**
+     * 멤버 상태를 제외한 위치/근접/세션/접속 상태와 게임 타이머를 정리합니다.
+     */
+    private void releaseRuntimeState(Long roomId) {
+        locationBroadcastService.removeRoom(roomId);
+        proximityEngine.removeRoom(roomId);
+        sessionRegistry.removeRoom(roomId);
+        presenceService.removeRoom(roomId);
+        locationRateService.removeRoom(roomId);
+        geofenceService.removeRoom(roomId);
+        tagIdempotency.removeRoom(roomId);
+        gameTimers.removeRoom(roomId);
+    }
+}
@@ -0,0 +1,726 @@
+package com.policethief.service;
+
+import com.policethief.cluster.RoomEventBus;
+import com.policethief.cluster.RoomHandoff;
+import com.policethief.domain.GameRoom;
+import com.policethief.domain.GeoPoint;
+import com.policethief.domain.RoomStatus;
+import com.policethief.dto.GameClockPayload;
+import com.policethief.dto.GameEventMessage;
+import com.policethief.dto.GameEventType;
+import com.policethief.dto.JoinPayload;
+import com.policethief.dto.LeavePayload;
+import com.policethief.dto.PlayerRole;
+import com.policethief.dto.RosterEntry;
+import com.policethief.dto.StartPayload;
+import com.policethief.dto.TagPayload;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+/**
+ * 게임 이벤트 저널
+ * 방 상태를 바꾸는 이벤트(JOIN/LEAVE/START/TAG/ROUND_END)와 방 생성/종료를 {@link EventJournal} 에 바이너리로 기록하고,
+ * 주기적으로 전체 방 상태 스냅샷을 남깁니다. 재시작하면 마지막 스냅샷에 그 이후 레코드를 재생해 방을 다시 만듭니다.
+ *
+ * 이벤트는 매핑된 버퍼에 필드를 바로 써서 기록하므로 이벤트마다 객체를 만들지 않습니다.
+ * fsync 정책은 always(기록마다), interval(주기마다), none(운영체제에 맡김) 중에서 고릅니다.
+ * 프로세스가 죽어도 매핑된 페이지는 운영체제가 내려 주므로, 정책은 운영체제/전원 장애 때 잃을 수 있는 범위를 정합니다.
+ *
+ * 스냅샷은 저널 위치를 먼저 읽고 상태를 나중에 읽으므로, 그 위치 이후의 이벤트 일부가 이미 반영되어 있을 수 있습니다.
+ * 재생은 멤버 추가/제거, 시작 표시처럼 같은 이벤트를 다시 적용해도 결과가 같도록 합니다.
+ * 클러스터 모드에서는 노드마다 자기 저널을 가지며, 소유권 이전으로 받은 방은 그 노드의 다음 스냅샷부터 남습니다.
+ * 스냅샷 이전 세그먼트도 보존 기간 동안은 남겨 두어 경기 타임라인 내보내기({@link #replayEvents})에 씁니다.
+ */
+@Slf4j
+@Service
+public class GameJournalService implements RoomEventBus.RegistryListener {
+
+    /**
+     * fsync 시점
+     */
+    public enum FsyncPolicy {
+        /** 기록마다 (가장 안전, 기록마다 디스크 동기화 비용) */
+        ALWAYS,
+        /** fsync-interval-millis 마다 */
+        INTERVAL,
+        /** 운영체제가 내려 줄 때 */
+        NONE
+    }
+
+    private static final byte RECORD_EVENT = 1;
+    private static final byte RECORD_ROOM_CREATED = 2;
+    private static final byte RECORD_ROOM_CLOSED = 3;
+
+    private static final int SNAPSHOT_MAGIC_V1 = 0x50545331; // "PTS1"
+    /** PTS1 에 방별 놀이 구역 꼭짓점을 더한 형식 */
+    private static final int SNAPSHOT_MAGIC_V2 = 0x50545332; // "PTS2"
+    /** PTS2 에 진행 중인 라운드의 시작 시각을 더한 형식 */
+    private static final int SNAPSHOT_MAGIC = 0x50545333; // "PTS3"
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final long NONE = Long.MIN_VALUE;
+    /** 문자열을 제외한 레코드 본문의 최대 크기 */
+    private static final int FIXED_BODY_BYTES = 96;
+
+    private static final GameEventType[] EVENT_TYPES = GameEventType.values();
+    private static final PlayerRole[] ROLES = PlayerRole.values();
+    private static final RoomStatus[] STATUSES = RoomStatus.values();
+
+    private final RoomEventBus eventBus;
+    private final GameRoomService gameRoomService;
+    private final GameRoomSessionService roomSessionService;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMillis;
+    private final long snapshotIntervalSeconds;
+    private final long retentionMillis;
+
+    private final LongAdder appended = new LongAdder();
+    private EventJournal journal;
+    private ScheduledExecutorService syncExecutor;
+    /** 복구가 끝나 첫 스냅샷을 남긴 뒤부터 기록합니다 (복구 중에 다시 알리는 방 생성 등은 기록하지 않음) */
+    private volatile boolean recording;
+
+    public GameJournalService(RoomEventBus eventBus,
+                              GameRoomService gameRoomService,
+                              GameRoomSessionService roomSessionService,
+                              @Value("${game.journal.enabled:true}") boolean enabled,
+                              @Value("${game.journal.directory:data/journal}") String directory,
+                              @Value("${game.journal.segment-size-mb:64}") int segmentSizeMb,
+                              @Value("${game.journal.fsync-policy:interval}") FsyncPolicy fsyncPolicy,
+                              @Value("${game.journal.fsync-interval-millis:100}") long fsyncIntervalMillis,
+                              @Value("${game.journal.snapshot-interval-seconds:60}") long snapshotIntervalSeconds,
+                              @Value("${game.journal.retention-hours:24}") long retentionHours) {
+        this.eventBus = eventBus;
+        this.gameRoomService = gameRoomService;
+        this.roomSessionService = roomSessionService;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentSizeMb * 1024 * 1024;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+        this.retentionMillis = TimeUnit.HOURS.toMillis(retentionHours);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = EventJournal.open(directory, segmentBytes);
+        eventBus.addRegistryListener(this);
+        syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            syncExecutor.scheduleWithFixedDelay(journal::force, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        syncExecutor.scheduleWithFixedDelay(this::scheduledSnapshot,
+                snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 마지막 스냅샷과 그 이후 레코드로 방 목록과 방별 멤버/방장/진행 상태를 다시 만듭니다.
+     * 세션 주소는 복구하지 않으므로 handoff 의 세션 맵은 비어 있습니다.
+     */
+    public Recovery recover() throws IOException {
+        RecoveryState state = new RecoveryState();
+        if (!enabled) {
+            return state.toRecovery();
+        }
+        long from = 0;
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            try {
+                from = readSnapshot(Files.readAllBytes(snapshot), state);
+            } catch (IOException e) {
+                // 스냅샷이 손상되었으면 남아 있는 레코드만으로 복구합니다.
+                log.warn("저널 스냅샷을 읽지 못해 남은 레코드만 재생합니다 - {}", e.getMessage());
+                state = new RecoveryState();
+                from = 0;
+            }
+        }
+        RecoveryState target = state;
+        int replayed = journal.replay(from, (position, body) -> target.apply(body));
+        Recovery recovery = target.toRecovery();
+        log.info("저널 복구 - 스냅샷 위치 {}, 재생 {}건, 방 {}개, 진행 상태 {}개",
+                from, replayed, recovery.getRooms().size(), recovery.getHandoffs().size());
+        return recovery;
+    }
+
+    /**
+     * 현재 방 상태로 스냅샷을 남기고, 그 이전 세그먼트 중 보존 기간이 지난 것을 지웁니다.
+     * 복구 직후 처음 호출되면 기록을 시작합니다.
+     */
+    public synchronized void checkpoint() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        // 상태보다 위치를 먼저 읽어야 위치 이전의 이벤트가 모두 상태에 반영되어 있습니다.
+        long position = journal.position();
+        byte[] bytes = writeSnapshot(position);
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+            out.write(bytes);
+            out.getChannel().force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        recording = true;
+        int deleted = journal.deleteBefore(position, System.currentTimeMillis() - retentionMillis);
+        log.debug("저널 스냅샷 - 위치 {}, {}바이트, 지운 세그먼트 {}개", position, bytes.length, deleted);
+    }
+
+    /**
+     * 방 이벤트를 기록합니다. JOIN/LEAVE/START/TAG/ROUND_END 외의 이벤트는 기록하지 않습니다.
+     */
+    public void append(GameEventMessage message) {
+        if (!recording) {
+            return;
+        }
+        GameEventType type = message.getType();
+        Object payload = message.getPayload();
+        int stringChars;
+        switch (type) {
+            case JOIN -> stringChars = length(((JoinPayload) payload).getNickname());
+            case LEAVE -> stringChars = length(((LeavePayload) payload).getReason());
+            case START -> stringChars = length(((StartPayload) payload).getStatus());
+            case TAG -> stringChars = length(((TagPayload) payload).getQrCode());
+            case ROUND_END -> stringChars = 0;
+            default -> {
+                return;
+            }
+        }
+        synchronized (journal) {
+            try {
+                ByteBuffer out = journal.begin(FIXED_BODY_BYTES + stringChars * 2);
+                out.put(RECORD_EVENT);
+                out.put((byte) type.ordinal());
+                out.putLong(message.getRoomId());
+                out.putLong(message.getSenderId() != null ? message.getSenderId() : NONE);
+                out.putLong(message.getTimestamp());
+                switch (type) {
+                    case JOIN -> {
+                        JoinPayload join = (JoinPayload) payload;
+                        putString(out, join.getNickname());
+                        out.put(join.getRole() != null ? (byte) join.getRole().ordinal() : -1);
+                        out.putInt(join.getPlayerIndex());
+                        out.putInt(join.getMemberCount());
+                    }
+                    case LEAVE -> {
+                        LeavePayload leave = (LeavePayload) payload;
+                        out.putInt(leave.getMemberCount());
+                        putString(out, leave.getReason());
+                    }
+                    case START -> putString(out, ((StartPayload) payload).getStatus());
+                    case ROUND_END -> {
+                        Long endsAt = ((GameClockPayload) payload).getEndsAt();
+                        out.putLong(endsAt != null ? endsAt : NONE);
+                    }
+                    case TAG -> {
+                        TagPayload tag = (TagPayload) payload;
+                        out.putLong(tag.getTargetId() != null ? tag.getTargetId() : NONE);
+                        putString(out, tag.getQrCode());
+                        out.put(tag.isVerified() ? (byte) 1 : 0);
+                        out.putDouble(tag.getDistanceMeters() != null ? tag.getDistanceMeters() : Double.NaN);
+                        out.putDouble(tag.getAllowedMeters());
+                    }
+                    default -> {
+                    }
+                }
+                journal.commit();
+                if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                    journal.force();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        appended.increment();
+    }
+
+    @Override
+    public void onRoomCreated(GameRoom room) {
+        if (!recording) {
+            return;
+        }
+        synchronized (journal) {
+            try {
+                List<GeoPoint> playArea = room.getPlayArea();
+                ByteBuffer out = journal.begin(FIXED_BODY_BYTES
+                        + (length(room.getName()) + length(room.getLocation())) * 2 + playArea.size() * 16);
+                out.put(RECORD_ROOM_CREATED);
+                out.putLong(room.getId());
+                out.putLong(room.getCreatedAt());
+                out.putDouble(room.getLatitude());
+                out.putDouble(room.getLongitude());
+                putString(out, room.getName());
+                putString(out, room.getLocation());
+                // 놀이 구역은 뒤에 붙여, 구역이 없던 이전 형식의 레코드도 그대로 읽히게 합니다.
+                out.putInt(playArea.size());
+                for (GeoPoint vertex : playArea) {
+                    out.putDouble(vertex.getLatitude());
+                    out.putDouble(vertex.getLongitude());
+                }
+                journal.commit();
+                if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                    journal.force();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        appended.increment();
+    }
+
+    @Override
+    public void onRoomClosed(Long roomId) {
+        if (!recording) {
+            return;
+        }
+        synchronized (journal) {
+            try {
+                ByteBuffer out = journal.begin(FIXED_BODY_BYTES);
+                out.put(RECORD_ROOM_CLOSED);
+                out.putLong(roomId);
+                journal.commit();
+                if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                    journal.force();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        appended.increment();
+    }
+
+    /**
+     * 한 방의 이벤트를 기록된 순서대로 읽습니다. 남아 있는 세그먼트를 처음부터 훑으며,
+     * 다른 방 레코드는 해석하지 않고 건너뛰므로 메모리 사용량은 저널 크기와 관계없습니다.
+     *
+     * @param from 이 시각 이상 (epoch millis)
+     * @param to   이 시각 미만 (epoch millis)
+     * @return 넘겨준 이벤트 수
+     */
+    public int replayEvents(long roomId, long from, long to, EventHandler handler) throws IOException {
+        if (!enabled) {
+            return 0;
+        }
+        int[] count = new int[1];
+        journal.replay(0, (position, body) -> {
+            // 본문 앞부분: kind(1) | type(1) | roomId(8) | senderId(8) | timestamp(8)
+            if (body.get(0) != RECORD_EVENT || body.getLong(2) != roomId) {
+                return;
+            }
+            long timestamp = body.getLong(18);
+            if (timestamp >= from && timestamp < to) {
+                handler.onEvent(decodeEvent(body));
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    public long getAppendedCount() {
+        return appended.sum();
+    }
+
+    public int getSegmentCount() {
+        return journal != null ? journal.getSegmentCount() : 0;
+    }
+
+    /**
+     * 종료 시 마지막 스냅샷을 남기고 저널을 닫습니다. 웹 서버와 브로커가 먼저 멈춘 뒤라 상태가 더 바뀌지 않습니다.
+     */
+    @PreDestroy
+    public void close() {
+        if (journal == null) {
+            return;
+        }
+        syncExecutor.shutdownNow();
+        try {
+            syncExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (recording) {
+                checkpoint();
+            }
+            recording = false;
+            journal.close();
+        } catch (IOException e) {
+            log.warn("저널을 닫는 중 오류 - {}", e.getMessage());
+        }
+    }
+
+    private void scheduledSnapshot() {
+        if (!recording) {
+            return;
+        }
+        try {
+            checkpoint();
+        } catch (IOException | RuntimeException e) {
+            log.warn("저널 스냅샷 실패 - {}", e.getMessage());
+        }
+    }
+
+    private byte[] writeSnapshot(long position) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(buffer));
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeLong(position);
+
+        List<GameRoom> rooms = gameRoomService.getAllRooms();
+        out.writeInt(rooms.size());
+        for (GameRoom room : rooms) {
+            out.writeLong(room.getId());
+            out.writeLong(room.getCreatedAt());
+            out.writeDouble(room.getLatitude());
+            out.writeDouble(room.getLongitude());
+            writeNullableUtf(out, room.getName());
+            writeNullableUtf(out, room.getLocation());
+            out.writeInt(room.getPlayArea().size());
+            for (GeoPoint vertex : room.getPlayArea()) {
+                out.writeDouble(vertex.getLatitude());
+                out.writeDouble(vertex.getLongitude());
+            }
+        }
+
+        List<Long> roomIds = roomSessionService.getRoomIds();
+        out.writeInt(roomIds.size());
+        for (Long roomId : roomIds) {
+            List<RosterEntry> roster = roomSessionService.getRoster(roomId);
+            Long hostId = roomSessionService.getHostId(roomId);
+            RoomStatus status = roomSessionService.getStatus(roomId);
+            out.writeLong(roomId);
+            out.writeLong(hostId != null ? hostId : NONE);
+            out.writeByte(status != null ? status.ordinal() : RoomStatus.WAITING.ordinal());
+            out.writeLong(roomSessionService.getStartedAt(roomId));
+            out.writeInt(roster.size());
+            for (RosterEntry entry : roster) {
+                out.writeLong(entry.getPlayerId());
+                out.writeInt(entry.getPlayerIndex());
+                out.writeByte(entry.getRole().ordinal());
+                writeNullableUtf(out, entry.getNickname());
+            }
+        }
+        out.flush();
+
+        byte[] body = buffer.toByteArray();
+        CRC32C checksum = new CRC32C();
+        checksum.update(body);
+        byte[] bytes = new byte[body.length + 8];
+        System.arraycopy(body, 0, bytes, 0, body.length);
+        ByteBuffer.wrap(bytes, body.length, 8).putLong(checksum.getValue());
+        return bytes;
+    }
+
+    /**
+     * @return 스냅샷이 반영한 저널 위치
+     */
+    private static long readSnapshot(byte[] bytes, RecoveryState state) throws IOException {
+        if (bytes.length < 20) {
+            throw new IOException("스냅샷이 너무 짧습니다");
+        }
+        CRC32C checksum = new CRC32C();
+        checksum.update(bytes, 0, bytes.length - 8);
+        if (checksum.getValue() != ByteBuffer.wrap(bytes, bytes.length - 8, 8).getLong()) {
+            throw new IOException("스냅샷 체크섬이 맞지 않습니다");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 8));
+        int magic = in.readInt();
+        if (magic != SNAPSHOT_MAGIC && magic != SNAPSHOT_MAGIC_V2 && magic != SNAPSHOT_MAGIC_V1) {
+            throw new IOException("스냅샷 형식이 아닙니다");
+        }
+        long position = in.readLong();
+        int roomCount = in.readInt();
+        for (int i = 0; i < roomCount; i++) {
+            long roomId = in.readLong();
+            long createdAt = in.readLong();
+            double latitude = in.readDouble();
+            double longitude = in.readDouble();
+            String name = readNullableUtf(in);
+            String location = readNullableUtf(in);
+            List<GeoPoint> playArea = new ArrayList<>();
+            if (magic != SNAPSHOT_MAGIC_V1) {
+                int vertexCount = in.readInt();
+                for (int v = 0; v < vertexCount; v++) {
+                    playArea.add(new GeoPoint(in.readDouble(), in.readDouble()));
+                }
+            }
+            state.rooms.put(roomId, new GameRoom(roomId, name, location, latitude, longitude, createdAt, playArea));
+        }
+        int stateCount = in.readInt();
+        for (int i = 0; i < stateCount; i++) {
+            RoomRecovery room = state.roomState(in.readLong());
+            long hostId = in.readLong();
+            room.hostId = hostId != NONE ? hostId : null;
+            room.status = STATUSES[in.readByte()];
+            if (magic == SNAPSHOT_MAGIC) {
+                room.startedAt = in.readLong();
+            }
+            int memberCount = in.readInt();
+            for (int m = 0; m < memberCount; m++) {
+                long playerId = in.readLong();
+                int playerIndex = in.readInt();
+                PlayerRole role = ROLES[in.readByte()];
+                room.members.put(playerId, new RosterEntry(playerId, playerIndex, role, readNullableUtf(in)));
+            }
+        }
+        return position;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    /**
+     * 문자열을 [길이 int][UTF-16 문자] 로 씁니다. null 은 길이 -1 입니다.
+     */
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putInt(-1);
+            return;
+        }
+        int length = value.length();
+        out.putInt(length);
+        for (int i = 0; i < length; i++) {
+            out.putChar(value.charAt(i));
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = in.getChar();
+        }
+        return new String(chars);
+    }
+
+    private static void writeNullableUtf(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUtf(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * 저널 레코드 본문을 이벤트로 되돌립니다. 방 생성/종료 레코드면 null 입니다.
+     */
+    static GameEventMessage decodeEvent(ByteBuffer body) {
+        if (body.get(0) != RECORD_EVENT) {
+            return null;
+        }
+        ByteBuffer in = body.duplicate().position(1);
+        GameEventType type = EVENT_TYPES[in.get()];
+        long roomId = in.getLong();
+        long senderId = in.getLong();
+        long timestamp = in.getLong();
+        Object payload = switch (type) {
+            case JOIN -> {
+                String nickname = getString(in);
+                byte role = in.get();
+                int playerIndex = in.getInt();
+                int memberCount = in.getInt();
+                yield new JoinPayload(nickname, memberCount, role >= 0 ? ROLES[role] : null, playerIndex);
+            }
+            case LEAVE -> {
+                int memberCount = in.getInt();
+                yield new LeavePayload(memberCount, getString(in));
+            }
+            case START -> new StartPayload(getString(in));
+            case ROUND_END -> {
+                long endsAt = in.getLong();
+                yield new GameClockPayload(endsAt != NONE ? endsAt : null, 0L);
+            }
+            case TAG -> {
+                long targetId = in.getLong();
+                String qrCode = getString(in);
+                boolean verified = in.get() != 0;
+                double distance = in.getDouble();
+                double allowed = in.getDouble();
+                yield new TagPayload(targetId != NONE ? targetId : null, qrCode, verified,
+                        Double.isNaN(distance) ? null : distance, allowed);
+            }
+            default -> null;
+        };
+        GameEventMessage message = GameEventMessage.of(type, roomId, senderId != NONE ? senderId : null, payload);
+        message.setTimestamp(timestamp);
+        return message;
+    }
+
+    /**
+     * {@link #replayEvents} 로 읽은 이벤트를 받는 쪽
+     */
+    public interface EventHandler {
+        void onEvent(GameEventMessage event) throws IOException;
+    }
+
+    /**
+     * 복구 결과: 다시 알릴 방 목록과 방별 멤버/방장/진행 상태
+     */
+    public static final class Recovery {
+        private final List<GameRoom> rooms;
+        private final Map<Long, RoomHandoff> handoffs;
+
+        private Recovery(List<GameRoom> rooms, Map<Long, RoomHandoff> handoffs) {
+            this.rooms = rooms;
+            this.handoffs = handoffs;
+        }
+
+        public List<GameRoom> getRooms() {
+            return rooms;
+        }
+
+        public Map<Long, RoomHandoff> getHandoffs() {
+            return handoffs;
+        }
+    }
+
+    /**
+     * 재생 중인 상태. GameRoomSessionService 와 같은 규칙(첫 입장자가 방장, 방장이 나가면 가장 먼저 들어온 멤버)을 따릅니다.
+     */
+    private static final class RecoveryState {
+        private final Map<Long, GameRoom> rooms = new LinkedHashMap<>();
+        private final Map<Long, RoomRecovery> states = new LinkedHashMap<>();
+
+        private RoomRecovery roomState(long roomId) {
+            return states.computeIfAbsent(roomId, id -> new RoomRecovery());
+        }
+
+        private void apply(ByteBuffer body) {
+            ByteBuffer in = body.duplicate();
+            switch (in.get()) {
+                case RECORD_ROOM_CREATED -> {
+                    long roomId = in.getLong();
+                    long createdAt = in.getLong();
+                    double latitude = in.getDouble();
+                    double longitude = in.getDouble();
+                    String name = getString(in);
+                    String location = getString(in);
+                    List<GeoPoint> playArea = new ArrayList<>();
+                    if (in.remaining() >= 4) {
+                        int vertexCount = in.getInt();
+                        for (int v = 0; v < vertexCount; v++) {
+                            playArea.add(new GeoPoint(in.getDouble(), in.getDouble()));
+                        }
+                    }
+                    rooms.put(roomId, new GameRoom(roomId, name, location, latitude, longitude, createdAt, playArea));
+                }
+                case RECORD_ROOM_CLOSED -> {
+                    long roomId = in.getLong();
+                    rooms.remove(roomId);
+                    states.remove(roomId);
+                }
+                case RECORD_EVENT -> applyEvent(decodeEvent(body));
+                default -> {
+                }
+            }
+        }
+
+        private void applyEvent(GameEventMessage event) {
+            Long playerId = event.getSenderId();
+            switch (event.getType()) {
+                case JOIN -> {
+                    JoinPayload join = (JoinPayload) event.getPayload();
+                    RoomRecovery room = roomState(event.getRoomId());
+                    room.members.put(playerId,
+                            new RosterEntry(playerId, join.getPlayerIndex(), join.getRole(), join.getNickname()));
+                    if (room.hostId == null) {
+                        room.hostId = playerId;
+                    }
+                }
+                case LEAVE -> {
+                    RoomRecovery room = states.get(event.getRoomId());
+                    if (room == null) {
+                        return;
+                    }
+                    room.members.remove(playerId);
+                    if (room.members.isEmpty()) {
+                        states.remove(event.getRoomId());
+                    } else if (playerId.equals(room.hostId)) {
+                        room.hostId = room.members.values().stream()
+                                .min(Comparator.comparingInt(RosterEntry::getPlayerIndex))
+                                .map(RosterEntry::getPlayerId)
+                                .orElse(null);
+                    }
+                }
+                case START -> {
+                    RoomRecovery room = states.get(event.getRoomId());
+                    if (room != null) {
+                        room.status = RoomStatus.PLAYING;
+                        room.startedAt = event.getTimestamp();
+                    }
+                }
+                case ROUND_END -> {
+                    RoomRecovery room = states.get(event.getRoomId());
+                    if (room != null) {
+                        room.status = RoomStatus.WAITING;
+                        room.startedAt = 0;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        private Recovery toRecovery() {
+            Map<Long, RoomHandoff> handoffs = new LinkedHashMap<>();
+            states.forEach((roomId, room) -> {
+                if (!room.members.isEmpty()) {
+                    handoffs.put(roomId, new RoomHandoff(
+                            new ArrayList<>(room.members.values()), room.hostId, room.status, Map.of(),
+                            room.startedAt));
+                }
+            });
+            return new Recovery(new ArrayList<>(rooms.values()), handoffs);
+        }
+    }
+
+    private static final class RoomRecovery {
+        private final Map<Long, RosterEntry> members = new LinkedHashMap<>();
+        private Long hostId;
+        private RoomStatus status = RoomStatus.WAITING;
+        private long startedAt;
+    }
+}
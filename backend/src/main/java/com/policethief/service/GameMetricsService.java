@@ -0,0 +1,273 @@
+package com.policethief.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 운영 지표 모음
+ * 요청이 올 때 각 구성 요소의 카운터와 {@link MessagingMetrics} 의 분포를 한 번 읽어 묶습니다.
+ * 기록은 각 구성 요소가 늘 하고 있으므로 이 서비스는 조회 때만 일합니다.
+ * 같은 카운터를 시작할 때 {@link MeterRegistry} 에 게이지/함수형 카운터로 등록해 두므로, 레지스트리가 읽을 때도 값만 읽습니다.
+ */
+@Service
+public class GameMetricsService {
+
+    private final MeterRegistry registry;
+    private final MessagingMetrics messagingMetrics;
+    private final GameRoomService roomService;
+    private final GameRoomSessionService roomSessionService;
+    private final PresenceService presenceService;
+    private final RoomLaneExecutor roomLaneExecutor;
+    private final SlowConsumerGuard slowConsumerGuard;
+    private final LocationRateService locationRateService;
+    private final GeofenceService geofenceService;
+    private final TagCodeService tagCodeService;
+    private final TagIdempotencyService tagIdempotency;
+    private final GameTimerService gameTimers;
+    private final LocationTrailWriter trailWriter;
+    private final GameJournalService journalService;
+    private final ThreadPoolTaskExecutor inboundExecutor;
+    private final ThreadPoolTaskExecutor outboundExecutor;
+
+    public GameMetricsService(MeterRegistry registry,
+                              MessagingMetrics messagingMetrics,
+                              GameRoomService roomService,
+                              GameRoomSessionService roomSessionService,
+                              PresenceService presenceService,
+                              RoomLaneExecutor roomLaneExecutor,
+                              SlowConsumerGuard slowConsumerGuard,
+                              LocationRateService locationRateService,
+                              GeofenceService geofenceService,
+                              TagCodeService tagCodeService,
+                              TagIdempotencyService tagIdempotency,
+                              GameTimerService gameTimers,
+                              LocationTrailWriter trailWriter,
+                              GameJournalService journalService,
+                              @Qualifier("clientInboundChannelExecutor") ThreadPoolTaskExecutor inboundExecutor,
+                              @Qualifier("clientOutboundChannelExecutor") ThreadPoolTaskExecutor outboundExecutor) {
+        this.registry = registry;
+        this.messagingMetrics = messagingMetrics;
+        this.roomService = roomService;
+        this.roomSessionService = roomSessionService;
+        this.presenceService = presenceService;
+        this.roomLaneExecutor = roomLaneExecutor;
+        this.slowConsumerGuard = slowConsumerGuard;
+        this.locationRateService = locationRateService;
+        this.geofenceService = geofenceService;
+        this.tagCodeService = tagCodeService;
+        this.tagIdempotency = tagIdempotency;
+        this.gameTimers = gameTimers;
+        this.trailWriter = trailWriter;
+        this.journalService = journalService;
+        this.inboundExecutor = inboundExecutor;
+        this.outboundExecutor = outboundExecutor;
+    }
+
+    public Snapshot snapshot() {
+        int laneDepth = 0;
+        long laneMaxWaitMicros = 0;
+        for (RoomLaneExecutor.LaneStats lane : roomLaneExecutor.getLaneStats()) {
+            laneDepth += lane.depth();
+            laneMaxWaitMicros = Math.max(laneMaxWaitMicros, lane.maxWaitMicros());
+        }
+        return new Snapshot(
+                System.currentTimeMillis(),
+                roomService.getRoomCount(),
+                roomSessionService.getPlayerCount(),
+                presenceService.getConnectedSessionCount(),
+                channelStats(inboundExecutor),
+                channelStats(outboundExecutor),
+                messagingMetrics.getHandlerStats(),
+                messagingMetrics.getBroadcastStats(),
+                new LaneTotals(roomLaneExecutor.getLaneCount(), laneDepth, laneMaxWaitMicros),
+                new OutboundTotals(slowConsumerGuard.getSessionCount(), slowConsumerGuard.getConflatedFrameCount(),
+                        slowConsumerGuard.getSupersededPositionCount()),
+                new LocationRateTotals(locationRateService.getAcceptedCount(), locationRateService.getThrottledCount(),
+                        locationRateService.getAdvisedCount()),
+                new GeofenceTotals(geofenceService.getCheckedCount(), geofenceService.getCrossingCount()),
+                new TagTotals(tagCodeService.getIssuedCount(), tagCodeService.getAcceptedCount(),
+                        tagCodeService.getRejectedCount(), tagIdempotency.getDuplicateCount()),
+                new TimerTotals(gameTimers.getScheduledCount(), gameTimers.getFiredCount(),
+                        gameTimers.getCancelledCount(), gameTimers.getPendingCount()),
+                new StorageTotals(trailWriter.getWrittenCount(), trailWriter.getDroppedCount(),
+                        trailWriter.getFailedCount(), journalService.getAppendedCount(),
+                        journalService.getSegmentCount()));
+    }
+
+    @PostConstruct
+    void registerMeters() {
+        gauge("game.rooms", roomService, GameRoomService::getRoomCount);
+        gauge("game.players", roomSessionService, GameRoomSessionService::getPlayerCount);
+        gauge("game.sessions", presenceService, PresenceService::getConnectedSessionCount);
+        registerChannel("inbound", inboundExecutor);
+        registerChannel("outbound", outboundExecutor);
+
+        gauge("game.lanes", roomLaneExecutor, RoomLaneExecutor::getLaneCount);
+        gauge("game.lanes.depth", roomLaneExecutor,
+                lanes -> lanes.getLaneStats().stream().mapToInt(RoomLaneExecutor.LaneStats::depth).sum());
+
+        counter("game.outbound.conflated.frames", slowConsumerGuard, SlowConsumerGuard::getConflatedFrameCount);
+        counter("game.outbound.superseded.positions", slowConsumerGuard,
+                SlowConsumerGuard::getSupersededPositionCount);
+        counter("game.location.updates", Tags.of("result", "accepted"), locationRateService,
+                LocationRateService::getAcceptedCount);
+        counter("game.location.updates", Tags.of("result", "throttled"), locationRateService,
+                LocationRateService::getThrottledCount);
+        counter("game.location.advised", locationRateService, LocationRateService::getAdvisedCount);
+        counter("game.geofence.checked", geofenceService, GeofenceService::getCheckedCount);
+        counter("game.geofence.crossings", geofenceService, GeofenceService::getCrossingCount);
+        counter("game.tag.codes", Tags.of("result", "issued"), tagCodeService, TagCodeService::getIssuedCount);
+        counter("game.tag.codes", Tags.of("result", "accepted"), tagCodeService, TagCodeService::getAcceptedCount);
+        counter("game.tag.codes", Tags.of("result", "rejected"), tagCodeService, TagCodeService::getRejectedCount);
+        counter("game.tag.duplicates", tagIdempotency, TagIdempotencyService::getDuplicateCount);
+        counter("game.timers", Tags.of("event", "scheduled"), gameTimers, GameTimerService::getScheduledCount);
+        counter("game.timers", Tags.of("event", "fired"), gameTimers, GameTimerService::getFiredCount);
+        counter("game.timers", Tags.of("event", "cancelled"), gameTimers, GameTimerService::getCancelledCount);
+        gauge("game.timers.pending", gameTimers, GameTimerService::getPendingCount);
+        counter("game.trail.points", Tags.of("result", "written"), trailWriter, LocationTrailWriter::getWrittenCount);
+        counter("game.trail.points", Tags.of("result", "dropped"), trailWriter, LocationTrailWriter::getDroppedCount);
+        counter("game.trail.points", Tags.of("result", "failed"), trailWriter, LocationTrailWriter::getFailedCount);
+        counter("game.journal.appended", journalService, GameJournalService::getAppendedCount);
+        gauge("game.journal.segments", journalService, GameJournalService::getSegmentCount);
+    }
+
+    /**
+     * 레지스트리에 등록된 모든 지표의 현재 값 (이름, 태그 순)
+     */
+    public List<MeterValue> meters() {
+        List<MeterValue> values = new ArrayList<>();
+        for (Meter meter : registry.getMeters()) {
+            Map<String, String> tags = new LinkedHashMap<>();
+            for (Tag tag : meter.getId().getTags()) {
+                tags.put(tag.getKey(), tag.getValue());
+            }
+            Map<String, Double> measurements = new LinkedHashMap<>();
+            for (Measurement measurement : meter.measure()) {
+                measurements.put(measurement.getStatistic().getTagValueRepresentation(), measurement.getValue());
+            }
+            values.add(new MeterValue(meter.getId().getName(), meter.getId().getBaseUnit(), tags, measurements));
+        }
+        values.sort(Comparator.comparing(MeterValue::name).thenComparing(value -> value.tags().toString()));
+        return values;
+    }
+
+    private void registerChannel(String channel, ThreadPoolTaskExecutor executor) {
+        Tags tags = Tags.of("channel", channel);
+        gauge("game.channel.active", tags, executor, ThreadPoolTaskExecutor::getActiveCount);
+        gauge("game.channel.pool.size", tags, executor, ThreadPoolTaskExecutor::getPoolSize);
+        gauge("game.channel.queue.depth", tags, executor, ThreadPoolTaskExecutor::getQueueSize);
+    }
+
+    private <T> void gauge(String name, T source, ToDoubleFunction<T> value) {
+        gauge(name, Tags.empty(), source, value);
+    }
+
+    private <T> void gauge(String name, Tags tags, T source, ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value).tags(tags).register(registry);
+    }
+
+    private <T> void counter(String name, T source, ToDoubleFunction<T> value) {
+        counter(name, Tags.empty(), source, value);
+    }
+
+    private <T> void counter(String name, Tags tags, T source, ToDoubleFunction<T> value) {
+        FunctionCounter.builder(name, source, value).tags(tags).register(registry);
+    }
+
+    private static ChannelStats channelStats(ThreadPoolTaskExecutor executor) {
+        return new ChannelStats(executor.getActiveCount(), executor.getPoolSize(), executor.getQueueSize());
+    }
+
+    /**
+     * @param rooms    열려 있는 방 수 (아직 아무도 들어오지 않은 방 포함)
+     * @param players  이 노드가 상태를 가진 방들의 인원 합계
+     * @param sessions 이 노드에 연결된 STOMP 세션 수
+     * @param inbound  clientInboundChannel 실행기
+     * @param outbound clientOutboundChannel 실행기
+     */
+    public record Snapshot(long timestamp, int rooms, int players, int sessions,
+                           ChannelStats inbound, ChannelStats outbound,
+                           List<MessagingMetrics.HandlerStats> handlers,
+                           List<MessagingMetrics.BroadcastStats> broadcasts,
+                           LaneTotals lanes, OutboundTotals outboundGuard,
+                           LocationRateTotals locationRate, GeofenceTotals geofence, TagTotals tags,
+                           TimerTotals timers, StorageTotals storage) {
+    }
+
+    /**
+     * @param activeThreads 작업을 실행 중인 스레드 수
+     * @param poolSize      만들어져 있는 스레드 수
+     * @param queueDepth    실행을 기다리는 메시지 수
+     */
+    public record ChannelStats(int activeThreads, int poolSize, int queueDepth) {
+    }
+
+    /**
+     * 방 명령 레인 합계 (레인별 값은 /game/lanes)
+     */
+    public record LaneTotals(int lanes, int depth, long maxWaitMicros) {
+    }
+
+    /**
+     * @param sessions            밀린 프레임을 추적 중인 세션 수
+     * @param conflatedFrames     합치느라 보내지 않은 POSITIONS 프레임 수
+     * @param supersededPositions 합치면서 더 새 위치로 대체된 위치 수
+     */
+    public record OutboundTotals(int sessions, long conflatedFrames, long supersededPositions) {
+    }
+
+    public record LocationRateTotals(long accepted, long throttled, long advised) {
+    }
+
+    /**
+     * @param checked   놀이 구역 판정을 한 위치 갱신 수
+     * @param crossings 알린 구역 이탈/복귀 수
+     */
+    public record GeofenceTotals(long checked, long crossings) {
+    }
+
+    /**
+     * @param codesIssued   발급한 태그 QR 코드 수
+     * @param codesAccepted 검증을 통과한 코드 수
+     * @param codesRejected 형식 오류/다른 플레이어/만료/위조로 거부한 코드 수
+     * @param duplicates    재전송으로 보고 다시 처리하지 않은 태그 수
+     */
+    public record TagTotals(long codesIssued, long codesAccepted, long codesRejected, long duplicates) {
+    }
+
+    /**
+     * @param scheduled 건 게임 타이머 수
+     * @param fired     만료되어 방 레인으로 넘긴 타이머 수
+     * @param cancelled 만료 전에 취소/교체한 타이머 수
+     * @param pending   휠에 걸려 있는 타이머 수
+     */
+    public record TimerTotals(long scheduled, long fired, long cancelled, int pending) {
+    }
+
+    /**
+     * @param baseUnit     단위 (없으면 null)
+     * @param measurements 통계 이름(count, total, value 등) → 값
+     */
+    public record MeterValue(String name, String baseUnit, Map<String, String> tags, Map<String, Double> measurements) {
+    }
+
+    public record StorageTotals(long trailWritten, long trailDropped, long trailFailed,
+                                long journalAppended, int journalSegments) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.policethief.service;
+
+import com.policethief.cluster.RoomEventBus;
+import com.policethief.domain.GameRoom;
+import com.policethief.domain.GeoPoint;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 게임방 생성/종료와 위치 기반 방 검색을 담당합니다.
+ * 방 목록은 이벤트 버스를 통해 모든 노드에 복제되므로 어느 노드에서든 검색할 수 있습니다.
+ */
+@Slf4j
+@Service
+public class GameRoomService implements RoomEventBus.RegistryListener {
+
+    private final RoomEventBus eventBus;
+    private final ConcurrentHashMap<Long, GameRoom> rooms = new ConcurrentHashMap<>();
+    private final RoomSpatialIndex spatialIndex;
+    private final GeofenceService geofenceService;
+    private final double defaultRadiusKm;
+    private final double maxRadiusKm;
+    private final int maxResults;
+
+    public GameRoomService(
+            RoomEventBus eventBus,
+            GeofenceService geofenceService,
+            @Value("${game.room.search.cell-size-km:1.0}") double cellSizeKm,
+            @Value("${game.room.search.default-radius-km:5.0}") double defaultRadiusKm,
+            @Value("${game.room.search.max-radius-km:30.0}") double maxRadiusKm,
+            @Value("${game.room.search.max-results:20}") int maxResults) {
+        this.eventBus = eventBus;
+        this.geofenceService = geofenceService;
+        this.spatialIndex = new RoomSpatialIndex(cellSizeKm);
+        this.defaultRadiusKm = defaultRadiusKm;
+        this.maxRadiusKm = maxRadiusKm;
+        this.maxResults = maxResults;
+    }
+
+    @PostConstruct
+    void subscribeRegistry() {
+        eventBus.addRegistryListener(this);
+    }
+
+    /**
+     * @param playArea 놀이 구역 꼭짓점 (null이거나 비어 있으면 구역 제한 없음)
+     */
+    public GameRoom createRoom(String name, String location, double latitude, double longitude, List<GeoPoint> playArea) {
+        geofenceService.validate(playArea);
+        long roomId = eventBus.nextRoomId();
+        GameRoom room = new GameRoom(roomId, name, location, latitude, longitude, System.currentTimeMillis(), playArea);
+        eventBus.announceRoom(room);
+        log.info("게임방 생성 - roomId={}, name={}, owner={}", roomId, name, eventBus.ownerOf(roomId));
+        return room;
+    }
+
+    /**
+     * 저널에서 복구한 방을 다시 알립니다. 새로 만드는 방과 ID가 겹치지 않도록 발급 번호도 함께 올립니다.
+     */
+    public void restoreRoom(GameRoom room) {
+        eventBus.reserveRoomId(room.getId());
+        eventBus.announceRoom(room);
+    }
+
+    /**
+     * 방을 목록/검색 인덱스에서 내립니다. 마지막 멤버가 나갔을 때 방 소유 노드의 레인에서만 부르며,
+     * 멤버/타이머/근접 판정 같은 실행 중 상태는 부르는 쪽(GameCommandService)이 함께 정리합니다.
+     */
+    public boolean closeRoom(Long roomId) {
+        if (!rooms.containsKey(roomId)) {
+            return false;
+        }
+        eventBus.retireRoom(roomId);
+        log.info("게임방 종료 - roomId={}", roomId);
+        return true;
+    }
+
+    @Override
+    public void onRoomCreated(GameRoom room) {
+        rooms.put(room.getId(), room);
+        spatialIndex.put(room.getId(), room.getLatitude(), room.getLongitude());
+    }
+
+    @Override
+    public void onRoomClosed(Long roomId) {
+        if (rooms.remove(roomId) != null) {
+            spatialIndex.remove(roomId);
+        }
+    }
+
+    public Optional<GameRoom> getRoom(Long roomId) {
+        return Optional.ofNullable(rooms.get(roomId));
+    }
+
+    /**
+     * 이 노드가 알고 있는 열린 방 수 (아직 아무도 들어오지 않은 방 포함)
+     */
+    public int getRoomCount() {
+        return rooms.size();
+    }
+
+    /**
+     * 이 노드가 알고 있는 모든 방 (호출 시점의 복사본)
+     */
+    public List<GameRoom> getAllRooms() {
+        return new ArrayList<>(rooms.values());
+    }
+
+    /**
+     * 주어진 위치에서 가까운 방을 거리순으로 조회합니다.
+     *
+     * @param radiusKm 검색 반경 (null이면 기본값, 최대 반경으로 제한)
+     * @param limit 최대 개수 (null이면 기본값)
+     */
+    public List<NearbyRoom> findNearbyRooms(double latitude, double longitude, Double radiusKm, Integer limit) {
+        double radius = Math.min(radiusKm != null ? radiusKm : defaultRadiusKm, maxRadiusKm);
+        int size = limit != null ? Math.min(limit, maxResults) : maxResults;
+
+        List<RoomSpatialIndex.Neighbor> neighbors = spatialIndex.findNearest(latitude, longitude, radius, size);
+        List<NearbyRoom> result = new ArrayList<>(neighbors.size());
+        for (RoomSpatialIndex.Neighbor neighbor : neighbors) {
+            GameRoom room = rooms.get(neighbor.getRoomId());
+            // 검색 도중 종료된 방은 제외합니다.
+            if (room != null) {
+                result.add(new NearbyRoom(room, neighbor.getDistanceKm()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 위치 정보가 없을 때 사용하는 목록 조회입니다. 최대 개수만큼만 반환합니다.
+     */
+    public List<GameRoom> getRooms(Integer limit) {
+        int size = limit != null ? Math.min(limit, maxResults) : maxResults;
+        List<GameRoom> result = new ArrayList<>(size);
+        for (GameRoom room : rooms.values()) {
+            if (result.size() >= size) {
+                break;
+            }
+            result.add(room);
+        }
+        return result;
+    }
+
+    public static class NearbyRoom {
+        private final GameRoom room;
+        private final double distanceKm;
+
+        public NearbyRoom(GameRoom room, double distanceKm) {
+            this.room = room;
+            this.distanceKm = distanceKm;
+        }
+
+        public GameRoom getRoom() {
+            return room;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+}
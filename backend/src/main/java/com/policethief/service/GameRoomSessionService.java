@@ -1,31 +1,412 @@
 package com.policethief.service;
 
+import com.policethief.cluster.RoomMembership;
+import com.policethief.domain.RoomStatus;
+import com.policethief.dto.PlayerRole;
+import com.policethief.dto.RosterEntry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+/**
+ * 방별 멤버/역할/방장/진행 상태
+ * 방 ID를 스트라이프로 나누고, 스트라이프마다 long 키 해시 맵에 방 상태를 둡니다.
+ * 입장/퇴장/시작은 해당 스트라이프의 모니터 안에서 조회부터 빈 방 제거까지 한 번에 처리하므로,
+ * 막 비워져 제거되는 방에 입장이 끼어들어 사라지는 경쟁이 생기지 않고 다른 스트라이프의 방은 서로 막지 않습니다.
+ * 멤버는 방마다 원시 타입 배열에 담아 플레이어당 객체를 만들지 않습니다.
+ */
 @Service
 public class GameRoomSessionService {
-    private final ConcurrentHashMap<Long, Set<Long>> roomPlayers = new ConcurrentHashMap<>();
 
-    public int joinRoom(Long roomId, Long playerId) {
-        Set<Long> players = roomPlayers.computeIfAbsent(roomId, id -> ConcurrentHashMap.newKeySet());
-        players.add(playerId);
-        return players.size();
+    private static final long NO_HOST = Long.MIN_VALUE;
+    private static final PlayerRole[] ROLES = PlayerRole.values();
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public GameRoomSessionService(@Value("${game.room.state-stripes:256}") int stripeCount) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = count - 1;
+    }
+
+    /**
+     * 방에 입장합니다. 역할을 지정하지 않으면 인원이 적은 쪽으로 배정합니다.
+     * 플레이어마다 방 안에서만 쓰이는 작은 정수 인덱스를 부여하며, 재입장 시에는 기존 인덱스를 유지합니다.
+     * 방의 첫 입장자가 방장이 됩니다.
+     *
+     * @return 입장 후 인원 수
+     */
+    public int joinRoom(Long roomId, Long playerId, String nickname, PlayerRole role) {
+        Stripe stripe = stripeOf(roomId);
+        synchronized (stripe) {
+            RoomState room = stripe.rooms.get(roomId);
+            if (room == null) {
+                room = new RoomState();
+                stripe.rooms.put(roomId, room);
+            }
+            room.join(playerId, nickname, role);
+            return room.size;
+        }
     }
 
+    /**
+     * 다른 노드에서 넘어온 멤버를 인덱스와 역할 그대로 복원합니다.
+     */
+    public void restoreMember(Long roomId, RosterEntry entry) {
+        Stripe stripe = stripeOf(roomId);
+        synchronized (stripe) {
+            RoomState room = stripe.rooms.get(roomId);
+            if (room == null) {
+                room = new RoomState();
+                stripe.rooms.put(roomId, room);
+            }
+            room.restore(entry.getPlayerId(), entry.getPlayerIndex(), entry.getRole(), entry.getNickname());
+        }
+    }
+
+    /**
+     * 다른 노드에서 넘어온 방장/진행 상태와 라운드 시작 시각을 복원합니다. 멤버를 먼저 복원한 뒤 호출합니다.
+     */
+    public void restoreState(Long roomId, Long hostId, RoomStatus status, long startedAt) {
+        Stripe stripe = stripeOf(roomId);
+        synchronized (stripe) {
+            RoomState room = stripe.rooms.get(roomId);
+            if (room != null) {
+                room.hostId = hostId != null && room.indexOf(hostId) >= 0 ? hostId : room.firstJoined();
+                room.status = status != null ? status : RoomStatus.WAITING;
+                room.startedAt = room.status == RoomStatus.PLAYING ? startedAt : 0;
+            }
+        }
+    }
+
+    /**
+     * 방에서 나갑니다. 방장이 나가면 가장 먼저 들어온 남은 멤버가 방장이 되고,
+     * 마지막 멤버가 나가면 같은 임계 구역 안에서 방 상태를 제거합니다.
+     *
+     * @return 퇴장 후 인원 수 (0이면 방 상태가 제거됨)
+     */
     public int leaveRoom(Long roomId, Long playerId) {
-        Set<Long> players = roomPlayers.getOrDefault(roomId, Collections.emptySet());
-        players.remove(playerId);
-        if (players.isEmpty()) {
-            roomPlayers.remove(roomId);
+        Stripe stripe = stripeOf(roomId);
+        synchronized (stripe) {
+            RoomState room = stripe.rooms.get(roomId);
+            if (room == null) {
+                return 0;
+            }
+            room.leave(playerId);
+            if (room.size == 0) {
+                stripe.rooms.remove(roomId);
+            }
+            return room.size;
+        }
+    }
+
+    /**
+     * 대기 중인 방을 시작 상태로 바꿉니다. 방장만 시작할 수 있고, 이미 시작된 방은 다시 시작하지 않습니다.
+     *
+     * @param startedAt 라운드 시작 시각 (epoch 밀리초)
+     * @return 상태가 바뀌었으면 true
+     */
+    public boolean startGame(Long roomId, Long hostId, long startedAt) {
+        Stripe stripe = stripeOf(roomId);
+        synchronized (stripe) {
+            RoomState room = stripe.rooms.get(roomId);
+            if (room == null || room.status != RoomStatus.WAITING || hostId == null || room.hostId != hostId) {
+                return false;
+            }
+            room.status = RoomStatus.PLAYING;
+            room.startedAt = startedAt;
+            return true;
+        }
+    }
+
+    /**
+     * 진행 중인 라운드를 끝내고 대기 상태로 되돌립니다. 방장이 다시 시작하면 새 라운드가 됩니다.
+     *
+     * @return 상태가 바뀌었으면 true
+     */
+    public boolean finishRound(Long roomId) {
+        Stripe stripe = stripeOf(roomId);
+        synchronized (stripe) {
+            RoomState room = stripe.rooms.get(roomId);
+            if (room == null || room.status != RoomStatus.PLAYING) {
+                return false;
+            }
+            room.status = RoomStatus.WAITING;
+            room.startedAt = 0;
+            return true;
+        }
+    }
+
+    /**
+     * 이 노드가 멤버 상태를 가지고 있는 방 ID (호출 시점의 복사본)
+     */
+    public List<Long> getRoomIds() {
+        List<Long> roomIds = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.rooms.forEachKey(roomIds::add);
+            }
+        }
+        return roomIds;
+    }
+
+    public int getRoomCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.rooms.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 이 노드가 멤버 상태를 가지고 있는 방들의 인원 합계
+     */
+    public int getPlayerCount() {
+        int[] count = {0};
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.rooms.forEachValue(room -> count[0] += room.size);
+            }
+        }
+        return count[0];
+    }
+
+    public void removeRoom(Long roomId) {
+        Stripe stripe = stripeOf(roomId);
+        synchronized (stripe) {
+            stripe.rooms.remove(roomId);
         }
-        return players.size();
     }
 
     public int getRoomSize(Long roomId) {
-        return roomPlayers.getOrDefault(roomId, Collections.emptySet()).size();
+        Stripe stripe = stripeOf(roomId);
+        synchronized (stripe) {
+            RoomState room = stripe.rooms.get(roomId);
+            return room != null ? room.size : 0;
+        }
+    }
+
+    public PlayerRole getRole(Long roomId, Long playerId) {
+        Stripe stripe = stripeOf(roomId);
+        synchronized (stripe) {
+            RoomState room = stripe.rooms.get(roomId);
+            int position = room != null ? room.indexOf(playerId) : -1;
+            return position >= 0 ? ROLES[room.roles[position]] : null;
+        }
+    }
+
+    /**
+     * 방 안에서의 플레이어 인덱스 (방에 없으면 -1)
+     */
+    public int getPlayerIndex(Long roomId, Long playerId) {
+        Stripe stripe = stripeOf(roomId);
+        synchronized (stripe) {
+            RoomState room = stripe.rooms.get(roomId);
+            int position = room != null ? room.indexOf(playerId) : -1;
+            return position >= 0 ? room.indexes[position] : -1;
+        }
+    }
+
+    /**
+     * 방장 플레이어 ID (방이 없으면 null)
+     */
+    public Long getHostId(Long roomId) {
+        Stripe stripe = stripeOf(roomId);
+        synchronized (stripe) {
+            RoomState room = stripe.rooms.get(roomId);
+            return room != null && room.hostId != NO_HOST ? room.hostId : null;
+        }
+    }
+
+    /**
+     * 방 진행 상태 (방이 없으면 null)
+     */
+    public RoomStatus getStatus(Long roomId) {
+        Stripe stripe = stripeOf(roomId);
+        synchronized (stripe) {
+            RoomState room = stripe.rooms.get(roomId);
+            return room != null ? room.status : null;
+        }
+    }
+
+    /**
+     * 진행 중인 라운드의 시작 시각 (epoch 밀리초, 진행 중이 아니면 0)
+     */
+    public long getStartedAt(Long roomId) {
+        Stripe stripe = stripeOf(roomId);
+        synchronized (stripe) {
+            RoomState room = stripe.rooms.get(roomId);
+            return room != null ? room.startedAt : 0;
+        }
+    }
+
+    /**
+     * 다른 노드에 복제할 멤버 목록과 진행 상태 (방이 없으면 null)
+     */
+    public RoomMembership getMembership(Long roomId) {
+        Stripe stripe = stripeOf(roomId);
+        synchronized (stripe) {
+            RoomState room = stripe.rooms.get(roomId);
+            if (room == null) {
+                return null;
+            }
+            return new RoomMembership(Arrays.copyOf(room.playerIds, room.size), room.status);
+        }
+    }
+
+    public List<RosterEntry> getRoster(Long roomId) {
+        Stripe stripe = stripeOf(roomId);
+        synchronized (stripe) {
+            RoomState room = stripe.rooms.get(roomId);
+            if (room == null) {
+                return List.of();
+            }
+            List<RosterEntry> roster = new ArrayList<>(room.size);
+            for (int i = 0; i < room.size; i++) {
+                roster.add(new RosterEntry(room.playerIds[i], room.indexes[i], ROLES[room.roles[i]], room.nicknames[i]));
+            }
+            return roster;
+        }
+    }
+
+    private Stripe stripeOf(long roomId) {
+        return stripes[LongObjectHashMap.slotOf(roomId, stripeMask)];
+    }
+
+    private static final class Stripe {
+        private final LongObjectHashMap<RoomState> rooms = new LongObjectHashMap<>(64);
+    }
+
+    /**
+     * 방 하나의 상태. 멤버는 같은 위치끼리 짝을 이루는 배열에 담고, 퇴장 시 마지막 멤버를 빈자리로 옮깁니다.
+     * 항상 소속 스트라이프의 모니터 안에서만 접근합니다.
+     */
+    private static final class RoomState {
+        private long[] playerIds = new long[4];
+        private int[] indexes = new int[4];
+        private byte[] roles = new byte[4];
+        private String[] nicknames = new String[4];
+        private int size;
+        private int nextIndex;
+        private int policeCount;
+        private long hostId = NO_HOST;
+        private RoomStatus status = RoomStatus.WAITING;
+        private long startedAt;
+
+        private int indexOf(long playerId) {
+            for (int i = 0; i < size; i++) {
+                if (playerIds[i] == playerId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void join(long playerId, String nickname, PlayerRole role) {
+            int position = indexOf(playerId);
+            if (position >= 0) {
+                // 재입장: 인덱스는 그대로 두고, 대기 중에 역할을 새로 지정한 경우에만 바꿉니다.
+                // 라운드가 시작된 뒤에는 재입장으로 편을 바꿀 수 없습니다.
+                if (role != null && status == RoomStatus.WAITING) {
+                    setRole(position, role);
+                }
+                nicknames[position] = nickname;
+                return;
+            }
+            append(playerId, nextIndex++, role != null ? role : balancedRole(), nickname);
+            if (hostId == NO_HOST) {
+                hostId = playerId;
+            }
+        }
+
+        private void restore(long playerId, int index, PlayerRole role, String nickname) {
+            int position = indexOf(playerId);
+            if (position >= 0) {
+                indexes[position] = index;
+                setRole(position, role);
+                nicknames[position] = nickname;
+            } else {
+                append(playerId, index, role, nickname);
+            }
+            nextIndex = Math.max(nextIndex, index + 1);
+            if (hostId == NO_HOST) {
+                hostId = playerId;
+            }
+        }
+
+        private void leave(long playerId) {
+            int position = indexOf(playerId);
+            if (position < 0) {
+                return;
+            }
+            if (roles[position] == PlayerRole.POLICE.ordinal()) {
+                policeCount--;
+            }
+            int last = --size;
+            playerIds[position] = playerIds[last];
+            indexes[position] = indexes[last];
+            roles[position] = roles[last];
+            nicknames[position] = nicknames[last];
+            nicknames[last] = null;
+            if (hostId == playerId) {
+                hostId = firstJoined();
+            }
+        }
+
+        /**
+         * 가장 먼저 들어온(인덱스가 가장 작은) 멤버 (없으면 NO_HOST)
+         */
+        private long firstJoined() {
+            long first = NO_HOST;
+            int lowest = Integer.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                if (indexes[i] < lowest) {
+                    lowest = indexes[i];
+                    first = playerIds[i];
+                }
+            }
+            return first;
+        }
+
+        private void append(long playerId, int index, PlayerRole role, String nickname) {
+            if (size == playerIds.length) {
+                int capacity = size << 1;
+                playerIds = Arrays.copyOf(playerIds, capacity);
+                indexes = Arrays.copyOf(indexes, capacity);
+                roles = Arrays.copyOf(roles, capacity);
+                nicknames = Arrays.copyOf(nicknames, capacity);
+            }
+            playerIds[size] = playerId;
+            indexes[size] = index;
+            roles[size] = (byte) role.ordinal();
+            nicknames[size] = nickname;
+            if (role == PlayerRole.POLICE) {
+                policeCount++;
+            }
+            size++;
+        }
+
+        private void setRole(int position, PlayerRole role) {
+            if (roles[position] == PlayerRole.POLICE.ordinal()) {
+                policeCount--;
+            }
+            roles[position] = (byte) role.ordinal();
+            if (role == PlayerRole.POLICE) {
+                policeCount++;
+            }
+        }
+
+        private PlayerRole balancedRole() {
+            return policeCount * 2 < size ? PlayerRole.POLICE : PlayerRole.THIEF;
+        }
     }
 }
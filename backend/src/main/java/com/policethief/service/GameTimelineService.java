@@ -0,0 +1,288 @@
+package com.policethief.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.policethief.dto.GameEventMessage;
+import com.policethief.dto.GameEventType;
+import com.policethief.dto.PlayerPosition;
+import com.policethief.dto.WireFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 경기 타임라인 내보내기
+ * 입장/퇴장/시작/태그/라운드 종료 이벤트는 이벤트 저널에서, 위치는 location_trail 테이블에서 읽어 시각순으로 합쳐 스트림에 씁니다.
+ * 저널은 앞에서부터 한 건씩 넘겨받고 위치는 JDBC 커서로 fetch-size 만큼씩 당겨 오며,
+ * 이벤트 시각까지의 위치를 먼저 쓰는 방식으로 합치므로 경기 길이와 관계없이 메모리 사용량이 일정합니다.
+ * 출력 스트림에 쓰기가 막히면(느린 클라이언트) 커서도 더 당기지 않으므로 읽기 속도가 클라이언트 속도를 따라갑니다.
+ * 내보내기마다 DB 커넥션 하나를 끝날 때까지 잡으므로 동시에 실행할 수 있는 개수를 제한합니다.
+ */
+@Slf4j
+@Service
+public class GameTimelineService {
+
+    private static final String TRAIL_SQL = "SELECT player_id, latitude, longitude, accuracy, recorded_at "
+            + "FROM location_trail WHERE room_id = ? AND recorded_at >= ? AND recorded_at < ? "
+            // (room_id, recorded_at) 인덱스 순서 그대로 읽도록 정렬 조건을 인덱스 앞부분과 맞춥니다. (결과 전체를 정렬하지 않음)
+            + "ORDER BY room_id, recorded_at";
+
+    /** 타임라인에 담을 수 있는 이벤트 종류 (저널에 남는 이벤트 + 위치) */
+    public static final Set<GameEventType> EXPORTABLE_TYPES = EnumSet.of(
+            GameEventType.JOIN, GameEventType.LEAVE, GameEventType.START, GameEventType.TAG, GameEventType.ROUND_END,
+            GameEventType.LOCATION);
+
+    private final GameJournalService journal;
+    private final DataSource dataSource;
+    private final ObjectWriter eventWriter;
+    private final Semaphore exports;
+    private final int fetchSize;
+    private final int flushEvery;
+
+    public GameTimelineService(GameJournalService journal,
+                               DataSource dataSource,
+                               ObjectMapper objectMapper,
+                               @Value("${game.replay.max-concurrent-exports:4}") int maxConcurrentExports,
+                               @Value("${game.replay.fetch-size:1000}") int fetchSize,
+                               @Value("${game.replay.flush-every:1000}") int flushEvery) {
+        this.journal = journal;
+        this.dataSource = dataSource;
+        // 레코드마다 flush 하지 않고 스트림 버퍼가 찰 때나 flush-every 건마다 내보냅니다.
+        this.eventWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.exports = new Semaphore(maxConcurrentExports);
+        this.fetchSize = fetchSize;
+        this.flushEvery = flushEvery;
+    }
+
+    /**
+     * 내보내기 자리를 잡습니다. 자리가 없으면 false 이며, 잡았으면 끝난 뒤 {@link #release()} 해야 합니다.
+     */
+    public boolean tryAcquire() {
+        return exports.tryAcquire();
+    }
+
+    public void release() {
+        exports.release();
+    }
+
+    /**
+     * 저널에 이 방의 JOIN 이 남아 있는 플레이어인지 확인합니다. 이미 나갔거나 닫힌 방의 참가자에게 내보내기를 허용할 때 씁니다.
+     */
+    public boolean hasJoined(long roomId, long playerId) throws IOException {
+        boolean[] joined = new boolean[1];
+        journal.replayEvents(roomId, 0, Long.MAX_VALUE, event -> {
+            if (event.getType() == GameEventType.JOIN && event.getSenderId() != null && event.getSenderId() == playerId) {
+                joined[0] = true;
+            }
+        });
+        return joined[0];
+    }
+
+    /**
+     * 방의 타임라인을 시각순으로 씁니다.
+     *
+     * @param from         이 시각 이상 (epoch millis)
+     * @param to           이 시각 미만 (epoch millis)
+     * @param types        담을 이벤트 종류 (LOCATION 이면 위치 포함)
+     * @param sampleMillis 0보다 크면 플레이어마다 이 간격보다 촘촘한 위치는 건너뜁니다
+     * @param format       JSON 이면 NDJSON, COMPACT 면 {@link CompactFrameCodec.TimelineEncoder} 형식
+     */
+    public void export(long roomId, long from, long to, Set<GameEventType> types, long sampleMillis,
+                       WireFormat format, OutputStream target) throws IOException {
+        OutputStream out = new BufferedOutputStream(target, 64 * 1024);
+        TimelineSink sink = format == WireFormat.COMPACT ? new CompactSink(out) : new NdjsonSink(out);
+        boolean withPositions = types.contains(GameEventType.LOCATION);
+        long started = System.currentTimeMillis();
+        // 위치를 담지 않으면 DB 커넥션을 잡지 않습니다. (try-with-resources 는 null 자원을 건너뜁니다)
+        try (Connection connection = withPositions ? dataSource.getConnection() : null;
+             PreparedStatement statement = withPositions ? prepareTrailQuery(connection, roomId, from, to) : null;
+             ResultSet rows = statement != null ? statement.executeQuery() : null) {
+            PositionCursor positions = new PositionCursor(rows, roomId, sampleMillis, sink);
+            journal.replayEvents(roomId, from, to, event -> {
+                positions.writeUntil(event.getTimestamp());
+                if (types.contains(event.getType())) {
+                    sink.write(event);
+                }
+            });
+            positions.writeUntil(Long.MAX_VALUE);
+            log.info("타임라인 내보내기 - roomId={}, format={}, 이벤트 {}건, 위치 {}건 (건너뜀 {}건), {}ms",
+                    roomId, format, sink.count - positions.written, positions.written, positions.skipped,
+                    System.currentTimeMillis() - started);
+        } catch (SQLException e) {
+            throw new IOException("위치 이력을 읽지 못했습니다", e);
+        }
+        out.flush();
+    }
+
+    private PreparedStatement prepareTrailQuery(Connection connection, long roomId, long from, long to)
+            throws SQLException {
+        connection.setReadOnly(true);
+        PreparedStatement statement = connection.prepareStatement(TRAIL_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(fetchSize);
+        statement.setLong(1, roomId);
+        statement.setLong(2, from);
+        statement.setLong(3, to);
+        return statement;
+    }
+
+    /**
+     * location_trail 커서. 저널 이벤트 시각까지 위치를 당겨 쓰고, 다음 행 하나만 들고 있습니다.
+     */
+    private final class PositionCursor {
+        private final ResultSet rows;
+        private final long roomId;
+        private final long sampleMillis;
+        private final TimelineSink sink;
+        private final Map<Long, Long> lastWritten = new HashMap<>();
+        private boolean pending;
+        private boolean exhausted;
+        private long written;
+        private long skipped;
+
+        private PositionCursor(ResultSet rows, long roomId, long sampleMillis, TimelineSink sink) {
+            this.rows = rows;
+            this.roomId = roomId;
+            this.sampleMillis = sampleMillis;
+            this.sink = sink;
+        }
+
+        private void writeUntil(long timestamp) throws IOException {
+            try {
+                while (advance() && rows.getLong(5) <= timestamp) {
+                    pending = false;
+                    long playerId = rows.getLong(1);
+                    long recordedAt = rows.getLong(5);
+                    if (sampleMillis > 0) {
+                        Long previous = lastWritten.get(playerId);
+                        if (previous != null && recordedAt - previous < sampleMillis) {
+                            skipped++;
+                            continue;
+                        }
+                        lastWritten.put(playerId, recordedAt);
+                    }
+                    double accuracyValue = rows.getDouble(4);
+                    Double accuracy = rows.wasNull() ? null : accuracyValue;
+                    sink.writePosition(roomId, playerId, rows.getDouble(2), rows.getDouble(3), accuracy, recordedAt);
+                    written++;
+                }
+            } catch (SQLException e) {
+                throw new IOException("위치 이력을 읽지 못했습니다", e);
+            }
+        }
+
+        /**
+         * 아직 쓰지 않은 현재 행이 있으면 true
+         */
+        private boolean advance() throws SQLException {
+            if (rows == null) {
+                return false;
+            }
+            if (!pending && !exhausted) {
+                pending = rows.next();
+                exhausted = !pending;
+            }
+            return pending;
+        }
+    }
+
+    private abstract class TimelineSink {
+        protected final OutputStream out;
+        private long count;
+
+        private TimelineSink(OutputStream out) {
+            this.out = out;
+        }
+
+        void write(GameEventMessage event) throws IOException {
+            writeEvent(event);
+            counted();
+        }
+
+        void writePosition(long roomId, long playerId, double latitude, double longitude, Double accuracy,
+                           long recordedAt) throws IOException {
+            writePositionRecord(roomId, playerId, latitude, longitude, accuracy, recordedAt);
+            counted();
+        }
+
+        private void counted() throws IOException {
+            // 버퍼가 덜 차도 주기적으로 내보내 느리게 채워지는 구간에서도 클라이언트가 진행 상황을 받게 합니다.
+            if (++count % flushEvery == 0) {
+                out.flush();
+            }
+        }
+
+        abstract void writeEvent(GameEventMessage event) throws IOException;
+
+        abstract void writePositionRecord(long roomId, long playerId, double latitude, double longitude,
+                                          Double accuracy, long recordedAt) throws IOException;
+    }
+
+    /**
+     * 한 줄에 GameEventMessage 하나. 위치는 LOCATION 이벤트(payload: PlayerPosition)로 씁니다.
+     */
+    private final class NdjsonSink extends TimelineSink {
+        private final JsonGenerator generator;
+
+        private NdjsonSink(OutputStream out) throws IOException {
+            super(out);
+            this.generator = eventWriter.createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 줄 사이에 기본 구분자(공백)가 끼지 않도록 합니다.
+            generator.setRootValueSeparator(null);
+            // 레코드마다 생성기 버퍼만 비우고, 네트워크로 내보내는 시점은 TimelineSink 가 정합니다.
+            generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        }
+
+        @Override
+        void writeEvent(GameEventMessage event) throws IOException {
+            eventWriter.writeValue(generator, event);
+            generator.writeRaw('\n');
+            generator.flush();
+        }
+
+        @Override
+        void writePositionRecord(long roomId, long playerId, double latitude, double longitude, Double accuracy,
+                                 long recordedAt) throws IOException {
+            GameEventMessage message = GameEventMessage.of(GameEventType.LOCATION, roomId, playerId,
+                    new PlayerPosition(playerId, latitude, longitude, accuracy));
+            message.setTimestamp(recordedAt);
+            writeEvent(message);
+        }
+    }
+
+    private final class CompactSink extends TimelineSink {
+        private final CompactFrameCodec.TimelineEncoder encoder = new CompactFrameCodec.TimelineEncoder();
+
+        private CompactSink(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        void writeEvent(GameEventMessage event) throws IOException {
+            encoder.writeEvent(out, event.getTimestamp(), eventWriter.writeValueAsBytes(event));
+        }
+
+        @Override
+        void writePositionRecord(long roomId, long playerId, double latitude, double longitude, Double accuracy,
+                                 long recordedAt) throws IOException {
+            encoder.writePosition(out, recordedAt, playerId, latitude, longitude, accuracy);
+        }
+    }
+}
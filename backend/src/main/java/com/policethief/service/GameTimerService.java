@@ -0,0 +1,340 @@
+package com.policethief.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 서버 기준 게임 타이머
+ * 라운드 종료, 남은 시간 알림, 수감 해제처럼 방/플레이어마다 걸리는 타이머를 {@link HierarchicalTimingWheel} 하나에 걸고,
+ * 전용 스레드 하나가 tick-millis 마다 휠을 돌립니다. 타이머마다 스케줄 작업을 만들지 않으므로 타이머 수와 관계없이 스레드는 하나이고,
+ * 등록/취소는 O(1)입니다.
+ *
+ * <p>만료된 타이머는 여기서 처리하지 않고 등록된 핸들러로 넘기며, 핸들러는 방의 레인에 명령으로 넣어 다른 명령과 같은 순서로 처리합니다.
+ * 레인에 들어간 뒤 실행되기 전에 같은 타이머가 취소되거나 교체될 수 있으므로, 레인에서는 {@link #claim}으로 아직 유효한지 확인합니다.
+ *
+ * <p>방마다 (종류, 플레이어)당 타이머는 하나이며, 같은 자리에 다시 걸면 이전 타이머는 취소됩니다.
+ * 방 상태처럼 방 소유 노드의 레인에서 걸고 취소하지만, 방 단위 잠금으로 감싸 어느 스레드에서 불러도 안전합니다.
+ */
+@Slf4j
+@Service
+public class GameTimerService implements SmartLifecycle {
+
+    /**
+     * 타이머 종류
+     */
+    public enum Kind {
+        /** 라운드 제한 시간이 끝남 (방 타이머) */
+        ROUND_END,
+        /** 라운드 남은 시간 알림 (방 타이머, 알릴 때마다 다음 알림을 겁니다) */
+        COUNTDOWN,
+        /** 잡힌 도둑의 수감 시간이 끝남 (플레이어 타이머) */
+        JAIL_RELEASE
+    }
+
+    private final long roundMillis;
+    private final long jailMillis;
+    /** 남은 시간 알림 시점 (라운드 종료 몇 초 전, 내림차순) */
+    private final long[] countdownMillis;
+    private final HierarchicalTimingWheel<GameTimer> wheel;
+    private final ConcurrentHashMap<Long, RoomTimers> rooms = new ConcurrentHashMap<>();
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+
+    private volatile Consumer<GameTimer> handler;
+    private volatile boolean running;
+    private Thread thread;
+
+    public GameTimerService(@Value("${game.timer.round-seconds:600}") long roundSeconds,
+                            @Value("${game.timer.jail-seconds:60}") long jailSeconds,
+                            @Value("${game.timer.countdown-seconds:60,30,10,5,4,3,2,1}") long[] countdownSeconds,
+                            @Value("${game.timer.tick-millis:50}") long tickMillis) {
+        this.roundMillis = TimeUnit.SECONDS.toMillis(Math.max(0, roundSeconds));
+        this.jailMillis = TimeUnit.SECONDS.toMillis(Math.max(0, jailSeconds));
+        this.countdownMillis = Arrays.stream(countdownSeconds)
+                .filter(seconds -> seconds > 0)
+                .map(TimeUnit.SECONDS::toMillis)
+                .boxed()
+                .sorted((a, b) -> Long.compare(b, a))
+                .mapToLong(Long::longValue)
+                .distinct()
+                .toArray();
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * 만료된 타이머를 받을 핸들러를 등록합니다. 타이머 스레드에서 불리므로 오래 걸리는 일은 하지 않아야 합니다.
+     */
+    public void setFireHandler(Consumer<GameTimer> handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * 라운드가 startedAt 에 시작했을 때 끝나는 시각 (라운드 제한 시간이 없으면 -1)
+     */
+    public long roundEndsAt(long startedAt) {
+        return roundMillis > 0 ? startedAt + roundMillis : -1;
+    }
+
+    /**
+     * after 이후 첫 남은 시간 알림 시각 (남은 알림이 없으면 -1)
+     */
+    public long nextCountdownAt(long endsAt, long after) {
+        for (long before : countdownMillis) {
+            if (endsAt - before > after) {
+                return endsAt - before;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 태그된 도둑이 풀려나는 시각 (수감이 없으면 -1)
+     */
+    public long jailReleaseAt(long taggedAt) {
+        return jailMillis > 0 ? taggedAt + jailMillis : -1;
+    }
+
+    /**
+     * 타이머를 겁니다. 같은 방에 같은 종류/플레이어의 타이머가 있으면 그 타이머는 취소됩니다.
+     *
+     * @param playerId 플레이어 타이머의 대상 (방 타이머면 null)
+     */
+    public GameTimer schedule(Long roomId, Long playerId, Kind kind, long deadlineMillis) {
+        GameTimer timer = new GameTimer(roomId, playerId, kind, deadlineMillis);
+        RoomTimers timers = rooms.computeIfAbsent(roomId, id -> new RoomTimers());
+        GameTimer previous;
+        synchronized (timers) {
+            timer.handle = wheel.schedule(timer, deadlineMillis);
+            previous = timers.put(new TimerKey(kind, playerId), timer);
+        }
+        scheduled.increment();
+        if (previous != null) {
+            cancelHandle(previous);
+        }
+        return timer;
+    }
+
+    public void cancel(Long roomId, Long playerId, Kind kind) {
+        RoomTimers timers = rooms.get(roomId);
+        if (timers == null) {
+            return;
+        }
+        GameTimer timer;
+        synchronized (timers) {
+            timer = timers.remove(new TimerKey(kind, playerId));
+        }
+        if (timer != null) {
+            cancelHandle(timer);
+        }
+    }
+
+    /**
+     * 만료되어 레인에 도착한 타이머가 아직 유효한지 확인하고, 유효하면 방의 타이머 목록에서 뺍니다.
+     *
+     * @return 그사이 취소/교체되지 않은 타이머면 true
+     */
+    public boolean claim(GameTimer timer) {
+        RoomTimers timers = rooms.get(timer.roomId);
+        if (timers == null) {
+            return false;
+        }
+        synchronized (timers) {
+            return timers.remove(new TimerKey(timer.kind, timer.playerId), timer);
+        }
+    }
+
+    /**
+     * 플레이어에게 걸린 타이머를 모두 취소합니다.
+     */
+    public void removePlayer(Long roomId, Long playerId) {
+        RoomTimers timers = rooms.get(roomId);
+        if (timers == null) {
+            return;
+        }
+        synchronized (timers) {
+            Iterator<GameTimer> iterator = timers.values().iterator();
+            while (iterator.hasNext()) {
+                GameTimer timer = iterator.next();
+                if (Objects.equals(timer.playerId, playerId)) {
+                    iterator.remove();
+                    cancelHandle(timer);
+                }
+            }
+        }
+    }
+
+    /**
+     * 방에 걸린 타이머를 모두 취소합니다.
+     */
+    public void removeRoom(Long roomId) {
+        RoomTimers timers = rooms.remove(roomId);
+        if (timers == null) {
+            return;
+        }
+        synchronized (timers) {
+            timers.values().forEach(this::cancelHandle);
+            timers.clear();
+        }
+    }
+
+    private void cancelHandle(GameTimer timer) {
+        if (wheel.cancel(timer.handle)) {
+            cancelled.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "game-timer");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("게임 타이머 시작 - tick={}ms, round={}s, jail={}s", wheel.getTickMillis(),
+                TimeUnit.MILLISECONDS.toSeconds(roundMillis), TimeUnit.MILLISECONDS.toSeconds(jailMillis));
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 방 명령 실행기(1)보다 늦게 시작하고 먼저 멈춰서, 만료된 타이머를 넣을 레인이 항상 돌고 있도록 합니다.
+     */
+    @Override
+    public int getPhase() {
+        return 2;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                wheel.advance(System.currentTimeMillis(), this::fire);
+            } catch (RuntimeException e) {
+                log.error("게임 타이머 처리 중 오류", e);
+            }
+            long sleepMillis = wheel.nextTickMillis() - System.currentTimeMillis();
+            if (sleepMillis > 0) {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void fire(GameTimer timer) {
+        fired.increment();
+        Consumer<GameTimer> target = handler;
+        if (target == null) {
+            return;
+        }
+        try {
+            target.accept(timer);
+        } catch (RuntimeException e) {
+            log.error("게임 타이머 전달 실패 - roomId={}, kind={}", timer.roomId, timer.kind, e);
+        }
+    }
+
+    /**
+     * 건 타이머 수
+     */
+    public long getScheduledCount() {
+        return scheduled.sum();
+    }
+
+    /**
+     * 만료되어 핸들러로 넘긴 타이머 수
+     */
+    public long getFiredCount() {
+        return fired.sum();
+    }
+
+    /**
+     * 만료 전에 취소한 타이머 수 (다시 걸어 교체된 타이머 포함)
+     */
+    public long getCancelledCount() {
+        return cancelled.sum();
+    }
+
+    /**
+     * 휠에 걸려 있는 타이머 수 (마지막 tick 기준)
+     */
+    public int getPendingCount() {
+        return wheel.size();
+    }
+
+    /**
+     * 걸려 있는 타이머 하나
+     */
+    public static final class GameTimer {
+        private final Long roomId;
+        private final Long playerId;
+        private final Kind kind;
+        private final long deadlineMillis;
+        private HierarchicalTimingWheel.Timer<GameTimer> handle;
+
+        private GameTimer(Long roomId, Long playerId, Kind kind, long deadlineMillis) {
+            this.roomId = roomId;
+            this.playerId = playerId;
+            this.kind = kind;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        /**
+         * 플레이어 타이머의 대상 (방 타이머면 null)
+         */
+        public Long getPlayerId() {
+            return playerId;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+    }
+
+    private record TimerKey(Kind kind, Long playerId) {
+    }
+
+    private static final class RoomTimers extends HashMap<TimerKey, GameTimer> {
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,177 @@
+package com.policethief.service;
+
+import com.policethief.cluster.RoomEventBus;
+import com.policethief.domain.GameRoom;
+import com.policethief.domain.GeoPoint;
+import com.policethief.dto.GameEventType;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 방별 놀이 구역(geofence) 판정
+ * 방이 알려질 때 구역 다각형을 {@link PlayArea} 로 한 번 계산해 두고, 위치 갱신마다 플레이어가 구역 안인지 확인해
+ * 안팎이 바뀐 순간에만 OUT_OF_BOUNDS / BACK_IN_BOUNDS 로 알립니다.
+ * 경계 근처에서 GPS 오차로 안팎이 오가며 알림이 반복되지 않도록, 경계에서 정확도(최대 tolerance-meters)보다 멀어졌을 때만 상태를 바꿉니다.
+ * 구역이 없는 방은 판정하지 않습니다. 플레이어 상태는 방 소유 노드의 레인에서만 바뀝니다.
+ */
+@Slf4j
+@Service
+public class GeofenceService implements RoomEventBus.RegistryListener {
+
+    private final RoomEventBus eventBus;
+    private final boolean enabled;
+    private final int maxVertices;
+    private final double toleranceMeters;
+    private final double distanceLimitMeters;
+
+    private final ConcurrentHashMap<Long, PlayArea> areas = new ConcurrentHashMap<>();
+    /** 방 → 플레이어 → 구역 밖 여부 */
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<Long, Boolean>> outside = new ConcurrentHashMap<>();
+    private final LongAdder checked = new LongAdder();
+    private final LongAdder crossings = new LongAdder();
+
+    public GeofenceService(RoomEventBus eventBus,
+                           @Value("${game.geofence.enabled:true}") boolean enabled,
+                           @Value("${game.geofence.max-vertices:10000}") int maxVertices,
+                           @Value("${game.geofence.tolerance-meters:20}") double toleranceMeters,
+                           @Value("${game.geofence.distance-limit-meters:500}") double distanceLimitMeters) {
+        this.eventBus = eventBus;
+        this.enabled = enabled;
+        this.maxVertices = maxVertices;
+        this.toleranceMeters = Math.max(0, toleranceMeters);
+        this.distanceLimitMeters = Math.max(this.toleranceMeters, distanceLimitMeters);
+    }
+
+    @PostConstruct
+    void subscribeRegistry() {
+        eventBus.addRegistryListener(this);
+    }
+
+    /**
+     * 방을 만들기 전에 구역 다각형을 확인합니다. (없거나 비어 있으면 구역 제한 없음)
+     */
+    public void validate(List<GeoPoint> playArea) {
+        if (playArea == null || playArea.isEmpty()) {
+            return;
+        }
+        if (playArea.size() < 3 || playArea.size() > maxVertices) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "놀이 구역은 꼭짓점이 3개 이상 " + maxVertices + "개 이하여야 합니다.");
+        }
+        for (GeoPoint vertex : playArea) {
+            if (vertex == null || !(Math.abs(vertex.getLatitude()) <= 90) || !(Math.abs(vertex.getLongitude()) <= 180)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "놀이 구역 좌표가 올바르지 않습니다.");
+            }
+        }
+        try {
+            new PlayArea(playArea);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onRoomCreated(GameRoom room) {
+        if (!enabled || room.getPlayArea().isEmpty()) {
+            return;
+        }
+        try {
+            areas.put(room.getId(), new PlayArea(room.getPlayArea()));
+        } catch (IllegalArgumentException e) {
+            log.warn("놀이 구역 무시 - roomId={}, reason={}", room.getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onRoomClosed(Long roomId) {
+        areas.remove(roomId);
+    }
+
+    /**
+     * 위치 갱신으로 플레이어가 구역을 넘나들었으면 그 내용을 돌려줍니다. (그대로면 null)
+     * 첫 위치가 구역 밖이면 바로 OUT_OF_BOUNDS 입니다.
+     *
+     * @param accuracy GPS 정확도 (m, 없으면 null)
+     */
+    public Crossing check(Long roomId, Long playerId, double latitude, double longitude, Double accuracy) {
+        PlayArea area = areas.get(roomId);
+        if (area == null) {
+            return null;
+        }
+        checked.increment();
+        boolean inside = area.contains(latitude, longitude);
+        ConcurrentHashMap<Long, Boolean> players = outside.computeIfAbsent(roomId, id -> new ConcurrentHashMap<>());
+        Boolean wasOutside = players.get(playerId);
+        boolean isOutside = !inside;
+        if (wasOutside != null && wasOutside == isOutside) {
+            return null;
+        }
+        if (wasOutside == null && inside) {
+            players.put(playerId, false);
+            return null;
+        }
+        double tolerance = accuracy != null && accuracy > 0 ? Math.min(accuracy, toleranceMeters) : 0;
+        // 경계를 넘었어도 오차 범위 안이면 이전 상태를 유지합니다.
+        double distance = area.distanceToBoundary(latitude, longitude, distanceLimitMeters);
+        if (distance <= tolerance) {
+            return null;
+        }
+        players.put(playerId, isOutside);
+        crossings.increment();
+        return new Crossing(isOutside ? GameEventType.OUT_OF_BOUNDS : GameEventType.BACK_IN_BOUNDS, distance);
+    }
+
+    public void removePlayer(Long roomId, Long playerId) {
+        outside.computeIfPresent(roomId, (id, players) -> {
+            players.remove(playerId);
+            return players.isEmpty() ? null : players;
+        });
+    }
+
+    public void removeRoom(Long roomId) {
+        outside.remove(roomId);
+    }
+
+    /**
+     * 구역 판정을 한 위치 갱신 수
+     */
+    public long getCheckedCount() {
+        return checked.sum();
+    }
+
+    /**
+     * 알린 구역 이탈/복귀 수
+     */
+    public long getCrossingCount() {
+        return crossings.sum();
+    }
+
+    public static final class Crossing {
+        private final GameEventType type;
+        private final double distanceMeters;
+
+        private Crossing(GameEventType type, double distanceMeters) {
+            this.type = type;
+            this.distanceMeters = distanceMeters;
+        }
+
+        public GameEventType getType() {
+            return type;
+        }
+
+        /**
+         * 경계까지 거리 (m, distance-limit-meters 를 넘으면 그 값)
+         */
+        public double getDistanceMeters() {
+            return distanceMeters;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.policethief.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * 해시드 타이밍 휠
+ * 만료 시각을 tick 단위로 잘라 원형 버킷 배열에 걸어 두고, tick마다 현재 버킷 하나만 훑습니다.
+ * 등록/취소/재등록은 이중 연결 리스트 조작이라 O(1)이며, 항목마다 스케줄 작업을 만들지 않습니다.
+ * 버킷에는 만료 tick 번호를 함께 저장해 두고, 휠 한 바퀴보다 먼 항목은 해당 바퀴가 올 때까지 건너뜁니다.
+ *
+ * <p>등록/취소는 여러 스레드에서 호출할 수 있고, {@link #advance}는 한 스레드(스케줄러)에서만 호출합니다.
+ */
+public final class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final Timeout<T>[] buckets;
+    private final long startMillis;
+    /** 다음에 처리할 tick 번호 */
+    private long nextTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMillis와 wheelSize는 양수여야 합니다.");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = (Timeout<T>[]) new Timeout<?>[size];
+        this.startMillis = startMillis;
+    }
+
+    /**
+     * deadlineMillis 이후 첫 tick에 만료되도록 등록합니다.
+     */
+    public synchronized Timeout<T> schedule(T item, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(item);
+        insert(timeout, deadlineMillis);
+        return timeout;
+    }
+
+    /**
+     * 이미 등록된 항목의 만료 시각을 바꿉니다. (만료/취소된 항목이면 다시 등록)
+     */
+    public synchronized void reschedule(Timeout<T> timeout, long deadlineMillis) {
+        if (timeout.bucket >= 0) {
+            unlink(timeout);
+        }
+        insert(timeout, deadlineMillis);
+    }
+
+    public synchronized void cancel(Timeout<T> timeout) {
+        if (timeout.bucket >= 0) {
+            unlink(timeout);
+        }
+    }
+
+    /**
+     * nowMillis까지 지난 tick의 버킷을 처리하고 만료된 항목을 돌려줍니다.
+     * 반환된 항목은 휠에서 빠진 상태이므로 필요하면 {@link #reschedule}로 다시 등록합니다.
+     */
+    public List<Timeout<T>> advance(long nowMillis) {
+        return advance(nowMillis, item -> Long.MIN_VALUE);
+    }
+
+    /**
+     * {@link #advance(long)}와 같지만, 만료 시각이 된 항목의 현재 만료 시각을 deadlineOf로 다시 확인해
+     * 아직 남아 있으면 그 시각으로 바로 옮겨 겁니다. (활동할 때마다 휠을 건드리지 않고 만료 시각만 늦추는 경우)
+     */
+    public List<Timeout<T>> advance(long nowMillis, ToLongFunction<T> deadlineOf) {
+        List<Timeout<T>> expired = new ArrayList<>();
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        synchronized (this) {
+            // 스케줄러가 오래 멈췄더라도 모든 버킷을 한 번씩만 보면 됩니다.
+            long from = Math.max(nextTick, targetTick - mask);
+            nextTick = Math.max(nextTick, targetTick + 1);
+            for (long tick = from; tick <= targetTick; tick++) {
+                expireBucket((int) (tick & mask), targetTick, nowMillis, deadlineOf, expired);
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private void expireBucket(int bucket, long targetTick, long nowMillis, ToLongFunction<T> deadlineOf,
+                              List<Timeout<T>> expired) {
+        Timeout<T> timeout = buckets[bucket];
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            if (timeout.deadlineTick <= targetTick) {
+                unlink(timeout);
+                long deadline = deadlineOf.applyAsLong(timeout.item);
+                if (deadline > nowMillis) {
+                    // nextTick을 먼저 올려 두었으므로 이번 처리에서 다시 꺼내지지 않습니다.
+                    insert(timeout, deadline);
+                } else {
+                    expired.add(timeout);
+                }
+            }
+            timeout = next;
+        }
+    }
+
+    private void insert(Timeout<T> timeout, long deadlineMillis) {
+        // 이미 지난 시각이면 다음 tick에서 처리합니다.
+        long deadlineTick = Math.max(nextTick, ceilDiv(deadlineMillis - startMillis, tickMillis));
+        int bucket = (int) (deadlineTick & mask);
+        timeout.deadlineTick = deadlineTick;
+        timeout.bucket = bucket;
+        timeout.prev = null;
+        timeout.next = buckets[bucket];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        buckets[bucket] = timeout;
+        size++;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+        size--;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    /**
+     * 휠에 걸린 항목. 버킷 안에서 이중 연결 리스트로 이어집니다.
+     */
+    public static final class Timeout<T> {
+        private final T item;
+        private long deadlineTick;
+        private int bucket = -1;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T item) {
+            this.item = item;
+        }
+
+        public T getItem() {
+            return item;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.policethief.service;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 계층형 타이밍 휠
+ * 0레벨은 tick 하나가 슬롯 하나인 256칸 휠이고, 그 위 레벨은 아래 레벨 한 바퀴를 슬롯 하나로 보는 64칸 휠입니다.
+ * 항목은 남은 tick 수에 맞는 레벨에 한 번 걸리고, 위 레벨의 슬롯 차례가 오면 그 슬롯의 항목만 아래 레벨로 내려옵니다(cascade).
+ * 그래서 {@link HashedTimingWheel}처럼 먼 항목을 바퀴마다 건너뛰며 다시 보지 않고, 몇 시간 뒤 만료도 같은 비용으로 겁니다.
+ * tick 10ms 기준으로 0레벨은 2.56초, 4레벨까지 약 497일을 덮으며, 그보다 먼 항목은 맨 위 레벨에서 다시 걸립니다.
+ *
+ * <p>휠 자체는 {@link #advance}를 부르는 한 스레드만 만집니다. 다른 스레드의 등록/취소는 잠금 없는 스택에 넣어 두기만 하고,
+ * 휠 스레드가 다음 advance 때 한꺼번에 반영하므로 등록/취소는 어느 스레드에서든 O(1)이며 휠 스레드와 잠금을 다투지 않습니다.
+ * 취소와 만료가 겹치면 상태를 먼저 바꾼 쪽이 이기므로, 취소에 성공한 항목은 절대 만료로 처리되지 않습니다.
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    /** 레벨별 슬롯 수(2의 거듭제곱)의 비트 수 */
+    private static final int[] LEVEL_BITS = {8, 6, 6, 6, 6};
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<Timer> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Timer.class, "state");
+
+    private final long tickMillis;
+    private final long startMillis;
+    /** 레벨별로 tick 번호를 오른쪽으로 미는 비트 수 */
+    private final int[] shifts;
+    private final int[] masks;
+    private final Timer<T>[][] slots;
+    /** 맨 위 레벨이 덮는 tick 수 */
+    private final long span;
+
+    private final AtomicReference<Timer<T>> scheduled = new AtomicReference<>();
+    private final AtomicReference<Timer<T>> cancelled = new AtomicReference<>();
+
+    // 휠 스레드만 쓰는 값
+    /** 다음에 처리할 tick 번호 */
+    private long currentTick;
+    private int linked;
+    private volatile int size;
+
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        this(tickMillis, startMillis, LEVEL_BITS);
+    }
+
+    /**
+     * 레벨 구성을 직접 정합니다. 맨 위 레벨을 넘는 항목을 짧은 시간 안에 확인하려는 테스트용입니다.
+     *
+     * @param levelBits 0레벨부터 레벨별 슬롯 수의 비트 수
+     */
+    @SuppressWarnings("unchecked")
+    HierarchicalTimingWheel(long tickMillis, long startMillis, int... levelBits) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis는 양수여야 합니다.");
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.shifts = new int[levelBits.length];
+        this.masks = new int[levelBits.length];
+        this.slots = (Timer<T>[][]) new Timer<?>[levelBits.length][];
+        int shift = 0;
+        for (int level = 0; level < levelBits.length; level++) {
+            shifts[level] = shift;
+            masks[level] = (1 << levelBits[level]) - 1;
+            slots[level] = (Timer<T>[]) new Timer<?>[1 << levelBits[level]];
+            shift += levelBits[level];
+        }
+        this.span = 1L << shift;
+    }
+
+    /**
+     * deadlineMillis 이후 첫 tick에 만료되도록 등록합니다. 이미 지난 시각이면 다음 tick에 만료됩니다.
+     */
+    public Timer<T> schedule(T item, long deadlineMillis) {
+        Timer<T> timer = new Timer<>(item, ceilDiv(deadlineMillis - startMillis, tickMillis));
+        Timer<T> head;
+        do {
+            head = scheduled.get();
+            timer.nextScheduled = head;
+        } while (!scheduled.compareAndSet(head, timer));
+        return timer;
+    }
+
+    /**
+     * 아직 만료되지 않은 항목을 취소합니다.
+     *
+     * @return 이번 호출로 취소되었으면 true (이미 만료/취소된 항목이면 false)
+     */
+    @SuppressWarnings("unchecked")
+    public boolean cancel(Timer<T> timer) {
+        if (!STATE.compareAndSet(timer, PENDING, CANCELLED)) {
+            return false;
+        }
+        // 휠에서 떼어 내는 것은 휠 스레드가 다음 advance 때 합니다.
+        Timer<T> head;
+        do {
+            head = cancelled.get();
+            timer.nextCancelled = head;
+        } while (!cancelled.compareAndSet(head, timer));
+        return true;
+    }
+
+    /**
+     * 쌓인 등록/취소를 반영하고 nowMillis까지 지난 tick을 처리해, 만료된 항목마다 expired를 부릅니다.
+     * 한 스레드에서만 호출해야 합니다.
+     *
+     * @return 만료된 항목 수
+     */
+    @SuppressWarnings("unchecked")
+    public int advance(long nowMillis, Consumer<T> expired) {
+        drainCancelled();
+        drainScheduled();
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        int fired = 0;
+        while (currentTick <= targetTick) {
+            long tick = currentTick;
+            cascade(tick);
+            int index = (int) (tick & masks[0]);
+            Timer<T> timer = slots[0][index];
+            slots[0][index] = null;
+            currentTick = tick + 1;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                timer.level = -1;
+                linked--;
+                if (timer.deadlineTick > tick) {
+                    // 맨 위 레벨보다 멀어서 잘라 걸었던 항목입니다.
+                    insert(timer);
+                } else if (STATE.compareAndSet(timer, PENDING, EXPIRED)) {
+                    fired++;
+                    expired.accept(timer.item);
+                }
+                timer = next;
+            }
+        }
+        size = linked;
+        return fired;
+    }
+
+    /**
+     * 휠에 걸려 있는 항목 수 (마지막 advance 기준이며, 그 뒤의 등록/취소는 반영되지 않음)
+     */
+    public int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * 다음 tick이 시작되는 시각
+     */
+    public long nextTickMillis() {
+        return startMillis + currentTick * tickMillis;
+    }
+
+    private void drainScheduled() {
+        Timer<T> timer = scheduled.getAndSet(null);
+        while (timer != null) {
+            Timer<T> next = timer.nextScheduled;
+            timer.nextScheduled = null;
+            // 휠에 걸리기 전에 취소된 항목은 걸지 않습니다.
+            if (timer.state == PENDING) {
+                insert(timer);
+            }
+            timer = next;
+        }
+    }
+
+    private void drainCancelled() {
+        Timer<T> timer = cancelled.getAndSet(null);
+        while (timer != null) {
+            Timer<T> next = timer.nextCancelled;
+            timer.nextCancelled = null;
+            if (timer.level >= 0) {
+                unlink(timer);
+            }
+            timer = next;
+        }
+    }
+
+    /**
+     * tick이 위 레벨 슬롯의 경계이면 그 슬롯의 항목을 아래 레벨로 다시 겁니다.
+     * 아래 레벨이 한 바퀴를 다 돌았을 때만 그 위 레벨을 봅니다.
+     */
+    private void cascade(long tick) {
+        for (int level = 1; level < slots.length; level++) {
+            if ((tick & ((1L << shifts[level]) - 1)) != 0) {
+                return;
+            }
+            int index = (int) ((tick >>> shifts[level]) & masks[level]);
+            Timer<T> timer = slots[level][index];
+            slots[level][index] = null;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                linked--;
+                insert(timer);
+                timer = next;
+            }
+        }
+    }
+
+    private void insert(Timer<T> timer) {
+        // 이미 지난 항목은 다음에 처리할 tick에 겁니다.
+        long placement = Math.max(timer.deadlineTick, currentTick);
+        long remaining = placement - currentTick;
+        if (remaining >= span) {
+            placement = currentTick + span - 1;
+            remaining = span - 1;
+        }
+        int level = 0;
+        while (level < slots.length - 1 && remaining >= 1L << shifts[level + 1]) {
+            level++;
+        }
+        int index = (int) ((placement >>> shifts[level]) & masks[level]);
+        Timer<T>[] wheel = slots[level];
+        timer.level = level;
+        timer.slot = index;
+        timer.prev = null;
+        timer.next = wheel[index];
+        if (timer.next != null) {
+            timer.next.prev = timer;
+        }
+        wheel[index] = timer;
+        linked++;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.level = -1;
+        linked--;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    /**
+     * 휠에 걸린 항목. 슬롯 안에서 이중 연결 리스트로 이어지고, 휠 스레드에 넘어가기 전에는 등록/취소 스택으로 이어집니다.
+     */
+    public static final class Timer<T> {
+        private final T item;
+        private final long deadlineTick;
+        private volatile int state = PENDING;
+        private Timer<T> nextScheduled;
+        private Timer<T> nextCancelled;
+        // 휠 스레드만 쓰는 값
+        private int level = -1;
+        private int slot;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+    }
+}
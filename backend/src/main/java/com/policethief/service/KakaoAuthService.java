@@ -3,165 +3,222 @@ package com.policethief.service;
 import com.policethief.dto.KakaoLoginResponse;
 import com.policethief.dto.KakaoTokenResponse;
 import com.policethief.dto.KakaoUserInfo;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 카카오 인증 서비스
  * 카카오 API를 호출하여 사용자 정보를 조회합니다.
+ * 모든 호출은 논블로킹이며 두 WebClient가 타임아웃이 걸린 커넥션 풀 하나를 함께 씁니다.
+ * 같은 토큰의 사용자 정보는 일정 시간 캐시하고, 동시에 들어온 같은 토큰 조회는 카카오 호출 한 번으로 합칩니다.
+ * (와이파이가 끊겼다 붙으면서 재접속이 한꺼번에 몰려도 카카오로 가는 요청이 늘지 않도록 합니다.)
  */
 @Slf4j
 @Service
 public class KakaoAuthService {
     
-    private static final String KAKAO_API_BASE_URL = "https://kapi.kakao.com";
-    private static final String KAKAO_AUTH_BASE_URL = "https://kauth.kakao.com";
     private static final String KAKAO_USER_INFO_PATH = "/v2/user/me";
     private static final String KAKAO_TOKEN_PATH = "/oauth/token";
     
+    private final ConnectionProvider connectionProvider;
     private final WebClient webClient;
     private final WebClient authClient;
     private final String kakaoRestApiKey;
+    private final KakaoProfileCache profileCache;
+    private final ConcurrentHashMap<String, Mono<KakaoLoginResponse>> inFlight = new ConcurrentHashMap<>();
     
     public KakaoAuthService(
             @Value("${kakao.api.timeout:5000}") int timeout,
-            @Value("${kakao.api.rest-key:}") String kakaoRestApiKey) {
+            @Value("${kakao.api.rest-key:}") String kakaoRestApiKey,
+            @Value("${kakao.api.base-url:https://kapi.kakao.com}") String apiBaseUrl,
+            @Value("${kakao.api.auth-base-url:https://kauth.kakao.com}") String authBaseUrl,
+            @Value("${kakao.api.max-connections:200}") int maxConnections,
+            @Value("${kakao.api.cache-ttl-seconds:300}") long cacheTtlSeconds,
+            @Value("${kakao.api.cache-max-size:10000}") int cacheMaxSize) {
+        this.connectionProvider = ConnectionProvider.builder("kakao")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(timeout))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeout)
+                .responseTimeout(Duration.ofMillis(timeout))
+                .doOnConnected(connection -> connection
+                        .addHandlerLast(new ReadTimeoutHandler(timeout, TimeUnit.MILLISECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(timeout, TimeUnit.MILLISECONDS)));
+        ReactorClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
+
         this.webClient = WebClient.builder()
-                .baseUrl(KAKAO_API_BASE_URL)
+                .clientConnector(connector)
+                .baseUrl(apiBaseUrl)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .build();
         this.authClient = WebClient.builder()
-                .baseUrl(KAKAO_AUTH_BASE_URL)
+                .clientConnector(connector)
+                .baseUrl(authBaseUrl)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED_VALUE)
                 .build();
         this.kakaoRestApiKey = kakaoRestApiKey;
+        this.profileCache = new KakaoProfileCache(TimeUnit.SECONDS.toMillis(cacheTtlSeconds), cacheMaxSize);
+    }
+
+    @PreDestroy
+    void disposeConnections() {
+        connectionProvider.dispose();
     }
 
     /**
      * 인가 코드로 로그인 처리 (토큰 교환 + 사용자 정보 조회)
      */
-    public KakaoLoginResponse loginWithAuthorizationCode(String code, String redirectUri) {
-        String accessToken = getAccessToken(code, redirectUri);
-        return getUserInfo(accessToken);
+    public Mono<KakaoLoginResponse> loginWithAuthorizationCode(String code, String redirectUri) {
+        return getAccessToken(code, redirectUri).flatMap(this::getUserInfo);
     }
     
     /**
      * 카카오 액세스 토큰으로 사용자 정보를 조회합니다.
+     * 캐시에 있으면 바로 반환하고, 같은 토큰으로 진행 중인 조회가 있으면 그 결과를 함께 기다립니다.
      * 
      * @param accessToken 카카오 액세스 토큰
-     * @return 카카오 사용자 정보
-     * @throws ResponseStatusException 카카오 API 호출 실패 시
+     * @return 카카오 사용자 정보 (실패 시 ResponseStatusException)
      */
-    public KakaoLoginResponse getUserInfo(String accessToken) {
+    public Mono<KakaoLoginResponse> getUserInfo(String accessToken) {
         if (accessToken == null || accessToken.trim().isEmpty()) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST, "카카오 액세스 토큰이 필요합니다.");
+            return Mono.error(new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "카카오 액세스 토큰이 필요합니다."));
         }
-        
-        try {
-            log.debug("카카오 사용자 정보 조회 시작 - 토큰: {}", accessToken.substring(0, Math.min(10, accessToken.length())) + "...");
-            
-            KakaoUserInfo kakaoUserInfo = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path(KAKAO_USER_INFO_PATH)
-                            .queryParam("property_keys", "[\"kakao_account.profile\", \"kakao_account.email\"]")
-                            .build())
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
-                    .retrieve()
-                    .onStatus(status -> status.is4xxClientError(), response -> {
-                        log.error("카카오 API 4xx 에러: {}", response.statusCode());
-                        return Mono.error(new ResponseStatusException(
-                                HttpStatus.UNAUTHORIZED, "유효하지 않은 카카오 액세스 토큰입니다."));
-                    })
-                    .onStatus(status -> status.is5xxServerError(), response -> {
-                        log.error("카카오 API 5xx 에러: {}", response.statusCode());
-                        return Mono.error(new ResponseStatusException(
-                                HttpStatus.SERVICE_UNAVAILABLE, "카카오 서버 오류가 발생했습니다."));
-                    })
-                    .bodyToMono(KakaoUserInfo.class)
-                    .block();
-            
-            if (kakaoUserInfo == null) {
-                throw new ResponseStatusException(
-                        HttpStatus.INTERNAL_SERVER_ERROR, "카카오 사용자 정보를 가져올 수 없습니다.");
-            }
-            
-            log.debug("카카오 사용자 정보 조회 성공 - ID: {}", kakaoUserInfo.getId());
-            
-            return convertToLoginResponse(kakaoUserInfo);
-            
-        } catch (ResponseStatusException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("카카오 사용자 정보 조회 중 오류 발생", e);
-            throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR, "카카오 로그인 처리 중 오류가 발생했습니다.", e);
+
+        KakaoLoginResponse cached = profileCache.get(accessToken);
+        if (cached != null) {
+            return Mono.just(cached);
         }
+        return inFlight.computeIfAbsent(accessToken, this::fetchUserInfoOnce);
+    }
+
+    /**
+     * 한 번만 구독되어 결과를 공유하는 조회. 끝나면(성공/실패 모두) 결과를 알리기 전에 진행 중 목록에서 빠지므로,
+     * 실패를 받은 호출자가 곧바로 다시 부르면 새로 조회합니다. (실패는 캐시하지 않습니다)
+     * 목록에서는 자기 자신일 때만 빼므로, 그사이 같은 토큰으로 새로 시작된 조회를 지우지 않습니다.
+     */
+    private Mono<KakaoLoginResponse> fetchUserInfoOnce(String accessToken) {
+        AtomicReference<Mono<KakaoLoginResponse>> self = new AtomicReference<>();
+        Mono<KakaoLoginResponse> shared = fetchUserInfo(accessToken)
+                .doOnNext(response -> profileCache.put(accessToken, response))
+                .doOnTerminate(() -> inFlight.remove(accessToken, self.get()))
+                .cache();
+        self.set(shared);
+        return shared;
+    }
+
+    private Mono<KakaoLoginResponse> fetchUserInfo(String accessToken) {
+        log.debug("카카오 사용자 정보 조회 시작 - 토큰: {}", accessToken.substring(0, Math.min(10, accessToken.length())) + "...");
+
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(KAKAO_USER_INFO_PATH)
+                        .queryParam("property_keys", "[\"kakao_account.profile\", \"kakao_account.email\"]")
+                        .build())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .retrieve()
+                .onStatus(status -> status.is4xxClientError(), response -> {
+                    log.error("카카오 API 4xx 에러: {}", response.statusCode());
+                    return Mono.error(new ResponseStatusException(
+                            HttpStatus.UNAUTHORIZED, "유효하지 않은 카카오 액세스 토큰입니다."));
+                })
+                .onStatus(status -> status.is5xxServerError(), response -> {
+                    log.error("카카오 API 5xx 에러: {}", response.statusCode());
+                    return Mono.error(new ResponseStatusException(
+                            HttpStatus.SERVICE_UNAVAILABLE, "카카오 서버 오류가 발생했습니다."));
+                })
+                .bodyToMono(KakaoUserInfo.class)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(
+                        HttpStatus.INTERNAL_SERVER_ERROR, "카카오 사용자 정보를 가져올 수 없습니다.")))
+                .doOnNext(kakaoUserInfo -> log.debug("카카오 사용자 정보 조회 성공 - ID: {}", kakaoUserInfo.getId()))
+                .map(this::convertToLoginResponse)
+                .onErrorMap(e -> !(e instanceof ResponseStatusException),
+                        e -> toResponseStatus(e, "카카오 로그인 처리 중 오류가 발생했습니다."));
     }
 
     /**
      * 인가 코드로 카카오 액세스 토큰을 발급받습니다.
      */
-    private String getAccessToken(String code, String redirectUri) {
+    private Mono<String> getAccessToken(String code, String redirectUri) {
         if (code == null || code.trim().isEmpty()) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST, "카카오 인가 코드가 필요합니다.");
+            return Mono.error(new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "카카오 인가 코드가 필요합니다."));
         }
         if (redirectUri == null || redirectUri.trim().isEmpty()) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST, "redirectUri가 필요합니다.");
+            return Mono.error(new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "redirectUri가 필요합니다."));
         }
         if (kakaoRestApiKey == null || kakaoRestApiKey.trim().isEmpty()) {
-            throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR, "카카오 REST API 키가 설정되지 않았습니다.");
+            return Mono.error(new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR, "카카오 REST API 키가 설정되지 않았습니다."));
         }
 
-        try {
-            MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
-            formData.add("grant_type", "authorization_code");
-            formData.add("client_id", kakaoRestApiKey);
-            formData.add("redirect_uri", redirectUri);
-            formData.add("code", code);
-
-            KakaoTokenResponse tokenResponse = authClient.post()
-                    .uri(KAKAO_TOKEN_PATH)
-                    .bodyValue(formData)
-                    .retrieve()
-                    .onStatus(status -> status.is4xxClientError(), response -> {
-                        log.error("카카오 토큰 4xx 에러: {}", response.statusCode());
-                        return Mono.error(new ResponseStatusException(
-                                HttpStatus.UNAUTHORIZED, "유효하지 않은 인가 코드입니다."));
-                    })
-                    .onStatus(status -> status.is5xxServerError(), response -> {
-                        log.error("카카오 토큰 5xx 에러: {}", response.statusCode());
-                        return Mono.error(new ResponseStatusException(
-                                HttpStatus.SERVICE_UNAVAILABLE, "카카오 서버 오류가 발생했습니다."));
-                    })
-                    .bodyToMono(KakaoTokenResponse.class)
-                    .block();
+        MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
+        formData.add("grant_type", "authorization_code");
+        formData.add("client_id", kakaoRestApiKey);
+        formData.add("redirect_uri", redirectUri);
+        formData.add("code", code);
 
-            if (tokenResponse == null || tokenResponse.getAccessToken() == null) {
-                throw new ResponseStatusException(
-                        HttpStatus.INTERNAL_SERVER_ERROR, "카카오 액세스 토큰을 가져올 수 없습니다.");
-            }
+        return authClient.post()
+                .uri(KAKAO_TOKEN_PATH)
+                .bodyValue(formData)
+                .retrieve()
+                .onStatus(status -> status.is4xxClientError(), response -> {
+                    log.error("카카오 토큰 4xx 에러: {}", response.statusCode());
+                    return Mono.error(new ResponseStatusException(
+                            HttpStatus.UNAUTHORIZED, "유효하지 않은 인가 코드입니다."));
+                })
+                .onStatus(status -> status.is5xxServerError(), response -> {
+                    log.error("카카오 토큰 5xx 에러: {}", response.statusCode());
+                    return Mono.error(new ResponseStatusException(
+                            HttpStatus.SERVICE_UNAVAILABLE, "카카오 서버 오류가 발생했습니다."));
+                })
+                .bodyToMono(KakaoTokenResponse.class)
+                .filter(tokenResponse -> tokenResponse.getAccessToken() != null)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(
+                        HttpStatus.INTERNAL_SERVER_ERROR, "카카오 액세스 토큰을 가져올 수 없습니다.")))
+                .map(KakaoTokenResponse::getAccessToken)
+                .onErrorMap(e -> !(e instanceof ResponseStatusException),
+                        e -> toResponseStatus(e, "카카오 토큰 발급 중 오류가 발생했습니다."));
+    }
 
-            return tokenResponse.getAccessToken();
-        } catch (ResponseStatusException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("카카오 토큰 발급 중 오류 발생", e);
-            throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR, "카카오 토큰 발급 중 오류가 발생했습니다.", e);
+    /**
+     * 연결 실패/타임아웃은 503, 그 밖의 오류는 500으로 변환합니다.
+     */
+    private ResponseStatusException toResponseStatus(Throwable e, String message) {
+        if (e instanceof WebClientRequestException || e instanceof TimeoutException
+                || e.getCause() instanceof TimeoutException) {
+            log.warn("카카오 API 연결 실패 - {}", e.getMessage());
+            return new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE, "카카오 서버에 연결할 수 없습니다.", e);
         }
+        log.error(message, e);
+        return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, e);
     }
     
     /**
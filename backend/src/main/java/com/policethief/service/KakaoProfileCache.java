@@ -0,0 +1,62 @@
+package com.policethief.service;
+
+import com.policethief.dto.KakaoLoginResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 카카오 액세스 토큰 → 사용자 정보 캐시
+ * 만료 시간(TTL)과 최대 개수가 정해져 있으며, 가득 차면 가장 오래 사용하지 않은 항목부터 버립니다.
+ */
+public class KakaoProfileCache {
+
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries;
+
+    public KakaoProfileCache(long ttlMillis, int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * 만료되지 않은 캐시 값 (없으면 null)
+     */
+    public synchronized KakaoLoginResponse get(String accessToken) {
+        Entry entry = entries.get(accessToken);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(accessToken);
+            return null;
+        }
+        return entry.response;
+    }
+
+    public synchronized void put(String accessToken, KakaoLoginResponse response) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        entries.put(accessToken, new Entry(response, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final KakaoLoginResponse response;
+        private final long expiresAt;
+
+        private Entry(KakaoLoginResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.policethief.service;
+
+import com.policethief.cluster.RoomEventBus;
+import com.policethief.cluster.RoomFrame;
+import com.policethief.cluster.SessionRef;
+import com.policethief.dto.GameEventMessage;
+import com.policethief.dto.GameEventType;
+import com.policethief.dto.PlayerPosition;
+import com.policethief.dto.PlayerRole;
+import com.policethief.dto.PositionsPayload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 위치 브로드캐스트 서비스
+ * 플레이어별 최신 위치만 보관하다가 틱마다 방 단위로 한 번에 묶어서 전송합니다.
+ * 플레이어마다 추측 항법 모델({@link DeadReckoning})을 두어, 마지막으로 보낸 위치/속도/방향으로 예측한 위치에서
+ * 실제 위치가 허용 오차 이상 벗어났거나 heartbeat 간격이 지난 플레이어만 프레임에 담습니다.
+ * 클라이언트는 그 사이 위치를 속도/방향으로 밀어 그립니다.
+ * 같은 팀 위치는 항상, 상대 팀 위치는 근접 반경 안에 들어와 드러난 경우에만 보이도록
+ * 역할별 프레임을 한 번씩 만들고 해당 역할의 세션에 사용자 목적지로 전달합니다.
+ * 방 소유 노드에서만 동작하며, 실제 전송은 이벤트 버스가 세션이 붙은 노드로 넘깁니다.
+ */
+@Service
+public class LocationBroadcastService {
+
+    private final RoomEventBus eventBus;
+    private final GameRoomSessionService roomSessionService;
+    private final ProximityEngine proximityEngine;
+    private final PlayerSessionRegistry sessionRegistry;
+    private final DeadReckoning deadReckoning;
+    private final ConcurrentHashMap<Long, RoomPositions> rooms = new ConcurrentHashMap<>();
+
+    public LocationBroadcastService(RoomEventBus eventBus,
+                                    GameRoomSessionService roomSessionService,
+                                    ProximityEngine proximityEngine,
+                                    PlayerSessionRegistry sessionRegistry,
+                                    @Value("${game.location.dead-reckoning.enabled:true}") boolean deadReckoningEnabled,
+                                    @Value("${game.location.dead-reckoning.deviation-meters:5}") double deviationMeters,
+                                    @Value("${game.location.dead-reckoning.heartbeat-millis:5000}") long heartbeatMillis,
+                                    @Value("${game.location.dead-reckoning.gain:0.5}") double gain) {
+        this.eventBus = eventBus;
+        this.roomSessionService = roomSessionService;
+        this.proximityEngine = proximityEngine;
+        this.sessionRegistry = sessionRegistry;
+        // 끄면 허용 오차/heartbeat 가 0이고 GPS 위치를 그대로 쓰는 모델과 같아져, 새 위치가 들어온 플레이어는 모두 보냅니다.
+        this.deadReckoning = deadReckoningEnabled
+                ? new DeadReckoning(deviationMeters, heartbeatMillis, gain)
+                : new DeadReckoning(0, 0, 1.0);
+    }
+
+    /**
+     * 플레이어의 최신 위치를 기록합니다. 실제 전송은 다음 틱에 이루어집니다.
+     */
+    public void updateLocation(Long roomId, Long playerId, double latitude, double longitude, Double accuracy) {
+        RoomPositions room = rooms.computeIfAbsent(roomId, id -> new RoomPositions());
+        room.pending.put(playerId, new Fix(latitude, longitude, accuracy, System.currentTimeMillis()));
+    }
+
+    public void removePlayer(Long roomId, Long playerId) {
+        RoomPositions room = rooms.get(roomId);
+        if (room != null) {
+            room.pending.remove(playerId);
+            room.removed.add(playerId);
+        }
+    }
+
+    public void removeRoom(Long roomId) {
+        rooms.remove(roomId);
+    }
+
+    /**
+     * 방마다 예측에서 벗어난 플레이어의 위치만 모아 역할별 POSITIONS 프레임으로 전송합니다.
+     */
+    @Scheduled(fixedRateString = "${game.location.tick-interval:200}")
+    public void broadcastTick() {
+        rooms.forEach(this::broadcastRoom);
+    }
+
+    private void broadcastRoom(Long roomId, RoomPositions room) {
+        long now = System.currentTimeMillis();
+        List<PlayerPosition> moved = room.drainMoved(now);
+        Set<Long> revealed = proximityEngine.getRevealedPlayers(roomId);
+        if (moved.isEmpty() && revealed.equals(room.revealed)) {
+            return;
+        }
+
+        Map<Long, SessionRef> sessions = sessionRegistry.getSessions(roomId);
+        Function<Long, PlayerRole> roleOf = playerId -> roomSessionService.getRole(roomId, playerId);
+        for (PlayerRole viewer : PlayerRole.values()) {
+            List<SessionRef> targets = new ArrayList<>();
+            sessions.forEach((playerId, session) -> {
+                if (roleOf.apply(playerId) == viewer) {
+                    targets.add(session);
+                }
+            });
+            if (targets.isEmpty()) {
+                continue;
+            }
+            PositionsPayload frame = room.buildFrame(viewer, moved, revealed, roleOf, now);
+            if (frame == null) {
+                continue;
+            }
+            // 같은 역할의 세션은 모두 같은 프레임을 받으므로 인코딩별로 직렬화는 한 번만 합니다.
+            GameEventMessage message = GameEventMessage.of(GameEventType.POSITIONS, roomId, null, frame);
+            eventBus.deliver(roomId, targets, RoomFrame.positions(message,
+                    playerId -> roomSessionService.getPlayerIndex(roomId, playerId)));
+        }
+        room.revealed = revealed;
+    }
+
+    /**
+     * 방 하나의 위치 버퍼
+     * pending은 인바운드 스레드가 쓰고, 나머지는 틱 스레드만 접근합니다.
+     */
+    private class RoomPositions {
+        private final ConcurrentHashMap<Long, Fix> pending = new ConcurrentHashMap<>();
+        private final Map<Long, DeadReckoning.Track> tracks = new HashMap<>();
+        private final Set<Long> removed = ConcurrentHashMap.newKeySet();
+        private Set<Long> revealed = Set.of();
+
+        /**
+         * 새 위치를 모델에 반영하고, 이번 틱에 보내야 하는 플레이어의 위치를 돌려줍니다.
+         */
+        private List<PlayerPosition> drainMoved(long now) {
+            if (!removed.isEmpty()) {
+                for (Long playerId : removed) {
+                    removed.remove(playerId);
+                    tracks.remove(playerId);
+                }
+            }
+            if (!pending.isEmpty()) {
+                for (Map.Entry<Long, Fix> entry : pending.entrySet()) {
+                    Fix fix = entry.getValue();
+                    // 그 사이 더 새로운 위치가 들어왔다면 다음 틱에서 처리합니다.
+                    if (!pending.remove(entry.getKey(), fix)) {
+                        continue;
+                    }
+                    tracks.computeIfAbsent(entry.getKey(), deadReckoning::newTrack)
+                            .observe(fix.latitude(), fix.longitude(), fix.accuracy(), fix.receivedAt());
+                }
+            }
+            // 새 위치가 없어도 멈춘 플레이어를 알려야 할 수 있으므로 모든 트랙을 확인합니다.
+            List<PlayerPosition> moved = List.of();
+            for (DeadReckoning.Track track : tracks.values()) {
+                PlayerPosition position = track.poll(now);
+                if (position != null) {
+                    if (moved.isEmpty()) {
+                        moved = new ArrayList<>();
+                    }
+                    moved.add(position);
+                }
+            }
+            return moved;
+        }
+
+        /**
+         * viewer 역할에게 보낼 프레임을 만듭니다. 보낼 내용이 없으면 null을 반환합니다.
+         * 같은 역할과 드러난 상대만 담으며, 이번 틱에 새로 드러난 상대는 움직이지 않았어도 마지막 위치를 포함하고,
+         * 다시 숨겨진 상대는 hidden 목록으로 알려 줍니다.
+         */
+        private PositionsPayload buildFrame(PlayerRole viewer, List<PlayerPosition> moved,
+                                          Set<Long> revealedNow, Function<Long, PlayerRole> roleOf, long now) {
+            PlayerRole opponent = viewer.opponent();
+            List<PlayerPosition> positions = new ArrayList<>();
+            Set<Long> included = new HashSet<>();
+            for (PlayerPosition position : moved) {
+                PlayerRole role = roleOf.apply(position.getPlayerId());
+                // 역할을 모르는 플레이어(이미 나간 멤버 등)는 어느 쪽에도 보이지 않습니다.
+                if (role == viewer || (role == opponent && revealedNow.contains(position.getPlayerId()))) {
+                    positions.add(position);
+                    included.add(position.getPlayerId());
+                }
+            }
+            for (Long playerId : revealedNow) {
+                DeadReckoning.Track track = tracks.get(playerId);
+                if (!revealed.contains(playerId) && !included.contains(playerId)
+                        && roleOf.apply(playerId) == opponent && track != null && track.hasFix()) {
+                    positions.add(track.peek(now));
+                }
+            }
+            List<Long> hidden = new ArrayList<>();
+            for (Long playerId : revealed) {
+                if (!revealedNow.contains(playerId) && roleOf.apply(playerId) == opponent) {
+                    hidden.add(playerId);
+                }
+            }
+            if (positions.isEmpty() && hidden.isEmpty()) {
+                return null;
+            }
+            return new PositionsPayload(positions, hidden);
+        }
+    }
+
+    /**
+     * 인바운드 스레드가 받은 GPS 위치 (틱에서 모델에 반영)
+     */
+    private record Fix(double latitude, double longitude, Double accuracy, long receivedAt) {
+    }
+}
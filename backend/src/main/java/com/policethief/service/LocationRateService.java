@@ -0,0 +1,234 @@
+package com.policethief.service;
+
+import com.policethief.dto.LocationIntervalPayload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 플레이어별 위치 갱신 속도 조절
+ *
+ * <p>방 소유 노드: 위치 갱신마다 플레이어의 이동 속도와 가장 가까운 상대까지 거리로 권장 갱신 주기를 구합니다.
+ * 상대가 근접 반경 안이면 가장 짧게, 멈춰 있으면 가장 길게 잡고, 그 사이는 상대가 다가올 수 있는 시간과
+ * 갱신 한 번에 움직이는 거리로 정합니다. 주기를 줄일 때는 바로, 늘릴 때는 더 긴 주기가 relax-delay 동안
+ * 계속 나왔을 때만 LOCATION_INTERVAL 이벤트로 플레이어에게 알립니다.
+ *
+ * <p>세션이 붙어 있는 노드: 세션마다 토큰 버킷을 두고 위치 메시지를 명령으로 바꾸기 전에 확인합니다.
+ * 버킷은 GCRA(다음 토큰이 생기는 이론적 시각 하나를 CAS로 밀어 가는 방식)로 구현해 잠금 없이 동작하며,
+ * 세션에 알린 권장 주기보다 headroom 배 빠른 속도와 burst 건까지 허용하고 나머지는 버립니다.
+ * 권장 주기를 받기 전에는 min-interval 로 제한합니다.
+ */
+@Service
+public class LocationRateService {
+
+    private final boolean enabled;
+    private final long minIntervalNanos;
+    private final int burst;
+    private final double headroom;
+    private final double alertRadiusMeters;
+    private final long nearIntervalMillis;
+    private final long idleIntervalMillis;
+    private final double idleSpeedMps;
+    private final double metersPerUpdate;
+    private final double closingSpeedMps;
+    private final long relaxDelayMillis;
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<Long, Advice>> rooms = new ConcurrentHashMap<>();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder advised = new LongAdder();
+
+    public LocationRateService(@Value("${game.location-rate.enabled:true}") boolean enabled,
+                               @Value("${game.location-rate.min-interval-millis:100}") long minIntervalMillis,
+                               @Value("${game.location-rate.burst:5}") int burst,
+                               @Value("${game.location-rate.headroom:2.0}") double headroom,
+                               @Value("${game.proximity.alert-radius-meters:50}") double alertRadiusMeters,
+                               @Value("${game.location-rate.near-interval-millis:200}") long nearIntervalMillis,
+                               @Value("${game.location-rate.idle-interval-millis:5000}") long idleIntervalMillis,
+                               @Value("${game.location-rate.idle-speed-mps:0.5}") double idleSpeedMps,
+                               @Value("${game.location-rate.meters-per-update:5}") double metersPerUpdate,
+                               @Value("${game.location-rate.closing-speed-mps:7}") double closingSpeedMps,
+                               @Value("${game.location-rate.relax-delay-millis:3000}") long relaxDelayMillis) {
+        this.enabled = enabled;
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minIntervalMillis);
+        this.burst = Math.max(1, burst);
+        this.headroom = Math.max(1.0, headroom);
+        this.alertRadiusMeters = alertRadiusMeters;
+        this.nearIntervalMillis = nearIntervalMillis;
+        this.idleIntervalMillis = idleIntervalMillis;
+        this.idleSpeedMps = idleSpeedMps;
+        this.metersPerUpdate = metersPerUpdate;
+        this.closingSpeedMps = closingSpeedMps;
+        this.relaxDelayMillis = relaxDelayMillis;
+    }
+
+    // ===== 세션이 붙어 있는 노드 =====
+
+    /**
+     * 세션의 위치 메시지를 받아도 되면 true, 너무 빨리 들어온 메시지면 false
+     */
+    public boolean tryAcquire(String sessionId) {
+        if (!enabled || sessionId == null) {
+            return true;
+        }
+        Bucket bucket = buckets.computeIfAbsent(sessionId, id -> new Bucket(minIntervalNanos));
+        if (bucket.tryAcquire(System.nanoTime(), burst)) {
+            accepted.increment();
+            return true;
+        }
+        throttled.increment();
+        return false;
+    }
+
+    /**
+     * 세션에 권장 주기를 알렸을 때 호출됩니다. 이후 그 세션의 버킷은 권장 주기 기준으로 채워집니다.
+     */
+    public void applyInterval(String sessionId, long intervalMillis) {
+        if (!enabled || sessionId == null) {
+            return;
+        }
+        long emission = Math.max(minIntervalNanos, (long) (TimeUnit.MILLISECONDS.toNanos(intervalMillis) / headroom));
+        buckets.computeIfAbsent(sessionId, id -> new Bucket(emission)).emissionNanos = emission;
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        buckets.remove(event.getSessionId());
+    }
+
+    // ===== 방 소유 노드 =====
+
+    /**
+     * 플레이어의 움직임으로 권장 주기를 구하고, 플레이어에게 새로 알려야 하면 그 내용을 돌려줍니다. (알릴 필요가 없으면 null)
+     */
+    public LocationIntervalPayload advise(Long roomId, Long playerId, ProximityEngine.Motion motion) {
+        if (!enabled || motion == null) {
+            return null;
+        }
+        LocationIntervalPayload recommended = recommend(motion);
+        long now = System.currentTimeMillis();
+        Advice advice = rooms.computeIfAbsent(roomId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(playerId, id -> new Advice());
+        if (advice.sentMillis > 0) {
+            long next = recommended.getIntervalMillis();
+            if (next * 4 > advice.sentMillis * 5) {
+                // 길어질 때는 잠깐 멈추거나 상대가 격자 밖으로 벗어나 보이는 정도로 주기가 오르내리지 않도록,
+                // 더 긴 주기가 relax-delay 동안 계속 나올 때만 알립니다.
+                if (advice.relaxSince == 0) {
+                    advice.relaxSince = now;
+                }
+                if (now - advice.relaxSince < relaxDelayMillis) {
+                    return null;
+                }
+            } else {
+                advice.relaxSince = 0;
+                // 짧아질 때는 바로 알립니다.
+                if (next * 5 >= advice.sentMillis * 4) {
+                    return null;
+                }
+            }
+        }
+        advice.sentMillis = recommended.getIntervalMillis();
+        advice.relaxSince = 0;
+        advised.increment();
+        return recommended;
+    }
+
+    public void removePlayer(Long roomId, Long playerId) {
+        rooms.computeIfPresent(roomId, (id, advices) -> {
+            advices.remove(playerId);
+            return advices.isEmpty() ? null : advices;
+        });
+    }
+
+    public void removeRoom(Long roomId) {
+        rooms.remove(roomId);
+    }
+
+    private LocationIntervalPayload recommend(ProximityEngine.Motion motion) {
+        double nearest = motion.getNearestOpponentMeters();
+        if (nearest <= alertRadiusMeters) {
+            return new LocationIntervalPayload(nearIntervalMillis, LocationIntervalPayload.REASON_NEAR_OPPONENT);
+        }
+        // 상대가 전력으로 다가와 근접 반경에 닿기까지 최소 두 번은 보내도록 합니다.
+        double approachMillis = (nearest - alertRadiusMeters) / closingSpeedMps * 1000 / 2;
+        double speed = motion.getSpeedMps();
+        double movingMillis = speed < idleSpeedMps ? idleIntervalMillis : metersPerUpdate / speed * 1000;
+        String reason;
+        double interval;
+        if (approachMillis < movingMillis) {
+            interval = approachMillis;
+            reason = LocationIntervalPayload.REASON_APPROACHING;
+        } else {
+            interval = movingMillis;
+            reason = speed < idleSpeedMps ? LocationIntervalPayload.REASON_IDLE : LocationIntervalPayload.REASON_MOVING;
+        }
+        // 100ms 단위로 맞춰 작은 변화마다 다시 알리지 않도록 합니다.
+        long rounded = Math.round(Math.min(idleIntervalMillis, Math.max(nearIntervalMillis, interval)) / 100.0) * 100;
+        return new LocationIntervalPayload(Math.max(nearIntervalMillis, rounded), reason);
+    }
+
+    /**
+     * 받아들인 위치 메시지 수
+     */
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    /**
+     * 너무 빨리 들어와 버린 위치 메시지 수
+     */
+    public long getThrottledCount() {
+        return throttled.sum();
+    }
+
+    /**
+     * 플레이어에게 보낸 권장 주기 알림 수
+     */
+    public long getAdvisedCount() {
+        return advised.sum();
+    }
+
+    /**
+     * 세션 하나의 버킷. tat 는 다음 요청이 버킷을 비우지 않고 들어올 수 있는 이론적 시각(나노초)입니다.
+     */
+    private static final class Bucket {
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        private volatile long emissionNanos;
+
+        private Bucket(long emissionNanos) {
+            this.emissionNanos = emissionNanos;
+        }
+
+        private boolean tryAcquire(long now, int burst) {
+            long emission = emissionNanos;
+            while (true) {
+                long current = tat.get();
+                long start = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+                long next = start + emission;
+                // 버킷에 남은 토큰이 없으면(= tat 가 burst 개 간격보다 앞서 있으면) 거절합니다.
+                if (next - now > emission * burst) {
+                    return false;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * 플레이어에게 마지막으로 알린 주기 (방의 레인에서만 바뀝니다)
+     */
+    private static final class Advice {
+        private long sentMillis;
+        private long relaxSince;
+    }
+}
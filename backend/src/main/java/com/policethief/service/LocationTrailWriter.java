@@ -0,0 +1,271 @@
+package com.policethief.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 위치 이력 지연 기록기 (write-behind)
+ * 위치 갱신은 제한된 크기의 큐에 넣기만 하고, 백그라운드 스레드 하나가 큐를 비우며
+ * JDBC 배치 INSERT로 한 트랜잭션에 묶어 기록합니다. 배치가 차거나 flush 주기가 지나면 기록합니다.
+ * 큐가 가득 차면 설정한 정책에 따라 잠시 기다리거나(BLOCK) 새 항목/오래된 항목을 버리고 개수를 셉니다.
+ * 종료 시에는 새 기록을 받지 않고 큐에 남은 항목을 모두 기록한 뒤 멈춥니다.
+ */
+@Slf4j
+@Service
+public class LocationTrailWriter implements SmartLifecycle {
+
+    private static final String INSERT_SQL = "INSERT INTO location_trail "
+            + "(room_id, player_id, latitude, longitude, accuracy, recorded_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    /**
+     * 큐가 가득 찼을 때의 처리
+     */
+    public enum OverflowPolicy {
+        /** offer-timeout 동안 기다려 보고(호출 스레드에 배압), 그래도 자리가 없으면 새 항목을 버림 */
+        BLOCK,
+        /** 새 항목을 바로 버림 */
+        DROP_NEWEST,
+        /** 가장 오래된 항목을 버리고 새 항목을 넣음 */
+        DROP_OLDEST
+    }
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final ArrayBlockingQueue<TrailPoint> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public LocationTrailWriter(DataSource dataSource,
+                               @Value("${game.trail.enabled:true}") boolean enabled,
+                               @Value("${game.trail.queue-capacity:65536}") int queueCapacity,
+                               @Value("${game.trail.batch-size:500}") int batchSize,
+                               @Value("${game.trail.flush-interval-millis:1000}") long flushIntervalMillis,
+                               @Value("${game.trail.overflow-policy:drop_oldest}") OverflowPolicy overflowPolicy,
+                               @Value("${game.trail.offer-timeout-millis:5}") long offerTimeoutMillis,
+                               @Value("${game.trail.shutdown-timeout-millis:10000}") long shutdownTimeoutMillis) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    /**
+     * 위치 한 건을 기록 대기열에 넣습니다. 큐가 가득 차면 정책에 따라 기다리거나 버립니다.
+     *
+     * @return 대기열에 들어갔으면 true
+     */
+    public boolean record(long roomId, long playerId, double latitude, double longitude, Double accuracy,
+                          long recordedAt) {
+        if (!running) {
+            return false;
+        }
+        TrailPoint point = new TrailPoint(roomId, playerId, latitude, longitude, accuracy, recordedAt);
+        if (queue.offer(point)) {
+            return true;
+        }
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    if (queue.offer(point, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            case DROP_OLDEST -> {
+                // 다른 스레드와 경쟁하므로 몇 번만 시도하고, 그래도 안 되면 새 항목을 버립니다.
+                for (int attempt = 0; attempt < 3; attempt++) {
+                    if (queue.poll() != null) {
+                        dropped.increment();
+                    }
+                    if (queue.offer(point)) {
+                        return true;
+                    }
+                }
+            }
+            case DROP_NEWEST -> {
+            }
+        }
+        dropped.increment();
+        return false;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "trail-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * 새 기록을 막고 큐에 남은 항목을 모두 기록할 때까지 기다립니다.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        // JDBC 호출 중에 인터럽트하지 않도록 플래그만 내리고, 기록 스레드는 다음 poll 제한 시간(flush 주기) 안에 빠져나옵니다.
+        running = false;
+        try {
+            writerThread.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("위치 이력 기록기가 제한 시간 안에 끝나지 않았습니다 - 남은 항목 {}건", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 웹 서버/STOMP 처리보다 늦게 멈춰서 마지막 위치까지 큐에 들어온 뒤 비우도록 합니다.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void runWriter() {
+        List<TrailPoint> batch = new ArrayList<>(batchSize);
+        long nextFlushAt = System.currentTimeMillis() + flushIntervalMillis;
+        while (running) {
+            try {
+                long waitMillis = nextFlushAt - System.currentTimeMillis();
+                TrailPoint first = waitMillis > 0 ? queue.poll(waitMillis, TimeUnit.MILLISECONDS) : null;
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (batch.size() >= batchSize || System.currentTimeMillis() >= nextFlushAt) {
+                flush(batch);
+                nextFlushAt = System.currentTimeMillis() + flushIntervalMillis;
+            }
+        }
+        // 종료: 큐에 남은 항목을 배치 단위로 모두 기록합니다.
+        do {
+            queue.drainTo(batch, batchSize - batch.size());
+            flush(batch);
+        } while (!queue.isEmpty());
+        log.info("위치 이력 기록기 종료 - 기록 {}건, 버림 {}건, 실패 {}건", written.sum(), dropped.sum(), failed.sum());
+    }
+
+    private void flush(List<TrailPoint> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                for (TrailPoint point : batch) {
+                    statement.setLong(1, point.roomId);
+                    statement.setLong(2, point.playerId);
+                    statement.setDouble(3, point.latitude);
+                    statement.setDouble(4, point.longitude);
+                    if (point.accuracy != null) {
+                        statement.setDouble(5, point.accuracy);
+                    } else {
+                        statement.setNull(5, Types.DOUBLE);
+                    }
+                    statement.setLong(6, point.recordedAt);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+                written.add(batch.size());
+                batches.increment();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            failed.add(batch.size());
+            log.error("위치 이력 기록 실패 - {}건 버림", batch.size(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private static final class TrailPoint {
+        private final long roomId;
+        private final long playerId;
+        private final double latitude;
+        private final double longitude;
+        private final Double accuracy;
+        private final long recordedAt;
+
+        private TrailPoint(long roomId, long playerId, double latitude, double longitude, Double accuracy,
+                           long recordedAt) {
+            this.roomId = roomId;
+            this.playerId = playerId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.accuracy = accuracy;
+            this.recordedAt = recordedAt;
+        }
+    }
+}
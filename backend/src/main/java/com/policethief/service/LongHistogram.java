@@ -0,0 +1,117 @@
+package com.policethief.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 여러 스레드가 함께 기록하는 0 이상 정수 값의 분포 (지연 마이크로초, 프레임 바이트 수 등)
+ * 256 미만은 1 단위로, 그 위는 2의 거듭제곱 구간마다 128칸으로 나눠 기록하므로 백분위 오차는 1% 안쪽이고,
+ * 기록은 잠금이나 할당 없이 배열 칸 하나를 올립니다. 칸 배열은 만들 때 한 번 잡습니다. (약 35KB)
+ * {@link #drain()} 으로 그동안의 기록을 꺼내고 비울 수 있어, 구간별 기록으로도 씁니다.
+ */
+public final class LongHistogram {
+
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    /** 2^40 (마이크로초로 약 12일)까지 */
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 3) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long value) {
+        value = Math.max(0, value);
+        counts.incrementAndGet(indexOf(value));
+        total.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public long sum() {
+        return sum.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * p 백분위 값 (0 < p <= 1, 기록이 없으면 0)
+     */
+    public long percentile(double p) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(count * p));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), max());
+            }
+        }
+        return max();
+    }
+
+    /**
+     * 지금까지의 기록을 돌려주고 비웁니다. 기록과 겹치면 한두 건이 이번과 다음 구간 사이에서 어긋날 수 있습니다.
+     */
+    public LongHistogram drain() {
+        LongHistogram copy = new LongHistogram();
+        for (int i = 0; i < BUCKETS; i++) {
+            long taken = counts.getAndSet(i, 0);
+            if (taken > 0) {
+                copy.counts.set(i, taken);
+                copy.total.add(taken);
+            }
+        }
+        copy.sum.add(sum.sumThenReset());
+        copy.max.accumulate(max.getThenReset());
+        total.add(-copy.total.sum());
+        return copy;
+    }
+
+    /**
+     * 기록을 모두 지웁니다. 다른 스레드가 기록하는 중이면 그 한두 건은 남을 수 있습니다.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        // shift 만큼 줄인 값은 항상 [128, 256) 이므로 구간마다 128칸씩 이어 붙습니다.
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF - 1;
+        long sub = index - (long) shift * HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+}
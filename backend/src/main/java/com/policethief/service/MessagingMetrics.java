@@ -0,0 +1,362 @@
+package com.policethief.service;
+
+import com.policethief.dto.GameEventType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageMappingInfo;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * STOMP 파이프라인 계측
+ * clientInboundChannel 인터셉터로 @MessageMapping 별 수신 수와 처리 시간을 재고,
+ * {@code LocalEventDelivery} 가 알려 주는 방송 한 번의 팬아웃 시간(직렬화 + 브로커 + 세션별 출력 큐에 넣기)과 프레임 크기를 이벤트 종류별로 기록합니다.
+ * 분포는 미리 만들어 둔 두 개를 번갈아 쓰므로 기록할 때 객체를 만들지 않고, 백분위와 처리율은 rate-window-millis 마다 닫히는 직전 구간 값입니다.
+ * 처리 시작 시각만 스레드별 배열에 두는데, 가상 스레드 모드에서는 메시지마다 스레드가 새로 생기므로 그 배열 하나가 더 생깁니다.
+ * 같은 값을 {@link MeterRegistry} 에도 함수형 미터로 등록합니다. 누적 건수/합계는 FunctionTimer/FunctionCounter,
+ * 직전 구간 백분위는 phi 태그를 단 게이지로, 레지스트리가 읽을 때만 계산하므로 기록 경로는 그대로입니다.
+ */
+@Component
+public class MessagingMetrics implements ExecutorChannelInterceptor {
+
+    private static final String OTHER_DESTINATION = "기타";
+    private static final GameEventType[] EVENT_TYPES = GameEventType.values();
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    private final boolean enabled;
+    private final MeterRegistry registry;
+    private final ThreadLocal<long[]> handleStartedAt = ThreadLocal.withInitial(() -> new long[1]);
+    private final Handler otherHandler = new Handler(OTHER_DESTINATION, null);
+    private final Broadcast[] broadcasts = new Broadcast[EVENT_TYPES.length];
+    private volatile Handler[] handlers;
+    private volatile long windowNanos = 1;
+    private long windowStartedAt = System.nanoTime();
+
+    public MessagingMetrics(@Value("${game.metrics.enabled:true}") boolean enabled, MeterRegistry registry) {
+        this.enabled = enabled;
+        this.registry = registry;
+        for (GameEventType type : EVENT_TYPES) {
+            broadcasts[type.ordinal()] = new Broadcast(type);
+        }
+        if (enabled) {
+            registerHandler(otherHandler);
+            for (Broadcast broadcast : broadcasts) {
+                registerBroadcast(broadcast);
+            }
+        }
+    }
+
+    @Override
+    public Message<?> beforeHandle(@NonNull Message<?> message, @NonNull MessageChannel channel,
+                                   @NonNull MessageHandler handler) {
+        if (enabled && handler instanceof SimpAnnotationMethodMessageHandler) {
+            handleStartedAt.get()[0] = System.nanoTime();
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(@NonNull Message<?> message, @NonNull MessageChannel channel,
+                                    @NonNull MessageHandler handler, Exception ex) {
+        if (!enabled || !(handler instanceof SimpAnnotationMethodMessageHandler annotationHandler)
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || !isApplicationDestination(annotationHandler, destination)) {
+            return;
+        }
+        Handler target = handlerFor(annotationHandler, destination);
+        target.latency.record((System.nanoTime() - handleStartedAt.get()[0]) / 1000);
+        if (ex != null) {
+            target.errors.increment();
+        }
+    }
+
+    /**
+     * 방송 한 번(방 토픽 발행 또는 세션 목록 전달)에 걸린 시간을 기록합니다.
+     *
+     * @param startedAt System.nanoTime() 으로 잰 시작 시각
+     */
+    public void recordFanout(GameEventType type, long startedAt) {
+        if (enabled) {
+            broadcasts[type.ordinal()].fanout.record((System.nanoTime() - startedAt) / 1000);
+        }
+    }
+
+    /**
+     * 직렬화한 프레임 하나의 크기를 기록합니다. 한 방송이 JSON/COMPACT 로 한 번씩 인코딩되면 두 번 기록됩니다.
+     */
+    public void recordFrame(GameEventType type, int bytes) {
+        if (enabled) {
+            broadcasts[type.ordinal()].frameBytes.record(bytes);
+        }
+    }
+
+    /**
+     * 구간을 닫고 새로 시작합니다.
+     */
+    @Scheduled(fixedRateString = "${game.metrics.rate-window-millis:10000}")
+    public void rollWindow() {
+        long now = System.nanoTime();
+        windowNanos = Math.max(1, now - windowStartedAt);
+        windowStartedAt = now;
+        Handler[] known = handlers;
+        if (known != null) {
+            for (Handler handler : known) {
+                handler.latency.roll();
+            }
+        }
+        otherHandler.latency.roll();
+        for (Broadcast broadcast : broadcasts) {
+            broadcast.fanout.roll();
+            broadcast.frameBytes.roll();
+        }
+    }
+
+    /**
+     * @MessageMapping 별 수신 통계 (한 번이라도 받은 것만)
+     */
+    public List<HandlerStats> getHandlerStats() {
+        List<HandlerStats> stats = new ArrayList<>();
+        Handler[] known = handlers;
+        if (known != null) {
+            for (Handler handler : known) {
+                if (handler.latency.total() > 0) {
+                    stats.add(handler.stats(windowNanos));
+                }
+            }
+        }
+        if (otherHandler.latency.total() > 0) {
+            stats.add(otherHandler.stats(windowNanos));
+        }
+        return stats;
+    }
+
+    /**
+     * 이벤트 종류별 방송 통계 (한 번이라도 보낸 것만)
+     */
+    public List<BroadcastStats> getBroadcastStats() {
+        List<BroadcastStats> stats = new ArrayList<>();
+        for (Broadcast broadcast : broadcasts) {
+            if (broadcast.fanout.total() > 0 || broadcast.frameBytes.total() > 0) {
+                stats.add(new BroadcastStats(broadcast.type, broadcast.fanout.stats(windowNanos),
+                        broadcast.frameBytes.stats(windowNanos)));
+            }
+        }
+        return stats;
+    }
+
+    private static boolean isApplicationDestination(SimpAnnotationMethodMessageHandler handler, String destination) {
+        for (String prefix : handler.getDestinationPrefixes()) {
+            if (destination.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 목적지의 마지막 경로 조각으로 @MessageMapping 을 찾습니다. (/game/{roomId}/join → join)
+     * 매핑 목록은 처음 받은 메시지에서 핸들러의 매핑 정보로 한 번 만듭니다.
+     */
+    private Handler handlerFor(SimpAnnotationMethodMessageHandler annotationHandler, String destination) {
+        Handler[] known = handlers;
+        if (known == null) {
+            known = initHandlers(annotationHandler);
+        }
+        int start = destination.lastIndexOf('/') + 1;
+        int length = destination.length() - start;
+        for (Handler handler : known) {
+            if (handler.lastSegment.length() == length
+                    && destination.regionMatches(start, handler.lastSegment, 0, length)) {
+                return handler;
+            }
+        }
+        return otherHandler;
+    }
+
+    private synchronized Handler[] initHandlers(SimpAnnotationMethodMessageHandler annotationHandler) {
+        if (handlers == null) {
+            TreeSet<String> patterns = new TreeSet<>();
+            for (SimpMessageMappingInfo info : annotationHandler.getHandlerMethods().keySet()) {
+                patterns.addAll(info.getDestinationConditions().getPatterns());
+            }
+            List<Handler> created = new ArrayList<>();
+            for (String pattern : patterns) {
+                String lastSegment = pattern.substring(pattern.lastIndexOf('/') + 1);
+                if (!lastSegment.contains("{") && !lastSegment.contains("*")) {
+                    created.add(new Handler(pattern, lastSegment));
+                }
+            }
+            handlers = created.toArray(new Handler[0]);
+            for (Handler handler : created) {
+                registerHandler(handler);
+            }
+        }
+        return handlers;
+    }
+
+    private void registerHandler(Handler handler) {
+        Tags tags = Tags.of("destination", handler.destination);
+        registerTimer("game.stomp.handler", handler.latency, tags);
+        FunctionCounter.builder("game.stomp.handler.errors", handler.errors, LongAdder::sum)
+                .tags(tags)
+                .register(registry);
+    }
+
+    private void registerBroadcast(Broadcast broadcast) {
+        Tags tags = Tags.of("type", broadcast.type.name());
+        registerTimer("game.broadcast.fanout", broadcast.fanout, tags);
+        Window frameBytes = broadcast.frameBytes;
+        FunctionCounter.builder("game.broadcast.frames", frameBytes, Window::total)
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("game.broadcast.frame.bytes", frameBytes, Window::amount)
+                .tags(tags)
+                .baseUnit("bytes")
+                .register(registry);
+        for (double phi : PERCENTILES) {
+            Gauge.builder("game.broadcast.frame.bytes.percentile", frameBytes, w -> w.percentile(phi))
+                    .tags(tags.and("phi", Double.toString(phi)))
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * 마이크로초로 기록하는 분포를 누적 FunctionTimer 와 직전 구간 백분위 게이지로 등록합니다.
+     */
+    private void registerTimer(String name, Window window, Tags tags) {
+        FunctionTimer.builder(name, window, Window::total, Window::amount, TimeUnit.MICROSECONDS)
+                .tags(tags)
+                .register(registry);
+        for (double phi : PERCENTILES) {
+            TimeGauge.builder(name + ".percentile", window, TimeUnit.MICROSECONDS, w -> w.percentile(phi))
+                    .tags(tags.and("phi", Double.toString(phi)))
+                    .register(registry);
+        }
+    }
+
+    /**
+     * 누적 건수와 직전 구간 분포
+     *
+     * @param total         시작 이후 누적 건수
+     * @param ratePerSecond 직전 구간 초당 건수
+     * @param count         직전 구간 건수
+     */
+    public record Distribution(long total, double ratePerSecond, long count, double mean, long p50, long p99,
+                               long p999, long max) {
+    }
+
+    /**
+     * @param destination    @MessageMapping 목적지 패턴
+     * @param errors         처리 중 예외로 끝난 누적 건수
+     * @param latencyMicros  핸들러 처리 시간 (마이크로초)
+     */
+    public record HandlerStats(String destination, long errors, Distribution latencyMicros) {
+    }
+
+    /**
+     * @param fanoutMicros 방송 한 번의 팬아웃 시간 (마이크로초)
+     * @param frameBytes   직렬화한 프레임 크기 (바이트)
+     */
+    public record BroadcastStats(GameEventType type, Distribution fanoutMicros, Distribution frameBytes) {
+    }
+
+    private static final class Handler {
+        private final String destination;
+        private final String lastSegment;
+        private final Window latency = new Window();
+        private final LongAdder errors = new LongAdder();
+
+        private Handler(String destination, String lastSegment) {
+            this.destination = destination;
+            this.lastSegment = lastSegment;
+        }
+
+        private HandlerStats stats(long windowNanos) {
+            return new HandlerStats(destination, errors.sum(), latency.stats(windowNanos));
+        }
+    }
+
+    private static final class Broadcast {
+        private final GameEventType type;
+        private final Window fanout = new Window();
+        private final Window frameBytes = new Window();
+
+        private Broadcast(GameEventType type) {
+            this.type = type;
+        }
+    }
+
+    /**
+     * 기록 중인 분포와 직전 구간 분포 두 개를 번갈아 씁니다.
+     * 구간을 바꾸는 순간 기록 중이던 한두 건은 다음 구간으로 넘어갈 수 있습니다.
+     */
+    private static final class Window {
+        private final LongAdder total = new LongAdder();
+        private final LongAdder amount = new LongAdder();
+        private volatile LongHistogram recording = new LongHistogram();
+        private volatile LongHistogram last = new LongHistogram();
+
+        private void record(long value) {
+            total.increment();
+            amount.add(value);
+            recording.record(value);
+        }
+
+        private long total() {
+            return total.sum();
+        }
+
+        /**
+         * 시작 이후 기록한 값의 합계
+         */
+        private long amount() {
+            return amount.sum();
+        }
+
+        /**
+         * 직전 구간 백분위 (기록이 없었으면 0)
+         */
+        private long percentile(double phi) {
+            return last.percentile(phi);
+        }
+
+        private void roll() {
+            LongHistogram finished = recording;
+            LongHistogram next = last;
+            next.reset();
+            recording = next;
+            last = finished;
+        }
+
+        private Distribution stats(long windowNanos) {
+            LongHistogram h = last;
+            long count = h.count();
+            return new Distribution(total.sum(), count * 1e9 / windowNanos, count,
+                    count > 0 ? (double) h.sum() / count : 0,
+                    h.percentile(0.50), h.percentile(0.99), h.percentile(0.999), h.max());
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.policethief.service;
+
+import com.policethief.domain.GeoPoint;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 미리 계산해 둔 놀이 구역 다각형
+ * 꼭짓점을 구역 중심 기준 평면 좌표(m)로 바꾸고, 외곽 사각형(bounding box)을 격자로 나눠 칸마다
+ * 완전히 안쪽/완전히 바깥쪽/경계가 지나는 칸 중 하나로 분류해 둡니다.
+ * 외곽 사각형 밖이거나 안쪽/바깥쪽 칸에 떨어진 점은 배열 한 번 조회로 끝나고,
+ * 경계 칸에 떨어진 점만 그 칸을 지나는 변들로 칸 중심(안팎을 미리 알아 둔 점)까지의 경로가 경계를 몇 번 넘는지 셉니다.
+ * 판정은 짝홀(even-odd) 규칙이라 오목하거나 꼭짓점이 많은 다각형도 그대로 다룹니다. 만든 뒤에는 바뀌지 않으므로 여러 스레드가 함께 씁니다.
+ */
+public final class PlayArea {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    /** 변 하나당 칸 수. 클수록 경계 칸 하나에 걸치는 변이 적어집니다. */
+    private static final int CELLS_PER_EDGE = 4;
+    private static final int MIN_CELLS = 64;
+    private static final int MAX_CELLS = 1 << 16;
+    private static final int MAX_CELLS_PER_AXIS = 1024;
+    private static final double EPSILON = 1e-7;
+
+    private static final byte INSIDE = 1;
+    private static final byte EDGE = 2;
+
+    private final double originLatitude;
+    private final double originLongitude;
+    private final double metersPerDegreeLon;
+    private final double[] xs;
+    private final double[] ys;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final int columns;
+    private final int rows;
+    private final double cellWidth;
+    private final double cellHeight;
+    /** 칸 상태 (INSIDE: 칸 중심이 안쪽, EDGE: 경계가 지나감) */
+    private final byte[] cells;
+    /** 칸 c 를 지나는 변 번호는 cellEdges[edgeStart[c] .. edgeStart[c + 1]) */
+    private final int[] edgeStart;
+    private final int[] cellEdges;
+
+    /**
+     * @param vertices 꼭짓점 (3개 이상, 마지막 점이 첫 점과 같으면 닫는 점으로 보고 뺍니다)
+     */
+    public PlayArea(List<GeoPoint> vertices) {
+        int n = vertices.size();
+        if (n > 1 && sameLocation(vertices.get(0), vertices.get(n - 1))) {
+            n--;
+        }
+        if (n < 3) {
+            throw new IllegalArgumentException("놀이 구역은 꼭짓점이 3개 이상이어야 합니다.");
+        }
+        double minLat = Double.MAX_VALUE;
+        double maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE;
+        double maxLon = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            GeoPoint vertex = vertices.get(i);
+            minLat = Math.min(minLat, vertex.getLatitude());
+            maxLat = Math.max(maxLat, vertex.getLatitude());
+            minLon = Math.min(minLon, vertex.getLongitude());
+            maxLon = Math.max(maxLon, vertex.getLongitude());
+        }
+        this.originLatitude = (minLat + maxLat) / 2;
+        this.originLongitude = (minLon + maxLon) / 2;
+        this.metersPerDegreeLon = METERS_PER_DEGREE * Math.cos(Math.toRadians(originLatitude));
+        this.xs = new double[n];
+        this.ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = x(vertices.get(i).getLongitude());
+            ys[i] = y(vertices.get(i).getLatitude());
+        }
+        this.minX = x(minLon);
+        this.maxX = x(maxLon);
+        this.minY = y(minLat);
+        this.maxY = y(maxLat);
+
+        double width = Math.max(maxX - minX, EPSILON);
+        double height = Math.max(maxY - minY, EPSILON);
+        int targetCells = Math.max(MIN_CELLS, Math.min(MAX_CELLS, n * CELLS_PER_EDGE));
+        double cellSize = Math.sqrt(width * height / targetCells);
+        this.columns = Math.max(1, Math.min(MAX_CELLS_PER_AXIS, (int) Math.ceil(width / cellSize)));
+        this.rows = Math.max(1, Math.min(MAX_CELLS_PER_AXIS, (int) Math.ceil(height / cellSize)));
+        this.cellWidth = width / columns;
+        this.cellHeight = height / rows;
+        this.cells = new byte[columns * rows];
+
+        // 변이 지나는 칸을 두 번 훑어 칸별 변 목록을 한 배열에 이어 붙입니다.
+        int[] counts = new int[cells.length + 1];
+        for (int edge = 0; edge < n; edge++) {
+            visitEdgeCells(edge, counts, null);
+        }
+        this.edgeStart = new int[cells.length + 1];
+        for (int c = 0; c < cells.length; c++) {
+            edgeStart[c + 1] = edgeStart[c] + counts[c];
+        }
+        this.cellEdges = new int[edgeStart[cells.length]];
+        int[] cursor = Arrays.copyOf(edgeStart, cells.length);
+        for (int edge = 0; edge < n; edge++) {
+            visitEdgeCells(edge, cursor, cellEdges);
+        }
+        for (int c = 0; c < cells.length; c++) {
+            if (edgeStart[c + 1] > edgeStart[c]) {
+                cells[c] = EDGE;
+            }
+        }
+        classifyCellCenters();
+    }
+
+    /**
+     * 점이 구역 안에 있으면 true
+     */
+    public boolean contains(double latitude, double longitude) {
+        double px = x(longitude);
+        double py = y(latitude);
+        if (px < minX || px > maxX || py < minY || py > maxY) {
+            return false;
+        }
+        int cell = row(py) * columns + column(px);
+        byte state = cells[cell];
+        boolean inside = (state & INSIDE) != 0;
+        if ((state & EDGE) == 0) {
+            return inside;
+        }
+        // (px, py) → (cx, py) → (cx, cy) 경로는 칸 안에만 있으므로 이 칸을 지나는 변만 보면 됩니다.
+        // 경로가 꼭짓점을 지나거나 변과 겹치는 경우는 점과 경로를 아주 조금 위로(+ε), 세로 구간과 칸 중심을
+        // 그보다 훨씬 조금 왼쪽으로(-ε²) 옮긴 것으로 보고 셉니다. 칸 중심의 안팎도 같은 기준으로 정해 둡니다.
+        double cx = minX + (column(px) + 0.5) * cellWidth;
+        double cy = minY + (row(py) + 0.5) * cellHeight;
+        int n = xs.length;
+        for (int k = edgeStart[cell]; k < edgeStart[cell + 1]; k++) {
+            int i = cellEdges[k];
+            int j = i + 1 == n ? 0 : i + 1;
+            double x1 = xs[i];
+            double y1 = ys[i];
+            double x2 = xs[j];
+            double y2 = ys[j];
+            if ((y1 > py) != (y2 > py)) {
+                double xi = crossingX(x1 + (py - y1) * (x2 - x1) / (y2 - y1), x2 - x1, y2 - y1);
+                if ((xi > px) != (xi >= cx)) {
+                    inside = !inside;
+                }
+            }
+            if ((x1 >= cx) != (x2 >= cx)) {
+                double yi = y1 + (cx - x1) * (y2 - y1) / (x2 - x1);
+                if ((yi > py) != (yi > cy)) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * 점에서 가장 가까운 경계까지 거리 (m). limitMeters 안에 경계가 없으면 limitMeters 를 돌려줍니다.
+     */
+    public double distanceToBoundary(double latitude, double longitude, double limitMeters) {
+        double px = x(longitude);
+        double py = y(latitude);
+        int c0 = column(px - limitMeters);
+        int c1 = column(px + limitMeters);
+        int r0 = row(py - limitMeters);
+        int r1 = row(py + limitMeters);
+        double best = limitMeters;
+        if (px + limitMeters < minX || px - limitMeters > maxX || py + limitMeters < minY || py - limitMeters > maxY) {
+            return best;
+        }
+        long window = (long) (c1 - c0 + 1) * (r1 - r0 + 1);
+        if (window > xs.length) {
+            // 찾을 칸이 변보다 많으면 변을 모두 보는 편이 빠릅니다.
+            for (int i = 0; i < xs.length; i++) {
+                best = Math.min(best, distanceToEdge(i, px, py));
+            }
+            return best;
+        }
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * columns + c;
+                for (int k = edgeStart[cell]; k < edgeStart[cell + 1]; k++) {
+                    best = Math.min(best, distanceToEdge(cellEdges[k], px, py));
+                }
+            }
+        }
+        return best;
+    }
+
+    public int getVertexCount() {
+        return xs.length;
+    }
+
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    /**
+     * 격자의 열 수. 외곽 사각형의 경도 폭을 같은 간격으로 나눕니다.
+     */
+    int getColumns() {
+        return columns;
+    }
+
+    /**
+     * 격자의 행 수. 외곽 사각형의 위도 폭을 같은 간격으로 나눕니다.
+     */
+    int getRows() {
+        return rows;
+    }
+
+    public int getEdgeCellCount() {
+        int count = 0;
+        for (byte cell : cells) {
+            if ((cell & EDGE) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 변 하나가 지나는 칸들을 행마다 잘라 구합니다. out 이 null 이면 칸별 개수만 셉니다.
+     */
+    private void visitEdgeCells(int edge, int[] counts, int[] out) {
+        int j = edge + 1 == xs.length ? 0 : edge + 1;
+        double x1 = xs[edge];
+        double y1 = ys[edge];
+        double x2 = xs[j];
+        double y2 = ys[j];
+        double edgeMinY = Math.min(y1, y2);
+        double edgeMaxY = Math.max(y1, y2);
+        int r0 = row(edgeMinY - EPSILON);
+        int r1 = row(edgeMaxY + EPSILON);
+        for (int r = r0; r <= r1; r++) {
+            double from;
+            double to;
+            if (y1 == y2) {
+                from = Math.min(x1, x2);
+                to = Math.max(x1, x2);
+            } else {
+                double bandLow = Math.max(edgeMinY, minY + r * cellHeight);
+                double bandHigh = Math.min(edgeMaxY, minY + (r + 1) * cellHeight);
+                double xa = x1 + (bandLow - y1) * (x2 - x1) / (y2 - y1);
+                double xb = x1 + (bandHigh - y1) * (x2 - x1) / (y2 - y1);
+                from = Math.min(xa, xb);
+                to = Math.max(xa, xb);
+            }
+            int c0 = column(from - EPSILON);
+            int c1 = column(to + EPSILON);
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * columns + c;
+                if (out == null) {
+                    counts[cell]++;
+                } else {
+                    out[counts[cell]++] = edge;
+                }
+            }
+        }
+    }
+
+    /**
+     * 행마다 칸 중심 높이의 수평선이 경계와 만나는 점을 정렬해, 왼쪽에서 넘은 횟수로 칸 중심의 안팎을 정합니다.
+     */
+    private void classifyCellCenters() {
+        int n = xs.length;
+        double[] crossings = new double[n];
+        for (int r = 0; r < rows; r++) {
+            double cy = minY + (r + 0.5) * cellHeight;
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                int j = i + 1 == n ? 0 : i + 1;
+                if ((ys[i] > cy) != (ys[j] > cy)) {
+                    crossings[count++] = crossingX(xs[i] + (cy - ys[i]) * (xs[j] - xs[i]) / (ys[j] - ys[i]),
+                            xs[j] - xs[i], ys[j] - ys[i]);
+                }
+            }
+            Arrays.sort(crossings, 0, count);
+            int passed = 0;
+            for (int c = 0; c < columns; c++) {
+                double cx = minX + (c + 0.5) * cellWidth;
+                while (passed < count && crossings[passed] < cx) {
+                    passed++;
+                }
+                if ((passed & 1) == 1) {
+                    cells[r * columns + c] |= INSIDE;
+                }
+            }
+        }
+    }
+
+    /**
+     * 수평선이 변과 만나는 x. 선을 +ε 올리면 만나는 점이 변의 기울기 방향으로 움직이므로,
+     * 왼쪽으로 움직이는 변은 한 ulp 앞의 값을 돌려줘 칸 중심 x(-ε²)와 정확히 같을 때의 비교가 옮긴 위치와 맞게 합니다.
+     */
+    private static double crossingX(double x, double dx, double dy) {
+        return dx != 0 && (dx < 0) != (dy < 0) ? Math.nextDown(x) : x;
+    }
+
+    private double distanceToEdge(int edge, double px, double py) {
+        int j = edge + 1 == xs.length ? 0 : edge + 1;
+        double x1 = xs[edge];
+        double y1 = ys[edge];
+        double dx = xs[j] - x1;
+        double dy = ys[j] - y1;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared > 0 ? ((px - x1) * dx + (py - y1) * dy) / lengthSquared : 0;
+        t = Math.max(0, Math.min(1, t));
+        return Math.hypot(px - (x1 + t * dx), py - (y1 + t * dy));
+    }
+
+    private double x(double longitude) {
+        return (longitude - originLongitude) * metersPerDegreeLon;
+    }
+
+    private double y(double latitude) {
+        return (latitude - originLatitude) * METERS_PER_DEGREE;
+    }
+
+    private int column(double x) {
+        int column = (int) Math.floor((x - minX) / cellWidth);
+        return Math.max(0, Math.min(columns - 1, column));
+    }
+
+    private int row(double y) {
+        int row = (int) Math.floor((y - minY) / cellHeight);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    private static boolean sameLocation(GeoPoint a, GeoPoint b) {
+        return a.getLatitude() == b.getLatitude() && a.getLongitude() == b.getLongitude();
+    }
+}
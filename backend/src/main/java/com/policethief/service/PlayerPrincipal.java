@@ -0,0 +1,42 @@
+package com.policethief.service;
+
+import java.security.Principal;
+
+/**
+ * 세션 토큰으로 확인된 STOMP 세션의 플레이어
+ * CONNECT 때 한 번 검증한 뒤에는 프레임마다 신원을 다시 조회하지 않고 이 값을 씁니다.
+ */
+public final class PlayerPrincipal implements Principal {
+
+    private final long playerId;
+    private final String name;
+
+    public PlayerPrincipal(long playerId) {
+        this.playerId = playerId;
+        this.name = Long.toString(playerId);
+    }
+
+    public long getPlayerId() {
+        return playerId;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PlayerPrincipal other && other.playerId == playerId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(playerId);
+    }
+
+    @Override
+    public String toString() {
+        return "PlayerPrincipal[" + name + "]";
+    }
+}
@@ -0,0 +1,45 @@
+package com.policethief.service;
+
+import com.policethief.cluster.SessionRef;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 방에 입장한 플레이어와 STOMP 세션 주소의 매핑
+ * 플레이어별로 다른 내용을 보내야 하는 이벤트는 세션이 붙어 있는 노드를 거쳐 사용자 목적지로 전달합니다.
+ * 방 소유 노드에만 채워집니다.
+ */
+@Service
+public class PlayerSessionRegistry {
+
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<Long, SessionRef>> roomSessions = new ConcurrentHashMap<>();
+
+    public void register(Long roomId, Long playerId, SessionRef session) {
+        if (session == null || session.getSessionId() == null) {
+            return;
+        }
+        roomSessions.computeIfAbsent(roomId, id -> new ConcurrentHashMap<>()).put(playerId, session);
+    }
+
+    public void unregister(Long roomId, Long playerId) {
+        roomSessions.computeIfPresent(roomId, (id, sessions) -> {
+            sessions.remove(playerId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    public void removeRoom(Long roomId) {
+        roomSessions.remove(roomId);
+    }
+
+    /**
+     * 방의 playerId → 세션 주소 매핑 (읽기 전용)
+     */
+    public Map<Long, SessionRef> getSessions(Long roomId) {
+        Map<Long, SessionRef> sessions = roomSessions.get(roomId);
+        return sessions != null ? Collections.unmodifiableMap(sessions) : Collections.emptyMap();
+    }
+}
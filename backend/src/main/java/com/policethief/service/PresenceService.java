@@ -0,0 +1,268 @@
+package com.policethief.service;
+
+import com.policethief.cluster.RoomCommand;
+import com.policethief.cluster.RoomEventBus;
+import com.policethief.cluster.SessionRef;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 플레이어 접속 상태 추적
+ *
+ * <p>세션이 붙어 있는 노드: 세션마다 입장한 방을 기억해 두었다가, STOMP 연결이 끊기면
+ * 방 소유 노드로 DISCONNECT 명령을 보냅니다.
+ *
+ * <p>방 소유 노드: 플레이어마다 만료 시각을 두고 해시드 타이밍 휠에 한 번만 걸어 둡니다.
+ * 위치 갱신은 만료 시각 필드만 바꾸고(잠금 없음), 휠이 해당 버킷에 도달했을 때 만료 시각이
+ * 뒤로 밀려 있으면 그 시각으로 다시 걸고, 지났으면 EXPIRE 명령으로 자동 퇴장시킵니다.
+ * 연결이 끊긴 플레이어는 재접속 유예 시간 뒤에 만료됩니다.
+ * 플레이어 수와 관계없이 tick마다 현재 버킷만 보므로 전체를 주기적으로 훑지 않습니다.
+ */
+@Slf4j
+@Service
+public class PresenceService {
+
+    private final RoomEventBus eventBus;
+    private final long staleTimeoutMillis;
+    private final long disconnectGraceMillis;
+    private final HashedTimingWheel<Entry> wheel;
+    private final ConcurrentHashMap<Long, RoomPresence> rooms = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Long, Long>> sessionRooms = new ConcurrentHashMap<>();
+    private final Set<String> connectedSessions = ConcurrentHashMap.newKeySet();
+
+    public PresenceService(RoomEventBus eventBus,
+                           @Value("${game.presence.stale-timeout-seconds:60}") long staleTimeoutSeconds,
+                           @Value("${game.presence.disconnect-grace-seconds:15}") long disconnectGraceSeconds,
+                           @Value("${game.presence.tick-millis:1000}") long tickMillis,
+                           @Value("${game.presence.wheel-size:512}") int wheelSize) {
+        this.eventBus = eventBus;
+        this.staleTimeoutMillis = TimeUnit.SECONDS.toMillis(staleTimeoutSeconds);
+        this.disconnectGraceMillis = TimeUnit.SECONDS.toMillis(disconnectGraceSeconds);
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    // ===== 세션이 붙어 있는 노드 =====
+
+    /**
+     * 세션이 방에 입장했음을 기억합니다. 연결이 끊기면 이 방들에 DISCONNECT를 보냅니다.
+     */
+    public void bindSession(String sessionId, Long roomId, Long playerId) {
+        if (sessionId == null || playerId == null) {
+            return;
+        }
+        sessionRooms.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(roomId, playerId);
+    }
+
+    public void unbindSession(String sessionId, Long roomId) {
+        if (sessionId == null) {
+            return;
+        }
+        sessionRooms.computeIfPresent(sessionId, (id, joined) -> {
+            joined.remove(roomId);
+            return joined.isEmpty() ? null : joined;
+        });
+    }
+
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            connectedSessions.add(sessionId);
+        }
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        connectedSessions.remove(event.getSessionId());
+        Map<Long, Long> joined = sessionRooms.remove(event.getSessionId());
+        if (joined == null) {
+            return;
+        }
+        SessionRef session = new SessionRef(eventBus.getLocalNodeId(), event.getSessionId());
+        joined.forEach((roomId, playerId) -> {
+            log.info("세션 연결 끊김 - roomId={}, playerId={}, sessionId={}", roomId, playerId, event.getSessionId());
+            eventBus.dispatch(new RoomCommand(RoomCommand.Type.DISCONNECT, roomId, session, playerId));
+        });
+    }
+
+    /**
+     * 이 노드에 연결된 STOMP 세션 수
+     */
+    public int getConnectedSessionCount() {
+        return connectedSessions.size();
+    }
+
+    // ===== 방 소유 노드 =====
+
+    /**
+     * 입장/재입장한 플레이어를 추적합니다. 새 세션으로 재입장하면 끊김 표시가 풀립니다.
+     */
+    public void track(Long roomId, Long playerId, SessionRef session) {
+        long expiresAt = System.currentTimeMillis() + staleTimeoutMillis;
+        while (true) {
+            RoomPresence room = rooms.computeIfAbsent(roomId, id -> new RoomPresence());
+            synchronized (room) {
+                // 마지막 플레이어가 빠지면서 막 제거된 방이면 새로 만들어 다시 시도합니다.
+                if (room.closed) {
+                    continue;
+                }
+                Entry entry = room.players.get(playerId);
+                if (entry == null) {
+                    entry = new Entry(roomId, playerId);
+                    room.players.put(playerId, entry);
+                }
+                entry.session = session;
+                entry.expiresAt = expiresAt;
+                if (entry.timeout == null) {
+                    entry.timeout = wheel.schedule(entry, expiresAt);
+                } else {
+                    wheel.reschedule(entry.timeout, expiresAt);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 플레이어가 살아 있음을 기록합니다. 위치 갱신마다 호출되므로 만료 시각만 바꾸고 휠은 건드리지 않습니다.
+     */
+    public void touch(Long roomId, Long playerId) {
+        RoomPresence room = rooms.get(roomId);
+        if (room == null) {
+            return;
+        }
+        Entry entry;
+        synchronized (room) {
+            entry = room.players.get(playerId);
+        }
+        if (entry != null) {
+            entry.expiresAt = System.currentTimeMillis() + staleTimeoutMillis;
+        }
+    }
+
+    /**
+     * 플레이어의 세션이 끊겼습니다. 그사이 다른 세션으로 재입장했다면 무시합니다.
+     */
+    public void markDisconnected(Long roomId, Long playerId, SessionRef session) {
+        RoomPresence room = rooms.get(roomId);
+        if (room == null) {
+            return;
+        }
+        synchronized (room) {
+            Entry entry = room.players.get(playerId);
+            if (entry == null || entry.timeout == null || !session.equals(entry.session)) {
+                return;
+            }
+            long expiresAt = Math.min(entry.expiresAt, System.currentTimeMillis() + disconnectGraceMillis);
+            entry.expiresAt = expiresAt;
+            wheel.reschedule(entry.timeout, expiresAt);
+        }
+    }
+
+    public void untrack(Long roomId, Long playerId) {
+        RoomPresence room = rooms.get(roomId);
+        if (room == null) {
+            return;
+        }
+        synchronized (room) {
+            Entry entry = room.players.remove(playerId);
+            if (entry != null) {
+                wheel.cancel(entry.timeout);
+            }
+            closeIfEmpty(roomId, room);
+        }
+    }
+
+    public void removeRoom(Long roomId) {
+        RoomPresence room = rooms.remove(roomId);
+        if (room == null) {
+            return;
+        }
+        synchronized (room) {
+            room.closed = true;
+            room.players.forEachKey(playerId -> wheel.cancel(room.players.get(playerId).timeout));
+        }
+    }
+
+    /**
+     * 추적 중인 플레이어 수
+     */
+    public int getTrackedPlayerCount() {
+        return wheel.size();
+    }
+
+    /**
+     * 지난 tick의 버킷만 처리합니다. 만료 시각이 밀려 있는 플레이어는 휠이 그 시각으로 다시 걸고,
+     * 지난 플레이어만 꺼내 자동 퇴장시킵니다.
+     */
+    @Scheduled(fixedRateString = "${game.presence.tick-millis:1000}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        List<Entry> expired = new ArrayList<>();
+        for (HashedTimingWheel.Timeout<Entry> timeout : wheel.advance(now, entry -> entry.expiresAt)) {
+            Entry entry = timeout.getItem();
+            RoomPresence room = rooms.get(entry.roomId);
+            if (room == null) {
+                continue;
+            }
+            synchronized (room) {
+                if (room.players.get(entry.playerId) != entry) {
+                    continue;
+                }
+                // 휠에서 꺼낸 뒤 갱신되었으면 다시 겁니다.
+                if (entry.expiresAt > now) {
+                    wheel.reschedule(timeout, entry.expiresAt);
+                    continue;
+                }
+                room.players.remove(entry.playerId);
+                closeIfEmpty(entry.roomId, room);
+                expired.add(entry);
+            }
+        }
+        for (Entry entry : expired) {
+            log.info("플레이어 접속 만료 - roomId={}, playerId={}", entry.roomId, entry.playerId);
+            eventBus.dispatch(new RoomCommand(RoomCommand.Type.EXPIRE, entry.roomId, null, entry.playerId));
+        }
+    }
+
+    /**
+     * 방 모니터 안에서 호출합니다. 닫힌 방에는 더 이상 추가되지 않습니다.
+     */
+    private void closeIfEmpty(Long roomId, RoomPresence room) {
+        if (room.players.isEmpty()) {
+            room.closed = true;
+            rooms.remove(roomId, room);
+        }
+    }
+
+    private static final class RoomPresence {
+        private final LongObjectHashMap<Entry> players = new LongObjectHashMap<>();
+        private boolean closed;
+    }
+
+    private static final class Entry {
+        private final long roomId;
+        private final long playerId;
+        private volatile long expiresAt;
+        private volatile SessionRef session;
+        private HashedTimingWheel.Timeout<Entry> timeout;
+
+        private Entry(long roomId, long playerId) {
+            this.roomId = roomId;
+            this.playerId = playerId;
+        }
+    }
+}
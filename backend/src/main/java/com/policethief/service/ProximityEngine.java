@@ -0,0 +1,469 @@
+package com.policethief.service;
+
+import com.policethief.dto.PlayerRole;
+import com.policethief.dto.TagPayload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서버 기준 근접 판정 엔진
+ * 방마다 플레이어의 최신 위치를 근접 반경 크기의 격자에 보관하여,
+ * 위치 갱신/태그 검증 시 주변 3x3 셀만 확인하면 되도록 합니다.
+ * 갱신마다 플레이어의 이동 속도와 3x3 셀 안의 가장 가까운 상대까지 거리도 함께 구해 둡니다({@link #getMotion}).
+ */
+@Service
+public class ProximityEngine {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    public enum TagPolicy {
+        /** 거리 조건을 만족하지 못한 태그는 거부합니다. */
+        REJECT,
+        /** 태그는 전달하되 검증 실패 표시를 붙입니다. */
+        FLAG
+    }
+
+    private final double tagRadiusMeters;
+    private final double proximityRadiusMeters;
+    private final TagPolicy tagPolicy;
+    private final double accuracyToleranceMeters;
+    private final long maxFixAgeMillis;
+    private final ConcurrentHashMap<Long, RoomGrid> rooms = new ConcurrentHashMap<>();
+
+    public ProximityEngine(
+            @Value("${game.proximity.tag-radius-meters:10}") double tagRadiusMeters,
+            @Value("${game.proximity.alert-radius-meters:50}") double proximityRadiusMeters,
+            @Value("${game.proximity.tag-policy:REJECT}") TagPolicy tagPolicy,
+            @Value("${game.proximity.accuracy-tolerance-meters:20}") double accuracyToleranceMeters,
+            @Value("${game.proximity.max-fix-age-seconds:10}") long maxFixAgeSeconds) {
+        this.tagRadiusMeters = tagRadiusMeters;
+        this.proximityRadiusMeters = proximityRadiusMeters;
+        this.tagPolicy = tagPolicy;
+        this.accuracyToleranceMeters = Math.max(0, accuracyToleranceMeters);
+        this.maxFixAgeMillis = TimeUnit.SECONDS.toMillis(Math.max(0, maxFixAgeSeconds));
+    }
+
+    /**
+     * 플레이어 위치를 갱신하고, 새로 근접 반경에 들어온 경찰-도둑 쌍을 반환합니다.
+     */
+    public List<ProximityAlert> updatePosition(Long roomId, Long playerId, PlayerRole role,
+                                               double latitude, double longitude, Double accuracy) {
+        RoomGrid grid = rooms.computeIfAbsent(roomId, id -> new RoomGrid(latitude, proximityRadiusMeters));
+        synchronized (grid) {
+            return grid.update(playerId, role, latitude, longitude, accuracy != null ? accuracy : 0.0,
+                    System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 플레이어의 이동 속도와 가장 가까운 상대까지 거리 (위치가 없으면 null)
+     */
+    public Motion getMotion(Long roomId, Long playerId) {
+        RoomGrid grid = rooms.get(roomId);
+        if (grid == null) {
+            return null;
+        }
+        synchronized (grid) {
+            PlayerState player = grid.players.get(playerId);
+            return player != null ? new Motion(player.speedMps, player.nearestOpponentMeters) : null;
+        }
+    }
+
+    public void removePlayer(Long roomId, Long playerId) {
+        RoomGrid grid = rooms.get(roomId);
+        if (grid != null) {
+            synchronized (grid) {
+                grid.remove(playerId);
+            }
+        }
+    }
+
+    public void removeRoom(Long roomId) {
+        rooms.remove(roomId);
+    }
+
+    /**
+     * 근접 반경 안에 상대 팀이 한 명이라도 있는 플레이어 목록
+     * 이 플레이어들은 상대 팀 전체에게 위치가 드러납니다.
+     */
+    public Set<Long> getRevealedPlayers(Long roomId) {
+        RoomGrid grid = rooms.get(roomId);
+        if (grid == null) {
+            return Set.of();
+        }
+        synchronized (grid) {
+            Set<Long> revealed = new HashSet<>();
+            for (PlayerState player : grid.players.values()) {
+                if (!player.nearOpponents.isEmpty()) {
+                    revealed.add(player.playerId);
+                }
+            }
+            return revealed;
+        }
+    }
+
+    /**
+     * 경찰이 도둑을 태그했는지, 두 사람 사이의 거리가 태그 반경 + 양쪽 GPS 정확도 이내인지 확인합니다.
+     * 정확도를 크게 보내 허용 거리를 늘릴 수 없도록 한쪽 정확도는 accuracy-tolerance-meters 까지만 더하고,
+     * 어느 한쪽 위치라도 max-fix-age-seconds 보다 오래되었으면 거리를 믿지 않고 거부합니다.
+     */
+    public TagCheck checkTag(Long roomId, Long taggerId, Long targetId) {
+        RoomGrid grid = rooms.get(roomId);
+        if (grid == null) {
+            return new TagCheck(TagOutcome.NO_POSITION, null, tagRadiusMeters, tagPolicy);
+        }
+        synchronized (grid) {
+            PlayerState tagger = grid.players.get(taggerId);
+            PlayerState target = grid.players.get(targetId);
+            if (tagger == null || target == null) {
+                return new TagCheck(TagOutcome.NO_POSITION, null, tagRadiusMeters, tagPolicy);
+            }
+            double distance = tagger.distanceTo(target);
+            double allowed = tagRadiusMeters
+                    + Math.min(tagger.accuracy, accuracyToleranceMeters)
+                    + Math.min(target.accuracy, accuracyToleranceMeters);
+            TagOutcome outcome;
+            if (tagger.role != PlayerRole.POLICE || target.role != PlayerRole.THIEF) {
+                outcome = TagOutcome.WRONG_ROLE;
+            } else if (System.currentTimeMillis() - Math.min(tagger.fixAt, target.fixAt) > maxFixAgeMillis) {
+                outcome = TagOutcome.STALE_POSITION;
+            } else {
+                outcome = distance <= allowed ? TagOutcome.IN_RANGE : TagOutcome.OUT_OF_RANGE;
+            }
+            return new TagCheck(outcome, distance, allowed, tagPolicy);
+        }
+    }
+
+    /**
+     * 방 하나의 격자
+     * 방에서 처음 들어온 위도를 기준으로 평면 좌표(m)로 변환해 셀을 나눕니다.
+     */
+    private static final class RoomGrid {
+        private final double metersPerDegreeLon;
+        private final double cellSizeMeters;
+        private final double radiusMeters;
+        private final Map<Long, PlayerState> players = new HashMap<>();
+        private final Map<Long, List<PlayerState>> cells = new HashMap<>();
+        private long scanStamp;
+
+        private RoomGrid(double referenceLatitude, double radiusMeters) {
+            this.metersPerDegreeLon = METERS_PER_DEGREE * Math.cos(Math.toRadians(referenceLatitude));
+            this.cellSizeMeters = radiusMeters;
+            this.radiusMeters = radiusMeters;
+        }
+
+        private List<ProximityAlert> update(Long playerId, PlayerRole role,
+                                            double latitude, double longitude, double accuracy, long now) {
+            double x = longitude * metersPerDegreeLon;
+            double y = latitude * METERS_PER_DEGREE;
+            long row = (long) Math.floor(y / cellSizeMeters);
+            long col = (long) Math.floor(x / cellSizeMeters);
+            long cellKey = pack(row, col);
+
+            PlayerState player = players.get(playerId);
+            if (player == null) {
+                player = new PlayerState(playerId);
+                players.put(playerId, player);
+                cells.computeIfAbsent(cellKey, key -> new ArrayList<>(4)).add(player);
+            } else if (player.cellKey != cellKey) {
+                removeFromCell(player);
+                cells.computeIfAbsent(cellKey, key -> new ArrayList<>(4)).add(player);
+            }
+            player.role = role;
+            player.x = x;
+            player.y = y;
+            player.accuracy = accuracy;
+            player.fixAt = now;
+            player.cellKey = cellKey;
+            player.updateSpeed(now);
+            player.nearestOpponentMeters = Double.POSITIVE_INFINITY;
+
+            if (role == null) {
+                return List.of();
+            }
+            return refreshNearby(player, row, col);
+        }
+
+        private List<ProximityAlert> refreshNearby(PlayerState player, long row, long col) {
+            List<ProximityAlert> alerts = List.of();
+            PlayerRole opponentRole = player.role.opponent();
+            long stamp = ++scanStamp;
+
+            for (long r = row - 1; r <= row + 1; r++) {
+                for (long c = col - 1; c <= col + 1; c++) {
+                    List<PlayerState> cell = cells.get(pack(r, c));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (PlayerState other : cell) {
+                        if (other.role != opponentRole) {
+                            continue;
+                        }
+                        double distance = player.distanceTo(other);
+                        player.nearestOpponentMeters = Math.min(player.nearestOpponentMeters, distance);
+                        // 상대는 자기 갱신 때 다시 구하므로, 그 전까지는 더 가까워진 경우만 반영합니다.
+                        other.nearestOpponentMeters = Math.min(other.nearestOpponentMeters, distance);
+                        if (distance > radiusMeters) {
+                            continue;
+                        }
+                        other.nearStamp = stamp;
+                        if (player.nearOpponents.add(other.playerId)) {
+                            other.nearOpponents.add(player.playerId);
+                            if (alerts.isEmpty()) {
+                                alerts = new ArrayList<>(2);
+                            }
+                            alerts.add(ProximityAlert.of(player, other, distance));
+                        }
+                    }
+                }
+            }
+
+            // 이번 검사에서 보이지 않은 상대는 근접 목록에서 빼서, 다시 가까워지면 알림이 가도록 합니다.
+            if (!player.nearOpponents.isEmpty()) {
+                Iterator<Long> iterator = player.nearOpponents.iterator();
+                while (iterator.hasNext()) {
+                    PlayerState other = players.get(iterator.next());
+                    if (other == null || other.nearStamp != stamp) {
+                        iterator.remove();
+                        if (other != null) {
+                            other.nearOpponents.remove(player.playerId);
+                        }
+                    }
+                }
+            }
+            return alerts;
+        }
+
+        private void remove(Long playerId) {
+            PlayerState player = players.remove(playerId);
+            if (player == null) {
+                return;
+            }
+            removeFromCell(player);
+            for (Long opponentId : player.nearOpponents) {
+                PlayerState opponent = players.get(opponentId);
+                if (opponent != null) {
+                    opponent.nearOpponents.remove(playerId);
+                }
+            }
+        }
+
+        private void removeFromCell(PlayerState player) {
+            List<PlayerState> cell = cells.get(player.cellKey);
+            if (cell != null) {
+                cell.remove(player);
+                if (cell.isEmpty()) {
+                    cells.remove(player.cellKey);
+                }
+            }
+        }
+
+        private static long pack(long row, long col) {
+            return (row << 32) | (col & 0xFFFFFFFFL);
+        }
+    }
+
+    private static final class PlayerState {
+        /** GPS 정확도를 모를 때 흔들림으로 보는 최소 이동 거리 (m) */
+        private static final double MIN_MOVE_METERS = 3.0;
+
+        private final Long playerId;
+        private final Set<Long> nearOpponents = new HashSet<>(4);
+        private PlayerRole role;
+        private double x;
+        private double y;
+        private double accuracy;
+        /** 마지막 위치를 받은 시각 (epoch 밀리초) */
+        private long fixAt;
+        private long cellKey = Long.MIN_VALUE;
+        private long nearStamp;
+        private double anchorX;
+        private double anchorY;
+        private long anchorAt;
+        private double speedMps;
+        private double nearestOpponentMeters = Double.POSITIVE_INFINITY;
+
+        private PlayerState(Long playerId) {
+            this.playerId = playerId;
+        }
+
+        /**
+         * 마지막으로 확실히 움직였던 지점(anchor)에서 GPS 오차보다 멀어졌을 때만 속도를 새로 구합니다.
+         * 오차 안에서 흔들리는 동안은 같은 지점에 머문 시간이 길어질수록 속도가 줄어듭니다.
+         */
+        private void updateSpeed(long now) {
+            if (anchorAt == 0) {
+                anchorX = x;
+                anchorY = y;
+                anchorAt = now;
+                return;
+            }
+            double elapsedSeconds = (now - anchorAt) / 1000.0;
+            if (elapsedSeconds <= 0) {
+                return;
+            }
+            double dx = x - anchorX;
+            double dy = y - anchorY;
+            double moved = Math.sqrt(dx * dx + dy * dy);
+            if (moved > Math.max(accuracy, MIN_MOVE_METERS)) {
+                speedMps = moved / elapsedSeconds;
+                anchorX = x;
+                anchorY = y;
+                anchorAt = now;
+            } else {
+                speedMps = Math.min(speedMps, moved / elapsedSeconds);
+            }
+        }
+
+        private double distanceTo(PlayerState other) {
+            double dx = x - other.x;
+            double dy = y - other.y;
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+
+    /**
+     * 경찰이 도둑의 근접 반경에 들어왔음을 나타냅니다.
+     */
+    public static final class ProximityAlert {
+        private final Long policeId;
+        private final Long thiefId;
+        private final double distanceMeters;
+
+        private ProximityAlert(Long policeId, Long thiefId, double distanceMeters) {
+            this.policeId = policeId;
+            this.thiefId = thiefId;
+            this.distanceMeters = distanceMeters;
+        }
+
+        private static ProximityAlert of(PlayerState player, PlayerState other, double distance) {
+            return player.role == PlayerRole.POLICE
+                    ? new ProximityAlert(player.playerId, other.playerId, distance)
+                    : new ProximityAlert(other.playerId, player.playerId, distance);
+        }
+
+        public Long getPoliceId() {
+            return policeId;
+        }
+
+        public Long getThiefId() {
+            return thiefId;
+        }
+
+        public double getDistanceMeters() {
+            return distanceMeters;
+        }
+    }
+
+    /**
+     * 플레이어의 움직임 (위치 갱신 주기 계산용)
+     */
+    public static final class Motion {
+        private final double speedMps;
+        private final double nearestOpponentMeters;
+
+        private Motion(double speedMps, double nearestOpponentMeters) {
+            this.speedMps = speedMps;
+            this.nearestOpponentMeters = nearestOpponentMeters;
+        }
+
+        /**
+         * 최근 이동 속도 (m/s, GPS 오차 안의 흔들림은 제외)
+         */
+        public double getSpeedMps() {
+            return speedMps;
+        }
+
+        /**
+         * 주변 3x3 셀 안에서 가장 가까운 상대까지 거리 (m, 없으면 무한대)
+         */
+        public double getNearestOpponentMeters() {
+            return nearestOpponentMeters;
+        }
+    }
+
+    /**
+     * 태그 검증 결과의 종류
+     */
+    public enum TagOutcome {
+        /** 경찰이 도둑을 허용 거리 안에서 태그함 */
+        IN_RANGE,
+        /** 허용 거리를 넘음 */
+        OUT_OF_RANGE,
+        /** 어느 한쪽의 위치를 아직 받지 못함 */
+        NO_POSITION,
+        /** 어느 한쪽의 마지막 위치가 너무 오래됨 (정책과 관계없이 거부) */
+        STALE_POSITION,
+        /** 경찰이 도둑을 태그한 것이 아님 (정책과 관계없이 거부) */
+        WRONG_ROLE
+    }
+
+    /**
+     * 태그 검증 결과
+     */
+    public static final class TagCheck {
+        private final TagOutcome outcome;
+        private final Double distanceMeters;
+        private final double allowedMeters;
+        private final TagPolicy policy;
+
+        private TagCheck(TagOutcome outcome, Double distanceMeters, double allowedMeters, TagPolicy policy) {
+            this.outcome = outcome;
+            this.distanceMeters = distanceMeters;
+            this.allowedMeters = allowedMeters;
+            this.policy = policy;
+        }
+
+        public TagOutcome getOutcome() {
+            return outcome;
+        }
+
+        public boolean isWithinRange() {
+            return outcome == TagOutcome.IN_RANGE;
+        }
+
+        /**
+         * 태그 이벤트를 방에 전달해도 되는지 여부
+         * FLAG 정책이면 거리를 확인하지 못한 태그(거리 초과, 위치 없음)도 전달하지만, 역할이 맞지 않거나 위치가 오래된 태그는 거부합니다.
+         */
+        public boolean isAccepted() {
+            return switch (outcome) {
+                case IN_RANGE -> true;
+                case OUT_OF_RANGE, NO_POSITION -> policy == TagPolicy.FLAG;
+                case STALE_POSITION, WRONG_ROLE -> false;
+            };
+        }
+
+        /**
+         * 거부 사유 ({@link TagPayload} 의 REASON_*, 전달해도 되면 null)
+         */
+        public String getRejectReason() {
+            if (isAccepted()) {
+                return null;
+            }
+            return switch (outcome) {
+                case WRONG_ROLE -> TagPayload.REASON_WRONG_ROLE;
+                case STALE_POSITION -> TagPayload.REASON_STALE_POSITION;
+                default -> TagPayload.REASON_OUT_OF_RANGE;
+            };
+        }
+
+        public Double getDistanceMeters() {
+            return distanceMeters;
+        }
+
+        public double getAllowedMeters() {
+            return allowedMeters;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.policethief.service;
+
+import com.policethief.cluster.RoomEventBus;
+import com.policethief.cluster.RoomMembership;
+import com.policethief.domain.GameRoom;
+import com.policethief.domain.RoomStatus;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 모든 노드에 복제된 방별 멤버 목록/진행 상태
+ * 멤버 상태({@link GameRoomSessionService})는 방 소유 노드에만 있으므로, REST 요청을 받은 노드가 어디든
+ * 인원 수, 멤버 여부, 진행 상태는 소유 노드가 알린 이 사본으로 답합니다.
+ * 소유 노드가 알린 뒤 반영되므로 방금 들어온 멤버는 잠깐 보이지 않을 수 있습니다.
+ */
+@Service
+public class RoomDirectoryService implements RoomEventBus.RegistryListener {
+
+    private final RoomEventBus eventBus;
+    private final ConcurrentHashMap<Long, RoomMembership> memberships = new ConcurrentHashMap<>();
+
+    public RoomDirectoryService(RoomEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    @PostConstruct
+    void subscribeRegistry() {
+        eventBus.addRegistryListener(this);
+    }
+
+    @Override
+    public void onRoomCreated(GameRoom room) {
+    }
+
+    @Override
+    public void onRoomClosed(Long roomId) {
+        memberships.remove(roomId);
+    }
+
+    @Override
+    public void onMembershipChanged(Long roomId, RoomMembership membership) {
+        memberships.put(roomId, membership);
+    }
+
+    /**
+     * 방 인원 수 (아직 아무도 들어오지 않았거나 없는 방이면 0)
+     */
+    public int getPlayerCount(Long roomId) {
+        RoomMembership membership = memberships.get(roomId);
+        return membership != null ? membership.size() : 0;
+    }
+
+    public boolean isMember(Long roomId, Long playerId) {
+        RoomMembership membership = memberships.get(roomId);
+        return membership != null && membership.contains(playerId);
+    }
+
+    /**
+     * 방 진행 상태 (아직 아무도 들어오지 않았거나 없는 방이면 null)
+     */
+    public RoomStatus getStatus(Long roomId) {
+        RoomMembership membership = memberships.get(roomId);
+        return membership != null ? membership.getStatus() : null;
+    }
+}
@@ -0,0 +1,304 @@
+package com.policethief.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 방 단위 단일 작성자(single-writer) 실행기
+ * 방 ID를 해시해 고정된 수의 레인 중 하나에 배정하고, 레인마다 스레드 하나가 큐에 들어온 순서대로 작업을 실행합니다.
+ * 같은 방의 명령은 항상 같은 레인에서 하나씩 처리되므로 방 상태를 바꾸는 핸들러끼리는 순서가 보장되고 서로 겹치지 않습니다.
+ * 레인 큐가 가득 차면 넣는 쪽(STOMP 수신 스레드 등)이 자리가 날 때까지 기다리며, 레인 스레드가 자기 레인에 넣을 때만
+ * 기다리지 않고 그 자리에서 실행합니다.
+ * 멈춘 뒤(종료 중 소유권 이전 등)와 DIRECT 모드에서는 호출한 스레드에서 바로 실행합니다.
+ */
+@Slf4j
+@Service
+public class RoomLaneExecutor implements SmartLifecycle {
+
+    /**
+     * 방 명령 실행 방식
+     */
+    public enum Mode {
+        /** 방마다 정해진 레인에서 순서대로 실행 */
+        LANES,
+        /** 기존처럼 메시지를 받은 스레드에서 바로 실행 (방 안의 순서 보장 없음) */
+        DIRECT
+    }
+
+    private final Mode mode;
+    private final Lane[] lanes;
+    private final long shutdownTimeoutMillis;
+
+    private volatile boolean running;
+
+    public RoomLaneExecutor(@Value("${game.execution.room-dispatch:lanes}") Mode mode,
+                            @Value("${game.execution.room-lanes:0}") int laneCount,
+                            @Value("${game.execution.lane-queue-capacity:8192}") int queueCapacity,
+                            @Value("${game.execution.lane-shutdown-timeout-millis:5000}") long shutdownTimeoutMillis) {
+        this.mode = mode;
+        int count = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+        this.lanes = new Lane[mode == Mode.LANES ? count : 0];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i, queueCapacity);
+        }
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    /**
+     * 방의 레인에 작업을 넣습니다. 시작 전에 넣은 작업은 레인이 시작되면 순서대로 실행됩니다.
+     */
+    public void execute(long roomId, Runnable task) {
+        if (lanes.length == 0) {
+            task.run();
+            return;
+        }
+        Lane lane = lanes[laneOf(roomId)];
+        if (Thread.currentThread() == lane.thread) {
+            // 레인 스레드가 자기 큐가 비기를 기다리면 멈추므로, 자리가 없을 때는 지금 실행합니다.
+            if (!lane.offer(task)) {
+                lane.inline.increment();
+                task.run();
+            }
+            return;
+        }
+        if (isStopped(lane)) {
+            // 레인이 멈춘 뒤에는 큐를 비울 스레드가 없으므로 호출 스레드에서 실행합니다.
+            task.run();
+            return;
+        }
+        if (!lane.put(task)) {
+            // 자리를 기다리는 사이에 멈췄으면 호출 스레드에서 실행합니다.
+            task.run();
+            return;
+        }
+        if (isStopped(lane)) {
+            // 위의 확인과 넣기 사이에 멈췄으면 레인 스레드가 이 작업을 보지 못하고 끝났을 수 있으므로 남은 작업을 마저 실행합니다.
+            lane.drainAfterStop(shutdownTimeoutMillis);
+        }
+    }
+
+    private boolean isStopped(Lane lane) {
+        return !running && lane.thread != null;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * 레인별 현재 상태 (레인 번호 순)
+     */
+    public List<LaneStats> getLaneStats() {
+        List<LaneStats> stats = new ArrayList<>(lanes.length);
+        for (Lane lane : lanes) {
+            stats.add(lane.stats());
+        }
+        return stats;
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (Lane lane : lanes) {
+            lane.start();
+        }
+        log.info("방 명령 실행기 시작 - mode={}, lanes={}", mode, lanes.length);
+    }
+
+    /**
+     * 새 작업은 호출 스레드에서 실행하도록 바꾸고, 레인에 남은 작업을 모두 실행할 때까지 기다립니다.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+        for (Lane lane : lanes) {
+            try {
+                lane.thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (lane.thread.isAlive()) {
+                log.warn("방 명령 레인 {}이 제한 시간 안에 끝나지 않았습니다 - 남은 작업 {}건", lane.index, lane.queue.size());
+                continue;
+            }
+            // 멈추는 사이에 들어온 작업은 여기서 마저 실행합니다.
+            lane.runLeftovers();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 위치 이력 기록기(0)보다 먼저 멈춰서 레인에 남은 위치 갱신까지 기록 대기열에 들어가도록 합니다.
+     */
+    @Override
+    public int getPhase() {
+        return 1;
+    }
+
+    private int laneOf(long roomId) {
+        // 연속된 방 ID가 레인에 고르게 퍼지도록 섞은 뒤 나눕니다.
+        long mixed = roomId * 0x9E3779B97F4A7C15L;
+        return (int) ((mixed >>> 32) % lanes.length);
+    }
+
+    /**
+     * 레인 하나의 상태
+     *
+     * @param depth         지금 큐에 쌓인 작업 수
+     * @param maxDepth      지금까지 가장 많이 쌓였던 작업 수
+     * @param submitted     큐에 넣은 작업 수
+     * @param completed     실행을 마친 작업 수
+     * @param blocked       큐가 가득 차서 넣는 쪽이 기다린 횟수
+     * @param inline        레인 스레드가 자기 큐에 넣으려다 자리가 없어 바로 실행한 횟수
+     * @param failed        예외로 끝난 작업 수
+     * @param avgWaitMicros 큐에 들어가서 실행되기까지 평균 대기 시간 (마이크로초)
+     * @param maxWaitMicros 가장 길었던 대기 시간 (마이크로초)
+     */
+    public record LaneStats(int lane, int depth, int maxDepth, long submitted, long completed, long blocked,
+                            long inline, long failed, double avgWaitMicros, long maxWaitMicros) {
+    }
+
+    private final class Lane {
+        private final int index;
+        private final ArrayBlockingQueue<Queued> queue;
+        private final LongAdder submitted = new LongAdder();
+        private final LongAdder blocked = new LongAdder();
+        private final LongAdder inline = new LongAdder();
+        private Thread thread;
+
+        // 레인 스레드만 쓰는 값
+        private volatile long completed;
+        private volatile long failed;
+        private volatile long totalWaitNanos;
+        private volatile long maxWaitNanos;
+        private volatile int maxDepth;
+
+        private Lane(int index, int queueCapacity) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        private boolean offer(Runnable task) {
+            if (!queue.offer(new Queued(task, System.nanoTime()))) {
+                return false;
+            }
+            submitted.increment();
+            return true;
+        }
+
+        /**
+         * 자리가 날 때까지 기다려 넣습니다. 기다리는 동안 실행기가 멈추면 큐를 비울 스레드가 없으므로 넣지 않고 false 를 돌려줍니다.
+         */
+        private boolean put(Runnable task) {
+            Queued queued = new Queued(task, System.nanoTime());
+            if (!queue.offer(queued)) {
+                blocked.increment();
+                try {
+                    while (!queue.offer(queued, 100, TimeUnit.MILLISECONDS)) {
+                        if (isStopped(this)) {
+                            return false;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("방 명령을 레인에 넣지 못했습니다", e);
+                }
+            }
+            submitted.increment();
+            return true;
+        }
+
+        /**
+         * 레인 스레드가 끝나기를 기다린 뒤 큐에 남은 작업을 호출 스레드에서 실행합니다.
+         * 제한 시간 안에 끝나지 않으면 아직 살아 있는 레인 스레드가 마저 처리하도록 둡니다.
+         */
+        private void drainAfterStop(long timeoutMillis) {
+            try {
+                thread.join(Math.max(1, timeoutMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!thread.isAlive()) {
+                runLeftovers();
+            }
+        }
+
+        private void runLeftovers() {
+            Queued leftover;
+            while ((leftover = queue.poll()) != null) {
+                leftover.task.run();
+            }
+        }
+
+        private void start() {
+            thread = new Thread(this::run, "room-lane-" + index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void run() {
+            while (running || !queue.isEmpty()) {
+                Queued next;
+                try {
+                    next = queue.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                if (next == null) {
+                    continue;
+                }
+                int depth = queue.size() + 1;
+                if (depth > maxDepth) {
+                    maxDepth = depth;
+                }
+                long waited = System.nanoTime() - next.enqueuedAt;
+                totalWaitNanos += waited;
+                if (waited > maxWaitNanos) {
+                    maxWaitNanos = waited;
+                }
+                try {
+                    next.task.run();
+                } catch (Throwable e) {
+                    // Error 도 여기서 멈추게 두면 레인 스레드가 죽어 이 레인의 방 명령이 모두 쌓이기만 하므로 기록하고 계속합니다.
+                    failed++;
+                    log.error("방 명령 처리 중 오류 - lane={}", index, e);
+                }
+                completed++;
+            }
+        }
+
+        private LaneStats stats() {
+            long done = completed;
+            return new LaneStats(index, queue.size(), maxDepth, submitted.sum(), done, blocked.sum(), inline.sum(),
+                    failed, done == 0 ? 0 : totalWaitNanos / 1000.0 / done, maxWaitNanos / 1000);
+        }
+    }
+
+    private record Queued(Runnable task, long enqueuedAt) {
+    }
+}
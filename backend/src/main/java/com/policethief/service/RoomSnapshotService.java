@@ -0,0 +1,242 @@
+package com.policethief.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.policethief.cluster.RoomEventBus;
+import com.policethief.domain.GameRoom;
+import com.policethief.domain.GeoPoint;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 방 조회 응답 스냅샷
+ * 방마다 응답 JSON을 한 번만 직렬화한 불변 스냅샷을 두고, 방이 알려질 때 만들고 인원이 바뀐 뒤 처음 조회될 때 그 방만 다시 만듭니다.
+ * 인원은 소유 노드가 복제한 멤버 목록({@link RoomDirectoryService})에서 읽으므로 어느 노드에서 조회해도 같습니다.
+ * 스냅샷마다 버전이 있어 ETag 를 직렬화 없이 정할 수 있으므로, 바뀐 것이 없는 조회는 본문을 만들지 않고 304 로 끝납니다.
+ * 목록은 방별 스냅샷 바이트를 이어 붙이기만 하며, 검색 거리는 방마다 미리 잘라 둔 앞부분과 뒷부분 사이에 끼워 넣습니다.
+ * ETag 에는 기동 시각이 들어가므로 재시작 전의 ETag 와 겹치지 않습니다.
+ */
+@Service
+public class RoomSnapshotService implements RoomEventBus.RegistryListener {
+
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    /** 목록 항목에는 놀이 구역을 싣지 않습니다. (GameRoomController 와 같은 모양) */
+    private static final byte[] SUMMARY_TAIL = ",\"playArea\":null}".getBytes(StandardCharsets.US_ASCII);
+
+    private final RoomEventBus eventBus;
+    private final RoomDirectoryService roomDirectory;
+    private final JsonFactory jsonFactory;
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong versions = new AtomicLong();
+    private final ConcurrentHashMap<Long, RoomSnapshot> snapshots = new ConcurrentHashMap<>();
+    /** 위치 없는 목록 조회의 마지막 결과. 같은 ETag 면 다시 이어 붙이지 않습니다. */
+    private volatile Page lastPage;
+    private final LongAdder rebuilt = new LongAdder();
+
+    public RoomSnapshotService(RoomEventBus eventBus, RoomDirectoryService roomDirectory,
+                               ObjectMapper objectMapper) {
+        this.eventBus = eventBus;
+        this.roomDirectory = roomDirectory;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @PostConstruct
+    void subscribeRegistry() {
+        eventBus.addRegistryListener(this);
+    }
+
+    @Override
+    public void onRoomCreated(GameRoom room) {
+        snapshots.put(room.getId(), build(room, roomDirectory.getPlayerCount(room.getId())));
+    }
+
+    @Override
+    public void onRoomClosed(Long roomId) {
+        snapshots.remove(roomId);
+    }
+
+    /**
+     * 방의 현재 스냅샷. 인원이 바뀌었으면 이 방만 다시 직렬화합니다.
+     */
+    public RoomSnapshot get(GameRoom room) {
+        int playerCount = roomDirectory.getPlayerCount(room.getId());
+        RoomSnapshot current = snapshots.get(room.getId());
+        if (current != null && current.room == room && current.playerCount == playerCount) {
+            return current;
+        }
+        RoomSnapshot next = build(room, playerCount);
+        // 이미 종료된 방은 다시 넣지 않습니다. 동시에 다시 만든 스냅샷끼리는 내용이 같으므로 어느 쪽이 남아도 됩니다.
+        if (current != null) {
+            snapshots.replace(room.getId(), current, next);
+        }
+        return next;
+    }
+
+    /**
+     * 목록의 ETag. 각 방의 버전과 거리로만 정하므로 본문을 만들지 않습니다.
+     *
+     * @param distancesKm 방별 검색 거리 (위치 없는 목록이면 null)
+     */
+    public String listEtag(List<RoomSnapshot> rooms, double[] distancesKm) {
+        long hash = 0xcbf29ce484222325L ^ rooms.size();
+        for (int i = 0; i < rooms.size(); i++) {
+            hash = mix(hash, rooms.get(i).version);
+            if (distancesKm != null) {
+                hash = mix(hash, Double.doubleToLongBits(distancesKm[i]));
+            }
+        }
+        return '"' + bootId + "-l" + Long.toHexString(hash) + '"';
+    }
+
+    /**
+     * 목록 본문(JSON 배열)을 방별 스냅샷을 이어 붙여 만듭니다.
+     */
+    public byte[] listBody(List<RoomSnapshot> rooms, double[] distancesKm, String etag) {
+        Page last = lastPage;
+        if (distancesKm == null && last != null && last.etag.equals(etag)) {
+            return last.body;
+        }
+        byte[][] distances = new byte[rooms.size()][];
+        int length = 2 + Math.max(0, rooms.size() - 1);
+        for (int i = 0; i < rooms.size(); i++) {
+            distances[i] = distancesKm != null
+                    ? Double.toString(distancesKm[i]).getBytes(StandardCharsets.US_ASCII) : NULL;
+            length += rooms.get(i).summaryHead.length + distances[i].length + SUMMARY_TAIL.length;
+        }
+        byte[] body = new byte[length];
+        int position = 0;
+        body[position++] = '[';
+        for (int i = 0; i < rooms.size(); i++) {
+            if (i > 0) {
+                body[position++] = ',';
+            }
+            position = append(body, position, rooms.get(i).summaryHead);
+            position = append(body, position, distances[i]);
+            position = append(body, position, SUMMARY_TAIL);
+        }
+        body[position] = ']';
+        if (distancesKm == null) {
+            lastPage = new Page(etag, body);
+        }
+        return body;
+    }
+
+    /**
+     * 다시 직렬화한 스냅샷 수
+     */
+    public long getRebuiltCount() {
+        return rebuilt.sum();
+    }
+
+    private RoomSnapshot build(GameRoom room, int playerCount) {
+        long version = versions.incrementAndGet();
+        rebuilt.increment();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256 + room.getPlayArea().size() * 48);
+            JsonGenerator generator = jsonFactory.createGenerator(out);
+            writeSummaryFields(generator, room, playerCount);
+            generator.flush();
+            // 거리 값 앞까지를 목록용으로 잘라 둡니다. 필드 이름 뒤 ':' 는 값을 쓸 때 나오므로 직접 붙입니다.
+            byte[] fields = out.toByteArray();
+            byte[] summaryHead = Arrays.copyOf(fields, fields.length + 1);
+            summaryHead[fields.length] = ':';
+            generator.writeNull();
+            generator.writeArrayFieldStart("playArea");
+            for (GeoPoint vertex : room.getPlayArea()) {
+                generator.writeStartObject();
+                generator.writeNumberField("latitude", vertex.getLatitude());
+                generator.writeNumberField("longitude", vertex.getLongitude());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.close();
+            return new RoomSnapshot(room, playerCount, version,
+                    '"' + bootId + "-" + Long.toString(version, 36) + '"', summaryHead, out.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * GameRoomController.GameRoomResponse 와 같은 이름/순서로 distanceKm 필드 이름까지 씁니다.
+     */
+    private static void writeSummaryFields(JsonGenerator generator, GameRoom room, int playerCount) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", room.getId());
+        generator.writeStringField("name", room.getName());
+        generator.writeStringField("location", room.getLocation());
+        generator.writeNumberField("latitude", room.getLatitude());
+        generator.writeNumberField("longitude", room.getLongitude());
+        generator.writeNumberField("playerCount", playerCount);
+        generator.writeFieldName("distanceKm");
+    }
+
+    private static int append(byte[] target, int position, byte[] source) {
+        System.arraycopy(source, 0, target, position, source.length);
+        return position + source.length;
+    }
+
+    private static long mix(long hash, long value) {
+        hash ^= value;
+        hash *= 0x100000001b3L;
+        return hash ^ (hash >>> 29);
+    }
+
+    /**
+     * 방 하나의 불변 스냅샷
+     */
+    public static final class RoomSnapshot {
+        private final GameRoom room;
+        private final int playerCount;
+        private final long version;
+        private final String etag;
+        /** 목록 항목의 distanceKm 값 앞까지 */
+        private final byte[] summaryHead;
+        /** 방 하나 조회 응답 (놀이 구역 포함) */
+        private final byte[] detailBody;
+
+        private RoomSnapshot(GameRoom room, int playerCount, long version, String etag,
+                             byte[] summaryHead, byte[] detailBody) {
+            this.room = room;
+            this.playerCount = playerCount;
+            this.version = version;
+            this.etag = etag;
+            this.summaryHead = summaryHead;
+            this.detailBody = detailBody;
+        }
+
+        public GameRoom getRoom() {
+            return room;
+        }
+
+        public int getPlayerCount() {
+            return playerCount;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * 직렬화해 둔 응답 본문. 공유되므로 고치면 안 됩니다.
+         */
+        public byte[] getDetailBody() {
+            return detailBody;
+        }
+    }
+
+    private record Page(String etag, byte[] body) {
+    }
+}
@@ -0,0 +1,222 @@
+package com.policethief.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 게임방 위치 인덱스
+ * 위도/경도를 일정한 크기의 격자 셀로 나누어 방을 보관하고,
+ * 반경 검색 시 반경에 걸치는 셀만 조회하므로 전체 방 수와 무관하게 동작합니다.
+ */
+public class RoomSpatialIndex {
+
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final double cellSizeDeg;
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<Long, Entry>> cells = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param cellSizeKm 셀 한 변의 길이 (위도 방향 기준, km)
+     */
+    public RoomSpatialIndex(double cellSizeKm) {
+        if (cellSizeKm <= 0) {
+            throw new IllegalArgumentException("cellSizeKm must be positive");
+        }
+        this.cellSizeDeg = cellSizeKm / KM_PER_DEGREE;
+    }
+
+    /**
+     * 방을 인덱스에 추가합니다. 이미 있는 방이면 위치를 갱신합니다.
+     */
+    public void put(long roomId, double latitude, double longitude) {
+        Entry entry = new Entry(roomId, latitude, longitude, cellKey(latitude, longitude));
+        Entry previous = entries.put(roomId, entry);
+        if (previous != null && previous.cellKey != entry.cellKey) {
+            removeFromCell(previous);
+        }
+        // 빈 셀 제거와 겹치지 않도록 셀 단위 compute 안에서 추가합니다.
+        cells.compute(entry.cellKey, (key, cell) -> {
+            ConcurrentHashMap<Long, Entry> target = cell != null ? cell : new ConcurrentHashMap<>();
+            target.put(roomId, entry);
+            return target;
+        });
+    }
+
+    public void remove(long roomId) {
+        Entry entry = entries.remove(roomId);
+        if (entry != null) {
+            removeFromCell(entry);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 반경 안의 방을 가까운 순으로 최대 limit개 반환합니다.
+     * 검색 지점이 속한 셀부터 바깥 고리 순서로 확장하고,
+     * 다음 고리까지의 최소 거리가 현재 limit번째 후보보다 멀면 더 보지 않습니다.
+     */
+    public List<Neighbor> findNearest(double latitude, double longitude, double radiusKm, int limit) {
+        if (limit <= 0 || radiusKm <= 0) {
+            return List.of();
+        }
+        double kmPerDegreeLon = KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        long centerRow = cellIndex(latitude);
+        long centerCol = cellIndex(longitude);
+        long maxRowOffset = Math.max(centerRow - cellIndex(latitude - radiusKm / KM_PER_DEGREE),
+                cellIndex(latitude + radiusKm / KM_PER_DEGREE) - centerRow);
+        long maxColOffset = Math.max(centerCol - cellIndex(longitude - radiusKm / kmPerDegreeLon),
+                cellIndex(longitude + radiusKm / kmPerDegreeLon) - centerCol);
+        long maxRing = Math.max(maxRowOffset, maxColOffset);
+
+        // 거리가 가장 먼 후보가 맨 앞에 오도록 해서 limit개만 유지합니다.
+        PriorityQueue<Neighbor> nearest = new PriorityQueue<>(limit + 1,
+                Comparator.comparingDouble(Neighbor::getDistanceKm).reversed());
+        Query query = new Query(latitude, longitude, kmPerDegreeLon, radiusKm, limit, nearest);
+
+        for (long ring = 0; ring <= maxRing; ring++) {
+            double ringDistance = ringLowerBoundKm(query, centerRow, centerCol, ring);
+            if (ringDistance > radiusKm
+                    || (nearest.size() == limit && ringDistance > nearest.peek().distanceKm)) {
+                break;
+            }
+            if (ring == 0) {
+                scanCell(query, centerRow, centerCol);
+                continue;
+            }
+            for (long col = centerCol - ring; col <= centerCol + ring; col++) {
+                scanCell(query, centerRow - ring, col);
+                scanCell(query, centerRow + ring, col);
+            }
+            for (long row = centerRow - ring + 1; row <= centerRow + ring - 1; row++) {
+                scanCell(query, row, centerCol - ring);
+                scanCell(query, row, centerCol + ring);
+            }
+        }
+
+        List<Neighbor> result = new ArrayList<>(nearest);
+        result.sort(Comparator.comparingDouble(Neighbor::getDistanceKm));
+        return Collections.unmodifiableList(result);
+    }
+
+    private void scanCell(Query query, long row, long col) {
+        ConcurrentHashMap<Long, Entry> cell = cells.get(pack(row, col));
+        if (cell == null) {
+            return;
+        }
+        PriorityQueue<Neighbor> nearest = query.nearest;
+        for (Entry entry : cell.values()) {
+            double distance = query.distanceKm(entry.latitude, entry.longitude);
+            if (distance > query.radiusKm) {
+                continue;
+            }
+            if (nearest.size() < query.limit) {
+                nearest.add(new Neighbor(entry.roomId, distance));
+            } else if (distance < nearest.peek().distanceKm) {
+                nearest.poll();
+                nearest.add(new Neighbor(entry.roomId, distance));
+            }
+        }
+    }
+
+    /**
+     * ring번째 고리에 있는 셀까지의 최소 거리 (안쪽 정사각형 경계까지의 거리)
+     */
+    private double ringLowerBoundKm(Query query, long centerRow, long centerCol, long ring) {
+        if (ring == 0) {
+            return 0.0;
+        }
+        double south = (query.latitude - (centerRow - ring + 1) * cellSizeDeg) * KM_PER_DEGREE;
+        double north = ((centerRow + ring) * cellSizeDeg - query.latitude) * KM_PER_DEGREE;
+        double west = (query.longitude - (centerCol - ring + 1) * cellSizeDeg) * query.kmPerDegreeLon;
+        double east = ((centerCol + ring) * cellSizeDeg - query.longitude) * query.kmPerDegreeLon;
+        return Math.min(Math.min(south, north), Math.min(west, east));
+    }
+
+    private void removeFromCell(Entry entry) {
+        cells.computeIfPresent(entry.cellKey, (key, cell) -> {
+            cell.remove(entry.roomId, entry);
+            return cell.isEmpty() ? null : cell;
+        });
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return pack(cellIndex(latitude), cellIndex(longitude));
+    }
+
+    private long cellIndex(double degrees) {
+        return (long) Math.floor(degrees / cellSizeDeg);
+    }
+
+    private static long pack(long row, long col) {
+        return (row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 검색 한 번에 필요한 값 묶음
+     * 도시 규모 반경에서는 등장방형 근사로 충분하므로 삼각함수는 검색당 한 번만 계산합니다.
+     */
+    private static final class Query {
+        private final double latitude;
+        private final double longitude;
+        private final double kmPerDegreeLon;
+        private final double radiusKm;
+        private final int limit;
+        private final PriorityQueue<Neighbor> nearest;
+
+        private Query(double latitude, double longitude, double kmPerDegreeLon,
+                      double radiusKm, int limit, PriorityQueue<Neighbor> nearest) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.kmPerDegreeLon = kmPerDegreeLon;
+            this.radiusKm = radiusKm;
+            this.limit = limit;
+            this.nearest = nearest;
+        }
+
+        private double distanceKm(double lat, double lon) {
+            double dy = (lat - latitude) * KM_PER_DEGREE;
+            double dx = (lon - longitude) * kmPerDegreeLon;
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+
+    private static final class Entry {
+        private final long roomId;
+        private final double latitude;
+        private final double longitude;
+        private final long cellKey;
+
+        private Entry(long roomId, double latitude, double longitude, long cellKey) {
+            this.roomId = roomId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cellKey = cellKey;
+        }
+    }
+
+    public static final class Neighbor {
+        private final long roomId;
+        private final double distanceKm;
+
+        private Neighbor(long roomId, double distanceKm) {
+            this.roomId = roomId;
+            this.distanceKm = distanceKm;
+        }
+
+        public long getRoomId() {
+            return roomId;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+}
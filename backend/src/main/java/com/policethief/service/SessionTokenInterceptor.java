@@ -0,0 +1,79 @@
+package com.policethief.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * STOMP CONNECT 세션 토큰 검증
+ * CONNECT 프레임의 {@code Authorization: Bearer <세션 토큰>} 헤더를 이 노드에서 바로 검증하고,
+ * 성공하면 {@link PlayerPrincipal}을 세션 사용자로 묶어 이후 프레임에서 그대로 쓰게 합니다.
+ * 잘못되거나 만료된 토큰은 ERROR 프레임으로 거부합니다. 토큰 없는 연결도 기본으로 거부하며,
+ * {@code game.session-token.required}를 false로 두면 (로컬 개발용) 받아 주되 입장/위치 갱신만 할 수 있습니다.
+ * 플레이어 본인만 할 수 있는 REST 요청은 같은 헤더를 {@link #requireToken} 으로 확인하며, 이때는 토큰이 항상 필요합니다.
+ */
+@Slf4j
+@Component
+public class SessionTokenInterceptor implements ChannelInterceptor {
+
+    public static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final SessionTokenService sessionTokenService;
+    private final boolean required;
+
+    public SessionTokenInterceptor(SessionTokenService sessionTokenService,
+                                   @Value("${game.session-token.required:true}") boolean required) {
+        this.sessionTokenService = sessionTokenService;
+        this.required = required;
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+        String header = accessor.getFirstNativeHeader(AUTHORIZATION_HEADER);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            if (required) {
+                throw new MessageDeliveryException(message, "세션 토큰이 필요합니다.");
+            }
+            return message;
+        }
+        Long playerId = sessionTokenService.verify(header.substring(BEARER_PREFIX.length()).trim());
+        if (playerId == null) {
+            log.warn("세션 토큰 검증 실패 - sessionId={}", accessor.getSessionId());
+            throw new MessageDeliveryException(message, "유효하지 않거나 만료된 세션 토큰입니다.");
+        }
+        accessor.setUser(new PlayerPrincipal(playerId));
+        return message;
+    }
+
+    /**
+     * REST 요청의 Authorization 헤더로 플레이어를 확인합니다.
+     * 다른 플레이어 대신 요청할 수 없도록 required 설정과 관계없이 토큰이 있어야 하며, 요청 본문의 플레이어 ID는 믿지 않습니다.
+     *
+     * @return 토큰으로 확인된 플레이어 ID
+     */
+    public Long requireToken(String header) {
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "세션 토큰이 필요합니다.");
+        }
+        Long playerId = sessionTokenService.verify(header.substring(BEARER_PREFIX.length()).trim());
+        if (playerId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "유효하지 않거나 만료된 세션 토큰입니다.");
+        }
+        return playerId;
+    }
+}
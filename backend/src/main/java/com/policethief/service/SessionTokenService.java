@@ -0,0 +1,273 @@
+package com.policethief.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 게임 세션 토큰 발급/검증
+ * 카카오 로그인에 성공하면 플레이어 ID와 만료 시각을 HMAC-SHA256으로 서명한 짧은 수명의 토큰을 발급합니다.
+ * 검증은 외부 호출 없이 이 노드 안에서 끝나므로 STOMP CONNECT마다 수 마이크로초면 충분합니다.
+ *
+ * <p>토큰 형식: {@code <keyId>.<playerId>.<만료 epoch 초>.<base64url 서명>}
+ *
+ * <p>키는 여러 개를 함께 들고 있으며 첫 번째 키로만 서명합니다. 키를 교체하면 이전 키는
+ * 그 키로 서명된 토큰이 모두 만료될 때(교체 시각 + TTL)까지만 검증용으로 남습니다.
+ * 여러 노드가 토큰을 주고받는 경우 모든 노드에 같은 {@code game.session-token.keys}를 설정해야 합니다.
+ */
+@Slf4j
+@Service
+public class SessionTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final long ttlSeconds;
+    private final long rotationIntervalMillis;
+    private final SecureRandom random = new SecureRandom();
+    private volatile KeyRing keyRing;
+    private volatile long lastRotationMillis = System.currentTimeMillis();
+
+    public SessionTokenService(
+            @Value("${game.session-token.ttl-seconds:3600}") long ttlSeconds,
+            @Value("${game.session-token.keys:}") String configuredKeys,
+            @Value("${game.session-token.rotation-interval-minutes:0}") long rotationIntervalMinutes) {
+        this.ttlSeconds = ttlSeconds;
+        this.rotationIntervalMillis = TimeUnit.MINUTES.toMillis(rotationIntervalMinutes);
+        List<SigningKey> keys = parseKeys(configuredKeys);
+        if (keys.isEmpty()) {
+            log.warn("game.session-token.keys가 비어 있어 임시 서명 키를 생성합니다. 여러 노드에서는 키를 공유하도록 설정해야 합니다.");
+            keys = List.of(new SigningKey(generateKeyId(), generateSecret(), Long.MAX_VALUE));
+        }
+        this.keyRing = new KeyRing(keys);
+    }
+
+    /**
+     * 플레이어 세션 토큰을 발급합니다.
+     */
+    public IssuedToken issue(long playerId) {
+        SigningKey key = keyRing.current;
+        long expiresAt = currentEpochSeconds() + ttlSeconds;
+        String body = key.keyId + '.' + playerId + '.' + expiresAt;
+        String signature = ENCODER.encodeToString(key.sign(body.getBytes(StandardCharsets.US_ASCII)));
+        return new IssuedToken(body + '.' + signature, expiresAt);
+    }
+
+    /**
+     * 토큰을 검증하고 플레이어 ID를 반환합니다.
+     *
+     * @return 플레이어 ID (형식 오류/알 수 없는 키/서명 불일치/만료 시 null)
+     */
+    public Long verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int keyEnd = token.indexOf('.');
+        int playerEnd = keyEnd < 0 ? -1 : token.indexOf('.', keyEnd + 1);
+        int expiresEnd = playerEnd < 0 ? -1 : token.indexOf('.', playerEnd + 1);
+        if (expiresEnd < 0 || keyEnd == 0) {
+            return null;
+        }
+        long playerId;
+        long expiresAt;
+        try {
+            playerId = Long.parseLong(token, keyEnd + 1, playerEnd, 10);
+            expiresAt = Long.parseLong(token, playerEnd + 1, expiresEnd, 10);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (expiresAt <= currentEpochSeconds()) {
+            return null;
+        }
+        SigningKey key = keyRing.find(token, keyEnd);
+        if (key == null || key.retiredUntil <= currentEpochSeconds()) {
+            return null;
+        }
+        byte[] signature;
+        try {
+            signature = DECODER.decode(token.substring(expiresEnd + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        byte[] expected = key.sign(token.substring(0, expiresEnd).getBytes(StandardCharsets.US_ASCII));
+        return MessageDigest.isEqual(expected, signature) ? playerId : null;
+    }
+
+    /**
+     * 새 키로 서명을 시작합니다. 지금까지의 서명 키는 발급된 토큰이 만료될 때까지 검증에만 쓰입니다.
+     */
+    public synchronized void rotateKey(String keyId, byte[] secret) {
+        validateKeyId(keyId);
+        long retireUntil = currentEpochSeconds() + ttlSeconds;
+        List<SigningKey> next = new ArrayList<>();
+        next.add(new SigningKey(keyId, secret, Long.MAX_VALUE));
+        for (SigningKey key : keyRing.keys) {
+            if (key.keyId.equals(keyId) || key.retiredUntil <= currentEpochSeconds()) {
+                continue;
+            }
+            next.add(key.retiredUntil == Long.MAX_VALUE ? key.retire(retireUntil) : key);
+        }
+        keyRing = new KeyRing(next);
+        lastRotationMillis = System.currentTimeMillis();
+        log.info("세션 토큰 서명 키 교체 - keyId={}, 검증용 키 {}개", keyId, next.size() - 1);
+    }
+
+    /**
+     * 임의로 생성한 키로 교체합니다. (키를 공유하지 않는 단일 노드용)
+     */
+    public void rotateKey() {
+        rotateKey(generateKeyId(), generateSecret());
+    }
+
+    /**
+     * 설정된 주기가 지났으면 키를 자동으로 교체합니다. (game.session-token.rotation-interval-minutes, 0이면 사용 안 함)
+     */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    void scheduledRotation() {
+        if (rotationIntervalMillis > 0 && System.currentTimeMillis() - lastRotationMillis >= rotationIntervalMillis) {
+            rotateKey();
+        }
+    }
+
+    public String getCurrentKeyId() {
+        return keyRing.current.keyId;
+    }
+
+    public List<String> getKeyIds() {
+        List<String> ids = new ArrayList<>();
+        for (SigningKey key : keyRing.keys) {
+            ids.add(key.keyId);
+        }
+        return Collections.unmodifiableList(ids);
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    private static long currentEpochSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    /**
+     * "keyId:base64secret,keyId:base64secret" 형식의 설정을 읽습니다. 첫 번째 키가 서명 키입니다.
+     */
+    private static List<SigningKey> parseKeys(String configuredKeys) {
+        List<SigningKey> keys = new ArrayList<>();
+        if (configuredKeys == null || configuredKeys.isBlank()) {
+            return keys;
+        }
+        for (String entry : configuredKeys.split(",")) {
+            String trimmed = entry.trim();
+            int separator = trimmed.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("game.session-token.keys 형식이 올바르지 않습니다: keyId:base64secret");
+            }
+            String keyId = trimmed.substring(0, separator);
+            validateKeyId(keyId);
+            byte[] secret = Base64.getDecoder().decode(trimmed.substring(separator + 1));
+            if (secret.length < 32) {
+                throw new IllegalArgumentException("세션 토큰 키는 32바이트 이상이어야 합니다: " + keyId);
+            }
+            keys.add(new SigningKey(keyId, secret, Long.MAX_VALUE));
+        }
+        return keys;
+    }
+
+    private static void validateKeyId(String keyId) {
+        if (keyId == null || keyId.isEmpty() || !keyId.chars().allMatch(c ->
+                (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+            throw new IllegalArgumentException("키 ID는 영문/숫자/-/_ 만 쓸 수 있습니다: " + keyId);
+        }
+    }
+
+    private String generateKeyId() {
+        byte[] id = new byte[6];
+        random.nextBytes(id);
+        return ENCODER.encodeToString(id);
+    }
+
+    private byte[] generateSecret() {
+        byte[] secret = new byte[32];
+        random.nextBytes(secret);
+        return secret;
+    }
+
+    /**
+     * 발급된 토큰과 만료 시각(토큰 형식과 같은 epoch 초, 응답에 실을 때는 밀리초로 바꿈)
+     */
+    public record IssuedToken(String token, long expiresAt) {
+    }
+
+    /**
+     * 불변 키 목록. 교체 시에는 새 목록으로 통째로 바꿉니다.
+     */
+    private static final class KeyRing {
+        private final SigningKey current;
+        private final List<SigningKey> keys;
+
+        private KeyRing(List<SigningKey> keys) {
+            this.current = keys.get(0);
+            this.keys = List.copyOf(keys);
+        }
+
+        /**
+         * token의 [0, keyEnd) 구간이 키 ID인 키. 보통 키가 한두 개라 부분 문자열을 만들지 않고 비교합니다.
+         */
+        private SigningKey find(String token, int keyEnd) {
+            for (SigningKey key : keys) {
+                if (key.keyId.length() == keyEnd && token.startsWith(key.keyId)) {
+                    return key;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class SigningKey {
+        private final String keyId;
+        private final byte[] secret;
+        /** 이 시각(epoch 초)까지만 검증에 사용 (서명 키는 Long.MAX_VALUE) */
+        private final long retiredUntil;
+        /** Mac은 스레드 안전하지 않아 스레드마다 초기화된 인스턴스를 재사용합니다. */
+        private final ThreadLocal<Mac> mac;
+
+        private SigningKey(String keyId, byte[] secret, long retiredUntil) {
+            this.keyId = keyId;
+            this.secret = secret.clone();
+            this.retiredUntil = retiredUntil;
+            SecretKeySpec spec = new SecretKeySpec(this.secret, ALGORITHM);
+            this.mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac instance = Mac.getInstance(ALGORITHM);
+                    instance.init(spec);
+                    return instance;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("HmacSHA256을 사용할 수 없습니다.", e);
+                }
+            });
+        }
+
+        private SigningKey retire(long until) {
+            return new SigningKey(keyId, secret, until);
+        }
+
+        private byte[] sign(byte[] data) {
+            return mac.get().doFinal(data);
+        }
+    }
+}
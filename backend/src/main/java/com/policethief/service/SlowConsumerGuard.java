@@ -0,0 +1,298 @@
+package com.policethief.service;
+
+import com.policethief.cluster.RoomFrame;
+import com.policethief.dto.GameEventMessage;
+import com.policethief.dto.GameEventType;
+import com.policethief.dto.PlayerPosition;
+import com.policethief.dto.PositionsPayload;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * 느린 세션 보호
+ * 세션마다 clientOutboundChannel 에 들어갔지만 아직 소켓에 쓰이지 않은 프레임 수(밀린 프레임)를 셉니다.
+ * 밀린 프레임이 max-pending-frames 이상이면 새 POSITIONS 프레임은 보내지 않고 세션별로 하나에 합쳐 두며(플레이어마다 최신 위치만),
+ * 밀린 프레임이 줄어들면 합친 프레임 하나만 보냅니다. 느린 클라이언트는 지난 위치를 차례로 받는 대신 최신 상태를 받습니다.
+ * JOIN/LEAVE/START/TAG 같은 나머지 이벤트는 합치거나 버리지 않으며, 그래도 버퍼/시간 제한을 넘는 세션은 Spring이 연결을 끊습니다.
+ * 합쳐 둔 프레임은 방 인원만큼의 위치만 담으므로 세션당 메모리는 전송 버퍼 제한 + 방 인원 수로 묶입니다.
+ */
+@Slf4j
+@Component
+public class SlowConsumerGuard implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    private final boolean conflation;
+    private final int maxPendingFrames;
+    private final long stallNanos;
+    private final ConcurrentHashMap<String, SessionOutbound> sessions = new ConcurrentHashMap<>();
+
+    private final LongAdder conflatedFrames = new LongAdder();
+    private final LongAdder supersededPositions = new LongAdder();
+    private volatile HeldFrameSender sender;
+
+    public SlowConsumerGuard(@Value("${game.outbound.conflation:true}") boolean conflation,
+                             @Value("${game.outbound.max-pending-frames:4}") int maxPendingFrames,
+                             @Value("${game.outbound.send-time-limit-millis:10000}") long sendTimeLimitMillis) {
+        this.conflation = conflation;
+        this.maxPendingFrames = maxPendingFrames;
+        this.stallNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMillis);
+    }
+
+    /**
+     * 합쳐 둔 프레임을 실제로 보낼 쪽 (LocalEventDelivery)
+     */
+    public void setHeldFrameSender(HeldFrameSender sender) {
+        this.sender = sender;
+    }
+
+    /**
+     * 세션으로 POSITIONS 프레임을 보내기 전에 거칩니다.
+     * 밀려 있으면 프레임을 합쳐 두고 null 을, 아니면 지금 보낼 프레임(합쳐 둔 것이 있었으면 합친 프레임)을 돌려줍니다.
+     */
+    public RoomFrame admitPositions(String sessionId, Long roomId, RoomFrame frame) {
+        SessionOutbound outbound = sessions.get(sessionId);
+        if (!conflation || outbound == null || !frame.isPositions()) {
+            return frame;
+        }
+        synchronized (outbound) {
+            HeldPositions held = outbound.held.get(roomId);
+            boolean behind = outbound.isBehind();
+            if (held == null) {
+                if (!behind) {
+                    return frame;
+                }
+                held = new HeldPositions();
+                outbound.held.put(roomId, held);
+                outbound.holding = true;
+            } else {
+                outbound.conflated++;
+                conflatedFrames.increment();
+            }
+            int superseded = held.merge((PositionsPayload) frame.getEvent().getPayload(), frame.getPlayerIndex());
+            outbound.superseded += superseded;
+            supersededPositions.add(superseded);
+            if (behind) {
+                return null;
+            }
+            outbound.held.remove(roomId);
+            outbound.holding = !outbound.held.isEmpty();
+            return held.toFrame(roomId);
+        }
+    }
+
+    /**
+     * clientOutboundChannel 에 들어가는 세션 프레임을 셉니다.
+     */
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        SessionOutbound outbound = sessionId != null ? sessions.get(sessionId) : null;
+        if (outbound != null) {
+            int pending = outbound.pending.incrementAndGet();
+            if (pending > outbound.maxPending) {
+                outbound.maxPending = pending;
+            }
+        }
+        return message;
+    }
+
+    @Override
+    @NonNull
+    public WebSocketHandler decorate(@NonNull WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(@NonNull WebSocketSession session) throws Exception {
+                SessionOutbound outbound = new SessionOutbound();
+                sessions.put(session.getId(), outbound);
+                super.afterConnectionEstablished(new CountingSession(session, outbound));
+            }
+
+            @Override
+            public void afterConnectionClosed(@NonNull WebSocketSession session, @NonNull CloseStatus closeStatus)
+                    throws Exception {
+                SessionOutbound outbound = sessions.remove(session.getId());
+                if (outbound != null && outbound.conflated > 0) {
+                    log.info("느린 세션 종료 - sessionId={}, 합친 위치 프레임 {}건, 덮어쓴 위치 {}건, 최대 밀린 프레임 {}",
+                            session.getId(), outbound.conflated, outbound.superseded, outbound.maxPending);
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * 세션 상태 (연결된 세션이 아니면 null)
+     */
+    public SessionStats getSessionStats(String sessionId) {
+        SessionOutbound outbound = sessions.get(sessionId);
+        if (outbound == null) {
+            return null;
+        }
+        synchronized (outbound) {
+            return new SessionStats(outbound.pending.get(), outbound.maxPending, outbound.conflated,
+                    outbound.superseded, outbound.holding);
+        }
+    }
+
+    public long getConflatedFrameCount() {
+        return conflatedFrames.sum();
+    }
+
+    public long getSupersededPositionCount() {
+        return supersededPositions.sum();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * 소켓 쓰기가 끝날 때마다 밀린 프레임을 줄이고, 충분히 줄었으면 합쳐 둔 프레임을 보냅니다.
+     */
+    private void onWritten(String sessionId, SessionOutbound outbound) {
+        outbound.pending.updateAndGet(pending -> pending > 0 ? pending - 1 : 0);
+        outbound.lastWrittenAt = System.nanoTime();
+        if (!outbound.holding || outbound.pending.get() >= maxPendingFrames) {
+            return;
+        }
+        Map<Long, HeldPositions> ready;
+        synchronized (outbound) {
+            if (outbound.held.isEmpty()) {
+                return;
+            }
+            ready = new HashMap<>(outbound.held);
+            outbound.held.clear();
+            outbound.holding = false;
+        }
+        HeldFrameSender target = sender;
+        if (target != null) {
+            ready.forEach((roomId, held) -> target.send(roomId, sessionId, held.toFrame(roomId)));
+        }
+    }
+
+    /**
+     * 세션 하나의 전송 상태. held 와 카운터는 이 객체의 모니터로 보호합니다.
+     */
+    private final class SessionOutbound {
+        private final AtomicInteger pending = new AtomicInteger();
+        private final Map<Long, HeldPositions> held = new HashMap<>(2);
+        private volatile boolean holding;
+        private volatile long writeStartedAt;
+        private volatile long lastWrittenAt = System.nanoTime();
+        private volatile int maxPending;
+        private long conflated;
+        private long superseded;
+
+        private boolean isBehind() {
+            if (pending.get() < maxPendingFrames) {
+                return false;
+            }
+            // 쓰는 중도 아닌데 제한 시간 넘게 아무것도 쓰이지 않았다면 세지 못한 프레임이 남은 것으로 보고 다시 셉니다.
+            if (writeStartedAt == 0 && System.nanoTime() - lastWrittenAt > stallNanos) {
+                pending.set(0);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 소켓 쓰기 완료를 알려 주는 세션 래퍼. Spring의 ConcurrentWebSocketSessionDecorator 안쪽에 놓입니다.
+     */
+    private final class CountingSession extends WebSocketSessionDecorator {
+        private final SessionOutbound outbound;
+
+        private CountingSession(WebSocketSession session, SessionOutbound outbound) {
+            super(session);
+            this.outbound = outbound;
+        }
+
+        @Override
+        public void sendMessage(@NonNull WebSocketMessage<?> message) throws IOException {
+            outbound.writeStartedAt = System.nanoTime();
+            try {
+                super.sendMessage(message);
+            } finally {
+                outbound.writeStartedAt = 0;
+                onWritten(getId(), outbound);
+            }
+        }
+    }
+
+    /**
+     * 아직 보내지 못한 위치 (플레이어마다 최신 값만)
+     */
+    private static final class HeldPositions {
+        private final LinkedHashMap<Long, PlayerPosition> positions = new LinkedHashMap<>();
+        private final LinkedHashSet<Long> hidden = new LinkedHashSet<>();
+        private ToIntFunction<Long> playerIndex;
+
+        /**
+         * @return 새 값으로 덮어쓴(보내지 않고 버린) 항목 수
+         */
+        private int merge(PositionsPayload payload, ToIntFunction<Long> index) {
+            int superseded = 0;
+            for (PlayerPosition position : payload.getPositions()) {
+                if (positions.put(position.getPlayerId(), position) != null) {
+                    superseded++;
+                }
+                hidden.remove(position.getPlayerId());
+            }
+            for (Long playerId : payload.getHidden()) {
+                if (positions.remove(playerId) != null) {
+                    superseded++;
+                }
+                hidden.add(playerId);
+            }
+            playerIndex = index;
+            return superseded;
+        }
+
+        private RoomFrame toFrame(Long roomId) {
+            GameEventMessage message = GameEventMessage.of(GameEventType.POSITIONS, roomId, null,
+                    new PositionsPayload(new ArrayList<>(positions.values()), new ArrayList<>(hidden)));
+            return RoomFrame.positions(message, playerIndex);
+        }
+    }
+
+    /**
+     * @param pending    clientOutboundChannel 에 들어갔지만 아직 쓰이지 않은 프레임 수
+     * @param maxPending 가장 많이 밀렸던 프레임 수
+     * @param conflated  합쳐져서 따로 보내지 않은 POSITIONS 프레임 수
+     * @param superseded 더 새 위치로 덮어써 보내지 않은 플레이어 위치 수
+     * @param holding    지금 합쳐 둔 프레임이 있으면 true
+     */
+    public record SessionStats(int pending, int maxPending, long conflated, long superseded, boolean holding) {
+    }
+
+    /**
+     * 합쳐 둔 프레임을 세션 하나로 보내는 쪽
+     */
+    public interface HeldFrameSender {
+        void send(Long roomId, String sessionId, RoomFrame frame);
+    }
+}
@@ -0,0 +1,252 @@
+package com.policethief.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 플레이어별로 주기마다 바뀌는 태그 QR 코드 발급/검증
+ * 코드는 방 비밀 키로 (플레이어 ID, 시간 구간 번호)를 HMAC-SHA256으로 서명해 앞 mac-bytes 만 남긴 짧은 문자열입니다.
+ * 방 비밀 키는 서버 비밀 키와 방 ID로 그때그때 유도하므로, 검증은 발급 기록이나 캐시를 찾지 않고 HMAC 두 번으로 끝납니다.
+ * 방 ID는 재시작 후에도 다시 쓰이지 않으므로 다른 방에서 찍은 코드는 통하지 않습니다.
+ *
+ * <p>코드 형식: {@code <플레이어 ID>.<구간 번호 36진수>.<base64url 서명>}
+ *
+ * <p>현재 구간과 그 전 accepted-windows - 1 개 구간의 코드를 받으므로, 화면에 띄운 코드는 window-seconds 에서
+ * window-seconds × accepted-windows 사이 동안 유효합니다. 여러 노드에서는 모든 노드에 같은 {@code game.tag-code.secret}을 설정해야 합니다.
+ */
+@Slf4j
+@Service
+public class TagCodeService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final int ROOM_KEY_BYTES = 32;
+
+    private final boolean enabled;
+    private final long windowSeconds;
+    private final int acceptedWindows;
+    private final int macBytes;
+    /** Mac은 스레드 안전하지 않아 스레드마다 하나씩 두고, 서버 키로 방 키를 유도할 때와 방 키로 서명할 때 번갈아 씁니다. */
+    private final ThreadLocal<Signer> signer;
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public TagCodeService(@Value("${game.tag-code.enabled:true}") boolean enabled,
+                          @Value("${game.tag-code.secret:}") String configuredSecret,
+                          @Value("${game.tag-code.window-seconds:30}") long windowSeconds,
+                          @Value("${game.tag-code.accepted-windows:2}") int acceptedWindows,
+                          @Value("${game.tag-code.mac-bytes:8}") int macBytes) {
+        this.enabled = enabled;
+        this.windowSeconds = Math.max(1, windowSeconds);
+        this.acceptedWindows = Math.max(1, acceptedWindows);
+        this.macBytes = Math.max(4, Math.min(32, macBytes));
+        byte[] secret;
+        if (configuredSecret == null || configuredSecret.isBlank()) {
+            log.warn("game.tag-code.secret가 비어 있어 임시 키를 생성합니다. 재시작하면 발급된 코드가 모두 무효가 되며, 여러 노드에서는 키를 공유하도록 설정해야 합니다.");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            secret = Base64.getDecoder().decode(configuredSecret.trim());
+            if (secret.length < 32) {
+                throw new IllegalArgumentException("태그 코드 키는 32바이트 이상이어야 합니다.");
+            }
+        }
+        SecretKeySpec serverKey = new SecretKeySpec(secret, ALGORITHM);
+        this.signer = ThreadLocal.withInitial(() -> new Signer(serverKey));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 플레이어의 현재 구간 코드를 발급합니다.
+     */
+    public IssuedCode issue(long roomId, long playerId) {
+        long window = currentWindow();
+        byte[] mac = signer.get().sign(roomId, playerId, window);
+        issued.increment();
+        String code = playerId + "." + Long.toString(window, 36) + "." + ENCODER.encodeToString(truncate(mac));
+        // 다음 구간이 시작될 때 새 코드로 바꾸면 되고, 그 뒤로도 accepted-windows - 1 구간 동안은 받아 줍니다.
+        return new IssuedCode(code, TimeUnit.SECONDS.toMillis((window + 1) * windowSeconds),
+                TimeUnit.SECONDS.toMillis((window + acceptedWindows) * windowSeconds));
+    }
+
+    /**
+     * 코드가 이 방에서 targetId 플레이어에게 발급된 유효한 코드인지 확인합니다.
+     *
+     * @param targetId 태그 대상 (null이면 코드에 담긴 플레이어를 대상으로 봅니다)
+     */
+    public Verdict verify(long roomId, Long targetId, String code) {
+        Verdict verdict = check(roomId, targetId, code);
+        if (verdict == Verdict.VALID) {
+            accepted.increment();
+        } else {
+            rejected.increment();
+        }
+        return verdict;
+    }
+
+    /**
+     * 코드에 담긴 플레이어 ID (형식이 맞지 않으면 null). 서명은 확인하지 않습니다.
+     */
+    public static Long playerIdOf(String code) {
+        int playerEnd = code == null ? -1 : code.indexOf('.');
+        if (playerEnd <= 0) {
+            return null;
+        }
+        try {
+            return Long.parseLong(code, 0, playerEnd, 10);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Verdict check(long roomId, Long targetId, String code) {
+        if (code == null) {
+            return Verdict.MALFORMED;
+        }
+        int playerEnd = code.indexOf('.');
+        int windowEnd = playerEnd <= 0 ? -1 : code.indexOf('.', playerEnd + 1);
+        if (windowEnd < 0) {
+            return Verdict.MALFORMED;
+        }
+        long playerId;
+        long window;
+        try {
+            playerId = Long.parseLong(code, 0, playerEnd, 10);
+            window = Long.parseLong(code, playerEnd + 1, windowEnd, 36);
+        } catch (NumberFormatException e) {
+            return Verdict.MALFORMED;
+        }
+        if (targetId != null && targetId != playerId) {
+            return Verdict.WRONG_PLAYER;
+        }
+        long current = currentWindow();
+        if (window > current || window <= current - acceptedWindows) {
+            return Verdict.EXPIRED;
+        }
+        byte[] presented;
+        try {
+            presented = DECODER.decode(code.substring(windowEnd + 1));
+        } catch (IllegalArgumentException e) {
+            return Verdict.MALFORMED;
+        }
+        if (presented.length != macBytes) {
+            return Verdict.MALFORMED;
+        }
+        byte[] expected = truncate(signer.get().sign(roomId, playerId, window));
+        return MessageDigest.isEqual(expected, presented) ? Verdict.VALID : Verdict.FORGED;
+    }
+
+    private long currentWindow() {
+        return System.currentTimeMillis() / 1000 / windowSeconds;
+    }
+
+    private byte[] truncate(byte[] mac) {
+        byte[] truncated = new byte[macBytes];
+        System.arraycopy(mac, 0, truncated, 0, macBytes);
+        return truncated;
+    }
+
+    /**
+     * 발급한 코드 수
+     */
+    public long getIssuedCount() {
+        return issued.sum();
+    }
+
+    /**
+     * 검증을 통과한 코드 수
+     */
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    /**
+     * 형식 오류/다른 플레이어/만료/위조로 거부한 코드 수
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * 검증 결과
+     */
+    public enum Verdict {
+        VALID,
+        /** 코드 형식이 아님 */
+        MALFORMED,
+        /** 태그 대상이 아닌 다른 플레이어의 코드 */
+        WRONG_PLAYER,
+        /** 받아 주는 구간을 벗어난 코드 */
+        EXPIRED,
+        /** 서명이 맞지 않음 (다른 방의 코드이거나 위조) */
+        FORGED
+    }
+
+    /**
+     * @param code          QR로 띄울 코드
+     * @param refreshAt     새 코드로 바꿔야 하는 시각 (epoch 밀리초)
+     * @param validUntil    이 코드를 받아 주는 마지막 시각 (epoch 밀리초, 이 시각 미만)
+     */
+    public record IssuedCode(String code, long refreshAt, long validUntil) {
+    }
+
+    /**
+     * 스레드 하나의 서명 도구. 입력 버퍼와 방 키 버퍼를 재사용합니다.
+     */
+    private static final class Signer {
+        private final Mac mac;
+        private final SecretKeySpec serverKey;
+        private final byte[] roomInput = new byte[9];
+        private final byte[] codeInput = new byte[16];
+        private final byte[] roomKey = new byte[ROOM_KEY_BYTES];
+
+        private Signer(SecretKeySpec serverKey) {
+            this.serverKey = serverKey;
+            try {
+                this.mac = Mac.getInstance(ALGORITHM);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256을 사용할 수 없습니다.", e);
+            }
+        }
+
+        private byte[] sign(long roomId, long playerId, long window) {
+            try {
+                // 방 키 = HMAC(서버 키, 'R' || 방 ID)
+                roomInput[0] = 'R';
+                putLong(roomInput, 1, roomId);
+                mac.init(serverKey);
+                mac.update(roomInput);
+                mac.doFinal(roomKey, 0);
+                // 코드 서명 = HMAC(방 키, 플레이어 ID || 구간 번호)
+                putLong(codeInput, 0, playerId);
+                putLong(codeInput, 8, window);
+                mac.init(new SecretKeySpec(roomKey, ALGORITHM));
+                return mac.doFinal(codeInput);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("태그 코드 서명에 실패했습니다.", e);
+            }
+        }
+
+        private static void putLong(byte[] out, int offset, long value) {
+            for (int i = 7; i >= 0; i--) {
+                out[offset + i] = (byte) value;
+                value >>>= 8;
+            }
+        }
+    }
+}
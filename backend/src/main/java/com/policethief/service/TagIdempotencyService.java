@@ -0,0 +1,116 @@
+package com.policethief.service;
+
+import com.policethief.dto.GameEventMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 태그 중복 처리 방지
+ * 모바일 연결이 불안정해 클라이언트가 같은 태그를 다시 보내도 체포가 두 번 일어나지 않도록,
+ * 받아들인 태그의 결과를 (경찰, 도둑) 쌍으로 window-seconds 동안 기억해 두고 같은 쌍의 태그가 다시 오면 그 결과를 돌려줍니다.
+ * 방마다 최근 max-entries-per-room 건만 삽입 순서대로 들고 있으므로 메모리는 방 수에 비례해 고정됩니다.
+ * 태그는 방 소유 노드의 레인에서 처리되지만, 조회/기록은 방 단위 잠금으로 감싸 어느 스레드에서 불러도 안전합니다.
+ */
+@Service
+public class TagIdempotencyService {
+
+    private final long windowNanos;
+    private final int maxEntriesPerRoom;
+    private final ConcurrentHashMap<Long, Receipts> rooms = new ConcurrentHashMap<>();
+    private final LongAdder duplicates = new LongAdder();
+
+    public TagIdempotencyService(@Value("${game.tag-code.idempotency-window-seconds:60}") long windowSeconds,
+                                 @Value("${game.tag-code.idempotency-max-entries-per-room:256}") int maxEntriesPerRoom) {
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.maxEntriesPerRoom = Math.max(1, maxEntriesPerRoom);
+    }
+
+    /**
+     * 창 안에 이미 받아들인 같은 태그가 있으면 그 결과 이벤트, 없으면 null
+     */
+    public GameEventMessage findDuplicate(Long roomId, long taggerId, long targetId) {
+        Receipts receipts = rooms.get(roomId);
+        if (receipts == null) {
+            return null;
+        }
+        GameEventMessage result;
+        synchronized (receipts) {
+            Receipt receipt = receipts.get(new TagKey(taggerId, targetId));
+            if (receipt == null) {
+                return null;
+            }
+            if (System.nanoTime() - receipt.acceptedAt > windowNanos) {
+                receipts.remove(new TagKey(taggerId, targetId));
+                return null;
+            }
+            result = receipt.result;
+        }
+        duplicates.increment();
+        return result;
+    }
+
+    /**
+     * 받아들인 태그의 결과를 기억합니다.
+     */
+    public void remember(Long roomId, long taggerId, long targetId, GameEventMessage result) {
+        Receipts receipts = rooms.computeIfAbsent(roomId, id -> new Receipts(maxEntriesPerRoom));
+        synchronized (receipts) {
+            receipts.put(new TagKey(taggerId, targetId), new Receipt(result, System.nanoTime()));
+        }
+    }
+
+    /**
+     * 도둑이 풀려나 다시 잡힐 수 있게 되면 그 도둑을 대상으로 한 기록을 지웁니다.
+     */
+    public void forgetTarget(Long roomId, long targetId) {
+        Receipts receipts = rooms.get(roomId);
+        if (receipts == null) {
+            return;
+        }
+        synchronized (receipts) {
+            receipts.keySet().removeIf(key -> key.targetId() == targetId);
+        }
+    }
+
+    public void removeRoom(Long roomId) {
+        rooms.remove(roomId);
+    }
+
+    /**
+     * 중복으로 처리하지 않은 태그 수
+     */
+    public long getDuplicateCount() {
+        return duplicates.sum();
+    }
+
+    private record TagKey(long taggerId, long targetId) {
+    }
+
+    private record Receipt(GameEventMessage result, long acceptedAt) {
+    }
+
+    /**
+     * 가득 차면 가장 먼저 들어온 기록부터 버리는 방 하나의 기록
+     */
+    private static final class Receipts extends LinkedHashMap<TagKey, Receipt> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+
+        private Receipts(int maxEntries) {
+            super(16, 0.75f, false);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TagKey, Receipt> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.policethief.service;
+
+import com.policethief.dto.WireFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 연결별 위치 프레임 인코딩 협상
+ * 클라이언트가 CONNECT 프레임에 {@code game-encoding: compact} 헤더를 보내고,
+ * 바이너리 프레임을 그대로 받을 수 있는 네이티브 WebSocket 엔드포인트로 접속한 경우에만 COMPACT를 사용합니다.
+ * SockJS는 텍스트 프레임만 전달하므로 항상 JSON으로 대체됩니다.
+ */
+@Slf4j
+@Component
+public class WireFormatNegotiator implements ChannelInterceptor {
+
+    public static final String ENCODING_HEADER = "game-encoding";
+    private static final String NATIVE_TRANSPORT_ATTRIBUTE = "game.nativeTransport";
+
+    private final ConcurrentHashMap<String, WireFormat> sessionFormats = new ConcurrentHashMap<>();
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        switch (accessor.getCommand()) {
+            case CONNECT -> negotiate(accessor);
+            case DISCONNECT -> sessionFormats.remove(accessor.getSessionId());
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    public WireFormat formatOf(String sessionId) {
+        return sessionFormats.getOrDefault(sessionId, WireFormat.JSON);
+    }
+
+    /**
+     * 네이티브 WebSocket 엔드포인트 핸드셰이크에 표시를 남기는 인터셉터
+     */
+    public HandshakeInterceptor nativeTransportMarker() {
+        return new HandshakeInterceptor() {
+            @Override
+            public boolean beforeHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                           @NonNull WebSocketHandler wsHandler, @NonNull Map<String, Object> attributes) {
+                attributes.put(NATIVE_TRANSPORT_ATTRIBUTE, Boolean.TRUE);
+                return true;
+            }
+
+            @Override
+            public void afterHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                       @NonNull WebSocketHandler wsHandler, Exception exception) {
+            }
+        };
+    }
+
+    private void negotiate(StompHeaderAccessor accessor) {
+        String requested = accessor.getFirstNativeHeader(ENCODING_HEADER);
+        if (requested == null || !WireFormat.COMPACT.name().equalsIgnoreCase(requested)) {
+            return;
+        }
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (attributes == null || !Boolean.TRUE.equals(attributes.get(NATIVE_TRANSPORT_ATTRIBUTE))) {
+            log.debug("COMPACT 인코딩 요청을 JSON으로 대체 (네이티브 WebSocket 아님) - sessionId={}", accessor.getSessionId());
+            return;
+        }
+        sessionFormats.put(accessor.getSessionId(), WireFormat.COMPACT);
+    }
+}
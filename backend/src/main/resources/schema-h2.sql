@@ -0,0 +1,12 @@
+-- 플레이어 위치 이력 (분쟁 확인/리플레이용, LocationTrailWriter가 묶어서 기록)
+CREATE TABLE IF NOT EXISTS location_trail (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    room_id     BIGINT NOT NULL,
+    player_id   BIGINT NOT NULL,
+    latitude    DOUBLE NOT NULL,
+    longitude   DOUBLE NOT NULL,
+    accuracy    DOUBLE,
+    recorded_at BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_location_trail_room_time ON location_trail (room_id, recorded_at);
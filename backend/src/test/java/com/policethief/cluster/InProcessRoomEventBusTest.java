@@ -0,0 +1,158 @@
+package com.policethief.cluster;
+
+import com.policethief.RunningManGameApplication;
+import com.policethief.domain.GameRoom;
+import com.policethief.dto.JoinRoomRequest;
+import com.policethief.dto.PlayerRole;
+import com.policethief.dto.RosterEntry;
+import com.policethief.service.GameRoomService;
+import com.policethief.service.GameRoomSessionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 클러스터 이름으로 띄운 노드 세 개가 방 소유권, 명령 전달, 노드 이탈 시 인계를 맞게 하는지 확인합니다.
+ * 노드마다 따로 애플리케이션 컨텍스트를 띄우고, 명령은 이벤트 버스에 직접 보냅니다.
+ */
+class InProcessRoomEventBusTest {
+
+    private static final int NODES = 3;
+    private static final long WAIT_MILLIS = 10_000;
+
+    private final String clusterName = "bus-test-" + UUID.randomUUID();
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @AfterEach
+    void closeNodes() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void commandsRunOnTheOwnerAndTheRosterSurvivesItsLeaving() throws Exception {
+        for (int n = 0; n < NODES; n++) {
+            nodes.add(startNode("node-" + n));
+        }
+        GameRoom room = nodes.get(0).getBean(GameRoomService.class)
+                .createRoom("bus-test", "test", 37.5, 127.0, null);
+        Long roomId = room.getId();
+
+        // 모든 노드가 같은 링을 보므로 소유 노드에 대한 답이 같습니다.
+        String owner = busOf(nodes.get(0)).ownerOf(roomId);
+        for (ConfigurableApplicationContext node : nodes) {
+            assertThat(busOf(node).ownerOf(roomId)).isEqualTo(owner);
+        }
+        ConfigurableApplicationContext ownerNode = nodeNamed(owner);
+        ConfigurableApplicationContext sender = nodes.stream()
+                .filter(node -> node != ownerNode)
+                .findFirst()
+                .orElseThrow();
+
+        // 소유 노드가 아닌 노드로 보낸 입장 명령은 소유 노드에서만 처리됩니다.
+        busOf(sender).dispatch(join(roomId, 1L, PlayerRole.POLICE));
+        busOf(sender).dispatch(join(roomId, 2L, PlayerRole.THIEF));
+        busOf(sender).dispatch(join(roomId, 3L, PlayerRole.THIEF));
+        awaitTrue(() -> sessionsOf(ownerNode).getRoomSize(roomId) == 3);
+        for (ConfigurableApplicationContext node : nodes) {
+            if (node != ownerNode) {
+                assertThat(sessionsOf(node).getRoomIds()).doesNotContain(roomId);
+            }
+        }
+        List<RosterEntry> roster = sessionsOf(ownerNode).getRoster(roomId);
+        Long hostId = sessionsOf(ownerNode).getHostId(roomId);
+
+        // 소유 노드가 내려가면 남은 노드 중 새 소유 노드가 명단/역할/인덱스/방장을 그대로 넘겨받습니다.
+        nodes.remove(ownerNode);
+        ownerNode.close();
+        String newOwner = busOf(nodes.get(0)).ownerOf(roomId);
+        assertThat(newOwner).isNotEqualTo(owner);
+        for (ConfigurableApplicationContext node : nodes) {
+            assertThat(busOf(node).ownerOf(roomId)).isEqualTo(newOwner);
+        }
+        ConfigurableApplicationContext newOwnerNode = nodeNamed(newOwner);
+        awaitTrue(() -> sessionsOf(newOwnerNode).getRoomSize(roomId) == roster.size());
+        assertThat(sessionsOf(newOwnerNode).getRoster(roomId)).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrderElementsOf(roster);
+        assertThat(sessionsOf(newOwnerNode).getHostId(roomId)).isEqualTo(hostId);
+
+        // 인계 뒤에는 남은 노드 어디로 보낸 명령도 새 소유 노드에서 처리됩니다.
+        for (ConfigurableApplicationContext node : nodes) {
+            busOf(node).dispatch(join(roomId, 10L + nodes.indexOf(node), null));
+        }
+        awaitTrue(() -> sessionsOf(newOwnerNode).getRoomSize(roomId) == roster.size() + nodes.size());
+    }
+
+    @Test
+    void clusterIsDiscardedWhenItsLastNodeLeaves() throws Exception {
+        for (int n = 0; n < 2; n++) {
+            nodes.add(startNode("node-" + n));
+        }
+        nodes.get(0).getBean(GameRoomService.class).createRoom("bus-test", "test", 37.5, 127.0, null);
+        nodes.forEach(ConfigurableApplicationContext::close);
+        nodes.clear();
+
+        // 같은 이름으로 다시 잡으면 이전 방 ID를 이어 쓰지 않는 새 클러스터입니다.
+        InProcessCluster cluster = InProcessCluster.attach(clusterName, 16);
+        try {
+            assertThat(cluster.getRing().getNodes()).isEmpty();
+            assertThat(cluster.nextRoomId()).isEqualTo(1);
+        } finally {
+            cluster.detach();
+        }
+    }
+
+    private ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(RunningManGameApplication.class).run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:mem:" + clusterName + "-" + nodeId,
+                "--logging.level.root=WARN",
+                "--game.cluster.mode=in-process",
+                "--game.cluster.name=" + clusterName,
+                "--game.cluster.node-id=" + nodeId,
+                "--game.journal.enabled=false",
+                "--game.trail.enabled=false");
+    }
+
+    private ConfigurableApplicationContext nodeNamed(String nodeId) {
+        return nodes.stream()
+                .filter(node -> busOf(node).getLocalNodeId().equals(nodeId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static RoomEventBus busOf(ConfigurableApplicationContext node) {
+        return node.getBean(RoomEventBus.class);
+    }
+
+    private static GameRoomSessionService sessionsOf(ConfigurableApplicationContext node) {
+        return node.getBean(GameRoomSessionService.class);
+    }
+
+    private static RoomCommand join(Long roomId, Long playerId, PlayerRole role) {
+        JoinRoomRequest request = new JoinRoomRequest();
+        request.setPlayerId(playerId);
+        request.setNickname("p" + playerId);
+        request.setRole(role);
+        return new RoomCommand(RoomCommand.Type.JOIN, roomId, null, request);
+    }
+
+    /**
+     * 명령은 소유 노드의 레인에서 비동기로 처리되므로 결과가 보일 때까지 기다립니다.
+     */
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition within %d ms", WAIT_MILLIS).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
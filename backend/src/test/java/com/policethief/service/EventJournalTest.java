@@ -0,0 +1,158 @@
+package com.policethief.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 프로세스가 레코드를 쓰다 죽었거나 세그먼트가 손상된 뒤 다시 열었을 때 저널이 유효한 레코드까지만 읽고,
+ * 그 끝에서 새 세그먼트를 이어 쓰는지 확인합니다.
+ * 레코드 본문은 모두 같은 길이라 n번째 레코드는 세그먼트의 n * RECORD_BYTES 위치에서 시작합니다.
+ */
+class EventJournalTest {
+
+    private static final int SEGMENT_BYTES = 64 * 1024;
+    private static final int HEADER_BYTES = 8;
+    private static final int BODY_BYTES = 16;
+    private static final int RECORD_BYTES = HEADER_BYTES + BODY_BYTES;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void tornRecordIsDroppedAndWritingResumesAtItsStart() throws IOException {
+        try (EventJournal journal = EventJournal.open(directory, SEGMENT_BYTES)) {
+            append(journal, "record-0", "record-1", "record-2");
+        }
+        // 네 번째 레코드의 길이까지만 쓰고 본문 중간에서 죽은 것처럼 파일을 자릅니다.
+        Path segment = segmentAt(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, BODY_BYTES), 3L * RECORD_BYTES);
+            channel.truncate(3L * RECORD_BYTES + HEADER_BYTES + BODY_BYTES / 2);
+        }
+
+        try (EventJournal journal = EventJournal.open(directory, SEGMENT_BYTES)) {
+            assertThat(journal.position()).isEqualTo(3L * RECORD_BYTES);
+            assertThat(bodies(journal, 0)).containsExactly("record-0", "record-1", "record-2");
+
+            append(journal, "record-3");
+            assertThat(bodies(journal, 0)).containsExactly("record-0", "record-1", "record-2", "record-3");
+            assertThat(positions(journal)).containsExactly(0L, 24L, 48L, 72L);
+        }
+    }
+
+    @Test
+    void checksumMismatchEndsTheSegmentAndLaterRecordsAreNotReplayed() throws IOException {
+        try (EventJournal journal = EventJournal.open(directory, SEGMENT_BYTES)) {
+            append(journal, "record-0", "record-1", "record-2", "record-3", "record-4");
+        }
+        // 세 번째 레코드 본문의 한 바이트만 바꿉니다. 길이와 이후 레코드는 그대로입니다.
+        flipByte(segmentAt(0), 2L * RECORD_BYTES + HEADER_BYTES + 3);
+
+        try (EventJournal journal = EventJournal.open(directory, SEGMENT_BYTES)) {
+            assertThat(journal.position()).isEqualTo(2L * RECORD_BYTES);
+            assertThat(bodies(journal, 0)).containsExactly("record-0", "record-1");
+
+            // 손상 지점 뒤의 옛 레코드는 새 세그먼트에 덮여 다시 읽히지 않습니다.
+            append(journal, "record-5");
+            assertThat(bodies(journal, 0)).containsExactly("record-0", "record-1", "record-5");
+            assertThat(bodies(journal, 2L * RECORD_BYTES)).containsExactly("record-5");
+        }
+    }
+
+    @Test
+    void reopenStartsANewSegmentAtTheEndOfTheLastRecord() throws IOException {
+        try (EventJournal journal = EventJournal.open(directory, SEGMENT_BYTES)) {
+            append(journal, "record-0", "record-1");
+        }
+        try (EventJournal journal = EventJournal.open(directory, SEGMENT_BYTES)) {
+            assertThat(journal.getSegmentCount()).isEqualTo(2);
+            assertThat(segmentFiles()).containsExactly(segmentAt(0), segmentAt(2L * RECORD_BYTES));
+            append(journal, "record-2");
+        }
+        // 레코드 없이 닫힌 마지막 세그먼트는 지우고 같은 위치에서 다시 만듭니다.
+        EventJournal.open(directory, SEGMENT_BYTES).close();
+        try (EventJournal journal = EventJournal.open(directory, SEGMENT_BYTES)) {
+            assertThat(segmentFiles()).containsExactly(
+                    segmentAt(0), segmentAt(2L * RECORD_BYTES), segmentAt(3L * RECORD_BYTES));
+            assertThat(bodies(journal, 0)).containsExactly("record-0", "record-1", "record-2");
+            assertThat(bodies(journal, 2L * RECORD_BYTES)).containsExactly("record-2");
+            assertThat(positions(journal)).containsExactly(0L, 24L, 48L);
+        }
+    }
+
+    @Test
+    void fullSegmentRollsOverAndReplayCrossesTheBoundary() throws IOException {
+        int perSegment = SEGMENT_BYTES / RECORD_BYTES;
+        List<String> written = new ArrayList<>();
+        try (EventJournal journal = EventJournal.open(directory, SEGMENT_BYTES)) {
+            for (int i = 0; i < perSegment + 3; i++) {
+                String body = String.format("record-%08d", i);
+                append(journal, body);
+                written.add(body);
+            }
+            assertThat(journal.getSegmentCount()).isEqualTo(2);
+            assertThat(bodies(journal, 0)).containsExactlyElementsOf(written);
+        }
+        try (EventJournal journal = EventJournal.open(directory, SEGMENT_BYTES)) {
+            assertThat(bodies(journal, 0)).containsExactlyElementsOf(written);
+        }
+    }
+
+    private static void append(EventJournal journal, String... bodies) throws IOException {
+        for (String body : bodies) {
+            byte[] bytes = String.format("%-" + BODY_BYTES + "s", body).getBytes(StandardCharsets.US_ASCII);
+            synchronized (journal) {
+                journal.begin(BODY_BYTES).put(bytes);
+                journal.commit();
+            }
+        }
+    }
+
+    private static List<String> bodies(EventJournal journal, long from) throws IOException {
+        List<String> bodies = new ArrayList<>();
+        journal.replay(from, (position, body) -> {
+            byte[] bytes = new byte[body.remaining()];
+            body.get(bytes);
+            bodies.add(new String(bytes, StandardCharsets.US_ASCII).trim());
+        });
+        return bodies;
+    }
+
+    private static List<Long> positions(EventJournal journal) throws IOException {
+        List<Long> positions = new ArrayList<>();
+        journal.replay(0, (position, body) -> positions.add(position));
+        return positions;
+    }
+
+    private Path segmentAt(long base) {
+        return directory.resolve(String.format("%020d.journal", base));
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".journal")).sorted().toList();
+        }
+    }
+
+    private static void flipByte(Path file, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, offset);
+            one.put(0, (byte) (one.get(0) ^ 0x40)).rewind();
+            channel.write(one, offset);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.policethief.service;
+
+import com.policethief.cluster.LocalRoomEventBus;
+import com.policethief.cluster.RoomHandoff;
+import com.policethief.domain.GameRoom;
+import com.policethief.domain.RoomStatus;
+import com.policethief.dto.GameEventMessage;
+import com.policethief.dto.GameEventType;
+import com.policethief.dto.JoinPayload;
+import com.policethief.dto.LeavePayload;
+import com.policethief.dto.PlayerRole;
+import com.policethief.dto.RosterEntry;
+import com.policethief.dto.StartPayload;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 스냅샷과 그 이후 레코드로 방 상태를 다시 만드는지, 스냅샷이 손상되었을 때 남은 레코드만으로 복구하는지 확인합니다.
+ * 운영 중인 노드의 저널 디렉터리를 그대로 복사해 두는 것으로 프로세스가 죽은 시점의 디스크를 흉내 냅니다.
+ * (매핑된 페이지는 같은 프로세스에서 곧바로 읽히므로 복사본에는 그때까지 확정된 레코드가 모두 들어 있습니다.)
+ */
+class GameJournalServiceTest {
+
+    private static final long HANDED_OFF_ROOM = 500L;
+    private static final long HANDED_OFF_PLAYER = 7L;
+
+    @TempDir
+    Path directory;
+
+    private final List<GameJournalService> opened = new ArrayList<>();
+    private Long journaledRoomId;
+    private Long lateRoomId;
+
+    @AfterEach
+    void closeJournals() {
+        opened.forEach(GameJournalService::close);
+    }
+
+    @Test
+    void recoveryLoadsTheSnapshotAndReplaysRecordsAfterIt() throws IOException {
+        Path crashed = runAndCrash();
+
+        GameJournalService.Recovery recovery = node(crashed).journal.recover();
+
+        // 인계받은 방의 멤버는 저널 레코드가 없어 스냅샷에서만 돌아옵니다.
+        assertThat(recovery.getRooms()).extracting(GameRoom::getId)
+                .containsExactlyInAnyOrder(journaledRoomId, HANDED_OFF_ROOM, lateRoomId);
+        Map<Long, RoomHandoff> handoffs = recovery.getHandoffs();
+        assertThat(handoffs.get(HANDED_OFF_ROOM).getMembers()).extracting(RosterEntry::getPlayerId)
+                .containsExactly(HANDED_OFF_PLAYER);
+        assertCrashedRoomState(handoffs.get(journaledRoomId));
+        // 스냅샷 뒤에 만들어졌고 아무도 들어오지 않은 방은 방 목록에만 있습니다.
+        assertThat(handoffs).doesNotContainKey(lateRoomId);
+    }
+
+    @Test
+    void corruptSnapshotFallsBackToReplayingEveryRecord() throws IOException {
+        Path crashed = runAndCrash();
+        Path snapshot = crashed.resolve("snapshot.bin");
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(snapshot, bytes);
+
+        GameJournalService.Recovery recovery = node(crashed).journal.recover();
+
+        // 스냅샷에만 있던 인계 방의 멤버는 잃지만, 방 목록과 레코드로 남은 멤버/방장/진행 상태는 그대로 복구합니다.
+        assertThat(recovery.getRooms()).extracting(GameRoom::getId)
+                .containsExactlyInAnyOrder(journaledRoomId, HANDED_OFF_ROOM, lateRoomId);
+        assertThat(recovery.getHandoffs()).containsOnlyKeys(journaledRoomId);
+        assertCrashedRoomState(recovery.getHandoffs().get(journaledRoomId));
+    }
+
+    @Test
+    void recoveryAfterCleanShutdownMatchesTheLastState() throws IOException {
+        Node node = node(directory);
+        node.journal.recover();
+        node.journal.checkpoint();
+        GameRoom room = node.rooms.createRoom("clean", "test", 37.5, 127.0, null);
+        node.join(room.getId(), 1L, PlayerRole.POLICE);
+        node.journal.close();
+
+        GameJournalService.Recovery recovery = node(directory).journal.recover();
+
+        assertThat(recovery.getRooms()).extracting(GameRoom::getId).containsExactly(room.getId());
+        assertThat(recovery.getHandoffs().get(room.getId()).getMembers()).extracting(RosterEntry::getPlayerId)
+                .containsExactly(1L);
+    }
+
+    /**
+     * 인계받은 방 하나와 저널에 기록되는 방 둘을 만들고 중간에 스냅샷을 남긴 뒤, 스냅샷 이후 이벤트까지 쓰고
+     * 그 시점의 저널 디렉터리를 복사해 돌려줍니다.
+     */
+    private Path runAndCrash() throws IOException {
+        Node node = node(directory);
+        node.journal.recover();
+        node.journal.checkpoint();
+
+        journaledRoomId = node.rooms.createRoom("journaled", "test", 37.5, 127.0, null).getId();
+        node.join(journaledRoomId, 1L, PlayerRole.POLICE);
+        node.join(journaledRoomId, 2L, PlayerRole.THIEF);
+        // 방 목록은 알림을 받을 때 기록되지만, 소유권 인계로 받은 멤버 상태는 기록 없이 생겨 다음 스냅샷부터 남습니다.
+        node.rooms.restoreRoom(new GameRoom(HANDED_OFF_ROOM, "handed-off", "test", 37.5, 127.0, 1L));
+        node.sessions.restoreMember(HANDED_OFF_ROOM,
+                new RosterEntry(HANDED_OFF_PLAYER, 0, PlayerRole.THIEF, "p" + HANDED_OFF_PLAYER));
+        node.journal.checkpoint();
+
+        // 스냅샷 이후: 입장, 시작, 방장 퇴장, 새 방 생성은 레코드로만 남습니다.
+        node.join(journaledRoomId, 3L, PlayerRole.THIEF);
+        node.start(journaledRoomId, 1L);
+        node.leave(journaledRoomId, 1L);
+        lateRoomId = node.rooms.createRoom("late", "test", 37.5, 127.0, null).getId();
+
+        Path crashed = Files.createDirectory(directory.resolve("crashed"));
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.copy(file, crashed.resolve(file.getFileName()));
+            }
+        }
+        return crashed;
+    }
+
+    private static void assertCrashedRoomState(RoomHandoff room) {
+        assertThat(room.getMembers()).extracting(RosterEntry::getPlayerId).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(room.getMembers()).extracting(RosterEntry::getPlayerIndex).containsExactlyInAnyOrder(1, 2);
+        assertThat(room.getHostId()).isEqualTo(2L);
+        assertThat(room.getStatus()).isEqualTo(RoomStatus.PLAYING);
+        assertThat(room.getStartedAt()).isPositive();
+    }
+
+    private Node node(Path journalDirectory) throws IOException {
+        Node node = new Node(journalDirectory);
+        opened.add(node.journal);
+        return node;
+    }
+
+    /**
+     * 저널과 저널이 스냅샷으로 읽는 방 목록/멤버 상태만 갖춘 노드. 명령 처리는 GameCommandService 처럼 상태를 바꾼 뒤 기록합니다.
+     */
+    private static final class Node {
+        private final GameRoomService rooms;
+        private final GameRoomSessionService sessions = new GameRoomSessionService(16);
+        private final GameJournalService journal;
+
+        private Node(Path journalDirectory) throws IOException {
+            LocalRoomEventBus eventBus = new LocalRoomEventBus("node-test", null);
+            GeofenceService geofence = new GeofenceService(eventBus, true, 10_000, 20, 500);
+            rooms = new GameRoomService(eventBus, geofence, 1.0, 5.0, 30.0, 20);
+            rooms.subscribeRegistry();
+            journal = new GameJournalService(eventBus, rooms, sessions, true, journalDirectory.toString(),
+                    1, GameJournalService.FsyncPolicy.NONE, 100, 3600, 24);
+            journal.open();
+        }
+
+        private void join(Long roomId, Long playerId, PlayerRole role) {
+            int memberCount = sessions.joinRoom(roomId, playerId, "p" + playerId, role);
+            journal.append(GameEventMessage.of(GameEventType.JOIN, roomId, playerId, new JoinPayload(
+                    "p" + playerId, memberCount, role, sessions.getPlayerIndex(roomId, playerId))));
+        }
+
+        private void start(Long roomId, Long hostId) {
+            assertThat(sessions.startGame(roomId, hostId, System.currentTimeMillis())).isTrue();
+            journal.append(GameEventMessage.of(GameEventType.START, roomId, hostId, new StartPayload("started")));
+        }
+
+        private void leave(Long roomId, Long playerId) {
+            int memberCount = sessions.leaveRoom(roomId, playerId);
+            journal.append(GameEventMessage.of(GameEventType.LEAVE, roomId, playerId,
+                    new LeavePayload(memberCount, LeavePayload.REASON_LEFT)));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.policethief.service;
+
+import com.policethief.cluster.RoomMembership;
+import com.policethief.dto.PlayerRole;
+import com.policethief.dto.RosterEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 여러 스레드가 동시에 입장/퇴장/위치 갱신(역할/인덱스 조회)을 할 때 방 상태가 어긋나지 않는지 확인합니다.
+ * 스트라이프를 일부러 적게 두어 서로 다른 방이 같은 스트라이프와 해시 맵을 나눠 쓰게 하고,
+ * 방이 적어 마지막 멤버가 나가 방이 제거되는 순간과 새 입장이 자주 겹치게 합니다.
+ * 플레이어는 스레드마다 따로 나누어 가지므로, 각 스레드는 자기 플레이어의 소속과 역할을 정확히 알고 있습니다.
+ */
+class GameRoomSessionServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int PLAYERS_PER_THREAD = 16;
+    private static final int ROOMS = 6;
+    private static final int OPERATIONS = 20_000;
+    private static final PlayerRole[] REQUESTED_ROLES = {null, PlayerRole.POLICE, PlayerRole.THIEF};
+
+    @Test
+    void joinLeaveAndLocationLookupsKeepRoomStateConsistent() throws Exception {
+        GameRoomSessionService service = new GameRoomSessionService(4);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<Map<Long, Map<Long, PlayerRole>>>> workers = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    return churn(service, thread);
+                }));
+            }
+            start.countDown();
+
+            // 스레드마다 끝났을 때 자기 플레이어가 들어가 있는 방과 역할을 합칩니다.
+            Map<Long, Map<Long, PlayerRole>> expected = new HashMap<>();
+            for (Future<Map<Long, Map<Long, PlayerRole>>> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS).forEach((roomId, members) ->
+                        expected.computeIfAbsent(roomId, id -> new HashMap<>()).putAll(members));
+            }
+            expected.values().removeIf(Map::isEmpty);
+
+            assertThat(new HashSet<>(service.getRoomIds())).isEqualTo(expected.keySet());
+            assertThat(service.getRoomCount()).isEqualTo(expected.size());
+            assertThat(service.getPlayerCount())
+                    .isEqualTo(expected.values().stream().mapToInt(Map::size).sum());
+
+            for (long roomId = 0; roomId < ROOMS; roomId++) {
+                Map<Long, PlayerRole> members = expected.getOrDefault(roomId, Map.of());
+                assertRoomMatches(service, roomId, members);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 무작위로 입장/재입장/퇴장하고, 들어가 있는 방에서는 위치 갱신처럼 역할과 인덱스를 읽어 기대값과 맞춰 봅니다.
+     *
+     * @return 방 ID → (플레이어 ID → 역할), 끝났을 때 이 스레드 플레이어의 소속
+     */
+    private Map<Long, Map<Long, PlayerRole>> churn(GameRoomSessionService service, int thread) {
+        SplittableRandom random = new SplittableRandom(thread);
+        Map<Long, Map<Long, PlayerRole>> joined = new HashMap<>();
+        Map<Long, Map<Long, Integer>> indexes = new HashMap<>();
+        for (long roomId = 0; roomId < ROOMS; roomId++) {
+            joined.put(roomId, new HashMap<>());
+            indexes.put(roomId, new HashMap<>());
+        }
+        long firstPlayer = (long) thread * PLAYERS_PER_THREAD + 1;
+
+        for (int n = 0; n < OPERATIONS; n++) {
+            long roomId = random.nextInt(ROOMS);
+            long playerId = firstPlayer + random.nextInt(PLAYERS_PER_THREAD);
+            Map<Long, PlayerRole> members = joined.get(roomId);
+            int operation = random.nextInt(10);
+
+            if (operation < 4) {
+                PlayerRole requested = REQUESTED_ROLES[random.nextInt(REQUESTED_ROLES.length)];
+                boolean rejoin = members.containsKey(playerId);
+                int size = service.joinRoom(roomId, playerId, "p" + playerId, requested);
+                assertThat(size).isPositive();
+                PlayerRole role = service.getRole(roomId, playerId);
+                if (requested != null) {
+                    assertThat(role).isEqualTo(requested);
+                } else if (rejoin) {
+                    assertThat(role).isEqualTo(members.get(playerId));
+                } else {
+                    assertThat(role).isNotNull();
+                }
+                int index = service.getPlayerIndex(roomId, playerId);
+                assertThat(index).isNotNegative();
+                if (rejoin) {
+                    assertThat(index).isEqualTo(indexes.get(roomId).get(playerId));
+                }
+                members.put(playerId, role);
+                indexes.get(roomId).put(playerId, index);
+            } else if (operation < 7) {
+                service.leaveRoom(roomId, playerId);
+                members.remove(playerId);
+                indexes.get(roomId).remove(playerId);
+                assertThat(service.getPlayerIndex(roomId, playerId)).isEqualTo(-1);
+                assertThat(service.getRole(roomId, playerId)).isNull();
+            } else if (!members.isEmpty()) {
+                // 위치 갱신 경로: 들어가 있는 플레이어의 역할과 인덱스는 다른 스레드의 입퇴장과 상관없이 그대로여야 합니다.
+                Long member = members.keySet().iterator().next();
+                assertThat(service.getRole(roomId, member)).isEqualTo(members.get(member));
+                assertThat(service.getPlayerIndex(roomId, member)).isEqualTo(indexes.get(roomId).get(member));
+                RoomMembership membership = service.getMembership(roomId);
+                assertThat(membership).isNotNull();
+                assertThat(membership.contains(member)).isTrue();
+            }
+        }
+        return joined;
+    }
+
+    private void assertRoomMatches(GameRoomSessionService service, long roomId, Map<Long, PlayerRole> members) {
+        List<RosterEntry> roster = service.getRoster(roomId);
+        Map<Long, PlayerRole> actual = new HashMap<>();
+        Set<Integer> seenIndexes = new HashSet<>();
+        int police = 0;
+        for (RosterEntry entry : roster) {
+            actual.put(entry.getPlayerId(), entry.getRole());
+            assertThat(seenIndexes.add(entry.getPlayerIndex()))
+                    .as("room %d index %d is unique", roomId, entry.getPlayerIndex())
+                    .isTrue();
+            if (entry.getRole() == PlayerRole.POLICE) {
+                police++;
+            }
+        }
+        assertThat(actual).as("room %d roster", roomId).isEqualTo(members);
+        assertThat(service.getRoomSize(roomId)).isEqualTo(members.size());
+
+        if (members.isEmpty()) {
+            assertThat(service.getMembership(roomId)).isNull();
+            assertThat(service.getHostId(roomId)).isNull();
+            return;
+        }
+        assertThat(members).containsKey(service.getHostId(roomId));
+        assertThat(service.getMembership(roomId).size()).isEqualTo(members.size());
+
+        // 내부 경찰 수가 명단과 맞으면, 역할 없이 들어온 새 플레이어는 명단 기준으로 적은 쪽에 배정됩니다.
+        PlayerRole balanced = police * 2 < members.size() ? PlayerRole.POLICE : PlayerRole.THIEF;
+        long newcomer = 1_000_000L + roomId;
+        service.joinRoom(roomId, newcomer, "newcomer", null);
+        assertThat(service.getRole(roomId, newcomer)).as("room %d balanced role", roomId).isEqualTo(balanced);
+        service.leaveRoom(roomId, newcomer);
+    }
+}
@@ -0,0 +1,217 @@
+package com.policethief.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 항목이 레벨 경계(256, 16384 tick)와 맨 위 레벨 너머에서도 정확히 마감 tick에 만료되는지,
+ * 취소가 만료와 겹쳐도 취소에 성공한 항목은 만료되지 않는지 확인합니다.
+ * tick 은 1ms, 시작 시각은 0 이라 밀리초가 곧 tick 번호입니다.
+ */
+class HierarchicalTimingWheelTest {
+
+    private static final int LEVEL_0_TICKS = 256;
+    private static final int LEVEL_1_TICKS = 256 * 64;
+    private static final int RACE_TICKS = 50;
+
+    @Test
+    void timersFireExactlyOnLevelBoundaries() {
+        long[] starts = {0, 1, 100, LEVEL_0_TICKS - 1, LEVEL_0_TICKS, LEVEL_1_TICKS - 1, LEVEL_1_TICKS + 7};
+        long[] offsets = {0, 1, LEVEL_0_TICKS - 1, LEVEL_0_TICKS, LEVEL_0_TICKS + 1,
+                LEVEL_1_TICKS - 1, LEVEL_1_TICKS, LEVEL_1_TICKS + 1, LEVEL_1_TICKS * 2 + LEVEL_0_TICKS};
+        for (long start : starts) {
+            HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, 0);
+            // start 직전 tick 까지 처리해 두어 다음에 처리할 tick 이 start 가 되게 합니다.
+            wheel.advance(start - 1, deadline -> { });
+            long last = 0;
+            for (long offset : offsets) {
+                wheel.schedule(start + offset, start + offset);
+                last = Math.max(last, start + offset);
+            }
+            Map<Long, Long> firedAt = runUntil(wheel, start, last);
+            for (long offset : offsets) {
+                assertThat(firedAt.get(start + offset)).as("start %d + %d", start, offset).isEqualTo(start + offset);
+            }
+            assertThat(wheel.size()).isZero();
+        }
+    }
+
+    @Test
+    void randomDeadlinesFireOnTheirTick() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, 0);
+        SplittableRandom random = new SplittableRandom(25);
+        Set<Long> deadlines = new HashSet<>();
+        long now = 0;
+        Map<Long, Long> firedAt = new HashMap<>();
+        // 중간중간 새 항목을 걸어 여러 위치에서 계층 경계를 넘게 합니다.
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 50; i++) {
+                long deadline = now + 1 + random.nextLong(LEVEL_1_TICKS * 4L);
+                if (deadlines.add(deadline)) {
+                    wheel.schedule(deadline, deadline);
+                }
+            }
+            long until = now + random.nextInt(LEVEL_1_TICKS);
+            firedAt.putAll(runUntil(wheel, now + 1, until));
+            now = until;
+        }
+        long last = deadlines.stream().mapToLong(Long::longValue).max().orElseThrow();
+        firedAt.putAll(runUntil(wheel, now + 1, last));
+
+        assertThat(firedAt.keySet()).isEqualTo(deadlines);
+        firedAt.forEach((deadline, tick) -> assertThat(tick).as("deadline %d", deadline).isEqualTo(deadline));
+    }
+
+    @Test
+    void deadlinesBeyondTheTopLevelAreClampedAndRescheduled() {
+        // 레벨 두 개(4칸 x 4칸)라 맨 위 레벨은 16 tick 까지만 덮습니다.
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, 0, 2, 2);
+        long[] deadlines = {15, 16, 17, 40, 100};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+        Map<Long, Long> firedAt = runUntil(wheel, 0, 120);
+        for (long deadline : deadlines) {
+            assertThat(firedAt.get(deadline)).as("deadline %d", deadline).isEqualTo(deadline);
+        }
+
+        // 기본 구성에서도 덮는 범위(2^32 tick)보다 먼 항목은 걸려 있는 동안 만료되지 않습니다.
+        HierarchicalTimingWheel<Long> full = new HierarchicalTimingWheel<>(1, 0);
+        full.schedule(Long.MAX_VALUE / 2, Long.MAX_VALUE / 2);
+        assertThat(full.advance(LEVEL_1_TICKS * 64L, deadline -> { })).isZero();
+        assertThat(full.size()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelBeforeTheFirstAdvanceNeverFires() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 0);
+        HierarchicalTimingWheel.Timer<String> cancelled = wheel.schedule("cancelled", 10);
+        HierarchicalTimingWheel.Timer<String> kept = wheel.schedule("kept", 10);
+
+        assertThat(wheel.cancel(cancelled)).isTrue();
+        assertThat(wheel.cancel(cancelled)).isFalse();
+        List<String> fired = new ArrayList<>();
+        wheel.advance(9, fired::add);
+        assertThat(wheel.size()).isEqualTo(1);
+        wheel.advance(10, fired::add);
+
+        assertThat(fired).containsExactly("kept");
+        assertThat(cancelled.isCancelled()).isTrue();
+        assertThat(kept.isExpired()).isTrue();
+        assertThat(wheel.cancel(kept)).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelAfterInsertionUnlinksFromEveryLevel() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, 0);
+        List<HierarchicalTimingWheel.Timer<Long>> timers = new ArrayList<>();
+        for (long deadline : new long[]{5, LEVEL_0_TICKS + 5, LEVEL_1_TICKS + 5}) {
+            timers.add(wheel.schedule(deadline, deadline));
+        }
+        wheel.advance(0, deadline -> { });
+        assertThat(wheel.size()).isEqualTo(3);
+
+        timers.forEach(wheel::cancel);
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(LEVEL_1_TICKS * 2L, fired::add);
+        assertThat(fired).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 1_000);
+        wheel.advance(5_000, item -> { });
+        assertThat(wheel.nextTickMillis()).isEqualTo(5_010);
+
+        wheel.schedule("past", 2_000);
+        wheel.schedule("before-start", 0);
+        wheel.schedule("now", 5_000);
+        List<String> fired = new ArrayList<>();
+        // 다음 tick 이 시작되기 전까지는 이미 지난 마감도 만료되지 않습니다.
+        assertThat(wheel.advance(5_009, fired::add)).isZero();
+        assertThat(wheel.advance(5_010, fired::add)).isEqualTo(3);
+        assertThat(fired).containsExactlyInAnyOrder("past", "before-start", "now");
+    }
+
+    @Test
+    void cancelRacingWithExpiryNeverFiresACancelledTimer() throws Exception {
+        int rounds = 200;
+        int timersPerRound = 200;
+        ExecutorService canceller = Executors.newSingleThreadExecutor();
+        try {
+            for (int round = 0; round < rounds; round++) {
+                HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1, 0);
+                List<HierarchicalTimingWheel.Timer<Integer>> timers = new ArrayList<>();
+                // 절반은 이미 휠에 걸린 뒤, 절반은 아직 등록 스택에 있을 때 취소와 만료가 겹칩니다.
+                for (int i = 0; i < timersPerRound / 2; i++) {
+                    timers.add(wheel.schedule(i, 1 + i % RACE_TICKS));
+                }
+                wheel.advance(0, item -> { });
+                for (int i = timersPerRound / 2; i < timersPerRound; i++) {
+                    timers.add(wheel.schedule(i, 1 + i % RACE_TICKS));
+                }
+                Set<Integer> fired = ConcurrentHashMap.newKeySet();
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Set<Integer>> cancelling = canceller.submit(() -> {
+                    Set<Integer> cancelled = new HashSet<>();
+                    start.await();
+                    for (HierarchicalTimingWheel.Timer<Integer> timer : timers) {
+                        if (wheel.cancel(timer)) {
+                            cancelled.add(timer.getItem());
+                        }
+                    }
+                    return cancelled;
+                });
+                start.countDown();
+                // 한 tick 씩 나아가며 양보해 CPU 가 하나여도 취소와 만료가 섞이게 합니다.
+                for (int tick = 1; tick <= RACE_TICKS; tick++) {
+                    wheel.advance(tick, fired::add);
+                    Thread.yield();
+                }
+                Set<Integer> cancelled = cancelling.get(10, TimeUnit.SECONDS);
+                // 취소가 모두 끝난 뒤에 남은 항목까지 처리합니다.
+                wheel.advance(RACE_TICKS + 1, fired::add);
+
+                assertThat(Collections.disjoint(fired, cancelled)).isTrue();
+                assertThat(fired.size() + cancelled.size()).isEqualTo(timersPerRound);
+                for (HierarchicalTimingWheel.Timer<Integer> timer : timers) {
+                    assertThat(timer.isCancelled()).isEqualTo(cancelled.contains(timer.getItem()));
+                    assertThat(timer.isExpired()).isEqualTo(fired.contains(timer.getItem()));
+                }
+                assertThat(wheel.size()).isZero();
+            }
+        } finally {
+            canceller.shutdownNow();
+        }
+    }
+
+    /**
+     * from 부터 to 까지 한 tick 씩 처리하며 항목마다 만료된 tick 을 기록합니다.
+     */
+    private static Map<Long, Long> runUntil(HierarchicalTimingWheel<Long> wheel, long from, long to) {
+        Map<Long, Long> firedAt = new HashMap<>();
+        for (long tick = from; tick <= to; tick++) {
+            long now = tick;
+            wheel.advance(now, deadline -> assertThat(firedAt.put(deadline, now)).isNull());
+        }
+        return firedAt;
+    }
+}
@@ -0,0 +1,171 @@
+package com.policethief.service;
+
+import com.policethief.dto.KakaoLoginResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 카카오 사용자 정보 조회의 캐시/요청 합치기/오류 변환
+ * 임의 포트에 띄운 로컬 HTTP 서버를 카카오 API 대신 두고, 서버가 실제로 받은 요청 수로 확인합니다.
+ */
+class KakaoAuthServiceTest {
+
+    private static final int TIMEOUT_MILLIS = 1000;
+    private static final String USER_INFO =
+            "{\"id\":42,\"kakao_account\":{\"profile\":{\"nickname\":\"tester\"},\"email\":\"tester@example.com\"}}";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private KakaoAuthService service;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile long delayMillis;
+    private volatile CountDownLatch release;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v2/user/me", this::handleUserInfo);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        service = new KakaoAuthService(TIMEOUT_MILLIS, "", baseUrl, baseUrl, 10, 300, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.disposeConnections();
+        CountDownLatch latch = release;
+        if (latch != null) {
+            latch.countDown();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handleUserInfo(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            CountDownLatch latch = release;
+            if (latch != null) {
+                latch.await(5, TimeUnit.SECONDS);
+            }
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+            return;
+        }
+        byte[] body = (status == 200 ? USER_INFO : "{\"msg\":\"this access token does not exist\",\"code\":-401}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=UTF-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Test
+    void returnsCachedProfileWithoutCallingKakaoAgain() {
+        KakaoLoginResponse first = service.getUserInfo("token-a").block();
+        KakaoLoginResponse second = service.getUserInfo("token-a").block();
+
+        assertThat(first.getId()).isEqualTo(42L);
+        assertThat(first.getNickname()).isEqualTo("tester");
+        assertThat(second).isSameAs(first);
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void coalescesConcurrentLookupsForSameToken() throws Exception {
+        release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService callerPool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<KakaoLoginResponse>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(callerPool.submit(() -> service.getUserInfo("token-b").block()));
+            }
+            // 첫 요청이 서버에 닿은 뒤 나머지 호출이 모두 진행 중인 조회에 붙을 시간을 주고 응답을 풀어 줍니다.
+            waitForRequests(1);
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<KakaoLoginResponse> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getId()).isEqualTo(42L);
+            }
+        } finally {
+            callerPool.shutdownNow();
+        }
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void mapsRejectedTokenToUnauthorizedAndDoesNotCacheIt() {
+        status = 401;
+
+        assertThatThrownBy(() -> service.getUserInfo("token-c").block())
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+        assertThatThrownBy(() -> service.getUserInfo("token-c").block())
+                .isInstanceOf(ResponseStatusException.class);
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void mapsSlowKakaoToServiceUnavailableAndRetriesAfterwards() {
+        delayMillis = TIMEOUT_MILLIS * 3L;
+
+        assertThatThrownBy(() -> service.getUserInfo("token-d").block())
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // 실패한 조회는 진행 중 목록에서 빠지므로 다음 호출은 새로 조회합니다.
+        delayMillis = 0;
+        KakaoLoginResponse retried = service.getUserInfo("token-d").block();
+        assertThat(retried.getId()).isEqualTo(42L);
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void rejectsBlankTokenWithoutCallingKakao() {
+        assertThatThrownBy(() -> service.getUserInfo(" ").block())
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThat(requests).hasValue(0);
+    }
+
+    private void waitForRequests(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requests.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(requests.get()).isGreaterThanOrEqualTo(expected);
+    }
+}
@@ -0,0 +1,272 @@
+package com.policethief.service;
+
+import com.policethief.domain.GeoPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 격자로 미리 나눠 둔 판정이 꼭짓점을 모두 훑는 짝홀 판정/최소 거리와 같은 답을 내는지 확인합니다.
+ * 오목한 별, 빗살, 꼭짓점이 많은 다각형, 축에 나란한 계단 모양을 쓰고,
+ * 무작위 점과 함께 꼭짓점 바로 옆 점, 칸 경계선 위의 점을 따로 골라 비교합니다.
+ * 경계에서 1mm 안쪽 점은 어느 쪽으로 판정해도 맞으므로 비교하지 않습니다.
+ */
+class PlayAreaTest {
+
+    private static final double ORIGIN_LATITUDE = 37.5665;
+    private static final double ORIGIN_LONGITUDE = 126.9780;
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final double ON_BOUNDARY_METERS = 1e-3;
+
+    @Test
+    void containsMatchesBruteForceOnRandomPoints() {
+        SplittableRandom random = new SplittableRandom(22);
+        for (List<GeoPoint> polygon : polygons()) {
+            Reference reference = new Reference(polygon);
+            PlayArea area = new PlayArea(polygon);
+            for (int i = 0; i < 20_000; i++) {
+                double latitude = reference.minLat - reference.latSpan * 0.1 + random.nextDouble() * reference.latSpan * 1.2;
+                double longitude = reference.minLon - reference.lonSpan * 0.1 + random.nextDouble() * reference.lonSpan * 1.2;
+                assertSameAnswer(area, reference, latitude, longitude);
+            }
+        }
+    }
+
+    @Test
+    void containsMatchesBruteForceNextToVertices() {
+        double[] offsetsMeters = {0.01, 0.5, 3};
+        for (List<GeoPoint> polygon : polygons()) {
+            Reference reference = new Reference(polygon);
+            PlayArea area = new PlayArea(polygon);
+            for (GeoPoint vertex : polygon) {
+                for (double offset : offsetsMeters) {
+                    for (int direction = 0; direction < 16; direction++) {
+                        double angle = Math.PI * 2 * direction / 16;
+                        double latitude = vertex.getLatitude() + Math.sin(angle) * offset / METERS_PER_DEGREE;
+                        double longitude = vertex.getLongitude() + Math.cos(angle) * offset / reference.metersPerDegreeLon;
+                        assertSameAnswer(area, reference, latitude, longitude);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void containsMatchesBruteForceOnCellBorders() {
+        SplittableRandom random = new SplittableRandom(2022);
+        for (List<GeoPoint> polygon : polygons()) {
+            Reference reference = new Reference(polygon);
+            PlayArea area = new PlayArea(polygon);
+            int columns = area.getColumns();
+            int rows = area.getRows();
+            // 세로 경계선과 가로 경계선 위를 따라, 그리고 경계선이 만나는 격자점에서 비교합니다.
+            for (int c = 0; c <= columns; c++) {
+                double longitude = reference.minLon + reference.lonSpan * c / columns;
+                for (int i = 0; i < 50; i++) {
+                    assertSameAnswer(area, reference, reference.minLat + random.nextDouble() * reference.latSpan, longitude);
+                }
+            }
+            for (int r = 0; r <= rows; r++) {
+                double latitude = reference.minLat + reference.latSpan * r / rows;
+                for (int i = 0; i < 50; i++) {
+                    assertSameAnswer(area, reference, latitude, reference.minLon + random.nextDouble() * reference.lonSpan);
+                }
+                for (int c = 0; c <= columns; c++) {
+                    assertSameAnswer(area, reference, latitude, reference.minLon + reference.lonSpan * c / columns);
+                }
+            }
+        }
+    }
+
+    @Test
+    void distanceToBoundaryMatchesBruteForceInBothSearchModes() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (List<GeoPoint> polygon : polygons()) {
+            Reference reference = new Reference(polygon);
+            PlayArea area = new PlayArea(polygon);
+            double cellMeters = Math.min(reference.widthMeters / area.getColumns(), reference.heightMeters / area.getRows());
+            // 칸 몇 개만 보는 좁은 한도(주변 칸만 찾음)와 구역 전체를 덮는 한도(변을 모두 봄)를 함께 씁니다.
+            double[] limits = {cellMeters * 0.5, cellMeters * 2, reference.widthMeters + reference.heightMeters};
+            for (double limit : limits) {
+                for (int i = 0; i < 5_000; i++) {
+                    double latitude = reference.minLat - reference.latSpan * 0.2 + random.nextDouble() * reference.latSpan * 1.4;
+                    double longitude = reference.minLon - reference.lonSpan * 0.2 + random.nextDouble() * reference.lonSpan * 1.4;
+                    double expected = Math.min(limit, reference.distance(latitude, longitude));
+                    assertThat(area.distanceToBoundary(latitude, longitude, limit))
+                            .as("limit %.1f at (%.7f, %.7f)", limit, latitude, longitude)
+                            .isCloseTo(expected, within(1e-6));
+                }
+            }
+        }
+    }
+
+    @Test
+    void manyVertexPolygonUsesABoundedGrid() {
+        List<GeoPoint> polygon = starShaped(5_000, 800, 1_200, 5);
+        PlayArea area = new PlayArea(polygon);
+        assertThat(area.getVertexCount()).isEqualTo(5_000);
+        assertThat(area.getCellCount()).isEqualTo(area.getColumns() * area.getRows()).isLessThanOrEqualTo(1 << 16);
+        assertThat(area.getEdgeCellCount()).isLessThan(area.getCellCount());
+    }
+
+    private static void assertSameAnswer(PlayArea area, Reference reference, double latitude, double longitude) {
+        if (reference.distance(latitude, longitude) < ON_BOUNDARY_METERS) {
+            return;
+        }
+        assertThat(area.contains(latitude, longitude))
+                .as("(%s, %s)", latitude, longitude)
+                .isEqualTo(reference.contains(latitude, longitude));
+    }
+
+    private static List<List<GeoPoint>> polygons() {
+        List<List<GeoPoint>> polygons = new ArrayList<>();
+        polygons.add(star(12, 300, 900));
+        polygons.add(comb(40, 2_000, 1_500));
+        polygons.add(starShaped(1_000, 400, 1_000, 3));
+        polygons.add(staircase(30, 50));
+        return polygons;
+    }
+
+    /**
+     * 안쪽/바깥쪽 꼭짓점이 번갈아 나오는 오목한 별
+     */
+    private static List<GeoPoint> star(int points, double innerMeters, double outerMeters) {
+        List<GeoPoint> vertices = new ArrayList<>();
+        for (int i = 0; i < points * 2; i++) {
+            double angle = Math.PI * i / points;
+            double radius = i % 2 == 0 ? outerMeters : innerMeters;
+            vertices.add(point(Math.cos(angle) * radius, Math.sin(angle) * radius));
+        }
+        return vertices;
+    }
+
+    /**
+     * 밑변 위로 가늘고 긴 이가 teeth 개 솟은 빗 모양. 이 사이의 홈이 깊어 한 행에 경계가 여러 번 지나갑니다.
+     */
+    private static List<GeoPoint> comb(int teeth, double widthMeters, double heightMeters) {
+        List<GeoPoint> vertices = new ArrayList<>();
+        double pitch = widthMeters / teeth;
+        double baseHeight = heightMeters * 0.1;
+        vertices.add(point(0, 0));
+        vertices.add(point(widthMeters, 0));
+        for (int t = teeth - 1; t >= 0; t--) {
+            double right = (t + 1) * pitch;
+            double left = t * pitch + pitch * 0.4;
+            vertices.add(point(right, heightMeters));
+            vertices.add(point(left, heightMeters * 0.95));
+            vertices.add(point(left - pitch * 0.1, baseHeight));
+        }
+        return vertices;
+    }
+
+    /**
+     * 각도 순으로 반지름이 들쭉날쭉한 꼭짓점이 많은 다각형
+     */
+    private static List<GeoPoint> starShaped(int vertexCount, double minRadius, double maxRadius, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<GeoPoint> vertices = new ArrayList<>();
+        for (int i = 0; i < vertexCount; i++) {
+            double angle = Math.PI * 2 * i / vertexCount;
+            double radius = minRadius + random.nextDouble() * (maxRadius - minRadius);
+            vertices.add(point(Math.cos(angle) * radius, Math.sin(angle) * radius));
+        }
+        return vertices;
+    }
+
+    /**
+     * 변이 모두 축에 나란한 계단. 수평 변과 꼭짓점이 칸 경계/칸 중심 높이와 겹치기 쉽습니다.
+     */
+    private static List<GeoPoint> staircase(int steps, double stepMeters) {
+        List<GeoPoint> vertices = new ArrayList<>();
+        vertices.add(point(0, 0));
+        vertices.add(point(steps * stepMeters, 0));
+        for (int s = steps; s > 0; s--) {
+            vertices.add(point(s * stepMeters, (steps - s + 1) * stepMeters));
+            vertices.add(point((s - 1) * stepMeters, (steps - s + 1) * stepMeters));
+        }
+        return vertices;
+    }
+
+    private static GeoPoint point(double eastMeters, double northMeters) {
+        double metersPerDegreeLon = METERS_PER_DEGREE * Math.cos(Math.toRadians(ORIGIN_LATITUDE));
+        return new GeoPoint(ORIGIN_LATITUDE + northMeters / METERS_PER_DEGREE,
+                ORIGIN_LONGITUDE + eastMeters / metersPerDegreeLon);
+    }
+
+    /**
+     * 모든 변을 훑는 판정. 짝홀 판정은 위경도 그대로, 거리는 PlayArea 와 같은 평면 근사(외곽 사각형 중심 기준)로 잽니다.
+     */
+    private static final class Reference {
+        private final double[] lats;
+        private final double[] lons;
+        private final double minLat;
+        private final double minLon;
+        private final double latSpan;
+        private final double lonSpan;
+        private final double originLat;
+        private final double originLon;
+        private final double metersPerDegreeLon;
+        private final double widthMeters;
+        private final double heightMeters;
+
+        private Reference(List<GeoPoint> polygon) {
+            int n = polygon.size();
+            lats = new double[n];
+            lons = new double[n];
+            double minLatitude = Double.MAX_VALUE;
+            double maxLatitude = -Double.MAX_VALUE;
+            double minLongitude = Double.MAX_VALUE;
+            double maxLongitude = -Double.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                lats[i] = polygon.get(i).getLatitude();
+                lons[i] = polygon.get(i).getLongitude();
+                minLatitude = Math.min(minLatitude, lats[i]);
+                maxLatitude = Math.max(maxLatitude, lats[i]);
+                minLongitude = Math.min(minLongitude, lons[i]);
+                maxLongitude = Math.max(maxLongitude, lons[i]);
+            }
+            minLat = minLatitude;
+            minLon = minLongitude;
+            latSpan = maxLatitude - minLatitude;
+            lonSpan = maxLongitude - minLongitude;
+            originLat = (minLatitude + maxLatitude) / 2;
+            originLon = (minLongitude + maxLongitude) / 2;
+            metersPerDegreeLon = METERS_PER_DEGREE * Math.cos(Math.toRadians(originLat));
+            widthMeters = lonSpan * metersPerDegreeLon;
+            heightMeters = latSpan * METERS_PER_DEGREE;
+        }
+
+        private boolean contains(double latitude, double longitude) {
+            boolean inside = false;
+            for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+                if ((lats[i] > latitude) != (lats[j] > latitude)
+                        && longitude < lons[i] + (latitude - lats[i]) * (lons[j] - lons[i]) / (lats[j] - lats[i])) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        private double distance(double latitude, double longitude) {
+            double px = (longitude - originLon) * metersPerDegreeLon;
+            double py = (latitude - originLat) * METERS_PER_DEGREE;
+            double best = Double.MAX_VALUE;
+            for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+                double x1 = (lons[j] - originLon) * metersPerDegreeLon;
+                double y1 = (lats[j] - originLat) * METERS_PER_DEGREE;
+                double dx = (lons[i] - originLon) * metersPerDegreeLon - x1;
+                double dy = (lats[i] - originLat) * METERS_PER_DEGREE - y1;
+                double lengthSquared = dx * dx + dy * dy;
+                double t = lengthSquared > 0 ? ((px - x1) * dx + (py - y1) * dy) / lengthSquared : 0;
+                t = Math.max(0, Math.min(1, t));
+                best = Math.min(best, Math.hypot(px - (x1 + t * dx), py - (y1 + t * dy)));
+            }
+            return best;
+        }
+    }
+}
@@ -11,6 +11,8 @@ interface KakaoLoginResponse {
   email?: string
   profileImageUrl?: string
   thumbnailImageUrl?: string
+  sessionToken?: string
+  sessionTokenExpiresAt?: number // epoch 밀리초
 }
 
 export default function KakaoCallbackPage() {
@@ -36,6 +38,14 @@ export default function KakaoCallbackPage() {
           redirectUri,
         })
         setKakaoUser(response.data)
+        // 웹소켓 CONNECT 때 보낼 게임 세션 토큰과, 서버가 그 토큰으로 확인하는 플레이어 ID/닉네임
+        if (response.data.sessionToken) {
+          sessionStorage.setItem('sessionToken', response.data.sessionToken)
+          sessionStorage.setItem('sessionPlayerId', String(response.data.id))
+          if (response.data.nickname) {
+            sessionStorage.setItem('sessionNickname', response.data.nickname)
+          }
+        }
       } catch (err) {
         setError('카카오 로그인 처리에 실패했습니다.')
       } finally {
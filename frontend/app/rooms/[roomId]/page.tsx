@@ -3,9 +3,20 @@
 import { useEffect, useState, useCallback } from 'react';
 import { useParams, useRouter } from 'next/navigation';
 import { useWebSocket } from '@/hooks/useWebSocket';
-import { GameRoom, GameEventMessage, GameEventType, Player } from '@/types/game';
+import { GameRoom, GameEventMessage, GameEventType, Player, PlayerPosition } from '@/types/game';
 import { getGameRoom } from '@/lib/gameApi';
 import { useGeolocation } from '@/hooks/useGeolocation';
+import { extrapolatePosition } from '@/lib/geolocation';
+
+/** 받은 뒤 지난 시간만큼 속도/방향대로 밀어 낸 위치 (소수 다섯째 자리, 약 1m) */
+function formatPosition(player: Player, now: number): string {
+  const { latitude, longitude } = extrapolatePosition(
+    { latitude: player.latitude!, longitude: player.longitude!, speed: player.speed, heading: player.heading },
+    player.positionReceivedAt ?? now,
+    now
+  );
+  return `${latitude.toFixed(5)}, ${longitude.toFixed(5)}`;
+}
 
 export default function GameRoomPage() {
   const params = useParams();
@@ -18,11 +29,30 @@ export default function GameRoomPage() {
   const [joined, setJoined] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
+  // 서버가 알려 주는 위치 전송 주기 (상대가 가까우면 짧고, 멈춰 있으면 김)
+  const [locationIntervalMs, setLocationIntervalMs] = useState(5000);
+  // 놀이 구역을 벗어났을 때 경계까지 거리 (m, 구역 안이면 null)
+  const [outOfBoundsMeters, setOutOfBoundsMeters] = useState<number | null>(null);
+  // 서버 기준 라운드 종료 시각 (epoch 밀리초, 진행 중이 아니거나 제한 시간이 없으면 null)
+  const [roundEndsAt, setRoundEndsAt] = useState<number | null>(null);
+  const [remainingSeconds, setRemainingSeconds] = useState<number | null>(null);
+  // 위치를 밀어 그리는 기준 시각 (움직이는 플레이어가 있을 때만 1초마다 갱신)
+  const [now, setNow] = useState(() => Date.now());
   
-  // 현재 사용자 정보 (임시 - 실제로는 인증에서 가져와야 함)
-  const [currentUser] = useState({
-    id: Math.floor(Math.random() * 10000),
-    nickname: `플레이어${Math.floor(Math.random() * 1000)}`,
+  // 현재 사용자 정보 (카카오 로그인 때 받은 ID, 서버가 세션 토큰으로 확인하는 ID와 같아야 내 이벤트를 알아봄.
+  // 로그인하지 않았으면 임시 값이며, 이때는 서버가 토큰 없는 연결을 허용하는 개발 설정에서만 동작)
+  const [currentUser] = useState(() => {
+    const storedId = typeof window !== 'undefined' ? sessionStorage.getItem('sessionPlayerId') : null;
+    if (storedId) {
+      return {
+        id: Number(storedId),
+        nickname: sessionStorage.getItem('sessionNickname') ?? `플레이어${storedId}`,
+      };
+    }
+    return {
+      id: Math.floor(Math.random() * 10000),
+      nickname: `플레이어${Math.floor(Math.random() * 1000)}`,
+    };
   });
 
   // 게임 이벤트 처리
@@ -65,8 +95,26 @@ export default function GameRoomPage() {
         
       case GameEventType.START:
         // 게임 시작
+        setRoundEndsAt((message.data.endsAt as number | null) ?? null);
         alert('게임이 시작되었습니다!');
         break;
+
+      case GameEventType.COUNTDOWN:
+        // 남은 시간 알림마다 서버 시계로 다시 맞춤
+        setRoundEndsAt((message.data.endsAt as number | null) ?? null);
+        break;
+
+      case GameEventType.ROUND_END:
+        setRoundEndsAt(null);
+        alert('라운드가 끝났습니다!');
+        break;
+
+      case GameEventType.JAIL_RELEASE:
+        // 수감 해제 (본인일 때만 알림)
+        if (message.playerId === currentUser.id) {
+          alert('수감 시간이 끝나 다시 움직일 수 있습니다.');
+        }
+        break;
         
       case GameEventType.LOCATION:
         // 위치 업데이트
@@ -83,10 +131,63 @@ export default function GameRoomPage() {
         );
         break;
         
+      case GameEventType.POSITIONS:
+        // 틱 단위로 묶인 위치 업데이트 (바뀐 플레이어만 오며, 그리는 쪽은 extrapolatePosition 으로 밀어 그림)
+        const receivedAt = Date.now();
+        const positions = new Map<number, PlayerPosition>(
+          (message.data.positions as PlayerPosition[]).map((pos) => [pos.playerId, pos])
+        );
+        // 근접 반경을 벗어나 다시 숨겨진 상대는 마지막 위치를 지워 더 이상 그리지 않음
+        const hidden = new Set<number>((message.data.hidden as number[] | undefined) ?? []);
+        setPlayers((prev) =>
+          prev.map((p) => {
+            if (hidden.has(p.id)) {
+              return {
+                ...p,
+                latitude: undefined,
+                longitude: undefined,
+                speed: undefined,
+                heading: undefined,
+                positionReceivedAt: undefined,
+              };
+            }
+            const pos = positions.get(p.id);
+            return pos
+              ? {
+                  ...p,
+                  latitude: pos.latitude,
+                  longitude: pos.longitude,
+                  speed: pos.speed,
+                  heading: pos.heading,
+                  positionReceivedAt: receivedAt,
+                }
+              : p;
+          })
+        );
+        break;
+        
+      case GameEventType.LOCATION_INTERVAL:
+        // 서버 권장 위치 전송 주기
+        setLocationIntervalMs(message.data.intervalMillis as number);
+        break;
+
+      case GameEventType.OUT_OF_BOUNDS:
+        // 놀이 구역 이탈 (본인일 때만 경고)
+        if (message.playerId === currentUser.id) {
+          setOutOfBoundsMeters(message.data.distanceMeters as number);
+        }
+        break;
+
+      case GameEventType.BACK_IN_BOUNDS:
+        if (message.playerId === currentUser.id) {
+          setOutOfBoundsMeters(null);
+        }
+        break;
+        
       default:
         console.log('알 수 없는 이벤트 타입:', message.type);
     }
-  }, [room]);
+  }, [room, currentUser.id]);
 
   // 웹소켓 연결
   const {
@@ -110,6 +211,26 @@ export default function GameRoomPage() {
     },
   });
 
+  // 라운드 남은 시간 표시 (종료 판정은 서버의 ROUND_END 로만 함)
+  useEffect(() => {
+    if (roundEndsAt === null) {
+      setRemainingSeconds(null);
+      return;
+    }
+    const update = () => setRemainingSeconds(Math.max(0, Math.round((roundEndsAt - Date.now()) / 1000)));
+    update();
+    const timer = setInterval(update, 1000);
+    return () => clearInterval(timer);
+  }, [roundEndsAt]);
+
+  // 서버는 예측에서 벗어난 플레이어만 다시 보내므로, 움직이는 플레이어는 받은 위치에서 계속 밀어 그림
+  const hasMovingPlayer = players.some((p) => p.positionReceivedAt !== undefined && !!p.speed);
+  useEffect(() => {
+    if (!hasMovingPlayer) return;
+    const timer = setInterval(() => setNow(Date.now()), 1000);
+    return () => clearInterval(timer);
+  }, [hasMovingPlayer]);
+
   // 게임방 정보 조회
   useEffect(() => {
     const fetchRoom = async () => {
@@ -147,7 +268,7 @@ export default function GameRoomPage() {
     }
   };
 
-  // 위치 업데이트 (5초마다)
+  // 위치 업데이트 (서버가 알려 준 주기마다, 처음에는 5초)
   useEffect(() => {
     if (!joined || !location || !isConnected) return;
 
@@ -158,10 +279,10 @@ export default function GameRoomPage() {
         location.longitude,
         location.accuracy
       );
-    }, 5000);
+    }, locationIntervalMs);
 
     return () => clearInterval(interval);
-  }, [joined, location, isConnected, currentUser.id, updateLocation]);
+  }, [joined, location, isConnected, currentUser.id, updateLocation, locationIntervalMs]);
 
   // 로딩 상태
   if (loading) {
@@ -213,6 +334,20 @@ export default function GameRoomPage() {
           </div>
         </div>
 
+        {/* 라운드 남은 시간 */}
+        {remainingSeconds !== null && (
+          <div className="mb-6 p-4 bg-blue-50 border border-blue-200 rounded-lg text-blue-700">
+            ⏱️ 남은 시간 {Math.floor(remainingSeconds / 60)}:{String(remainingSeconds % 60).padStart(2, '0')}
+          </div>
+        )}
+
+        {/* 놀이 구역 이탈 경고 */}
+        {outOfBoundsMeters !== null && (
+          <div className="mb-6 p-4 bg-red-50 border border-red-200 rounded-lg text-red-700">
+            ⚠️ 놀이 구역을 벗어났습니다. 경계까지 약 {Math.round(outOfBoundsMeters)}m 돌아가세요.
+          </div>
+        )}
+
         {/* 연결 상태 */}
         <div className="mb-6 p-4 bg-white rounded-lg shadow">
           <div className="flex items-center justify-between">
@@ -302,7 +437,7 @@ export default function GameRoomPage() {
                     </div>
                     {player.latitude && player.longitude && (
                       <div className="text-sm text-gray-600">
-                        📍 위치 공유 중
+                        📍 {formatPosition(player, now)}
                       </div>
                     )}
                   </div>
@@ -1,5 +1,5 @@
 import { useEffect, useRef, useState, useCallback } from 'react';
-import { Client } from '@stomp/stompjs';
+import { Client, IMessage } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
 import { GameEventMessage } from '@/types/game';
 
@@ -25,9 +25,12 @@ export const useWebSocket = ({
   // 웹소켓 연결
   useEffect(() => {
     const wsUrl = process.env.NEXT_PUBLIC_WS_URL || 'http://localhost:8080/ws';
+    // 로그인 때 받은 세션 토큰이 있으면 CONNECT 헤더로 보내 서버가 플레이어를 확인하게 합니다.
+    const sessionToken = typeof window !== 'undefined' ? sessionStorage.getItem('sessionToken') : null;
     
     const client = new Client({
       webSocketFactory: () => new SockJS(wsUrl),
+      connectHeaders: sessionToken ? { Authorization: `Bearer ${sessionToken}` } : {},
       reconnectDelay: 5000,
       heartbeatIncoming: 4000,
       heartbeatOutgoing: 4000,
@@ -37,8 +40,7 @@ export const useWebSocket = ({
         setIsConnected(true);
         setError(null);
         
-        // 게임방 이벤트 구독
-        client.subscribe(`/topic/game/${roomId}`, (message) => {
+        const handleFrame = (message: IMessage) => {
           try {
             const gameEvent: GameEventMessage = JSON.parse(message.body);
             console.log('게임 이벤트 수신:', gameEvent);
@@ -46,7 +48,12 @@ export const useWebSocket = ({
           } catch (err) {
             console.error('메시지 파싱 오류:', err);
           }
-        });
+        };
+
+        // 게임방 이벤트 구독
+        client.subscribe(`/topic/game/${roomId}`, handleFrame);
+        // 내 역할에서 볼 수 있는 위치만 담긴 프레임 구독
+        client.subscribe(`/user/queue/game/${roomId}`, handleFrame);
         
         onConnect?.();
       },
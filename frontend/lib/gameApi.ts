@@ -1,5 +1,5 @@
 import axios from 'axios';
-import { GameRoom } from '@/types/game';
+import { GameRoom, TagCode } from '@/types/game';
 
 const apiBaseUrl = process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080';
 
@@ -44,3 +44,15 @@ export const startGameRoom = async (roomId: number): Promise<void> => {
   }
 };
 
+// 내 태그 QR 코드 발급 (refreshAt 이 지나면 다시 받아 QR을 바꿈, 세션 토큰 필수)
+export const getTagCode = async (roomId: number, sessionToken: string): Promise<TagCode> => {
+  try {
+    const response = await axios.get<TagCode>(`${apiBaseUrl}/game/${roomId}/tag-code`, {
+      headers: { Authorization: `Bearer ${sessionToken}` },
+    });
+    return response.data;
+  } catch (error) {
+    console.error('태그 코드 발급 실패:', error);
+    throw error;
+  }
+};
@@ -183,3 +183,28 @@ export function clearWatch(watchId: WatchId): void {
     navigator.geolocation.clearWatch(watchId)
   }
 }
+
+const METERS_PER_DEGREE = 111_320
+
+/**
+ * 서버가 보낸 위치를 받은 뒤 지난 시간만큼 속도/방향대로 밀어 낸 좌표 (서버 DeadReckoning.extrapolate 와 같은 계산)
+ * - 서버는 이 예측에서 벗어난 플레이어만 다시 보내므로, 그릴 때마다 이 좌표를 사용
+ */
+export function extrapolatePosition(
+  position: { latitude: number; longitude: number; speed?: number | null; heading?: number | null },
+  receivedAt: number,
+  now: number = Date.now()
+): { latitude: number; longitude: number } {
+  const { latitude, longitude, speed, heading } = position
+  if (!speed || heading == null) {
+    return { latitude, longitude }
+  }
+  const seconds = (now - receivedAt) / 1000
+  const radians = (heading * Math.PI) / 180
+  const north = speed * Math.cos(radians) * seconds
+  const east = speed * Math.sin(radians) * seconds
+  return {
+    latitude: latitude + north / METERS_PER_DEGREE,
+    longitude: longitude + east / (METERS_PER_DEGREE * Math.cos((latitude * Math.PI) / 180)),
+  }
+}
@@ -4,6 +4,15 @@ export interface GameRoom {
   name: string;
   location: string;
   playerCount: number;
+  // 놀이 구역 다각형 꼭짓점 (방 하나를 조회할 때만, 없으면 구역 제한 없음)
+  playArea?: { latitude: number; longitude: number }[];
+}
+
+// 태그 QR 코드 (시각은 epoch 밀리초)
+export interface TagCode {
+  code: string;
+  refreshAt: number;
+  validUntil: number;
 }
 
 // 웹소켓 이벤트 타입
@@ -13,8 +22,21 @@ export enum GameEventType {
   START = 'START',
   TAG = 'TAG',
   LOCATION = 'LOCATION',
+  POSITIONS = 'POSITIONS',
+  TAG_REJECTED = 'TAG_REJECTED',
+  PROXIMITY = 'PROXIMITY',
+  ROSTER = 'ROSTER',
+  LOCATION_INTERVAL = 'LOCATION_INTERVAL',
+  OUT_OF_BOUNDS = 'OUT_OF_BOUNDS',
+  BACK_IN_BOUNDS = 'BACK_IN_BOUNDS',
+  COUNTDOWN = 'COUNTDOWN',
+  ROUND_END = 'ROUND_END',
+  JAIL_RELEASE = 'JAIL_RELEASE',
 }
 
+// 플레이어 역할
+export type PlayerRole = 'POLICE' | 'THIEF';
+
 // 웹소켓 메시지 타입
 export interface GameEventMessage {
   type: GameEventType;
@@ -28,6 +50,7 @@ export interface GameEventMessage {
 export interface JoinRoomRequest {
   playerId: number;
   nickname: string;
+  role?: PlayerRole;
 }
 
 // 방 퇴장 요청
@@ -48,11 +71,24 @@ export interface StartGameRequest {
   hostId: number;
 }
 
+// 틱마다 묶여서 전달되는 플레이어 위치
+export interface PlayerPosition {
+  playerId: number;
+  latitude: number;
+  longitude: number;
+  accuracy?: number;
+  speed?: number;   // m/s (없거나 0이면 멈춤)
+  heading?: number; // 진행 방향 0~360 (북쪽 0, 시계 방향)
+}
+
 // 플레이어 정보
 export interface Player {
   id: number;
   nickname: string;
   latitude?: number;
   longitude?: number;
+  speed?: number;
+  heading?: number;
+  positionReceivedAt?: number; // 위치를 받은 시각 (ms, 속도/방향으로 밀어 그릴 때 기준)
 }
 